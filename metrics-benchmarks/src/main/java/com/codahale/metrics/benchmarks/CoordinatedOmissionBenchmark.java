@@ -0,0 +1,66 @@
+package com.codahale.metrics.benchmarks;
+
+import com.codahale.metrics.CoordinatedOmissionReservoir;
+import com.codahale.metrics.LogLinearBucketReservoir;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what correcting for coordinated omission costs: recording a latency within the expected
+ * interval, and recording a ten second stall with an expected interval of one millisecond, either
+ * back-filled a bucket at a time by a {@link CoordinatedOmissionReservoir} or one synthetic value at
+ * a time into a {@link LogLinearBucketReservoir}.
+ */
+@State(Scope.Benchmark)
+public class CoordinatedOmissionBenchmark {
+    private static final long INTERVAL = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final CoordinatedOmissionReservoir corrected = new CoordinatedOmissionReservoir(1, TimeUnit.MILLISECONDS);
+    private final LogLinearBucketReservoir logLinear = new LogLinearBucketReservoir();
+
+    // It's intentionally not declared as final to avoid constant folding
+    private long latency = TimeUnit.MICROSECONDS.toNanos(250);
+    private long stall = TimeUnit.SECONDS.toNanos(10);
+
+    @Benchmark
+    public Object perfWithinInterval() {
+        corrected.update(latency);
+        return corrected;
+    }
+
+    @Benchmark
+    public Object perfStall() {
+        corrected.update(stall);
+        return corrected;
+    }
+
+    @Benchmark
+    public Object perfStallOneByOne() {
+        for (long value = stall; value >= INTERVAL; value -= INTERVAL) {
+            logLinear.update(value);
+        }
+        return logLinear;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + CoordinatedOmissionBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .mode(Mode.AverageTime)
+                .threads(1)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
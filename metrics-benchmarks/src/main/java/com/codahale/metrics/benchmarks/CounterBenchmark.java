@@ -1,8 +1,10 @@
 package com.codahale.metrics.benchmarks;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.ThreadLocalCounter;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
 import org.openjdk.jmh.annotations.State;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.RunnerException;
@@ -13,6 +15,7 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
 public class CounterBenchmark {
 
     private final Counter counter = new Counter();
+    private final ThreadLocalCounter threadLocalCounter = new ThreadLocalCounter();
 
     // It's intentionally not declared as final to avoid constant folding
     private long nextValue = 0xFBFBABBA;
@@ -23,6 +26,28 @@ public class CounterBenchmark {
         return counter;
     }
 
+    @Benchmark
+    public Object perfThreadLocalIncrement() {
+        threadLocalCounter.inc(nextValue);
+        return threadLocalCounter;
+    }
+
+    @State(Scope.Thread)
+    public static class CellState {
+        ThreadLocalCounter.Cell cell;
+
+        @Setup
+        public void setUp(CounterBenchmark benchmark) {
+            cell = benchmark.threadLocalCounter.cell();
+        }
+    }
+
+    @Benchmark
+    public Object perfThreadLocalCellIncrement(CellState state) {
+        state.cell.inc(nextValue);
+        return state.cell;
+    }
+
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder()
                 .include(".*" + CounterBenchmark.class.getSimpleName() + ".*")
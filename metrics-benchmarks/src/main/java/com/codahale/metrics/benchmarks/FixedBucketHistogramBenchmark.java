@@ -0,0 +1,75 @@
+package com.codahale.metrics.benchmarks;
+
+import com.codahale.metrics.FixedBucketHistogram;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.LogLinearBucketReservoir;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the update of a {@link FixedBucketHistogram} with that of a histogram with a
+ * {@link LogLinearBucketReservoir}. The values are random, so that the branch predictor cannot learn
+ * the path of the bucket search.
+ */
+@State(Scope.Benchmark)
+public class FixedBucketHistogramBenchmark {
+    private static final int VALUES = 1 << 12;
+
+    @Param({"8", "64"})
+    int buckets;
+
+    private FixedBucketHistogram fixedBucket;
+    private final Histogram logLinear = new Histogram(new LogLinearBucketReservoir());
+    private final long[] values = new long[VALUES];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        final long[] bounds = new long[buckets];
+        for (int i = 0; i < buckets; i++) {
+            bounds[i] = TimeUnit.MILLISECONDS.toNanos(10L * (i + 1));
+        }
+        fixedBucket = new FixedBucketHistogram(bounds);
+        final Random random = new Random(42);
+        for (int i = 0; i < VALUES; i++) {
+            values[i] = (long) (random.nextDouble() * bounds[buckets - 1] * 1.1);
+        }
+    }
+
+    @Benchmark
+    public Object perfFixedBucketHistogram() {
+        fixedBucket.update(values[next++ & (VALUES - 1)]);
+        return fixedBucket;
+    }
+
+    @Benchmark
+    public Object perfLogLinearHistogram() {
+        logLinear.update(values[next++ & (VALUES - 1)]);
+        return logLinear;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + FixedBucketHistogramBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .mode(Mode.AverageTime)
+                .threads(4)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
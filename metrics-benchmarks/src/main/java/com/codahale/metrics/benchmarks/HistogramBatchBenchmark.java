@@ -0,0 +1,139 @@
+package com.codahale.metrics.benchmarks;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.LogLinearBucketReservoir;
+import com.codahale.metrics.SlidingTimeWindowArrayReservoir;
+import com.codahale.metrics.SlidingWindowReservoir;
+import com.codahale.metrics.UniformReservoir;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares recording a batch of values with one call per value and with a single batch update.
+ * Scores are per value.
+ */
+@State(Scope.Benchmark)
+public class HistogramBatchBenchmark {
+    private static final int BATCH = 256;
+
+    private final Histogram uniform = new Histogram(new UniformReservoir());
+    private final Histogram exponential = new Histogram(new ExponentiallyDecayingReservoir());
+    private final Histogram sliding = new Histogram(new SlidingWindowReservoir(1000));
+    // a short window, so that the faster variant isn't penalised for holding more values
+    private final Histogram arrTime = new Histogram(new SlidingTimeWindowArrayReservoir(1, TimeUnit.MILLISECONDS));
+    private final Histogram logLinear = new Histogram(new LogLinearBucketReservoir());
+
+    private final long[] values = new long[BATCH];
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = (long) Math.abs(random.nextGaussian() * 1000000);
+        }
+    }
+
+    private Object loop(Histogram histogram) {
+        for (long value : values) {
+            histogram.update(value);
+        }
+        return histogram;
+    }
+
+    private Object batch(Histogram histogram) {
+        histogram.update(values, 0, values.length);
+        return histogram;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Object loopUniform() {
+        return loop(uniform);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Object batchUniform() {
+        return batch(uniform);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Object loopExponentiallyDecaying() {
+        return loop(exponential);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Object batchExponentiallyDecaying() {
+        return batch(exponential);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Object loopSlidingWindow() {
+        return loop(sliding);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Object batchSlidingWindow() {
+        return batch(sliding);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Object loopSlidingTimeWindowArray() {
+        return loop(arrTime);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Object batchSlidingTimeWindowArray() {
+        return batch(arrTime);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Object loopLogLinearBucket() {
+        return loop(logLinear);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public Object batchLogLinearBucket() {
+        return batch(logLinear);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 4}) {
+            Options opt = new OptionsBuilder()
+                .include(".*" + HistogramBatchBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .addProfiler(GCProfiler.class)
+                .measurementTime(TimeValue.seconds(3))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .mode(Mode.AverageTime)
+                .threads(threads)
+                .forks(1)
+                .build();
+
+            new Runner(opt).run();
+        }
+    }
+}
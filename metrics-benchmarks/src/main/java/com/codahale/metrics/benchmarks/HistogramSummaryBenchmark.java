@@ -0,0 +1,60 @@
+package com.codahale.metrics.benchmarks;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.LogLinearBucketReservoir;
+import com.codahale.metrics.SummarizingHistogram;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures what keeping the exact interval summary adds to a histogram update, by comparing
+ * {@link SummarizingHistogram#update(long)} with {@link Histogram#update(long)}. The log-linear
+ * reservoir is used as its updates are cheap enough for the difference to show.
+ */
+@State(Scope.Benchmark)
+public class HistogramSummaryBenchmark {
+
+    private final Histogram histogram = new Histogram(new LogLinearBucketReservoir());
+    private final SummarizingHistogram summarizingHistogram = new SummarizingHistogram(new LogLinearBucketReservoir());
+
+    // It's intentionally not declared as final to avoid constant folding
+    private long nextValue = 0xFBFBABBA;
+
+    @Benchmark
+    public Object withoutSummary() {
+        histogram.update(nextValue);
+        return histogram;
+    }
+
+    @Benchmark
+    public Object withSummary() {
+        summarizingHistogram.update(nextValue);
+        return summarizingHistogram;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 4, 32}) {
+            Options opt = new OptionsBuilder()
+                .include(".*" + HistogramSummaryBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(3))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .mode(Mode.AverageTime)
+                .threads(threads)
+                .forks(1)
+                .build();
+
+            new Runner(opt).run();
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.codahale.metrics.benchmarks;
 
 import com.codahale.metrics.Meter;
+import com.codahale.metrics.MeterTicker;
 import org.openjdk.jmh.annotations.Benchmark;
 import org.openjdk.jmh.annotations.Scope;
 import org.openjdk.jmh.annotations.State;
@@ -13,6 +14,7 @@ import org.openjdk.jmh.runner.options.OptionsBuilder;
 public class MeterBenchmark {
 
     private final Meter meter = new Meter();
+    private final Meter tickedMeter = new Meter(new MeterTicker());
 
     // It's intentionally not declared as final to avoid constant folding
     private long nextValue = 0xFBFBABBA;
@@ -23,6 +25,12 @@ public class MeterBenchmark {
         return meter;
     }
 
+    @Benchmark
+    public Object perfMarkTicked() {
+        tickedMeter.mark(nextValue);
+        return tickedMeter;
+    }
+
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder()
                 .include(".*" + MeterBenchmark.class.getSimpleName() + ".*")
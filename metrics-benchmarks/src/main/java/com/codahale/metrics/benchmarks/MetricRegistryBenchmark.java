@@ -0,0 +1,110 @@
+package com.codahale.metrics.benchmarks;
+
+import com.codahale.metrics.MetricHandle;
+import com.codahale.metrics.MetricName;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.TaggedMetricHandle;
+import com.codahale.metrics.Timer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares contended lookups of existing timers in a {@link MetricRegistry} by dotted names built on
+ * every call, by pre-built {@link MetricName}s, and through a {@link MetricHandle}, with the tenant as
+ * the parameter of the name; and lookups of timers for a tenant, an endpoint and a status by dotted
+ * names built on every call and through a {@link TaggedMetricHandle}.
+ */
+@State(Scope.Benchmark)
+public class MetricRegistryBenchmark {
+    private static final int TENANTS = 64;
+    private static final String[] ENDPOINTS = {"/users", "/orders", "/items", "/search"};
+    private static final String[] STATUSES = {"200", "404", "500", "503"};
+
+    private final MetricRegistry registry = new MetricRegistry();
+    private final MetricName base = MetricName.name(MetricRegistryBenchmark.class, "requests");
+    private final MetricName[] names = new MetricName[TENANTS];
+    private final String[] tenants = new String[TENANTS];
+    private MetricHandle<Timer> handle;
+    private TaggedMetricHandle<Timer> taggedHandle;
+
+    @Setup
+    public void setUp() {
+        handle = registry.timerHandle(base);
+        for (int i = 0; i < TENANTS; i++) {
+            tenants[i] = "tenant" + i;
+            names[i] = base.resolve(tenants[i]);
+            registry.timer(names[i]);
+        }
+        taggedHandle = registry.taggedTimerHandle(base, "tenant", "endpoint", "status");
+        for (String tenant : tenants) {
+            for (String endpoint : ENDPOINTS) {
+                for (String status : STATUSES) {
+                    registry.timer(MetricRegistry.name(MetricRegistryBenchmark.class, "requests", tenant, endpoint, status));
+                    taggedHandle.get(tenant, endpoint, status);
+                }
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TenantState {
+        int next;
+
+        int nextTenant() {
+            return next = (next + 1) & (TENANTS - 1);
+        }
+    }
+
+    @Benchmark
+    public Object perfStringName(TenantState state) {
+        return registry.timer(MetricRegistry.name(MetricRegistryBenchmark.class, "requests", tenants[state.nextTenant()]));
+    }
+
+    @Benchmark
+    public Object perfMetricName(TenantState state) {
+        return registry.timer(names[state.nextTenant()]);
+    }
+
+    @Benchmark
+    public Object perfHandle(TenantState state) {
+        return handle.get(tenants[state.nextTenant()]);
+    }
+
+    @Benchmark
+    public Object perfThreePartStringName(TenantState state) {
+        final int tenant = state.nextTenant();
+        return registry.timer(MetricRegistry.name(MetricRegistryBenchmark.class, "requests", tenants[tenant],
+                ENDPOINTS[tenant & 3], STATUSES[(tenant >> 2) & 3]));
+    }
+
+    @Benchmark
+    public Object perfTaggedHandle(TenantState state) {
+        final int tenant = state.nextTenant();
+        return taggedHandle.get(tenants[tenant], ENDPOINTS[tenant & 3], STATUSES[(tenant >> 2) & 3]);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + MetricRegistryBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .mode(Mode.AverageTime)
+                .threads(4)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+}
@@ -0,0 +1,78 @@
+package com.codahale.metrics.benchmarks;
+
+import com.codahale.metrics.PerThreadReservoir;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.SlidingTimeWindowArrayReservoir;
+import com.codahale.metrics.UniformReservoir;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares updates of shared reservoirs with those of a {@link PerThreadReservoir} wrapping the same
+ * kind of reservoir, from 1 to 96 threads.
+ */
+@State(Scope.Benchmark)
+public class PerThreadReservoirBenchmark {
+
+    @Param({"uniform", "perThreadUniform", "slidingTimeArray", "perThreadSlidingTimeArray"})
+    String reservoirType;
+
+    private Reservoir reservoir;
+
+    // It's intentionally not declared as final to avoid constant folding
+    private long nextValue = 0xFBFBABBA;
+
+    @Setup
+    public void setUp() {
+        switch (reservoirType) {
+            case "uniform":
+                reservoir = new UniformReservoir();
+                break;
+            case "perThreadUniform":
+                reservoir = new PerThreadReservoir(UniformReservoir::new, true);
+                break;
+            case "slidingTimeArray":
+                reservoir = new SlidingTimeWindowArrayReservoir(200, TimeUnit.MILLISECONDS);
+                break;
+            case "perThreadSlidingTimeArray":
+                reservoir = new PerThreadReservoir(() -> new SlidingTimeWindowArrayReservoir(200, TimeUnit.MILLISECONDS));
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown reservoir type: " + reservoirType);
+        }
+    }
+
+    @Benchmark
+    public Object perfUpdate() {
+        reservoir.update(nextValue);
+        return reservoir;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 4, 16, 32, 64, 96}) {
+            Options opt = new OptionsBuilder()
+                .include(".*" + PerThreadReservoirBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .mode(Mode.AverageTime)
+                .threads(threads)
+                .forks(1)
+                .build();
+
+            new Runner(opt).run();
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package com.codahale.metrics.benchmarks;
 
+import com.codahale.metrics.DDSketchReservoir;
 import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.IntervalRecorderReservoir;
+import com.codahale.metrics.LogLinearBucketReservoir;
+import com.codahale.metrics.MultiWindowBucketReservoir;
 import com.codahale.metrics.SlidingTimeWindowArrayReservoir;
 import com.codahale.metrics.SlidingTimeWindowReservoir;
 import com.codahale.metrics.SlidingWindowReservoir;
@@ -26,6 +30,10 @@ public class ReservoirBenchmark {
     private final SlidingWindowReservoir sliding = new SlidingWindowReservoir(1000);
     private final SlidingTimeWindowReservoir slidingTime = new SlidingTimeWindowReservoir(200, TimeUnit.MILLISECONDS);
     private final SlidingTimeWindowArrayReservoir arrTime = new SlidingTimeWindowArrayReservoir(200, TimeUnit.MILLISECONDS);
+    private final LogLinearBucketReservoir logLinear = new LogLinearBucketReservoir();
+    private final DDSketchReservoir ddSketch = new DDSketchReservoir();
+    private final IntervalRecorderReservoir intervalRecorder = new IntervalRecorderReservoir();
+    private final MultiWindowBucketReservoir multiWindow = new MultiWindowBucketReservoir();
 
     // It's intentionally not declared as final to avoid constant folding
     private long nextValue = 0xFBFBABBA;
@@ -60,20 +68,46 @@ public class ReservoirBenchmark {
         return slidingTime;
     }
 
+    @Benchmark
+    public Object perfLogLinearBucketReservoir() {
+        logLinear.update(nextValue);
+        return logLinear;
+    }
+
+    @Benchmark
+    public Object perfDDSketchReservoir() {
+        ddSketch.update(nextValue);
+        return ddSketch;
+    }
+
+    @Benchmark
+    public Object perfIntervalRecorderReservoir() {
+        intervalRecorder.update(nextValue);
+        return intervalRecorder;
+    }
+
+    @Benchmark
+    public Object perfMultiWindowBucketReservoir() {
+        multiWindow.update(nextValue);
+        return multiWindow;
+    }
+
     public static void main(String[] args) throws RunnerException {
-        Options opt = new OptionsBuilder()
-            .include(".*" + ReservoirBenchmark.class.getSimpleName() + ".*")
-            .warmupIterations(10)
-            .measurementIterations(10)
-            .addProfiler(GCProfiler.class)
-            .measurementTime(TimeValue.seconds(3))
-            .timeUnit(TimeUnit.MICROSECONDS)
-            .mode(Mode.AverageTime)
-            .threads(4)
-            .forks(1)
-            .build();
-
-        new Runner(opt).run();
+        for (int threads : new int[]{1, 4, 32}) {
+            Options opt = new OptionsBuilder()
+                .include(".*" + ReservoirBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(10)
+                .measurementIterations(10)
+                .addProfiler(GCProfiler.class)
+                .measurementTime(TimeValue.seconds(3))
+                .timeUnit(TimeUnit.MICROSECONDS)
+                .mode(Mode.AverageTime)
+                .threads(threads)
+                .forks(1)
+                .build();
+
+            new Runner(opt).run();
+        }
     }
 
 }
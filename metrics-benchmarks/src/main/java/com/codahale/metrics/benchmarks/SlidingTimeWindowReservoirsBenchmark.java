@@ -1,7 +1,10 @@
 package com.codahale.metrics.benchmarks;
 
 import com.codahale.metrics.SlidingTimeWindowArrayReservoir;
+import com.codahale.metrics.SlidingTimeWindowBucketReservoir;
 import com.codahale.metrics.SlidingTimeWindowReservoir;
+import com.codahale.metrics.SlidingTimeWindowRingReservoir;
+import com.codahale.metrics.SlidingTimeWindowSamplingReservoir;
 import com.codahale.metrics.Snapshot;
 
 import org.openjdk.jmh.annotations.Benchmark;
@@ -26,6 +29,9 @@ import java.util.concurrent.TimeUnit;
 public class SlidingTimeWindowReservoirsBenchmark {
     private final SlidingTimeWindowReservoir slidingTime = new SlidingTimeWindowReservoir(200, TimeUnit.MILLISECONDS);
     private final SlidingTimeWindowArrayReservoir arrTime = new SlidingTimeWindowArrayReservoir(200, TimeUnit.MILLISECONDS);
+    private final SlidingTimeWindowRingReservoir ringTime = new SlidingTimeWindowRingReservoir(200, TimeUnit.MILLISECONDS);
+    private final SlidingTimeWindowSamplingReservoir samplingTime = new SlidingTimeWindowSamplingReservoir(200, TimeUnit.MILLISECONDS);
+    private final SlidingTimeWindowBucketReservoir bucketTime = new SlidingTimeWindowBucketReservoir(200, TimeUnit.MILLISECONDS);
 
     // It's intentionally not declared as final to avoid constant folding
     private long nextValue = 0xFBFBABBA;
@@ -62,6 +68,54 @@ public class SlidingTimeWindowReservoirsBenchmark {
         return snapshot;
     }
 
+    @Benchmark
+    @Group("ringTime")
+    @GroupThreads(3)
+    public Object ringTimeAddMeasurement() {
+        ringTime.update(nextValue);
+        return ringTime;
+    }
+
+    @Benchmark
+    @Group("ringTime")
+    @GroupThreads(1)
+    public Object ringTimeRead() {
+        Snapshot snapshot = ringTime.getSnapshot();
+        return snapshot;
+    }
+
+    @Benchmark
+    @Group("samplingTime")
+    @GroupThreads(3)
+    public Object samplingTimeAddMeasurement() {
+        samplingTime.update(nextValue);
+        return samplingTime;
+    }
+
+    @Benchmark
+    @Group("samplingTime")
+    @GroupThreads(1)
+    public Object samplingTimeRead() {
+        Snapshot snapshot = samplingTime.getSnapshot();
+        return snapshot;
+    }
+
+    @Benchmark
+    @Group("bucketTime")
+    @GroupThreads(3)
+    public Object bucketTimeAddMeasurement() {
+        bucketTime.update(nextValue);
+        return bucketTime;
+    }
+
+    @Benchmark
+    @Group("bucketTime")
+    @GroupThreads(1)
+    public Object bucketTimeRead() {
+        Snapshot snapshot = bucketTime.getSnapshot();
+        return snapshot;
+    }
+
     public static void main(String[] args) throws RunnerException {
         Options opt = new OptionsBuilder()
             .include(".*" + SlidingTimeWindowReservoirsBenchmark.class.getSimpleName() + ".*")
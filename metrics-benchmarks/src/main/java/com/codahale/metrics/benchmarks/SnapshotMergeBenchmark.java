@@ -0,0 +1,89 @@
+package com.codahale.metrics.benchmarks;
+
+import com.codahale.metrics.BucketedSnapshot;
+import com.codahale.metrics.LogLinearBucketReservoir;
+import com.codahale.metrics.UniformReservoir;
+import com.codahale.metrics.UniformSnapshot;
+import com.codahale.metrics.WeightedSnapshot;
+import com.codahale.metrics.WeightedSnapshot.WeightedSample;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures merging the snapshots of many shards of a histogram, as a reporter would on every report.
+ */
+@State(Scope.Benchmark)
+public class SnapshotMergeBenchmark {
+
+    @Param({"16", "256"})
+    private int shards;
+
+    private final List<UniformSnapshot> uniform = new ArrayList<>();
+    private final List<WeightedSnapshot> weighted = new ArrayList<>();
+    private final List<BucketedSnapshot> bucketed = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        for (int i = 0; i < shards; i++) {
+            final UniformReservoir uniformReservoir = new UniformReservoir();
+            final LogLinearBucketReservoir bucketReservoir = new LogLinearBucketReservoir();
+            final List<WeightedSample> samples = new ArrayList<>();
+            for (int j = 0; j < 1028; j++) {
+                final long value = (long) Math.abs(random.nextGaussian() * 1000000);
+                uniformReservoir.update(value);
+                bucketReservoir.update(value);
+                samples.add(new WeightedSample(value, random.nextDouble()));
+            }
+            uniform.add((UniformSnapshot) uniformReservoir.getSnapshot());
+            weighted.add(new WeightedSnapshot(samples));
+            bucketed.add(bucketReservoir.exportState());
+        }
+    }
+
+    @Benchmark
+    public Object mergeUniform() {
+        return UniformSnapshot.merge(uniform);
+    }
+
+    @Benchmark
+    public Object mergeWeighted() {
+        return WeightedSnapshot.merge(weighted);
+    }
+
+    @Benchmark
+    public Object mergeBucketed() {
+        return BucketedSnapshot.merge(bucketed);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + SnapshotMergeBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .addProfiler(GCProfiler.class)
+                .timeUnit(TimeUnit.MICROSECONDS)
+                .mode(Mode.AverageTime)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
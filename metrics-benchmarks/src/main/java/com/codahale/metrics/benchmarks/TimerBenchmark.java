@@ -0,0 +1,85 @@
+package com.codahale.metrics.benchmarks;
+
+import com.codahale.metrics.LogLinearBucketReservoir;
+import com.codahale.metrics.SampledTimer;
+import com.codahale.metrics.Timer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the ways of timing an event. Run with {@link GCProfiler} to see which of them allocate;
+ * the timer uses a {@link LogLinearBucketReservoir}, which does not allocate itself. The contexts are
+ * handed to a {@link Blackhole}, as at call sites where they escape, so that escape analysis does not
+ * hide their allocation. The sampled variants use a {@link SampledTimer} which measures one in a
+ * hundred events.
+ */
+@State(Scope.Benchmark)
+public class TimerBenchmark {
+
+    private final Timer timer = new Timer(new LogLinearBucketReservoir());
+    private final Timer sampled = new SampledTimer(new LogLinearBucketReservoir(), 100);
+
+    @Benchmark
+    public long perfContext(Blackhole blackhole) {
+        final Timer.Context context = timer.time();
+        blackhole.consume(context);
+        return context.stop();
+    }
+
+    @Benchmark
+    public long perfReusedContext(Blackhole blackhole) {
+        final Timer.Context context = timer.timeReusingContext();
+        blackhole.consume(context);
+        return context.stop();
+    }
+
+    @Benchmark
+    public long perfStartStop() {
+        final long start = timer.start();
+        return timer.stop(start);
+    }
+
+    @Benchmark
+    public Object perfSupplier() {
+        return timer.timeSupplier(() -> timer);
+    }
+
+    @Benchmark
+    public long perfSampledStartStop() {
+        final long start = sampled.start();
+        return sampled.stop(start);
+    }
+
+    @Benchmark
+    public Object perfSampledSupplier() {
+        return sampled.timeSupplier(() -> sampled);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+                .include(".*" + TimerBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(3)
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(1))
+                .addProfiler(GCProfiler.class)
+                .timeUnit(TimeUnit.NANOSECONDS)
+                .mode(Mode.AverageTime)
+                .threads(4)
+                .forks(1)
+                .build();
+
+        new Runner(opt).run();
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.codahale.metrics.benchmarks;
+
+import com.codahale.metrics.StripedUniformReservoir;
+import com.codahale.metrics.UniformReservoir;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares how the throughput of {@link UniformReservoir} and {@link StripedUniformReservoir}
+ * scales with the number of updating threads.
+ */
+@State(Scope.Benchmark)
+public class UniformReservoirBenchmark {
+
+    private final UniformReservoir uniform = new UniformReservoir();
+    private final StripedUniformReservoir striped = new StripedUniformReservoir();
+
+    // It's intentionally not declared as final to avoid constant folding
+    private long nextValue = 0xFBFBABBA;
+
+    @Benchmark
+    public Object perfUniformReservoir() {
+        uniform.update(nextValue);
+        return uniform;
+    }
+
+    @Benchmark
+    public Object perfStripedUniformReservoir() {
+        striped.update(nextValue);
+        return striped;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        for (int threads : new int[]{1, 2, 4, 8, 16, 32, 64}) {
+            Options opt = new OptionsBuilder()
+                .include(".*" + UniformReservoirBenchmark.class.getSimpleName() + ".*")
+                .warmupIterations(5)
+                .measurementIterations(5)
+                .measurementTime(TimeValue.seconds(3))
+                .timeUnit(TimeUnit.MICROSECONDS)
+                .mode(Mode.Throughput)
+                .threads(threads)
+                .forks(1)
+                .build();
+
+            new Runner(opt).run();
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.codahale.metrics.benchmarks;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.StripedExponentiallyDecayingReservoir;
+import com.codahale.metrics.WeightedSnapshot;
+import com.codahale.metrics.WeightedSnapshot.SampleBuffer;
+import com.codahale.metrics.WeightedSnapshot.WeightedSample;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures building weighted snapshots of full reservoirs, as a reporter does for every timer on
+ * every report. Run it with the GC profiler to see the allocations per snapshot.
+ */
+@State(Scope.Benchmark)
+public class WeightedSnapshotBenchmark {
+
+    private final ExponentiallyDecayingReservoir exponential = new ExponentiallyDecayingReservoir();
+    private final StripedExponentiallyDecayingReservoir striped = new StripedExponentiallyDecayingReservoir();
+    private final List<WeightedSample> samples = new ArrayList<>();
+    private final SampleBuffer buffer = new SampleBuffer(1028);
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            final long value = (long) Math.abs(random.nextGaussian() * 1000000);
+            exponential.update(value);
+            striped.update(value);
+        }
+        for (int i = 0; i < 1028; i++) {
+            samples.add(new WeightedSample((long) Math.abs(random.nextGaussian() * 1000000), random.nextDouble()));
+        }
+    }
+
+    @Benchmark
+    public Object fromSamples() {
+        return new WeightedSnapshot(samples);
+    }
+
+    @Benchmark
+    public Object exponentiallyDecaying() {
+        return exponential.getSnapshot();
+    }
+
+    @Benchmark
+    public Object stripedExponentiallyDecaying() {
+        return striped.getSnapshot();
+    }
+
+    @Benchmark
+    public Object exponentiallyDecayingIntoBuffer() {
+        return exponential.getSnapshot(buffer);
+    }
+
+    @Benchmark
+    public Object stripedExponentiallyDecayingIntoBuffer() {
+        return striped.getSnapshot(buffer);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options opt = new OptionsBuilder()
+            .include(".*" + WeightedSnapshotBenchmark.class.getSimpleName() + ".*")
+            .warmupIterations(5)
+            .measurementIterations(5)
+            .addProfiler(GCProfiler.class)
+            .measurementTime(TimeValue.seconds(3))
+            .timeUnit(TimeUnit.MICROSECONDS)
+            .mode(Mode.AverageTime)
+            .forks(1)
+            .build();
+
+        new Runner(opt).run();
+    }
+}
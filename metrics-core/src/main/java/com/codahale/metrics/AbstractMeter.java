@@ -0,0 +1,23 @@
+package com.codahale.metrics;
+
+/**
+ * The events and moving average rates of a {@link Timer}, which it marks for every event it counts.
+ * {@link Meter} keeps a count of its own, while the meter of a {@link CompactTimer} derives it from
+ * the timer's histogram.
+ */
+abstract class AbstractMeter implements Metered {
+    /**
+     * Marks the occurrence of a given number of events.
+     *
+     * @param n the number of events
+     */
+    abstract void mark(long n);
+
+    /**
+     * Marks the occurrence of a given number of events without checking whether the moving averages
+     * need advancing, which saves reading the clock.
+     *
+     * @param n the number of events
+     */
+    abstract void markWithoutTick(long n);
+}
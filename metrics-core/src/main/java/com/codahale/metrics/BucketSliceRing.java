@@ -0,0 +1,235 @@
+package com.codahale.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A fixed ring of time slices, each counting values in the buckets of a {@link LogLinearBuckets}
+ * layout, which holds the bucket counts of a sliding window of time.
+ * <p>
+ * Slice {@code e mod slices} counts the values of epoch {@code e}, the {@code e}-th slice of time
+ * since the ring was created. The first update of an epoch recycles the slice which held the values
+ * of one window earlier: it zeroes the slice's buckets while other updates of the new epoch wait for
+ * it. Buckets are allocated in pages of 64 when first used and kept across recycles.
+ */
+final class BucketSliceRing {
+    private static final int PAGE_BITS = 6;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    // the epoch of a slice which is being recycled
+    private static final long RECYCLING = Long.MIN_VALUE;
+
+    private final Slice[] slices;
+    private final long sliceNanos;
+    private final long startTick;
+
+    /**
+     * Creates a new ring.
+     *
+     * @param slices     the number of slices of the ring
+     * @param sliceNanos the length of a slice, in nanoseconds
+     * @param startTick  the tick at which the first epoch starts
+     * @param buckets    the number of buckets of a slice
+     */
+    BucketSliceRing(int slices, long sliceNanos, long startTick, int buckets) {
+        if (slices < 1) {
+            throw new IllegalArgumentException("The window must have at least one slice: " + slices);
+        }
+        this.sliceNanos = Math.max(1L, sliceNanos);
+        this.startTick = startTick;
+        this.slices = new Slice[slices];
+        final int pages = (buckets + PAGE_SIZE - 1) >>> PAGE_BITS;
+        for (int i = 0; i < slices; i++) {
+            // epochs before the first one, so that every slice starts out expired
+            this.slices[i] = new Slice(i - slices, pages);
+        }
+    }
+
+    /**
+     * Returns the number of slices of the ring.
+     *
+     * @return the number of slices
+     */
+    int length() {
+        return slices.length;
+    }
+
+    /**
+     * Returns the slice which counts the values of the given tick, recycling it first if it still
+     * holds the values of an earlier epoch.
+     *
+     * @param tick the current tick
+     * @return the current slice
+     */
+    Slice current(long tick) {
+        return slice(epochOf(tick));
+    }
+
+    private Slice slice(long epoch) {
+        for (; ; ) {
+            final Slice slice = slices[(int) Math.floorMod(epoch, (long) slices.length)];
+            final long sliceEpoch = slice.epoch.get();
+            if (sliceEpoch == epoch) {
+                return slice;
+            }
+            if (sliceEpoch == RECYCLING) {
+                // another update is zeroing the slice for this epoch
+                Thread.yield();
+            } else if (sliceEpoch < epoch && slice.epoch.compareAndSet(sliceEpoch, RECYCLING)) {
+                slice.clear();
+                slice.epoch.set(epoch);
+                return slice;
+            } else if (sliceEpoch > epoch) {
+                // a later epoch has already recycled the slice, count the value in it
+                return slice;
+            }
+        }
+    }
+
+    /**
+     * Adds the bucket counts of the latest {@code n} slices to {@code counts}.
+     *
+     * @param tick   the current tick
+     * @param n      the number of slices to add up, the latest one being the current slice
+     * @param counts the bucket counts to add to
+     */
+    void addTo(long tick, int n, long[] counts) {
+        final long epoch = epochOf(tick);
+        for (Slice slice : slices) {
+            if (isLive(epoch, slice.epoch.get(), n)) {
+                slice.addTo(counts);
+            }
+        }
+    }
+
+    /**
+     * Returns snapshots of the live slices, the current one first, in the given bucket layout.
+     *
+     * @param tick    the current tick
+     * @param buckets the bucket layout of the ring
+     * @return a snapshot of every slice, empty if the slice has expired
+     */
+    List<BucketedSnapshot> export(long tick, LogLinearBuckets buckets) {
+        final long epoch = epochOf(tick);
+        final List<BucketedSnapshot> exported = new ArrayList<>(slices.length);
+        for (int age = 0; age < slices.length; age++) {
+            final Slice slice = slices[(int) Math.floorMod(epoch - age, (long) slices.length)];
+            final long[] counts = new long[buckets.length()];
+            if (slice.epoch.get() == epoch - age) {
+                slice.addTo(counts);
+            }
+            exported.add(buckets.snapshotOf(counts));
+        }
+        return Collections.unmodifiableList(exported);
+    }
+
+    /**
+     * Adds the values of exported slices, the current one first, to the slices of the same age.
+     * Slices older than the ring's window are dropped.
+     *
+     * @param tick     the current tick
+     * @param buckets  the bucket layout of the ring
+     * @param exported the snapshots of the slices to add
+     */
+    void merge(long tick, LogLinearBuckets buckets, List<BucketedSnapshot> exported) {
+        final long epoch = epochOf(tick);
+        for (int age = 0; age < Math.min(exported.size(), slices.length); age++) {
+            final BucketedSnapshot snapshot = exported.get(age);
+            if (snapshot.size() == 0) {
+                continue;
+            }
+            final Slice slice = slice(epoch - age);
+            final long[] values = snapshot.getBucketValues();
+            final long[] counts = snapshot.getBucketCounts();
+            for (int i = 0; i < values.length; i++) {
+                slice.add(buckets.indexOf(values[i]), counts[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of values counted in the latest {@code n} slices.
+     *
+     * @param tick the current tick
+     * @param n    the number of slices to add up, the latest one being the current slice
+     * @return the number of values in those slices
+     */
+    long count(long tick, int n) {
+        final long epoch = epochOf(tick);
+        long count = 0;
+        for (Slice slice : slices) {
+            if (isLive(epoch, slice.epoch.get(), n)) {
+                for (int p = 0; p < slice.pages.length(); p++) {
+                    final AtomicLongArray page = slice.pages.get(p);
+                    for (int i = 0; page != null && i < PAGE_SIZE; i++) {
+                        count += page.get(i);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    private long epochOf(long tick) {
+        return (tick - startTick) / sliceNanos;
+    }
+
+    private static boolean isLive(long epoch, long sliceEpoch, int n) {
+        final long age = epoch - sliceEpoch;
+        return sliceEpoch != RECYCLING && age >= 0 && age < n;
+    }
+
+    /**
+     * The bucket counts of one time slice, and the epoch they belong to.
+     */
+    static final class Slice {
+        private final AtomicLong epoch;
+        private final AtomicReferenceArray<AtomicLongArray> pages;
+
+        private Slice(long epoch, int pages) {
+            this.epoch = new AtomicLong(epoch);
+            this.pages = new AtomicReferenceArray<>(pages);
+        }
+
+        /**
+         * Adds {@code n} to the count of a bucket.
+         *
+         * @param index the index of the bucket
+         * @param n     the number of values to add
+         */
+        void add(int index, long n) {
+            final int p = index >>> PAGE_BITS;
+            AtomicLongArray page = pages.get(p);
+            if (page == null) {
+                pages.compareAndSet(p, null, new AtomicLongArray(PAGE_SIZE));
+                page = pages.get(p);
+            }
+            page.getAndAdd(index & (PAGE_SIZE - 1), n);
+        }
+
+        private void addTo(long[] counts) {
+            for (int p = 0; p < pages.length(); p++) {
+                final AtomicLongArray page = pages.get(p);
+                if (page == null) {
+                    continue;
+                }
+                final int first = p << PAGE_BITS;
+                for (int i = 0; i < PAGE_SIZE && first + i < counts.length; i++) {
+                    counts[first + i] += page.get(i);
+                }
+            }
+        }
+
+        private void clear() {
+            for (int p = 0; p < pages.length(); p++) {
+                final AtomicLongArray page = pages.get(p);
+                for (int i = 0; page != null && i < PAGE_SIZE; i++) {
+                    page.lazySet(i, 0);
+                }
+            }
+        }
+    }
+}
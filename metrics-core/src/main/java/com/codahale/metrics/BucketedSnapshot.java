@@ -0,0 +1,318 @@
+package com.codahale.metrics;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.LongConsumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A statistical snapshot of a bucketed distribution, where every bucket is represented by a single
+ * value and the number of recorded values which fell into it.
+ * <p>
+ * A bucketed reservoir may count billions of values, so the methods which list the values of the
+ * snapshot ({@link #getValues()}, {@link #forEach(LongConsumer)} and {@link #dump(OutputStream)})
+ * list at most {@value #MAX_EXPANDED_VALUES} of them, every bucket's value repeated in proportion to
+ * its count.
+ */
+public class BucketedSnapshot extends Snapshot {
+    /**
+     * The largest number of values listed by {@link #getValues()}, {@link #forEach(LongConsumer)} and
+     * {@link #dump(OutputStream)}.
+     */
+    public static final int MAX_EXPANDED_VALUES = 1 << 16;
+    private static final long[] EMPTY = new long[0];
+
+    private final long[] values;
+    private final long[] cumulativeCounts;
+    private final long count;
+
+    /**
+     * Create a new {@link Snapshot} with the given bucket values and counts.
+     *
+     * @param values the representative values of the buckets, in strictly ascending order
+     * @param counts the number of values recorded in each bucket
+     */
+    public BucketedSnapshot(long[] values, long[] counts) {
+        if (values.length != counts.length) {
+            throw new IllegalArgumentException("Mismatched lengths: " + values.length + " vs " + counts.length);
+        }
+        final int length = values.length;
+        int nonEmpty = 0;
+        for (int i = 0; i < length; i++) {
+            if (counts[i] < 0) {
+                throw new IllegalArgumentException("Negative count for bucket " + values[i]);
+            }
+            if (i > 0 && values[i] <= values[i - 1]) {
+                throw new IllegalArgumentException("Bucket values must be strictly ascending");
+            }
+            if (counts[i] > 0) {
+                nonEmpty++;
+            }
+        }
+
+        this.values = nonEmpty == 0 ? EMPTY : new long[nonEmpty];
+        this.cumulativeCounts = nonEmpty == 0 ? EMPTY : new long[nonEmpty];
+        long total = 0;
+        int j = 0;
+        for (int i = 0; i < length; i++) {
+            if (counts[i] > 0) {
+                total += counts[i];
+                this.values[j] = values[i];
+                this.cumulativeCounts[j] = total;
+                j++;
+            }
+        }
+        this.count = total;
+    }
+
+    private BucketedSnapshot(long[] values, long[] cumulativeCounts, long count) {
+        this.values = values;
+        this.cumulativeCounts = cumulativeCounts;
+        this.count = count;
+    }
+
+    /**
+     * Merges the given snapshots into one which holds the values of all of them. Buckets with the same
+     * value, such as the same bucket of reservoirs with the same layout, are added up. The buckets of
+     * every snapshot are already sorted, so they are merged in a single pass.
+     *
+     * @param snapshots the snapshots to merge
+     * @return a snapshot of the values of all {@code snapshots}
+     */
+    public static BucketedSnapshot merge(Collection<BucketedSnapshot> snapshots) {
+        final BucketedSnapshot[] sources = snapshots.toArray(new BucketedSnapshot[0]);
+        final long[][] runs = new long[sources.length][];
+        final int[] lengths = new int[sources.length];
+        int size = 0;
+        long count = 0;
+        for (int i = 0; i < sources.length; i++) {
+            runs[i] = sources[i].values;
+            lengths[i] = sources[i].values.length;
+            size += lengths[i];
+            count += sources[i].count;
+        }
+
+        final long[] values = new long[size];
+        final long[] cumulativeCounts = new long[size];
+        final SortedRunMerger merger = new SortedRunMerger(runs, lengths);
+        long total = 0;
+        int j = -1;
+        while (merger.next()) {
+            final long value = merger.value();
+            if (j < 0 || values[j] != value) {
+                values[++j] = value;
+            }
+            total += sources[merger.run()].countAt(merger.position());
+            cumulativeCounts[j] = total;
+        }
+        if (j + 1 == size) {
+            return new BucketedSnapshot(values, cumulativeCounts, count);
+        }
+        return new BucketedSnapshot(Arrays.copyOf(values, j + 1), Arrays.copyOf(cumulativeCounts, j + 1), count);
+    }
+
+    /**
+     * Returns the value at the given quantile: the value of the first bucket whose cumulative count
+     * reaches {@code quantile} of all recorded values.
+     *
+     * @param quantile a given quantile, in {@code [0..1]}
+     * @return the value in the distribution at {@code quantile}
+     */
+    @Override
+    public double getValue(double quantile) {
+        if (quantile < 0.0 || quantile > 1.0 || Double.isNaN(quantile)) {
+            throw new IllegalArgumentException(quantile + " is not in [0..1]");
+        }
+
+        if (values.length == 0) {
+            return 0.0;
+        }
+
+        final long rank = Math.max(1L, (long) Math.ceil(quantile * count));
+        int posx = Arrays.binarySearch(cumulativeCounts, rank);
+        if (posx < 0) {
+            posx = -posx - 1;
+        }
+        return values[Math.min(posx, values.length - 1)];
+    }
+
+    /**
+     * Returns the number of values in the snapshot, capped at {@link Integer#MAX_VALUE}.
+     *
+     * @return the number of values
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns the number of values recorded in all buckets.
+     *
+     * @return the number of values
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the values of the non-empty buckets, in ascending order.
+     *
+     * @return the bucket values
+     */
+    public long[] getBucketValues() {
+        return Arrays.copyOf(values, values.length);
+    }
+
+    /**
+     * Returns the number of values recorded in each non-empty bucket, in the order of
+     * {@link #getBucketValues()}.
+     *
+     * @return the bucket counts
+     */
+    public long[] getBucketCounts() {
+        final long[] counts = new long[values.length];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = countAt(i);
+        }
+        return counts;
+    }
+
+    /**
+     * Returns the values in the snapshot, every bucket's value repeated as many times as values were
+     * recorded in it. Beyond {@value #MAX_EXPANDED_VALUES} values, the repetitions are scaled down to
+     * that many in total, in proportion to the bucket counts.
+     *
+     * @return the values in the snapshot, at most {@value #MAX_EXPANDED_VALUES} of them
+     */
+    @Override
+    public long[] getValues() {
+        final long[] result = new long[(int) Math.min(count, MAX_EXPANDED_VALUES)];
+        int from = 0;
+        for (int i = 0; i < values.length; i++) {
+            final int to = (int) expandedCount(cumulativeCounts[i]);
+            Arrays.fill(result, from, to, values[i]);
+            from = to;
+        }
+        return result;
+    }
+
+    /**
+     * Passes the values in the snapshot to the given action, in ascending order, as
+     * {@link #getValues()} lists them.
+     *
+     * @param action the action to perform on every value
+     */
+    @Override
+    public void forEach(LongConsumer action) {
+        long previous = 0;
+        for (int i = 0; i < values.length; i++) {
+            final long next = expandedCount(cumulativeCounts[i]);
+            for (long n = next - previous; n > 0; n--) {
+                action.accept(values[i]);
+            }
+            previous = next;
+        }
+    }
+
+    /**
+     * Returns the highest value in the snapshot.
+     *
+     * @return the highest value
+     */
+    @Override
+    public long getMax() {
+        if (values.length == 0) {
+            return 0;
+        }
+        return values[values.length - 1];
+    }
+
+    /**
+     * Returns the lowest value in the snapshot.
+     *
+     * @return the lowest value
+     */
+    @Override
+    public long getMin() {
+        if (values.length == 0) {
+            return 0;
+        }
+        return values[0];
+    }
+
+    /**
+     * Returns the arithmetic mean of the values in the snapshot.
+     *
+     * @return the arithmetic mean
+     */
+    @Override
+    public double getMean() {
+        if (values.length == 0) {
+            return 0;
+        }
+
+        double sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            sum += (double) values[i] * countAt(i);
+        }
+        return sum / count;
+    }
+
+    /**
+     * Returns the standard deviation of the values in the snapshot.
+     *
+     * @return the standard deviation value
+     */
+    @Override
+    public double getStdDev() {
+        // two-pass algorithm for variance, avoids numeric overflow
+
+        if (count <= 1) {
+            return 0;
+        }
+
+        final double mean = getMean();
+        double sum = 0;
+
+        for (int i = 0; i < values.length; i++) {
+            final double diff = values[i] - mean;
+            sum += diff * diff * countAt(i);
+        }
+
+        final double variance = sum / (count - 1);
+        return Math.sqrt(variance);
+    }
+
+    /**
+     * Writes the values of the snapshot to the given stream, as {@link #getValues()} lists them.
+     *
+     * @param output an output stream
+     */
+    @Override
+    public void dump(OutputStream output) {
+        try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, UTF_8))) {
+            forEach(value -> out.printf("%d%n", value));
+        }
+    }
+
+    /**
+     * Returns the number of values listed up to a cumulative count: the count itself, or the count
+     * scaled down so that the total count lists {@value #MAX_EXPANDED_VALUES} values.
+     */
+    private long expandedCount(long cumulativeCount) {
+        if (count <= MAX_EXPANDED_VALUES) {
+            return cumulativeCount;
+        }
+        // rounds down, and the total count scales to exactly the maximum
+        return (long) ((double) cumulativeCount / count * MAX_EXPANDED_VALUES);
+    }
+
+    private long countAt(int index) {
+        return index == 0 ? cumulativeCounts[0] : cumulativeCounts[index] - cumulativeCounts[index - 1];
+    }
+}
@@ -6,7 +6,6 @@ import java.util.Deque;
 import java.util.Iterator;
 
 import static java.lang.System.arraycopy;
-import static java.util.Arrays.binarySearch;
 
 class ChunkedAssociativeLongArray {
     private static final long[] EMPTY = new long[0];
@@ -70,6 +69,26 @@ class ChunkedAssociativeLongArray {
         return true;
     }
 
+    /**
+     * Puts a batch of values under the same key.
+     *
+     * @return {@code false} if {@code key} is smaller than the last inserted key
+     */
+    synchronized boolean putAll(long key, long[] values, int offset, int length) {
+        Chunk activeChunk = chunks.peekLast();
+        if (activeChunk != null && activeChunk.cursor != 0 && activeChunk.keys[activeChunk.cursor - 1] > key) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (activeChunk == null || activeChunk.cursor - activeChunk.startIndex == activeChunk.chunkSize) {
+                activeChunk = allocateChunk();
+                chunks.add(activeChunk);
+            }
+            activeChunk.append(key, values[offset + i]);
+        }
+        return true;
+    }
+
     synchronized long[] values() {
         final int valuesSize = size();
         if (valuesSize == 0) {
@@ -172,8 +191,18 @@ class ChunkedAssociativeLongArray {
         if (endIndex == startIndex || array[startIndex] >= minKey) {
             return startIndex;
         }
-        final int keyIndex = binarySearch(array, startIndex, endIndex, minKey);
-        return keyIndex < 0 ? -(keyIndex + 1) : keyIndex;
+        // the first of several equal keys, which binarySearch would not necessarily find
+        int low = startIndex;
+        int high = endIndex;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (array[mid] < minKey) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
     }
 
     private static class Chunk {
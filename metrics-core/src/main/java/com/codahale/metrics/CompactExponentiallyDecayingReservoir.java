@@ -0,0 +1,230 @@
+package com.codahale.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.Math.exp;
+import static java.lang.Math.min;
+
+import com.codahale.metrics.WeightedSnapshot.SampleBuffer;
+
+/**
+ * An exponentially-decaying random reservoir of {@code long}s which samples like
+ * {@link ExponentiallyDecayingReservoir}, but keeps its samples in primitive arrays rather than in a
+ * skip list of sample objects.
+ * <p>
+ * The samples form a binary min-heap on their priorities, held in three parallel arrays of values,
+ * weights and priorities, so a sample takes 24 bytes. The arrays start small and grow as samples
+ * arrive, up to the reservoir's size, so a reservoir which has seen few values takes little memory.
+ * All access is synchronized on the reservoir, which costs nothing until updates contend; this
+ * reservoir suits the many rarely updated metrics of {@link CompactHistogram} and
+ * {@link CompactTimer} rather than a few heavily contended ones.
+ *
+ * @see <a href="http://dimacs.rutgers.edu/~graham/pubs/papers/fwddecay.pdf">
+ * Cormode et al. Forward Decay: A Practical Time Decay Model for Streaming Systems. ICDE '09:
+ * Proceedings of the 2009 IEEE International Conference on Data Engineering (2009)</a>
+ */
+public class CompactExponentiallyDecayingReservoir implements Reservoir {
+    private static final int DEFAULT_SIZE = 1028;
+    private static final double DEFAULT_ALPHA = 0.015;
+    private static final int INITIAL_CAPACITY = 16;
+    private static final long RESCALE_THRESHOLD = TimeUnit.HOURS.toNanos(1);
+    private static final long[] NO_VALUES = new long[0];
+    private static final double[] NO_DOUBLES = new double[0];
+
+    private final int size;
+    private final double alpha;
+    private final Clock clock;
+    private long[] values = NO_VALUES;
+    private double[] weights = NO_DOUBLES;
+    private double[] priorities = NO_DOUBLES;
+    private int samples;
+    private long startTime;
+    private long nextScaleTime;
+
+    /**
+     * Creates a new {@link CompactExponentiallyDecayingReservoir} of 1028 elements, which offers a
+     * 99.9% confidence level with a 5% margin of error assuming a normal distribution, and an alpha
+     * factor of 0.015, which heavily biases the reservoir to the past 5 minutes of measurements.
+     */
+    public CompactExponentiallyDecayingReservoir() {
+        this(DEFAULT_SIZE, DEFAULT_ALPHA);
+    }
+
+    /**
+     * Creates a new {@link CompactExponentiallyDecayingReservoir}.
+     *
+     * @param size  the number of samples to keep in the sampling reservoir
+     * @param alpha the exponential decay factor; the higher this is, the more biased the reservoir
+     *              will be towards newer values
+     */
+    public CompactExponentiallyDecayingReservoir(int size, double alpha) {
+        this(size, alpha, Clock.defaultClock());
+    }
+
+    /**
+     * Creates a new {@link CompactExponentiallyDecayingReservoir}.
+     *
+     * @param size  the number of samples to keep in the sampling reservoir
+     * @param alpha the exponential decay factor; the higher this is, the more biased the reservoir
+     *              will be towards newer values
+     * @param clock the clock used to timestamp samples and track rescaling
+     */
+    public CompactExponentiallyDecayingReservoir(int size, double alpha, Clock clock) {
+        if (size <= 0) {
+            throw new IllegalArgumentException("size must be positive: " + size);
+        }
+        this.size = size;
+        this.alpha = alpha;
+        this.clock = clock;
+        this.startTime = currentTimeInSeconds();
+        this.nextScaleTime = clock.getTick() + RESCALE_THRESHOLD;
+    }
+
+    @Override
+    public synchronized int size() {
+        return samples;
+    }
+
+    @Override
+    public synchronized void update(long value) {
+        rescaleIfNeeded();
+        final double weight = weight(currentTimeInSeconds() - startTime);
+        offer(value, weight, weight / ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * Adds a batch of values, all timestamped now, taking the lock and reading the clock once for the
+     * whole batch.
+     */
+    @Override
+    public synchronized void update(long[] batch, int offset, int length) {
+        rescaleIfNeeded();
+        final double weight = weight(currentTimeInSeconds() - startTime);
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = offset; i < offset + length; i++) {
+            offer(batch[i], weight, weight / random.nextDouble());
+        }
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        return getSnapshot(new SampleBuffer(size()));
+    }
+
+    /**
+     * Fills the given buffer with the samples of the reservoir, and returns a snapshot of them which
+     * is backed by the buffer. Reusing a buffer across snapshots, for example on a reporter's thread,
+     * makes them allocation-free.
+     *
+     * @param buffer a buffer for the samples, which is cleared first
+     * @return a snapshot of the samples, valid until {@code buffer} is cleared
+     */
+    public synchronized WeightedSnapshot getSnapshot(SampleBuffer buffer) {
+        rescaleIfNeeded();
+        buffer.clear();
+        for (int i = 0; i < samples; i++) {
+            buffer.add(values[i], weights[i]);
+        }
+        return new WeightedSnapshot(buffer);
+    }
+
+    private void offer(long value, double weight, double priority) {
+        if (samples < size) {
+            if (samples == values.length) {
+                grow();
+            }
+            set(samples, value, weight, priority);
+            siftUp(samples++);
+        } else if (priorities[0] < priority) {
+            // replace the sample of the lowest priority
+            set(0, value, weight, priority);
+            siftDown(0);
+        }
+    }
+
+    private void grow() {
+        final int capacity = min(size, Math.max(INITIAL_CAPACITY, values.length * 2));
+        values = Arrays.copyOf(values, capacity);
+        weights = Arrays.copyOf(weights, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+    }
+
+    private void siftUp(int i) {
+        final long value = values[i];
+        final double weight = weights[i];
+        final double priority = priorities[i];
+        while (i > 0) {
+            final int parent = (i - 1) >>> 1;
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            set(i, values[parent], weights[parent], priorities[parent]);
+            i = parent;
+        }
+        set(i, value, weight, priority);
+    }
+
+    private void siftDown(int i) {
+        final long value = values[i];
+        final double weight = weights[i];
+        final double priority = priorities[i];
+        final int half = samples >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < samples && priorities[child + 1] < priorities[child]) {
+                child++;
+            }
+            if (priority <= priorities[child]) {
+                break;
+            }
+            set(i, values[child], weights[child], priorities[child]);
+            i = child;
+        }
+        set(i, value, weight, priority);
+    }
+
+    private void set(int i, long value, double weight, double priority) {
+        values[i] = value;
+        weights[i] = weight;
+        priorities[i] = priority;
+    }
+
+    private long currentTimeInSeconds() {
+        return TimeUnit.MILLISECONDS.toSeconds(clock.getTime());
+    }
+
+    private double weight(long t) {
+        return exp(alpha * t);
+    }
+
+    /*
+     * Rescales the weights and priorities to a new landmark, as ExponentiallyDecayingReservoir does.
+     * Scaling every priority by the same factor keeps the heap ordered, unless samples decay to a
+     * weight of zero, which are dropped before the heap is rebuilt.
+     */
+    private void rescaleIfNeeded() {
+        final long now = clock.getTick();
+        if (now < nextScaleTime) {
+            return;
+        }
+        nextScaleTime = now + RESCALE_THRESHOLD;
+        final long oldStartTime = startTime;
+        startTime = currentTimeInSeconds();
+        final double scalingFactor = exp(-alpha * (startTime - oldStartTime));
+        int kept = 0;
+        for (int i = 0; i < samples; i++) {
+            final double weight = weights[i] * scalingFactor;
+            if (Double.compare(weight, 0) != 0) {
+                set(kept++, values[i], weight, priorities[i] * scalingFactor);
+            }
+        }
+        if (kept < samples) {
+            samples = kept;
+            for (int i = (samples >>> 1) - 1; i >= 0; i--) {
+                siftDown(i);
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.codahale.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * A {@link Histogram} which takes as little memory as possible, for applications with a very large
+ * number of histograms, most of which are rarely updated.
+ * <p>
+ * The reservoir is only created on the first update, by default as a
+ * {@link CompactExponentiallyDecayingReservoir} whose samples live in primitive arrays which grow
+ * with the number of values recorded.
+ */
+public class CompactHistogram extends Histogram {
+    private static final Snapshot EMPTY = new UniformSnapshot(new long[0]);
+
+    private final Supplier<Reservoir> reservoirSupplier;
+    private volatile Reservoir reservoir;
+
+    /**
+     * Creates a new {@link CompactHistogram} with a {@link CompactExponentiallyDecayingReservoir}.
+     */
+    public CompactHistogram() {
+        this(CompactExponentiallyDecayingReservoir::new);
+    }
+
+    /**
+     * Creates a new {@link CompactHistogram} whose reservoir is created on the first update.
+     *
+     * @param reservoirSupplier a supplier of the reservoir to create a histogram from
+     */
+    public CompactHistogram(Supplier<Reservoir> reservoirSupplier) {
+        super(null);
+        this.reservoirSupplier = reservoirSupplier;
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        final Reservoir r = reservoir;
+        return r == null ? EMPTY : r.getSnapshot();
+    }
+
+    @Override
+    Reservoir reservoir() {
+        final Reservoir r = reservoir;
+        return r != null ? r : createReservoir();
+    }
+
+    private synchronized Reservoir createReservoir() {
+        if (reservoir == null) {
+            reservoir = reservoirSupplier.get();
+        }
+        return reservoir;
+    }
+}
@@ -0,0 +1,112 @@
+package com.codahale.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * The meter of a {@link CompactTimer}, which counts the durations of the timer's histogram rather
+ * than keeping a count of its own, and keeps its moving average rates in plain fields instead of
+ * {@link EWMA}s. They are advanced from the growth of the count like {@link Meter} does.
+ */
+final class CompactMeter extends AbstractMeter {
+    private static final long TICK_INTERVAL = TimeUnit.SECONDS.toNanos(5);
+    private static final AtomicLongFieldUpdater<CompactMeter> LAST_TICK =
+            AtomicLongFieldUpdater.newUpdater(CompactMeter.class, "lastTick");
+    private static final AtomicLongFieldUpdater<CompactMeter> UNRECORDED =
+            AtomicLongFieldUpdater.newUpdater(CompactMeter.class, "unrecorded");
+
+    private final Histogram histogram;
+    private final Clock clock;
+    private final long startTime;
+    private volatile long lastTick;
+    private volatile long lastTickCount;
+    // events which were counted without recording a duration in the histogram
+    private volatile long unrecorded;
+    private volatile boolean ratesInitialized;
+    private volatile double m1Rate;
+    private volatile double m5Rate;
+    private volatile double m15Rate;
+
+    /**
+     * Creates a new meter which counts the values of the given histogram.
+     *
+     * @param histogram the histogram the timer records its durations in
+     * @param clock     the clock to use for the meter ticks and the mean rate
+     */
+    CompactMeter(Histogram histogram, Clock clock) {
+        this.histogram = histogram;
+        this.clock = clock;
+        this.startTime = clock.getTick();
+        this.lastTick = startTime;
+    }
+
+    /**
+     * Advances the moving averages if necessary. The events themselves are counted by the histogram,
+     * which the timer updates right after.
+     */
+    @Override
+    void mark(long n) {
+        tickIfNecessary();
+    }
+
+    @Override
+    void markWithoutTick(long n) {
+        UNRECORDED.addAndGet(this, n);
+    }
+
+    @Override
+    public long getCount() {
+        return histogram.getCount() + unrecorded;
+    }
+
+    @Override
+    public double getFifteenMinuteRate() {
+        tickIfNecessary();
+        return m15Rate * TimeUnit.SECONDS.toNanos(1);
+    }
+
+    @Override
+    public double getFiveMinuteRate() {
+        tickIfNecessary();
+        return m5Rate * TimeUnit.SECONDS.toNanos(1);
+    }
+
+    @Override
+    public double getMeanRate() {
+        final long count = getCount();
+        if (count == 0) {
+            return 0.0;
+        }
+        final double elapsed = clock.getTick() - startTime;
+        return count / elapsed * TimeUnit.SECONDS.toNanos(1);
+    }
+
+    @Override
+    public double getOneMinuteRate() {
+        tickIfNecessary();
+        return m1Rate * TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private void tickIfNecessary() {
+        final long oldTick = lastTick;
+        final long newTick = clock.getTick();
+        final long age = newTick - oldTick;
+        if (age > TICK_INTERVAL) {
+            final long newIntervalStartTick = newTick - age % TICK_INTERVAL;
+            if (LAST_TICK.compareAndSet(this, oldTick, newIntervalStartTick)) {
+                tick(age / TICK_INTERVAL);
+            }
+        }
+    }
+
+    private void tick(long intervals) {
+        final long currentCount = getCount();
+        final double instantRate = (currentCount - lastTickCount) / (double) TICK_INTERVAL;
+        lastTickCount = currentCount;
+        final boolean initialized = ratesInitialized;
+        m1Rate = EWMA.nextRate(m1Rate, initialized, instantRate, EWMA.M1_ALPHA, intervals);
+        m5Rate = EWMA.nextRate(m5Rate, initialized, instantRate, EWMA.M5_ALPHA, intervals);
+        m15Rate = EWMA.nextRate(m15Rate, initialized, instantRate, EWMA.M15_ALPHA, intervals);
+        ratesInitialized = true;
+    }
+}
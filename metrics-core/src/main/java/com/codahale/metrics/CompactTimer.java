@@ -0,0 +1,37 @@
+package com.codahale.metrics;
+
+import java.util.function.Supplier;
+
+/**
+ * A {@link Timer} which takes as little memory as possible, for applications with a very large
+ * number of timers, most of which are rarely updated.
+ * <p>
+ * A {@link Timer} keeps a {@link Meter} with its own count and three {@link EWMA}s next to a
+ * {@link Histogram}. This timer records its durations into a {@link CompactHistogram}, whose count
+ * its meter shares, and keeps its moving average rates in plain fields, advanced from the growth of
+ * that count like {@link Meter} does. Together with the lazily created reservoir, a timer which was
+ * never updated takes a few hundred bytes.
+ */
+public class CompactTimer extends Timer {
+    /**
+     * Creates a new {@link CompactTimer} with a {@link CompactExponentiallyDecayingReservoir} and the
+     * default {@link Clock}.
+     */
+    public CompactTimer() {
+        this(CompactExponentiallyDecayingReservoir::new, Clock.defaultClock());
+    }
+
+    /**
+     * Creates a new {@link CompactTimer} whose reservoir is created on the first update.
+     *
+     * @param reservoirSupplier a supplier of the {@link Reservoir} the timer should use
+     * @param clock             the {@link Clock} implementation the timer should use
+     */
+    public CompactTimer(Supplier<Reservoir> reservoirSupplier, Clock clock) {
+        this(new CompactHistogram(reservoirSupplier), clock);
+    }
+
+    private CompactTimer(CompactHistogram histogram, Clock clock) {
+        super(histogram, new CompactMeter(histogram, clock), clock);
+    }
+}
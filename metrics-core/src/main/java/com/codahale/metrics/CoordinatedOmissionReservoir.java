@@ -0,0 +1,155 @@
+package com.codahale.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Reservoir} implementation for latencies measured by a client which waits for every
+ * response before it sends the next request, which corrects its distribution for coordinated
+ * omission.
+ * <p>
+ * When the measured system stalls, such a client sends no requests during the stall, so instead of
+ * the many slow responses the requests it should have sent would have seen, it records a single one.
+ * Given the interval at which the client expects to send requests, this reservoir records a value
+ * {@code v} larger than the interval along with the synthetic values {@code v - interval},
+ * {@code v - 2 * interval}, and so on down to the interval, as HdrHistogram does. The synthetic
+ * values form an arithmetic sequence, so rather than adding them one by one, the reservoir adds to
+ * each log-linear bucket the number of them which falls into it, which takes one atomic operation
+ * per bucket the stall spans.
+ * <p>
+ * The reservoir keeps the raw and the corrected bucket counts. Its snapshot is a
+ * {@link CorrectedSnapshot} whose statistics are those of the corrected values, and which also holds
+ * a snapshot of the raw ones. Like {@link LogLinearBucketReservoir}, the quantiles are valid for the
+ * reservoir's whole lifetime.
+ * <p>
+ * The snapshot is also the reservoir's state, which can be merged into another coordinated omission
+ * reservoir. Its values are already corrected, so they are added as they are, whatever the expected
+ * interval of the reservoir they are merged into.
+ */
+public class CoordinatedOmissionReservoir implements MergeableReservoir<CorrectedSnapshot> {
+    private static final int DEFAULT_SIGNIFICANT_DIGITS = 2;
+    private static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = TimeUnit.HOURS.toNanos(1);
+
+    private final long expectedInterval;
+    private final LogLinearBuckets buckets;
+    private final AtomicLongArray raw;
+    private final AtomicLongArray corrected;
+    private final LongAdder correctedCount;
+
+    /**
+     * Creates a new {@link CoordinatedOmissionReservoir} for durations in nanoseconds, as recorded by
+     * a {@link Timer}, which keeps two significant digits of values up to one hour.
+     *
+     * @param expectedInterval the interval at which the client is expected to send requests
+     * @param unit             the unit of {@code expectedInterval}
+     */
+    public CoordinatedOmissionReservoir(long expectedInterval, TimeUnit unit) {
+        this(unit.toNanos(expectedInterval), DEFAULT_SIGNIFICANT_DIGITS, DEFAULT_HIGHEST_TRACKABLE_VALUE);
+    }
+
+    /**
+     * Creates a new {@link CoordinatedOmissionReservoir}.
+     *
+     * @param expectedInterval      the interval at which the client is expected to send requests, in
+     *                              the unit of the recorded values
+     * @param significantDigits     the number of significant decimal digits to keep, in
+     *                              {@code [1..5]}
+     * @param highestTrackableValue the highest value to track with full precision
+     */
+    public CoordinatedOmissionReservoir(long expectedInterval, int significantDigits, long highestTrackableValue) {
+        if (expectedInterval < 1) {
+            throw new IllegalArgumentException("expectedInterval must be positive: " + expectedInterval);
+        }
+        this.expectedInterval = expectedInterval;
+        this.buckets = new LogLinearBuckets(significantDigits, highestTrackableValue);
+        this.raw = new AtomicLongArray(buckets.length());
+        this.corrected = new AtomicLongArray(buckets.length());
+        this.correctedCount = new LongAdder();
+    }
+
+    /**
+     * Returns the number of values recorded, including the synthetic ones.
+     *
+     * @return the number of corrected values
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(correctedCount.sum(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void update(long value) {
+        final int bucket = buckets.indexOf(value);
+        raw.getAndIncrement(bucket);
+        corrected.getAndIncrement(bucket);
+        long added = 1;
+        if (value > expectedInterval) {
+            added += backfill(value);
+        }
+        correctedCount.add(added);
+    }
+
+    @Override
+    public CorrectedSnapshot getSnapshot() {
+        return exportState();
+    }
+
+    @Override
+    public CorrectedSnapshot exportState() {
+        return new CorrectedSnapshot(buckets.snapshotOf(copyOf(corrected)), buckets.snapshotOf(copyOf(raw)),
+                expectedInterval);
+    }
+
+    @Override
+    public void mergeState(CorrectedSnapshot state) {
+        if (!(state.getRawSnapshot() instanceof BucketedSnapshot)
+                || !(state.getCorrectedSnapshot() instanceof BucketedSnapshot)) {
+            throw new IllegalArgumentException("Not the state of a CoordinatedOmissionReservoir: " + state);
+        }
+        addTo(raw, (BucketedSnapshot) state.getRawSnapshot());
+        correctedCount.add(addTo(corrected, (BucketedSnapshot) state.getCorrectedSnapshot()));
+    }
+
+    /*
+     * Adds the synthetic values value - k * expectedInterval, for k from 1 while they are at least
+     * expectedInterval, to the corrected counts, a bucket at a time: the values of the bucket holding
+     * value - k * expectedInterval are those up to the k which takes them below the bucket's lowest
+     * value. A bucket no wider than the interval holds a single one of them, which saves the division.
+     */
+    private long backfill(long value) {
+        final long synthetic = value / expectedInterval - 1;
+        long k = 1;
+        while (k <= synthetic) {
+            final int bucket = buckets.indexOf(value - k * expectedInterval);
+            if (buckets.widthOf(bucket) <= expectedInterval) {
+                corrected.getAndIncrement(bucket);
+                k++;
+            } else {
+                final long last = Math.min(synthetic, (value - buckets.lowestEquivalentValue(bucket)) / expectedInterval);
+                corrected.getAndAdd(bucket, last - k + 1);
+                k = last + 1;
+            }
+        }
+        return synthetic;
+    }
+
+    private long addTo(AtomicLongArray counts, BucketedSnapshot snapshot) {
+        final long[] values = snapshot.getBucketValues();
+        final long[] valueCounts = snapshot.getBucketCounts();
+        long added = 0;
+        for (int i = 0; i < values.length; i++) {
+            counts.getAndAdd(buckets.indexOf(values[i]), valueCounts[i]);
+            added += valueCounts[i];
+        }
+        return added;
+    }
+
+    private static long[] copyOf(AtomicLongArray counts) {
+        final long[] copy = new long[counts.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+        }
+        return copy;
+    }
+}
@@ -0,0 +1,107 @@
+package com.codahale.metrics;
+
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * A {@link Snapshot} of the values recorded by a {@link CoordinatedOmissionReservoir}. All statistics
+ * are those of the values corrected for coordinated omission; the raw values, as they were
+ * measured, are available from {@link #getRawSnapshot()}.
+ */
+public class CorrectedSnapshot extends Snapshot {
+    private final Snapshot snapshot;
+    private final Snapshot raw;
+    private final long expectedInterval;
+
+    /**
+     * Create a new {@link CorrectedSnapshot}.
+     *
+     * @param snapshot         the snapshot of the corrected values
+     * @param raw              the snapshot of the raw values
+     * @param expectedInterval the expected interval between requests the values were corrected for
+     */
+    public CorrectedSnapshot(Snapshot snapshot, Snapshot raw, long expectedInterval) {
+        this.snapshot = snapshot;
+        this.raw = raw;
+        this.expectedInterval = expectedInterval;
+    }
+
+    /**
+     * Returns a snapshot of the values corrected for coordinated omission, whose statistics this
+     * snapshot reports.
+     *
+     * @return the snapshot of the corrected values
+     */
+    public Snapshot getCorrectedSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Returns a snapshot of the values as they were measured, without the synthetic values added to
+     * correct for coordinated omission.
+     *
+     * @return the snapshot of the raw values
+     */
+    public Snapshot getRawSnapshot() {
+        return raw;
+    }
+
+    /**
+     * Returns the expected interval between requests the values were corrected for.
+     *
+     * @return the expected interval, in the unit of the values
+     */
+    public long getExpectedInterval() {
+        return expectedInterval;
+    }
+
+    @Override
+    public double getValue(double quantile) {
+        return snapshot.getValue(quantile);
+    }
+
+    @Override
+    public double[] getValues(double[] quantiles) {
+        return snapshot.getValues(quantiles);
+    }
+
+    @Override
+    public long[] getValues() {
+        return snapshot.getValues();
+    }
+
+    @Override
+    public void forEach(LongConsumer action) {
+        snapshot.forEach(action);
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size();
+    }
+
+    @Override
+    public long getMax() {
+        return snapshot.getMax();
+    }
+
+    @Override
+    public double getMean() {
+        return snapshot.getMean();
+    }
+
+    @Override
+    public long getMin() {
+        return snapshot.getMin();
+    }
+
+    @Override
+    public double getStdDev() {
+        return snapshot.getStdDev();
+    }
+
+    @Override
+    public void dump(OutputStream output) {
+        snapshot.dump(output);
+    }
+}
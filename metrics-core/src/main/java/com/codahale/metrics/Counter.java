@@ -9,7 +9,15 @@ public class Counter implements Metric, Counting {
     private final LongAdder count;
 
     public Counter() {
-        this.count = new LongAdder();
+        this(new LongAdder());
+    }
+
+    /**
+     * Creates a new {@link Counter} with the given count, which is {@code null} for subclasses which
+     * keep the count themselves.
+     */
+    Counter(LongAdder count) {
+        this.count = count;
     }
 
     /**
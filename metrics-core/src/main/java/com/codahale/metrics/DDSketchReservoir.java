@@ -0,0 +1,144 @@
+package com.codahale.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Reservoir} implementation which records every value into logarithmic buckets, in the style
+ * of DDSketch, so that every quantile of its snapshots is within a configured relative error of the
+ * quantile of the recorded values, however heavy the tail of the distribution is.
+ * <p>
+ * Each bucket is an atomic counter, so updates take no locks and allocate nothing once the buckets
+ * they need exist. Buckets are allocated in pages on first use, so the memory used depends on the
+ * range of the recorded values, not on their number: values from a microsecond to a minute in
+ * nanoseconds take around 900 buckets at the default relative accuracy of 1%. Zero and negative
+ * values are recorded too, with the same relative accuracy. Like {@link UniformReservoir}, the
+ * quantiles are valid for the reservoir's whole lifetime.
+ * <p>
+ * The reservoir's state is a {@link BucketedSnapshot}, which can be merged into other sketch
+ * reservoirs. Merging reservoirs with the same relative accuracy keeps it exactly.
+ *
+ * @see <a href="https://arxiv.org/abs/1908.10693">DDSketch: A Fast and Fully-Mergeable Quantile
+ * Sketch with Relative-Error Guarantees</a>
+ */
+public class DDSketchReservoir implements MergeableReservoir<BucketedSnapshot> {
+    private static final double DEFAULT_RELATIVE_ACCURACY = 0.01;
+    private static final int PAGE_BITS = 6;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+
+    private final LogBuckets buckets;
+    private final AtomicReferenceArray<AtomicLongArray> pages;
+    private final LongAdder count;
+
+    /**
+     * Creates a new {@link DDSketchReservoir} with a relative accuracy of 1%.
+     */
+    public DDSketchReservoir() {
+        this(DEFAULT_RELATIVE_ACCURACY);
+    }
+
+    /**
+     * Creates a new {@link DDSketchReservoir}.
+     *
+     * @param relativeAccuracy the relative error of the quantiles, in {@code (0..1)}
+     */
+    public DDSketchReservoir(double relativeAccuracy) {
+        this.buckets = new LogBuckets(relativeAccuracy);
+        this.pages = new AtomicReferenceArray<>((buckets.length() + PAGE_SIZE - 1) >>> PAGE_BITS);
+        this.count = new LongAdder();
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(count.sum(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void update(long value) {
+        add(buckets.indexOf(value), 1);
+        count.increment();
+    }
+
+    @Override
+    public void update(long[] values, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        // runs of values falling into the same bucket are added to it at once
+        int bucket = buckets.indexOf(values[offset]);
+        long run = 1;
+        for (int i = offset + 1; i < offset + length; i++) {
+            final int next = buckets.indexOf(values[i]);
+            if (next == bucket) {
+                run++;
+            } else {
+                add(bucket, run);
+                bucket = next;
+                run = 1;
+            }
+        }
+        add(bucket, run);
+        count.add(length);
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        return exportState();
+    }
+
+    @Override
+    public BucketedSnapshot exportState() {
+        int nonEmpty = 0;
+        final long[][] copies = new long[pages.length()][];
+        for (int p = 0; p < copies.length; p++) {
+            final AtomicLongArray page = pages.get(p);
+            if (page != null) {
+                copies[p] = new long[PAGE_SIZE];
+                for (int i = 0; i < PAGE_SIZE; i++) {
+                    copies[p][i] = page.get(i);
+                    if (copies[p][i] != 0) {
+                        nonEmpty++;
+                    }
+                }
+            }
+        }
+
+        final long[] values = new long[nonEmpty];
+        final long[] valueCounts = new long[nonEmpty];
+        int j = 0;
+        for (int p = 0; p < copies.length && j < nonEmpty; p++) {
+            if (copies[p] == null) {
+                continue;
+            }
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                if (copies[p][i] != 0) {
+                    values[j] = buckets.valueAt((p << PAGE_BITS) + i);
+                    valueCounts[j] = copies[p][i];
+                    j++;
+                }
+            }
+        }
+        return new BucketedSnapshot(values, valueCounts);
+    }
+
+    @Override
+    public void mergeState(BucketedSnapshot state) {
+        final long[] values = state.getBucketValues();
+        final long[] valueCounts = state.getBucketCounts();
+        for (int i = 0; i < values.length; i++) {
+            add(buckets.indexOf(values[i]), valueCounts[i]);
+        }
+        count.add(state.getCount());
+    }
+
+    private void add(int index, long n) {
+        final int p = index >>> PAGE_BITS;
+        AtomicLongArray page = pages.get(p);
+        if (page == null) {
+            pages.compareAndSet(p, null, new AtomicLongArray(PAGE_SIZE));
+            page = pages.get(p);
+        }
+        page.getAndAdd(index & (PAGE_SIZE - 1), n);
+    }
+}
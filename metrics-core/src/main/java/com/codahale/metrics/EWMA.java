@@ -20,9 +20,9 @@ public class EWMA {
     private static final int ONE_MINUTE = 1;
     private static final int FIVE_MINUTES = 5;
     private static final int FIFTEEN_MINUTES = 15;
-    private static final double M1_ALPHA = 1 - exp(-INTERVAL / SECONDS_PER_MINUTE / ONE_MINUTE);
-    private static final double M5_ALPHA = 1 - exp(-INTERVAL / SECONDS_PER_MINUTE / FIVE_MINUTES);
-    private static final double M15_ALPHA = 1 - exp(-INTERVAL / SECONDS_PER_MINUTE / FIFTEEN_MINUTES);
+    static final double M1_ALPHA = 1 - exp(-INTERVAL / SECONDS_PER_MINUTE / ONE_MINUTE);
+    static final double M5_ALPHA = 1 - exp(-INTERVAL / SECONDS_PER_MINUTE / FIVE_MINUTES);
+    static final double M15_ALPHA = 1 - exp(-INTERVAL / SECONDS_PER_MINUTE / FIFTEEN_MINUTES);
 
     private volatile boolean initialized = false;
     private volatile double rate = 0.0;
@@ -85,15 +85,44 @@ public class EWMA {
      * Mark the passage of time and decay the current rate accordingly.
      */
     public void tick() {
-        final long count = uncounted.sumThenReset();
-        final double instantRate = count / interval;
-        if (initialized) {
-            final double oldRate = this.rate;
-            rate = oldRate + (alpha * (instantRate - oldRate));
-        } else {
-            rate = instantRate;
-            initialized = true;
+        tick(uncounted.sumThenReset(), 1);
+    }
+
+    /**
+     * Mark the passage of a number of intervals, in the first of which the given number of events
+     * happened, and decay the current rate accordingly. This is equivalent to updating the moving
+     * average with {@code count} and then calling {@link #tick()} {@code intervals} times, but the
+     * decay over the empty intervals is computed in closed form.
+     *
+     * @param count     the number of events in the first interval
+     * @param intervals the number of intervals which have passed
+     */
+    public void tick(long count, long intervals) {
+        if (intervals <= 0) {
+            return;
+        }
+        rate = nextRate(rate, initialized, count / interval, alpha, intervals);
+        initialized = true;
+    }
+
+    /**
+     * Returns the rate after a number of intervals, in the first of which events happened at the given
+     * instant rate.
+     *
+     * @param rate        the current rate
+     * @param initialized whether {@code rate} has been set by a previous tick
+     * @param instantRate the rate of events in the first interval
+     * @param alpha       the smoothing constant
+     * @param intervals   the number of intervals which have passed, at least one
+     * @return the new rate
+     */
+    static double nextRate(double rate, boolean initialized, double instantRate, double alpha, long intervals) {
+        double newRate = initialized ? rate + (alpha * (instantRate - rate)) : instantRate;
+        if (intervals > 1) {
+            // every empty interval decays the rate by a factor of (1 - alpha)
+            newRate *= Math.pow(1 - alpha, intervals - 1);
         }
+        return newRate;
     }
 
     /**
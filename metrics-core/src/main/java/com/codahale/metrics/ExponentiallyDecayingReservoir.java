@@ -10,6 +10,7 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
 import static java.lang.Math.exp;
 import static java.lang.Math.min;
 
+import com.codahale.metrics.WeightedSnapshot.SampleBuffer;
 import com.codahale.metrics.WeightedSnapshot.WeightedSample;
 
 /**
@@ -115,6 +116,39 @@ public class ExponentiallyDecayingReservoir implements Reservoir {
         }
     }
 
+    /**
+     * Adds a batch of values, all timestamped now, taking the lock and reading the clock once for the
+     * whole batch.
+     */
+    @Override
+    public void update(long[] batch, int offset, int length) {
+        final long timestamp = currentTimeInSeconds();
+        rescaleIfNeeded();
+        lockForRegularUsage();
+        try {
+            final double itemWeight = weight(timestamp - startTime);
+            final ThreadLocalRandom random = ThreadLocalRandom.current();
+            final long firstCount = count.getAndAdd(length) + 1;
+            for (int i = 0; i < length; i++) {
+                final WeightedSample sample = new WeightedSample(batch[offset + i], itemWeight);
+                final double priority = itemWeight / random.nextDouble();
+                if (firstCount + i <= size) {
+                    values.put(priority, sample);
+                } else {
+                    Double first = values.firstKey();
+                    if (first < priority && values.putIfAbsent(priority, sample) == null) {
+                        // ensure we always remove an item
+                        while (values.remove(first) == null) {
+                            first = values.firstKey();
+                        }
+                    }
+                }
+            }
+        } finally {
+            unlockForRegularUsage();
+        }
+    }
+
     private void rescaleIfNeeded() {
         final long now = clock.getTick();
         final long next = nextScaleTime.get();
@@ -125,13 +159,29 @@ public class ExponentiallyDecayingReservoir implements Reservoir {
 
     @Override
     public Snapshot getSnapshot() {
+        return getSnapshot(new SampleBuffer(size()));
+    }
+
+    /**
+     * Fills the given buffer with the samples of the reservoir, and returns a snapshot of them which
+     * is backed by the buffer. Reusing a buffer across snapshots, for example on a reporter's thread,
+     * makes them allocation-free.
+     *
+     * @param buffer a buffer for the samples, which is cleared first
+     * @return a snapshot of the samples, valid until {@code buffer} is cleared
+     */
+    public WeightedSnapshot getSnapshot(SampleBuffer buffer) {
         rescaleIfNeeded();
         lockForRegularUsage();
         try {
-            return new WeightedSnapshot(values.values());
+            buffer.clear();
+            for (WeightedSample sample : values.values()) {
+                buffer.add(sample.value, sample.weight);
+            }
         } finally {
             unlockForRegularUsage();
         }
+        return new WeightedSnapshot(buffer);
     }
 
     private long currentTimeInSeconds() {
@@ -0,0 +1,63 @@
+package com.codahale.metrics;
+
+/**
+ * A {@link Histogram} which counts its values exactly in buckets with fixed, user-defined upper
+ * bounds, for accounting of service level objectives such as the share of requests served within
+ * 100 milliseconds.
+ * <p>
+ * An update finds the bucket of the value with a binary search over the bounds and increments the
+ * bucket's striped counter, so it takes {@code O(log buckets)} time without locks or allocation.
+ * Values above the highest bound are counted in an overflow bucket. The counts are cumulative over
+ * the life of the histogram. The snapshot is a {@link BucketedSnapshot} which represents every bucket
+ * by its upper bound, so its quantiles are only as precise as the buckets.
+ */
+public class FixedBucketHistogram extends Histogram {
+    private final FixedBucketReservoir buckets;
+
+    /**
+     * Creates a new {@link FixedBucketHistogram}.
+     *
+     * @param bounds the inclusive upper bounds of the buckets, in strictly ascending order
+     */
+    public FixedBucketHistogram(long... bounds) {
+        this(new FixedBucketReservoir(bounds));
+    }
+
+    private FixedBucketHistogram(FixedBucketReservoir buckets) {
+        super(buckets);
+        this.buckets = buckets;
+    }
+
+    /**
+     * Returns the inclusive upper bounds of the buckets, in ascending order.
+     *
+     * @return the bucket bounds
+     */
+    public long[] getBucketBounds() {
+        return buckets.bounds();
+    }
+
+    /**
+     * Returns the number of values in each bucket. The array has one element more than the bounds,
+     * which is the number of values above the highest bound.
+     *
+     * @return the number of values in each bucket, followed by the overflow count
+     */
+    public long[] getBucketCounts() {
+        return buckets.counts();
+    }
+
+    /**
+     * Returns the number of values less than or equal to each bound. The array has one element more
+     * than the bounds, which is the number of values in all buckets.
+     *
+     * @return the number of values up to each bound, followed by the total
+     */
+    public long[] getCumulativeBucketCounts() {
+        final long[] counts = buckets.counts();
+        for (int i = 1; i < counts.length; i++) {
+            counts[i] += counts[i - 1];
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,129 @@
+package com.codahale.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Reservoir} which counts values in buckets with fixed, user-defined upper bounds, and the
+ * values above the highest bound in an overflow bucket. Every bucket is a {@link LongAdder}, so
+ * updates neither lock nor allocate, and concurrent updates of one bucket do not contend.
+ * <p>
+ * The snapshot represents every bucket by its upper bound, and the overflow bucket by the highest
+ * value recorded in it. The snapshot is also the reservoir's state, which can be merged into another
+ * fixed bucket reservoir: every bucket of the state is added to the bucket its value falls into, so
+ * reservoirs with the same bounds merge exactly.
+ */
+final class FixedBucketReservoir implements MergeableReservoir<BucketedSnapshot> {
+    private final long[] bounds;
+    private final LongAdder[] counts;
+    private final LongAccumulator overflowMax;
+
+    /**
+     * Creates a new {@link FixedBucketReservoir}.
+     *
+     * @param bounds the inclusive upper bounds of the buckets, in strictly ascending order
+     */
+    FixedBucketReservoir(long[] bounds) {
+        if (bounds.length == 0) {
+            throw new IllegalArgumentException("At least one bucket bound is required");
+        }
+        for (int i = 1; i < bounds.length; i++) {
+            if (bounds[i] <= bounds[i - 1]) {
+                throw new IllegalArgumentException("Bucket bounds must be strictly ascending: " +
+                        bounds[i - 1] + ", " + bounds[i]);
+            }
+        }
+        this.bounds = bounds.clone();
+        this.counts = new LongAdder[bounds.length + 1];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+        this.overflowMax = new LongAccumulator(Math::max, Long.MIN_VALUE);
+    }
+
+    /**
+     * Returns the index of the first bucket whose upper bound is at least {@code value}, or the index
+     * of the overflow bucket if there is none. The binary search halves the range with a conditional
+     * move rather than a branch, so it takes the same {@code log2(buckets)} steps for every value.
+     *
+     * @param value a recorded value
+     * @return the index of the bucket for {@code value}
+     */
+    int indexOf(long value) {
+        int base = 0;
+        int n = bounds.length;
+        while (n > 1) {
+            final int half = n >>> 1;
+            base = bounds[base + half - 1] < value ? base + half : base;
+            n -= half;
+        }
+        return bounds[base] < value ? base + 1 : base;
+    }
+
+    long[] bounds() {
+        return bounds.clone();
+    }
+
+    /**
+     * Returns the number of values in each bucket, the last one being the overflow bucket.
+     *
+     * @return the bucket counts
+     */
+    long[] counts() {
+        final long[] result = new long[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            result[i] = counts[i].sum();
+        }
+        return result;
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (LongAdder count : counts) {
+            size += count.sum();
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void update(long value) {
+        final int index = indexOf(value);
+        if (index == bounds.length) {
+            // before the count, so that a snapshot which sees the count sees the value
+            overflowMax.accumulate(value);
+        }
+        counts[index].increment();
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        return exportState();
+    }
+
+    @Override
+    public BucketedSnapshot exportState() {
+        final long[] snapshotCounts = counts();
+        // an empty overflow bucket is left out, as it has no value to represent it
+        final int length = snapshotCounts[bounds.length] == 0 ? bounds.length : counts.length;
+        final long[] values = Arrays.copyOf(bounds, length);
+        if (length > bounds.length) {
+            values[bounds.length] = overflowMax.get();
+        }
+        return new BucketedSnapshot(values, Arrays.copyOf(snapshotCounts, length));
+    }
+
+    @Override
+    public void mergeState(BucketedSnapshot state) {
+        final long[] values = state.getBucketValues();
+        final long[] valueCounts = state.getBucketCounts();
+        for (int i = 0; i < values.length; i++) {
+            final int index = indexOf(values[i]);
+            if (index == bounds.length) {
+                overflowMax.accumulate(values[i]);
+            }
+            counts[index].add(valueCounts[i]);
+        }
+    }
+}
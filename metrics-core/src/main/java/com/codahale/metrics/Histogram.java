@@ -7,6 +7,7 @@ import java.util.concurrent.atomic.LongAdder;
  *
  * @see <a href="http://www.johndcook.com/standard_deviation.html">Accurately computing running
  * variance</a>
+ * @see SummarizingHistogram
  */
 public class Histogram implements Metric, Sampling, Counting {
     private final Reservoir reservoir;
@@ -18,8 +19,16 @@ public class Histogram implements Metric, Sampling, Counting {
      * @param reservoir the reservoir to create a histogram from
      */
     public Histogram(Reservoir reservoir) {
+        this(reservoir, new LongAdder());
+    }
+
+    /**
+     * Creates a new {@link Histogram} with the given reservoir and count, which is {@code null} for
+     * subclasses which count the values themselves.
+     */
+    Histogram(Reservoir reservoir, LongAdder count) {
         this.reservoir = reservoir;
-        this.count = new LongAdder();
+        this.count = count;
     }
 
     /**
@@ -37,8 +46,27 @@ public class Histogram implements Metric, Sampling, Counting {
      * @param value the length of the value
      */
     public void update(long value) {
-        count.increment();
-        reservoir.update(value);
+        record(value);
+        reservoir().update(value);
+    }
+
+    /**
+     * Adds a batch of recorded values.
+     *
+     * @param values an array of recorded values
+     * @param offset the index of the first value to add
+     * @param length the number of values to add
+     */
+    public void update(long[] values, int offset, int length) {
+        if (offset < 0 || length < 0 || offset > values.length - length) {
+            throw new IndexOutOfBoundsException("Batch [" + offset + ", " + (offset + length) +
+                    ") is outside of an array of " + values.length);
+        }
+        if (length == 0) {
+            return;
+        }
+        record(values, offset, length);
+        reservoir().update(values, offset, length);
     }
 
     /**
@@ -53,6 +81,27 @@ public class Histogram implements Metric, Sampling, Counting {
 
     @Override
     public Snapshot getSnapshot() {
-        return reservoir.getSnapshot();
+        return reservoir().getSnapshot();
+    }
+
+    /**
+     * Counts a value before it is added to the reservoir.
+     */
+    void record(long value) {
+        count.increment();
+    }
+
+    /**
+     * Counts a batch of values before it is added to the reservoir.
+     */
+    void record(long[] values, int offset, int length) {
+        count.add(length);
+    }
+
+    /**
+     * Returns the reservoir to record values into.
+     */
+    Reservoir reservoir() {
+        return reservoir;
     }
 }
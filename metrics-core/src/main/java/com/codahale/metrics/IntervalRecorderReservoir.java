@@ -0,0 +1,144 @@
+package com.codahale.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A {@link Reservoir} implementation which records every value into log-linear buckets, like
+ * {@link LogLinearBucketReservoir}, but whose snapshots only hold the values recorded since the
+ * previous snapshot. This gives exact per-interval quantiles, for example of every reporting period,
+ * rather than decaying or windowed ones.
+ * <p>
+ * The reservoir keeps two sets of buckets. Writers record into the active one, while taking a
+ * snapshot makes the other one active, waits with a {@link WriterReaderPhaser} for the writers still
+ * recording into the old one to finish, and then reads and clears it. Writers never wait and never
+ * allocate; only concurrent snapshots wait for each other.
+ * <p>
+ * As every snapshot resets the interval, a reservoir should have a single reader, such as one
+ * reporter: two reporters would each see only part of the values.
+ * <p>
+ * The reservoir's state is the snapshot of the current interval, so exporting it starts a new
+ * interval as taking a snapshot does. It can be merged into the current interval of another interval
+ * recorder reservoir, even one with a different precision.
+ */
+public class IntervalRecorderReservoir implements MergeableReservoir<BucketedSnapshot> {
+    private static final int DEFAULT_SIGNIFICANT_DIGITS = 2;
+    private static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = TimeUnit.HOURS.toNanos(1);
+
+    private final LogLinearBuckets buckets;
+    private final WriterReaderPhaser phaser = new WriterReaderPhaser();
+    private volatile AtomicLongArray active;
+    private AtomicLongArray inactive;
+
+    /**
+     * Creates a new {@link IntervalRecorderReservoir} which keeps two significant digits of values up
+     * to one hour in nanoseconds.
+     */
+    public IntervalRecorderReservoir() {
+        this(DEFAULT_SIGNIFICANT_DIGITS, DEFAULT_HIGHEST_TRACKABLE_VALUE);
+    }
+
+    /**
+     * Creates a new {@link IntervalRecorderReservoir}.
+     *
+     * @param significantDigits     the number of significant decimal digits to keep, in
+     *                              {@code [1..5]}
+     * @param highestTrackableValue the highest value to track with full precision
+     */
+    public IntervalRecorderReservoir(int significantDigits, long highestTrackableValue) {
+        this.buckets = new LogLinearBuckets(significantDigits, highestTrackableValue);
+        this.active = new AtomicLongArray(buckets.length());
+        this.inactive = new AtomicLongArray(buckets.length());
+    }
+
+    /**
+     * Returns the number of values recorded in the current interval.
+     *
+     * @return the number of values recorded since the last snapshot
+     */
+    @Override
+    public int size() {
+        final AtomicLongArray counts = active;
+        long size = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            size += counts.get(i);
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void update(long value) {
+        final long token = phaser.writerCriticalSectionEnter();
+        try {
+            active.getAndIncrement(buckets.indexOf(value));
+        } finally {
+            phaser.writerCriticalSectionExit(token);
+        }
+    }
+
+    @Override
+    public void update(long[] values, int offset, int length) {
+        final long token = phaser.writerCriticalSectionEnter();
+        try {
+            final AtomicLongArray counts = active;
+            for (int i = offset; i < offset + length; i++) {
+                counts.getAndIncrement(buckets.indexOf(values[i]));
+            }
+        } finally {
+            phaser.writerCriticalSectionExit(token);
+        }
+    }
+
+    /**
+     * Returns a snapshot of the values recorded since the previous snapshot, and starts a new
+     * interval.
+     *
+     * @return a snapshot of the last interval
+     */
+    @Override
+    public Snapshot getSnapshot() {
+        return exportState();
+    }
+
+    /**
+     * Returns a snapshot of the values recorded since the previous snapshot, and starts a new
+     * interval.
+     *
+     * @return a snapshot of the last interval
+     */
+    @Override
+    public BucketedSnapshot exportState() {
+        phaser.readerLock();
+        try {
+            final AtomicLongArray interval = active;
+            active = inactive;
+            phaser.flipPhase();
+
+            // no writer can still be recording into the interval's buckets
+            final long[] counts = new long[interval.length()];
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = interval.get(i);
+                interval.lazySet(i, 0);
+            }
+            inactive = interval;
+            return buckets.snapshotOf(counts);
+        } finally {
+            phaser.readerUnlock();
+        }
+    }
+
+    @Override
+    public void mergeState(BucketedSnapshot state) {
+        final long[] values = state.getBucketValues();
+        final long[] counts = state.getBucketCounts();
+        final long token = phaser.writerCriticalSectionEnter();
+        try {
+            final AtomicLongArray interval = active;
+            for (int i = 0; i < values.length; i++) {
+                interval.getAndAdd(buckets.indexOf(values[i]), counts[i]);
+            }
+        } finally {
+            phaser.writerCriticalSectionExit(token);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.codahale.metrics;
+
+/**
+ * The exact count, sum, minimum and maximum of the values recorded by a metric over an interval.
+ * Unlike a {@link Snapshot}, which may be built from a sample of the values, a summary accounts for
+ * every single value, so its minimum and maximum are never missed.
+ * <p>
+ * Like an empty {@link Snapshot}, the summary of an interval without values reports a minimum,
+ * maximum and mean of {@code 0}. Such a summary is told apart from one of values which were all
+ * {@code 0} by its count, which is {@code 0}.
+ *
+ * @see Summarizing
+ */
+public final class IntervalSummary {
+    private static final IntervalSummary EMPTY = new IntervalSummary(0, 0, 0, 0);
+
+    private final long count;
+    private final long sum;
+    private final long min;
+    private final long max;
+
+    /**
+     * Returns a summary of an interval without values.
+     *
+     * @return an empty summary
+     */
+    public static IntervalSummary empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a new {@link IntervalSummary}.
+     *
+     * @param count the number of values recorded
+     * @param sum   the sum of the values recorded
+     * @param min   the lowest value recorded
+     * @param max   the highest value recorded
+     */
+    public IntervalSummary(long count, long sum, long min, long max) {
+        this.count = count;
+        this.sum = sum;
+        this.min = min;
+        this.max = max;
+    }
+
+    /**
+     * Returns the number of values recorded.
+     *
+     * @return the number of values recorded
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the sum of the values recorded.
+     *
+     * @return the sum of the values recorded
+     */
+    public long getSum() {
+        return sum;
+    }
+
+    /**
+     * Returns the lowest value recorded, or {@code 0} if no value was recorded, that is if
+     * {@link #getCount()} is {@code 0}.
+     *
+     * @return the lowest value recorded
+     */
+    public long getMin() {
+        return min;
+    }
+
+    /**
+     * Returns the highest value recorded, or {@code 0} if no value was recorded, that is if
+     * {@link #getCount()} is {@code 0}.
+     *
+     * @return the highest value recorded
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the arithmetic mean of the values recorded, or {@code 0} if no value was recorded.
+     *
+     * @return the arithmetic mean of the values recorded
+     */
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    @Override
+    public String toString() {
+        return "IntervalSummary{count=" + count + ", sum=" + sum + ", min=" + min + ", max=" + max + '}';
+    }
+}
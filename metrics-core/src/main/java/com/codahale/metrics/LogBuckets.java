@@ -0,0 +1,99 @@
+package com.codahale.metrics;
+
+/**
+ * A logarithmic bucket layout for {@code long}s with a bounded relative error, in the style of
+ * DDSketch.
+ * <p>
+ * A positive value {@code v} falls into the bucket {@code k = ceil(log(v) / log(gamma))}, which holds
+ * the values in {@code (gamma^(k-1), gamma^k]}, where {@code gamma = (1 + a) / (1 - a)} for a relative
+ * accuracy {@code a}. Every value in the bucket is within {@code a} of {@code 2 * gamma^k / (gamma + 1)},
+ * which is rounded to the nearest whole number inside the bucket to represent it. Negative values are
+ * laid out as a mirror image of the positive ones, and zero has a bucket of its own, so indices are
+ * ascending in the order of the values.
+ *
+ * @see <a href="https://arxiv.org/abs/1908.10693">DDSketch: A Fast and Fully-Mergeable Quantile
+ * Sketch with Relative-Error Guarantees</a>
+ */
+final class LogBuckets {
+    private final double relativeAccuracy;
+    private final double gamma;
+    private final double logGamma;
+    private final int zeroIndex;
+
+    /**
+     * Creates a new layout.
+     *
+     * @param relativeAccuracy the relative accuracy of the bucket values, in {@code (0..1)}
+     */
+    LogBuckets(double relativeAccuracy) {
+        if (!(relativeAccuracy > 0 && relativeAccuracy < 1)) {
+            throw new IllegalArgumentException(relativeAccuracy + " is not in (0..1)");
+        }
+        this.relativeAccuracy = relativeAccuracy;
+        this.gamma = (1 + relativeAccuracy) / (1 - relativeAccuracy);
+        this.logGamma = Math.log(gamma);
+        this.zeroIndex = magnitudeIndexOf(Long.MAX_VALUE) + 1;
+    }
+
+    double getRelativeAccuracy() {
+        return relativeAccuracy;
+    }
+
+    /**
+     * Returns the number of buckets in this layout.
+     *
+     * @return the number of buckets
+     */
+    int length() {
+        return 2 * zeroIndex + 1;
+    }
+
+    /**
+     * Returns the index of the bucket holding {@code value}.
+     *
+     * @param value a recorded value
+     * @return the index of the bucket for {@code value}
+     */
+    int indexOf(long value) {
+        if (value > 0) {
+            return zeroIndex + 1 + magnitudeIndexOf(value);
+        }
+        if (value < 0) {
+            return zeroIndex - 1 - magnitudeIndexOf(value == Long.MIN_VALUE ? Long.MAX_VALUE : -value);
+        }
+        return zeroIndex;
+    }
+
+    /**
+     * Returns the value which represents every value in the bucket at {@code index}. Only buckets
+     * which hold at least one whole number have a representative value of their own.
+     *
+     * @param index a bucket index
+     * @return the representative value of the bucket
+     */
+    long valueAt(int index) {
+        if (index > zeroIndex) {
+            return magnitudeAt(index - zeroIndex - 1);
+        }
+        if (index < zeroIndex) {
+            return -magnitudeAt(zeroIndex - 1 - index);
+        }
+        return 0;
+    }
+
+    private int magnitudeIndexOf(long magnitude) {
+        return (int) Math.ceil(Math.log(magnitude) / logGamma);
+    }
+
+    private long magnitudeAt(int magnitudeIndex) {
+        long value = Math.max(1, Math.round(2 * Math.pow(gamma, magnitudeIndex) / (gamma + 1)));
+        // the rounded value can land in a neighbouring bucket, walk back to the nearest one inside
+        while (value > 1 && magnitudeIndexOf(value) > magnitudeIndex) {
+            value--;
+        }
+        while (value < Long.MAX_VALUE && magnitudeIndexOf(value) < magnitudeIndex) {
+            value++;
+        }
+        return value;
+    }
+}
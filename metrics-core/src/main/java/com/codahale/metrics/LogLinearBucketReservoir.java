@@ -0,0 +1,107 @@
+package com.codahale.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A {@link Reservoir} implementation which records every value into a fixed set of log-linear
+ * buckets, in the style of HdrHistogram. Each bucket is an atomic counter, so updates take no locks
+ * and allocate nothing, and the reservoir uses the same amount of memory however many values it
+ * records.
+ * <p>
+ * Values are kept with the configured number of significant decimal digits: the value reported for a
+ * bucket is within {@code 10^-significantDigits} of every value recorded into it. Like
+ * {@link UniformReservoir}, the quantiles are valid for the reservoir's whole lifetime. Negative
+ * values are recorded as {@code 0}, and values above the highest trackable value are recorded as
+ * the highest trackable value.
+ * <p>
+ * The reservoir's state is a {@link BucketedSnapshot}, which can be merged into other log-linear
+ * bucket reservoirs, even ones with a different precision.
+ */
+public class LogLinearBucketReservoir implements MergeableReservoir<BucketedSnapshot> {
+    private static final int DEFAULT_SIGNIFICANT_DIGITS = 2;
+    private static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = TimeUnit.HOURS.toNanos(1);
+
+    private final LogLinearBuckets buckets;
+    private final AtomicLongArray counts;
+    private final LongAdder count;
+
+    /**
+     * Creates a new {@link LogLinearBucketReservoir} which keeps two significant digits of values up
+     * to one hour in nanoseconds.
+     */
+    public LogLinearBucketReservoir() {
+        this(DEFAULT_SIGNIFICANT_DIGITS, DEFAULT_HIGHEST_TRACKABLE_VALUE);
+    }
+
+    /**
+     * Creates a new {@link LogLinearBucketReservoir}.
+     *
+     * @param significantDigits     the number of significant decimal digits to keep, in
+     *                              {@code [1..5]}
+     * @param highestTrackableValue the highest value to track with full precision
+     */
+    public LogLinearBucketReservoir(int significantDigits, long highestTrackableValue) {
+        this.buckets = new LogLinearBuckets(significantDigits, highestTrackableValue);
+        this.counts = new AtomicLongArray(buckets.length());
+        this.count = new LongAdder();
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(count.sum(), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void update(long value) {
+        counts.getAndIncrement(buckets.indexOf(value));
+        count.increment();
+    }
+
+    @Override
+    public void update(long[] values, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        // runs of values falling into the same bucket are added to it at once
+        int bucket = buckets.indexOf(values[offset]);
+        long run = 1;
+        for (int i = offset + 1; i < offset + length; i++) {
+            final int next = buckets.indexOf(values[i]);
+            if (next == bucket) {
+                run++;
+            } else {
+                counts.getAndAdd(bucket, run);
+                bucket = next;
+                run = 1;
+            }
+        }
+        counts.getAndAdd(bucket, run);
+        count.add(length);
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        return exportState();
+    }
+
+    @Override
+    public BucketedSnapshot exportState() {
+        final long[] copy = new long[counts.length()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = counts.get(i);
+        }
+        return buckets.snapshotOf(copy);
+    }
+
+    @Override
+    public void mergeState(BucketedSnapshot state) {
+        final long[] values = state.getBucketValues();
+        final long[] valueCounts = state.getBucketCounts();
+        for (int i = 0; i < values.length; i++) {
+            counts.getAndAdd(buckets.indexOf(values[i]), valueCounts[i]);
+        }
+        count.add(state.getCount());
+    }
+}
@@ -0,0 +1,135 @@
+package com.codahale.metrics;
+
+/**
+ * A fixed log-linear bucket layout for non-negative {@code long}s, in the style of HdrHistogram.
+ * <p>
+ * Values are grouped by the position of their highest set bit, and every such power-of-two range is
+ * split into {@code 2^(p-1)} linear sub-buckets, where {@code p} is the smallest number of bits which
+ * keeps the relative width of a bucket under {@code 10^-significantDigits}. Values below {@code 2^p}
+ * get a bucket of their own.
+ */
+final class LogLinearBuckets {
+    private final int significantDigits;
+    private final long highestTrackableValue;
+    private final int subBucketBits;
+    private final int subBucketHalfBits;
+    private final int length;
+
+    /**
+     * Creates a new layout.
+     *
+     * @param significantDigits     the number of significant decimal digits to preserve, in
+     *                              {@code [1..5]}
+     * @param highestTrackableValue the highest value which is tracked with full precision; higher
+     *                              values are recorded in the last bucket
+     */
+    LogLinearBuckets(int significantDigits, long highestTrackableValue) {
+        if (significantDigits < 1 || significantDigits > 5) {
+            throw new IllegalArgumentException(significantDigits + " is not in [1..5]");
+        }
+        if (highestTrackableValue < 1) {
+            throw new IllegalArgumentException("highestTrackableValue must be positive: " + highestTrackableValue);
+        }
+        long largestSingleUnitValue = 2;
+        for (int i = 0; i < significantDigits; i++) {
+            largestSingleUnitValue *= 10;
+        }
+        this.significantDigits = significantDigits;
+        this.highestTrackableValue = highestTrackableValue;
+        this.subBucketBits = 64 - Long.numberOfLeadingZeros(largestSingleUnitValue - 1);
+        this.subBucketHalfBits = subBucketBits - 1;
+        this.length = indexOf(highestTrackableValue) + 1;
+    }
+
+    int getSignificantDigits() {
+        return significantDigits;
+    }
+
+    long getHighestTrackableValue() {
+        return highestTrackableValue;
+    }
+
+    /**
+     * Returns the number of buckets in this layout.
+     *
+     * @return the number of buckets
+     */
+    int length() {
+        return length;
+    }
+
+    /**
+     * Returns the index of the bucket holding {@code value}. Negative values map to the first bucket
+     * and values above the highest trackable value map to the last one.
+     *
+     * @param value a recorded value
+     * @return the index of the bucket for {@code value}
+     */
+    int indexOf(long value) {
+        final long v = value < 0 ? 0 : Math.min(value, highestTrackableValue);
+        final int shift = Math.max(0, 64 - Long.numberOfLeadingZeros(v) - subBucketBits);
+        return (shift << subBucketHalfBits) + (int) (v >>> shift);
+    }
+
+    /**
+     * Returns the lowest value which falls into the bucket at {@code index}.
+     *
+     * @param index a bucket index
+     * @return the lowest value of the bucket
+     */
+    long lowestEquivalentValue(int index) {
+        final int shift = shiftOf(index);
+        return (long) (index - (shift << subBucketHalfBits)) << shift;
+    }
+
+    /**
+     * Returns the number of values which fall into the bucket at {@code index}.
+     *
+     * @param index a bucket index
+     * @return the width of the bucket
+     */
+    long widthOf(int index) {
+        return 1L << shiftOf(index);
+    }
+
+    /**
+     * Returns the value which represents every value in the bucket at {@code index}: the middle of
+     * the bucket, rounded down.
+     *
+     * @param index a bucket index
+     * @return the representative value of the bucket
+     */
+    long valueAt(int index) {
+        return lowestEquivalentValue(index) + ((1L << shiftOf(index)) >>> 1);
+    }
+
+    /**
+     * Returns a snapshot of the given bucket counts, with a value for every non-empty bucket.
+     *
+     * @param counts the number of values recorded in each bucket of this layout
+     * @return a snapshot of the counted values
+     */
+    BucketedSnapshot snapshotOf(long[] counts) {
+        int nonEmpty = 0;
+        for (long count : counts) {
+            if (count != 0) {
+                nonEmpty++;
+            }
+        }
+
+        final long[] values = new long[nonEmpty];
+        final long[] valueCounts = new long[nonEmpty];
+        for (int i = 0, j = 0; j < nonEmpty; i++) {
+            if (counts[i] != 0) {
+                values[j] = valueAt(i);
+                valueCounts[j] = counts[i];
+                j++;
+            }
+        }
+        return new BucketedSnapshot(values, valueCounts);
+    }
+
+    private int shiftOf(int index) {
+        return Math.max(0, (index >>> subBucketHalfBits) - 1);
+    }
+}
@@ -0,0 +1,24 @@
+package com.codahale.metrics;
+
+/**
+ * A {@link Reservoir} whose state can be exported and merged into another reservoir of the same kind,
+ * so that the shards of a histogram, or the same histogram in several registries, can be combined
+ * into correct quantiles.
+ *
+ * @param <S> the type of the exported state
+ */
+public interface MergeableReservoir<S> extends Reservoir {
+    /**
+     * Returns the state of the reservoir, which can be merged into another reservoir of the same kind.
+     *
+     * @return the state of the reservoir
+     */
+    S exportState();
+
+    /**
+     * Adds the values of the given state to the reservoir, as if they had been recorded into it.
+     *
+     * @param state a state exported by another reservoir of the same kind
+     */
+    void mergeState(S state);
+}
@@ -7,10 +7,14 @@ import java.util.concurrent.atomic.LongAdder;
 /**
  * A meter metric which measures mean throughput and one-, five-, and fifteen-minute
  * exponentially-weighted moving average throughputs.
+ * <p>
+ * Marking the meter only adds to a single counter. The moving averages are advanced from the growth
+ * of that counter once per tick interval, when the meter is next marked or read, or by a
+ * {@link MeterTicker} if the meter was created with one.
  *
  * @see EWMA
  */
-public class Meter implements Metered {
+public class Meter extends AbstractMeter {
     private static final long TICK_INTERVAL = TimeUnit.SECONDS.toNanos(5);
 
     private final EWMA m1Rate = EWMA.oneMinuteEWMA();
@@ -18,9 +22,11 @@ public class Meter implements Metered {
     private final EWMA m15Rate = EWMA.fifteenMinuteEWMA();
 
     private final LongAdder count = new LongAdder();
+    private final AtomicLong lastTickCount = new AtomicLong();
     private final long startTime;
     private final AtomicLong lastTick;
     private final Clock clock;
+    private final boolean ticked;
 
     /**
      * Creates a new {@link Meter}.
@@ -35,9 +41,33 @@ public class Meter implements Metered {
      * @param clock the clock to use for the meter ticks
      */
     public Meter(Clock clock) {
+        this(clock, null);
+    }
+
+    /**
+     * Creates a new {@link Meter} whose moving averages are advanced by the given ticker.
+     *
+     * @param ticker the ticker which advances the moving averages
+     */
+    public Meter(MeterTicker ticker) {
+        this(Clock.defaultClock(), ticker);
+    }
+
+    /**
+     * Creates a new {@link Meter} whose moving averages are advanced by the given ticker, or by the
+     * meter itself if {@code ticker} is {@code null}.
+     *
+     * @param clock  the clock to use for the meter ticks and the mean rate
+     * @param ticker the ticker which advances the moving averages, or {@code null}
+     */
+    public Meter(Clock clock, MeterTicker ticker) {
         this.clock = clock;
         this.startTime = this.clock.getTick();
         this.lastTick = new AtomicLong(startTime);
+        this.ticked = ticker != null;
+        if (ticked) {
+            ticker.register(this);
+        }
     }
 
     /**
@@ -52,27 +82,46 @@ public class Meter implements Metered {
      *
      * @param n the number of events
      */
+    @Override
     public void mark(long n) {
         tickIfNecessary();
         count.add(n);
-        m1Rate.update(n);
-        m5Rate.update(n);
-        m15Rate.update(n);
+    }
+
+    /**
+     * Marks the occurrence of a given number of events without checking whether the moving averages
+     * need advancing, which saves reading the clock. They catch up with these events on the next tick.
+     *
+     * @param n the number of events
+     */
+    @Override
+    void markWithoutTick(long n) {
+        count.add(n);
+    }
+
+    void tick() {
+        tick(1);
+    }
+
+    private void tick(long intervals) {
+        final long currentCount = count.sum();
+        final long uncounted = currentCount - lastTickCount.getAndSet(currentCount);
+        m1Rate.tick(uncounted, intervals);
+        m5Rate.tick(uncounted, intervals);
+        m15Rate.tick(uncounted, intervals);
     }
 
     private void tickIfNecessary() {
+        if (ticked) {
+            return;
+        }
         final long oldTick = lastTick.get();
         final long newTick = clock.getTick();
         final long age = newTick - oldTick;
         if (age > TICK_INTERVAL) {
             final long newIntervalStartTick = newTick - age % TICK_INTERVAL;
             if (lastTick.compareAndSet(oldTick, newIntervalStartTick)) {
-                final long requiredTicks = age / TICK_INTERVAL;
-                for (long i = 0; i < requiredTicks; i++) {
-                    m1Rate.tick();
-                    m5Rate.tick();
-                    m15Rate.tick();
-                }
+                tick(age / TICK_INTERVAL);
             }
         }
     }
@@ -0,0 +1,107 @@
+package com.codahale.metrics;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Advances the moving averages of a set of {@link Meter}s (and the meters of {@link Timer}s) from a
+ * single background thread, every five seconds.
+ * <p>
+ * Meters created with a ticker do not read the clock or tick themselves when they are marked or
+ * read, which takes that work off the threads recording events. The ticker only holds weak
+ * references to its meters, so meters which are no longer used can still be garbage collected.
+ *
+ * @see MetricRegistry#MetricRegistry(MeterTicker)
+ */
+public class MeterTicker implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(MeterTicker.class);
+    private static final long TICK_INTERVAL = 5;
+
+    private final Queue<WeakReference<Meter>> meters = new ConcurrentLinkedQueue<>();
+    private final ScheduledExecutorService executor;
+    private final boolean shutdownExecutorOnClose;
+    private final ScheduledFuture<?> ticks;
+
+    /**
+     * Creates a new {@link MeterTicker} which ticks its meters on its own daemon thread.
+     */
+    public MeterTicker() {
+        this(Executors.newSingleThreadScheduledExecutor(r -> {
+            final Thread thread = new Thread(r, "metrics-meter-ticker");
+            thread.setDaemon(true);
+            return thread;
+        }), true);
+    }
+
+    /**
+     * Creates a new {@link MeterTicker} which ticks its meters on the given executor.
+     *
+     * @param executor the executor to schedule the ticks on
+     */
+    public MeterTicker(ScheduledExecutorService executor) {
+        this(executor, false);
+    }
+
+    private MeterTicker(ScheduledExecutorService executor, boolean shutdownExecutorOnClose) {
+        this.executor = executor;
+        this.shutdownExecutorOnClose = shutdownExecutorOnClose;
+        this.ticks = executor.scheduleAtFixedRate(() -> {
+            try {
+                tick();
+            } catch (Throwable ex) {
+                // an exception would cancel the scheduled task, and with it the ticks of every meter
+                LOG.error("Exception thrown from {}#tick. Exception was suppressed.", MeterTicker.class.getSimpleName(), ex);
+            }
+        }, TICK_INTERVAL, TICK_INTERVAL, TimeUnit.SECONDS);
+    }
+
+    void register(Meter meter) {
+        meters.add(new WeakReference<>(meter));
+    }
+
+    /**
+     * Advances the moving averages of all registered meters by one tick interval, and forgets the
+     * meters which have been garbage collected.
+     */
+    public void tick() {
+        final Iterator<WeakReference<Meter>> iterator = meters.iterator();
+        while (iterator.hasNext()) {
+            final Meter meter = iterator.next().get();
+            if (meter == null) {
+                iterator.remove();
+            } else {
+                meter.tick();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of meters the ticker still holds.
+     *
+     * @return the number of registered meters which have not been garbage collected yet
+     */
+    public int size() {
+        return meters.size();
+    }
+
+    /**
+     * Stops ticking the meters, and shuts down the ticker's thread if it has its own.
+     */
+    @Override
+    public void close() {
+        ticks.cancel(false);
+        if (shutdownExecutorOnClose) {
+            executor.shutdown();
+        }
+    }
+}
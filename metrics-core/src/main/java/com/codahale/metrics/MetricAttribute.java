@@ -19,7 +19,8 @@ public enum MetricAttribute {
     M1_RATE("m1_rate"),
     M5_RATE("m5_rate"),
     M15_RATE("m15_rate"),
-    MEAN_RATE("mean_rate");
+    MEAN_RATE("mean_rate"),
+    BUCKETS("le");
 
     private final String code;
 
@@ -0,0 +1,66 @@
+package com.codahale.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * A pre-resolved family of metrics of one type in a {@link MetricRegistry}, whose names are a base
+ * name followed by a parameter, such as a tenant or an endpoint.
+ * <p>
+ * A handle resolves the name for every parameter once and keeps it, so a repeated lookup costs a
+ * hash lookup of the parameter and a registry lookup by a {@link MetricName} whose hash is known,
+ * instead of building and hashing a new dotted name. The handle only keeps names, not metrics, so
+ * a metric removed from the registry is created anew by the next lookup, as
+ * {@link MetricRegistry#timer(String)} and its siblings would.
+ *
+ * @param <T> the type of the metrics
+ */
+public class MetricHandle<T extends Metric> {
+    private final MetricName name;
+    private final Function<MetricName, T> lookup;
+    private final ConcurrentMap<String, MetricName> names;
+
+    MetricHandle(MetricName name, Function<MetricName, T> lookup) {
+        this.name = name;
+        this.lookup = lookup;
+        this.names = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns the base name of the handle's metrics.
+     *
+     * @return the base name
+     */
+    public MetricName getName() {
+        return name;
+    }
+
+    /**
+     * Returns the metric registered under the base name; or creates and registers a new one if none
+     * is registered.
+     *
+     * @return a new or pre-existing metric
+     */
+    public T get() {
+        return lookup.apply(name);
+    }
+
+    /**
+     * Returns the metric registered under the base name followed by {@code parameter}; or creates
+     * and registers a new one if none is registered.
+     *
+     * @param parameter the last element of the name, elided if null or empty
+     * @return a new or pre-existing metric
+     */
+    public T get(String parameter) {
+        if (parameter == null) {
+            return get();
+        }
+        MetricName resolved = names.get(parameter);
+        if (resolved == null) {
+            resolved = names.computeIfAbsent(parameter, name::resolve);
+        }
+        return lookup.apply(resolved);
+    }
+}
@@ -0,0 +1,243 @@
+package com.codahale.metrics;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * An immutable name of a metric, for looking metrics up in a {@link MetricRegistry} without
+ * building their names anew on every lookup.
+ * <p>
+ * A {@link MetricName} is a dotted name, as built by {@link MetricRegistry#name(String, String...)},
+ * along with an optional set of tags, such as the tenant or the endpoint a metric is about. The
+ * registry keys the metric by the dotted name, followed by the tags sorted by their keys in braces,
+ * like {@code requests{endpoint=/users,tenant=acme}}. The key and its hash are computed once, when
+ * the name is created, and the registry stores a metric added through a {@link MetricName} under the
+ * name's own key, so later lookups through the same {@link MetricName} find the key by identity
+ * rather than by comparing characters. Names should therefore be created once, kept in a field, and
+ * resolved further through {@link #resolve(String...)}, a {@link MetricHandle} or a
+ * {@link TaggedMetricHandle}.
+ * <p>
+ * Reporters render the tags of a name their own way. As the rendering of a name never changes, a
+ * reporter renders it through {@link #render(Function)}, which keeps the rendered form.
+ */
+public final class MetricName {
+    private static final String[] NO_TAGS = new String[0];
+    private static final Object[] NO_RENDERINGS = new Object[0];
+    // the number of renderers whose results a name keeps, beyond which the oldest is dropped
+    private static final int MAX_RENDERINGS = 8;
+
+    private final String name;
+    // the keys and values of the tags, alternating and sorted by key
+    private final String[] tags;
+    private final String key;
+    private final int hash;
+    // the renderers and their results, alternating
+    private volatile Object[] renderings = NO_RENDERINGS;
+
+    private MetricName(String name, String[] tags) {
+        this.name = name;
+        this.tags = tags;
+        this.key = tags.length == 0 ? name : keyOf(name, tags);
+        this.hash = key.hashCode();
+    }
+
+    /**
+     * Returns a {@link MetricName} for the given dotted name, without tags.
+     *
+     * @param key the name of the metric
+     * @return a {@link MetricName} for {@code key}
+     */
+    public static MetricName of(String key) {
+        if (key == null) {
+            throw new IllegalArgumentException("A metric name is required");
+        }
+        return new MetricName(key, NO_TAGS);
+    }
+
+    /**
+     * Concatenates elements to form a dotted name, eliding any null values or empty strings.
+     *
+     * @param name  the first element of the name
+     * @param names the remaining elements of the name
+     * @return a {@link MetricName} for {@code name} and {@code names} concatenated by periods
+     * @see MetricRegistry#name(String, String...)
+     */
+    public static MetricName name(String name, String... names) {
+        return new MetricName(MetricRegistry.name(name, names), NO_TAGS);
+    }
+
+    /**
+     * Concatenates a class name and elements to form a dotted name, eliding any null values or
+     * empty strings.
+     *
+     * @param klass the first element of the name
+     * @param names the remaining elements of the name
+     * @return a {@link MetricName} for {@code klass} and {@code names} concatenated by periods
+     * @see MetricRegistry#name(Class, String...)
+     */
+    public static MetricName name(Class<?> klass, String... names) {
+        return new MetricName(MetricRegistry.name(klass, names), NO_TAGS);
+    }
+
+    /**
+     * Appends elements to the dotted name, eliding any null values or empty strings. The tags are
+     * kept.
+     *
+     * @param names the elements to append
+     * @return a {@link MetricName} for this name and {@code names} concatenated by periods, or this
+     * name if there is nothing to append
+     */
+    public MetricName resolve(String... names) {
+        final String resolved = MetricRegistry.name(name, names);
+        return resolved.length() == name.length() ? this : new MetricName(resolved, tags);
+    }
+
+    /**
+     * Adds tags to this name. A tag whose key this name already has replaces the existing one.
+     *
+     * @param keysAndValues the keys and values of the tags, alternating; neither may be empty or
+     *                      contain a comma, an equals sign or a brace
+     * @return a {@link MetricName} with this name's tags and the given ones
+     */
+    public MetricName tagged(String... keysAndValues) {
+        if (keysAndValues.length % 2 != 0) {
+            throw new IllegalArgumentException("Tags need a value for every key: " + Arrays.toString(keysAndValues));
+        }
+        if (keysAndValues.length == 0) {
+            return this;
+        }
+        final TreeMap<String, String> merged = new TreeMap<>();
+        for (int i = 0; i < tags.length; i += 2) {
+            merged.put(tags[i], tags[i + 1]);
+        }
+        for (int i = 0; i < keysAndValues.length; i += 2) {
+            merged.put(checkTag(keysAndValues[i]), checkTag(keysAndValues[i + 1]));
+        }
+        final String[] sorted = new String[merged.size() * 2];
+        int i = 0;
+        for (Map.Entry<String, String> tag : merged.entrySet()) {
+            sorted[i++] = tag.getKey();
+            sorted[i++] = tag.getValue();
+        }
+        return new MetricName(name, sorted);
+    }
+
+    /**
+     * Returns the dotted name, without the tags.
+     *
+     * @return the dotted name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the tags, sorted by their keys.
+     *
+     * @return the tags
+     */
+    public SortedMap<String, String> getTags() {
+        final TreeMap<String, String> result = new TreeMap<>();
+        for (int i = 0; i < tags.length; i += 2) {
+            result.put(tags[i], tags[i + 1]);
+        }
+        return Collections.unmodifiableSortedMap(result);
+    }
+
+    /**
+     * Returns whether the name has any tags.
+     *
+     * @return whether the name has tags
+     */
+    public boolean isTagged() {
+        return tags.length > 0;
+    }
+
+    /**
+     * Returns the key the registry keys the metric by: the dotted name, followed by the tags in
+     * braces if there are any.
+     *
+     * @return the key
+     */
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Renders this name with the given renderer, or returns what the same renderer, compared by
+     * identity, returned before. A reporter should therefore keep its renderers in fields.
+     *
+     * @param renderer the renderer
+     * @param <R>      the type of the rendered form
+     * @return the rendered form of this name
+     */
+    @SuppressWarnings("unchecked")
+    public <R> R render(Function<? super MetricName, ? extends R> renderer) {
+        final Object[] cached = renderings;
+        for (int i = 0; i < cached.length; i += 2) {
+            if (cached[i] == renderer) {
+                return (R) cached[i + 1];
+            }
+        }
+        final R rendered = renderer.apply(this);
+        synchronized (this) {
+            final Object[] current = renderings;
+            final int from = current.length < MAX_RENDERINGS * 2 ? 0 : 2;
+            final Object[] updated = Arrays.copyOfRange(current, from, current.length + 2);
+            updated[updated.length - 2] = renderer;
+            updated[updated.length - 1] = rendered;
+            renderings = updated;
+        }
+        return rendered;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MetricName)) {
+            return false;
+        }
+        final MetricName that = (MetricName) o;
+        return hash == that.hash && key.equals(that.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    private static String keyOf(String name, String[] tags) {
+        final StringBuilder builder = new StringBuilder(name).append('{');
+        for (int i = 0; i < tags.length; i += 2) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(tags[i]).append('=').append(tags[i + 1]);
+        }
+        return builder.append('}').toString();
+    }
+
+    static String checkTag(String tag) {
+        if (tag == null || tag.isEmpty()) {
+            throw new IllegalArgumentException("Tag keys and values may not be empty");
+        }
+        for (int i = 0; i < tag.length(); i++) {
+            final char c = tag.charAt(i);
+            if (c == ',' || c == '=' || c == '{' || c == '}') {
+                throw new IllegalArgumentException("Tag keys and values may not contain '" + c + "': " + tag);
+            }
+        }
+        return tag;
+    }
+}
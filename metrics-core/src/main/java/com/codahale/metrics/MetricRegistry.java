@@ -55,14 +55,31 @@ public class MetricRegistry implements MetricSet {
     }
 
     private final ConcurrentMap<String, Metric> metrics;
+    // the names of the metrics added with tags, by key, for reporters to render the tags
+    private final ConcurrentMap<String, MetricName> taggedNames;
     private final List<MetricRegistryListener> listeners;
+    private final MetricBuilder<Meter> meters;
+    private final MetricBuilder<Timer> timers;
 
     /**
      * Creates a new {@link MetricRegistry}.
      */
     public MetricRegistry() {
+        this(null);
+    }
+
+    /**
+     * Creates a new {@link MetricRegistry} whose meters and timers have their rates advanced by the
+     * given {@link MeterTicker}, rather than by the threads which mark and read them.
+     *
+     * @param ticker the ticker for the meters and timers the registry creates, or {@code null}
+     */
+    public MetricRegistry(MeterTicker ticker) {
         this.metrics = buildMap();
+        this.taggedNames = new ConcurrentHashMap<>();
         this.listeners = new CopyOnWriteArrayList<>();
+        this.meters = ticker == null ? MetricBuilder.METERS : MetricBuilder.meters(ticker);
+        this.timers = ticker == null ? MetricBuilder.TIMERS : MetricBuilder.timers(ticker);
     }
 
     /**
@@ -87,11 +104,25 @@ public class MetricRegistry implements MetricSet {
      */
     @SuppressWarnings("unchecked")
     public <T extends Metric> T register(String name, T metric) throws IllegalArgumentException {
+        return register(name, null, metric);
+    }
+
+    /*
+     * Registers a metric under the given key, with the given tags if it is not null. The tags are
+     * only recorded once the metric was added, but before the listeners hear of it.
+     */
+    private <T extends Metric> T register(String name, MetricName tagged, T metric) throws IllegalArgumentException {
         if (metric instanceof MetricSet) {
             registerAll(name, (MetricSet) metric);
         } else {
             final Metric existing = metrics.putIfAbsent(name, metric);
             if (existing == null) {
+                if (tagged != null) {
+                    taggedNames.put(name, tagged);
+                } else {
+                    // the tags of a metric which was removed while this one was being added
+                    taggedNames.remove(name);
+                }
                 onMetricAdded(name, metric);
             } else {
                 throw new IllegalArgumentException("A metric named " + name + " already exists");
@@ -100,6 +131,20 @@ public class MetricRegistry implements MetricSet {
         return metric;
     }
 
+    /**
+     * Given a {@link Metric}, registers it under the given name, whose tags are kept for reporters
+     * to render.
+     *
+     * @param name   the name of the metric
+     * @param metric the metric
+     * @param <T>    the type of the metric
+     * @return {@code metric}
+     * @throws IllegalArgumentException if the name is already registered
+     */
+    public <T extends Metric> T register(MetricName name, T metric) throws IllegalArgumentException {
+        return register(name.getKey(), name.isTagged() ? name : null, metric);
+    }
+
     /**
      * Given a metric set, registers them.
      *
@@ -176,6 +221,29 @@ public class MetricRegistry implements MetricSet {
         });
     }
 
+    /**
+     * Return the {@link FixedBucketHistogram} registered under this name; or create and register
+     * a new {@link FixedBucketHistogram} with the given bucket bounds if none is registered. A
+     * pre-existing histogram keeps the bounds it was created with.
+     *
+     * @param name   the name of the metric
+     * @param bounds the inclusive upper bounds of the buckets, in strictly ascending order
+     * @return a new or pre-existing {@link FixedBucketHistogram}
+     */
+    public FixedBucketHistogram fixedBucketHistogram(String name, final long... bounds) {
+        return getOrAdd(name, new MetricBuilder<FixedBucketHistogram>() {
+            @Override
+            public FixedBucketHistogram newMetric() {
+                return new FixedBucketHistogram(bounds);
+            }
+
+            @Override
+            public boolean isInstance(Metric metric) {
+                return FixedBucketHistogram.class.isInstance(metric);
+            }
+        });
+    }
+
     /**
      * Return the {@link Meter} registered under this name; or create and register
      * a new {@link Meter} if none is registered.
@@ -184,7 +252,7 @@ public class MetricRegistry implements MetricSet {
      * @return a new or pre-existing {@link Meter}
      */
     public Meter meter(String name) {
-        return getOrAdd(name, MetricBuilder.METERS);
+        return getOrAdd(name, meters);
     }
 
     /**
@@ -217,7 +285,7 @@ public class MetricRegistry implements MetricSet {
      * @return a new or pre-existing {@link Timer}
      */
     public Timer timer(String name) {
-        return getOrAdd(name, MetricBuilder.TIMERS);
+        return getOrAdd(name, timers);
     }
 
     /**
@@ -242,6 +310,142 @@ public class MetricRegistry implements MetricSet {
         });
     }
 
+    /**
+     * Return the {@link Counter} registered under this name; or create and register
+     * a new {@link Counter} if none is registered.
+     *
+     * @param name the name of the metric
+     * @return a new or pre-existing {@link Counter}
+     */
+    public Counter counter(MetricName name) {
+        return getOrAdd(name, MetricBuilder.COUNTERS);
+    }
+
+    /**
+     * Return the {@link Histogram} registered under this name; or create and register
+     * a new {@link Histogram} if none is registered.
+     *
+     * @param name the name of the metric
+     * @return a new or pre-existing {@link Histogram}
+     */
+    public Histogram histogram(MetricName name) {
+        return getOrAdd(name, MetricBuilder.HISTOGRAMS);
+    }
+
+    /**
+     * Return the {@link Meter} registered under this name; or create and register
+     * a new {@link Meter} if none is registered.
+     *
+     * @param name the name of the metric
+     * @return a new or pre-existing {@link Meter}
+     */
+    public Meter meter(MetricName name) {
+        return getOrAdd(name, meters);
+    }
+
+    /**
+     * Return the {@link Timer} registered under this name; or create and register
+     * a new {@link Timer} if none is registered.
+     *
+     * @param name the name of the metric
+     * @return a new or pre-existing {@link Timer}
+     */
+    public Timer timer(MetricName name) {
+        return getOrAdd(name, timers);
+    }
+
+    /**
+     * Return a {@link MetricHandle} for the counters whose names are the given name, optionally
+     * followed by a parameter.
+     *
+     * @param name the base name of the counters
+     * @return a {@link MetricHandle} for the counters
+     */
+    public MetricHandle<Counter> counterHandle(MetricName name) {
+        return new MetricHandle<>(name, this::counter);
+    }
+
+    /**
+     * Return a {@link MetricHandle} for the histograms whose names are the given name, optionally
+     * followed by a parameter.
+     *
+     * @param name the base name of the histograms
+     * @return a {@link MetricHandle} for the histograms
+     */
+    public MetricHandle<Histogram> histogramHandle(MetricName name) {
+        return new MetricHandle<>(name, this::histogram);
+    }
+
+    /**
+     * Return a {@link MetricHandle} for the meters whose names are the given name, optionally
+     * followed by a parameter.
+     *
+     * @param name the base name of the meters
+     * @return a {@link MetricHandle} for the meters
+     */
+    public MetricHandle<Meter> meterHandle(MetricName name) {
+        return new MetricHandle<>(name, this::meter);
+    }
+
+    /**
+     * Return a {@link MetricHandle} for the timers whose names are the given name, optionally
+     * followed by a parameter.
+     *
+     * @param name the base name of the timers
+     * @return a {@link MetricHandle} for the timers
+     */
+    public MetricHandle<Timer> timerHandle(MetricName name) {
+        return new MetricHandle<>(name, this::timer);
+    }
+
+    /**
+     * Return a {@link TaggedMetricHandle} for the counters whose names are the given name tagged
+     * with values of the given tag keys.
+     *
+     * @param name    the base name of the counters
+     * @param tagKeys the keys of the tags, in the order in which lookups take their values
+     * @return a {@link TaggedMetricHandle} for the counters
+     */
+    public TaggedMetricHandle<Counter> taggedCounterHandle(MetricName name, String... tagKeys) {
+        return new TaggedMetricHandle<>(name, tagKeys, this::counter);
+    }
+
+    /**
+     * Return a {@link TaggedMetricHandle} for the histograms whose names are the given name tagged
+     * with values of the given tag keys.
+     *
+     * @param name    the base name of the histograms
+     * @param tagKeys the keys of the tags, in the order in which lookups take their values
+     * @return a {@link TaggedMetricHandle} for the histograms
+     */
+    public TaggedMetricHandle<Histogram> taggedHistogramHandle(MetricName name, String... tagKeys) {
+        return new TaggedMetricHandle<>(name, tagKeys, this::histogram);
+    }
+
+    /**
+     * Return a {@link TaggedMetricHandle} for the meters whose names are the given name tagged
+     * with values of the given tag keys.
+     *
+     * @param name    the base name of the meters
+     * @param tagKeys the keys of the tags, in the order in which lookups take their values
+     * @return a {@link TaggedMetricHandle} for the meters
+     */
+    public TaggedMetricHandle<Meter> taggedMeterHandle(MetricName name, String... tagKeys) {
+        return new TaggedMetricHandle<>(name, tagKeys, this::meter);
+    }
+
+    /**
+     * Return a {@link TaggedMetricHandle} for the timers whose names are the given name tagged
+     * with values of the given tag keys.
+     *
+     * @param name    the base name of the timers
+     * @param tagKeys the keys of the tags, in the order in which lookups take their values
+     * @return a {@link TaggedMetricHandle} for the timers
+     */
+    public TaggedMetricHandle<Timer> taggedTimerHandle(MetricName name, String... tagKeys) {
+        return new TaggedMetricHandle<>(name, tagKeys, this::timer);
+    }
+
     /**
      * Return the {@link Gauge} registered under this name; or create and register
      * a new {@link Gauge} using the provided MetricSupplier if none is registered.
@@ -276,11 +480,35 @@ public class MetricRegistry implements MetricSet {
         final Metric metric = metrics.remove(name);
         if (metric != null) {
             onMetricRemoved(name, metric);
+            // after the listeners, which may still need the tags, and unless a metric has been
+            // registered under the same key since, which has tags of its own
+            taggedNames.computeIfPresent(name, (key, tagged) -> metrics.containsKey(key) ? tagged : null);
             return true;
         }
         return false;
     }
 
+    /**
+     * Removes the metric with the given name.
+     *
+     * @param name the name of the metric
+     * @return whether or not the metric was removed
+     */
+    public boolean remove(MetricName name) {
+        return remove(name.getKey());
+    }
+
+    /**
+     * Returns the name, with its tags, of the metric registered under the given key through a
+     * tagged {@link MetricName}.
+     *
+     * @param key the key of the metric
+     * @return the tagged name of the metric, or {@code null} if it was registered without tags
+     */
+    public MetricName getTaggedName(String key) {
+        return taggedNames.get(key);
+    }
+
     /**
      * Removes all metrics which match the given filter.
      *
@@ -427,14 +655,23 @@ public class MetricRegistry implements MetricSet {
         return getMetrics(Timer.class, filter);
     }
 
-    @SuppressWarnings("unchecked")
+    private <T extends Metric> T getOrAdd(MetricName name, MetricBuilder<T> builder) {
+        return getOrAdd(name.getKey(), name.isTagged() ? name : null, builder);
+    }
+
     private <T extends Metric> T getOrAdd(String name, MetricBuilder<T> builder) {
+        return getOrAdd(name, null, builder);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Metric> T getOrAdd(String name, MetricName tagged, MetricBuilder<T> builder) {
         final Metric metric = metrics.get(name);
         if (builder.isInstance(metric)) {
             return (T) metric;
         } else if (metric == null) {
             try {
-                return register(name, builder.newMetric());
+                final T added = builder.newMetric();
+                return tagged == null ? register(name, added) : register(name, tagged, added);
             } catch (IllegalArgumentException e) {
                 final Metric added = metrics.get(name);
                 if (builder.isInstance(added)) {
@@ -573,6 +810,34 @@ public class MetricRegistry implements MetricSet {
             }
         };
 
+        static MetricBuilder<Meter> meters(MeterTicker ticker) {
+            return new MetricBuilder<Meter>() {
+                @Override
+                public Meter newMetric() {
+                    return new Meter(ticker);
+                }
+
+                @Override
+                public boolean isInstance(Metric metric) {
+                    return Meter.class.isInstance(metric);
+                }
+            };
+        }
+
+        static MetricBuilder<Timer> timers(MeterTicker ticker) {
+            return new MetricBuilder<Timer>() {
+                @Override
+                public Timer newMetric() {
+                    return new Timer(new ExponentiallyDecayingReservoir(), Clock.defaultClock(), ticker);
+                }
+
+                @Override
+                public boolean isInstance(Metric metric) {
+                    return Timer.class.isInstance(metric);
+                }
+            };
+        }
+
         T newMetric();
 
         boolean isInstance(Metric metric);
@@ -0,0 +1,185 @@
+package com.codahale.metrics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Reservoir} implementation which keeps the log-linear bucket counts of the last one, five
+ * and fifteen minutes of values from a single stream of updates, like
+ * {@link SlidingTimeWindowBucketReservoir} over three windows at once.
+ * <p>
+ * The windows are two rings of time slices at different resolutions: twelve five-second slices for
+ * the last minute, and thirty thirty-second slices for the last five and fifteen minutes, whose
+ * snapshots add up the latest ten and all thirty slices of the coarse ring. An update increments one
+ * bucket in each ring, reading the clock once. Values expire a whole slice at a time, so each
+ * window's snapshot covers between the window less one slice and the whole window.
+ * <p>
+ * {@link #getSnapshot()} returns the snapshot of the last minute.
+ * <p>
+ * The reservoir's state is a snapshot of every slice of both rings, which can be merged into another
+ * multi-window bucket reservoir, whose values then expire when they would have in this one.
+ */
+public class MultiWindowBucketReservoir implements MergeableReservoir<MultiWindowBucketReservoir.State>,
+        WindowedSampling {
+    private static final int DEFAULT_SIGNIFICANT_DIGITS = 2;
+    private static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = TimeUnit.HOURS.toNanos(1);
+    private static final int FINE_SLICES = 12;
+    private static final long FINE_SLICE_NANOS = TimeUnit.SECONDS.toNanos(5);
+    private static final int COARSE_SLICES = 30;
+    private static final long COARSE_SLICE_NANOS = TimeUnit.SECONDS.toNanos(30);
+    private static final int FIVE_MINUTE_SLICES = 10;
+
+    private final Clock clock;
+    private final LogLinearBuckets buckets;
+    private final BucketSliceRing fine;
+    private final BucketSliceRing coarse;
+
+    /**
+     * Creates a new {@link MultiWindowBucketReservoir} which keeps two significant digits of values up
+     * to one hour in nanoseconds.
+     */
+    public MultiWindowBucketReservoir() {
+        this(Clock.defaultClock());
+    }
+
+    /**
+     * Creates a new {@link MultiWindowBucketReservoir} with the given clock, which keeps two
+     * significant digits of values up to one hour in nanoseconds.
+     *
+     * @param clock the {@link Clock} to use
+     */
+    public MultiWindowBucketReservoir(Clock clock) {
+        this(DEFAULT_SIGNIFICANT_DIGITS, DEFAULT_HIGHEST_TRACKABLE_VALUE, clock);
+    }
+
+    /**
+     * Creates a new {@link MultiWindowBucketReservoir}.
+     *
+     * @param significantDigits     the number of significant decimal digits to keep, in
+     *                              {@code [1..5]}
+     * @param highestTrackableValue the highest value to track with full precision
+     * @param clock                 the {@link Clock} to use
+     */
+    public MultiWindowBucketReservoir(int significantDigits, long highestTrackableValue, Clock clock) {
+        this.clock = clock;
+        this.buckets = new LogLinearBuckets(significantDigits, highestTrackableValue);
+        final long startTick = clock.getTick();
+        this.fine = new BucketSliceRing(FINE_SLICES, FINE_SLICE_NANOS, startTick, buckets.length());
+        this.coarse = new BucketSliceRing(COARSE_SLICES, COARSE_SLICE_NANOS, startTick, buckets.length());
+    }
+
+    /**
+     * Returns the number of values of the last minute.
+     *
+     * @return the number of values of the last minute
+     */
+    @Override
+    public int size() {
+        return (int) Math.min(fine.count(clock.getTick(), FINE_SLICES), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void update(long value) {
+        final long tick = clock.getTick();
+        final int bucket = buckets.indexOf(value);
+        fine.current(tick).add(bucket, 1);
+        coarse.current(tick).add(bucket, 1);
+    }
+
+    @Override
+    public void update(long[] values, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        final long tick = clock.getTick();
+        final BucketSliceRing.Slice fineSlice = fine.current(tick);
+        final BucketSliceRing.Slice coarseSlice = coarse.current(tick);
+        // runs of values falling into the same bucket are added to it at once
+        int bucket = buckets.indexOf(values[offset]);
+        long run = 1;
+        for (int i = offset + 1; i < offset + length; i++) {
+            final int next = buckets.indexOf(values[i]);
+            if (next == bucket) {
+                run++;
+            } else {
+                fineSlice.add(bucket, run);
+                coarseSlice.add(bucket, run);
+                bucket = next;
+                run = 1;
+            }
+        }
+        fineSlice.add(bucket, run);
+        coarseSlice.add(bucket, run);
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        return getOneMinuteSnapshot();
+    }
+
+    @Override
+    public Snapshot getOneMinuteSnapshot() {
+        return snapshotOf(fine, FINE_SLICES);
+    }
+
+    @Override
+    public Snapshot getFiveMinuteSnapshot() {
+        return snapshotOf(coarse, FIVE_MINUTE_SLICES);
+    }
+
+    @Override
+    public Snapshot getFifteenMinuteSnapshot() {
+        return snapshotOf(coarse, COARSE_SLICES);
+    }
+
+    @Override
+    public State exportState() {
+        final long tick = clock.getTick();
+        return new State(fine.export(tick, buckets), coarse.export(tick, buckets));
+    }
+
+    @Override
+    public void mergeState(State state) {
+        final long tick = clock.getTick();
+        fine.merge(tick, buckets, state.getFineSlices());
+        coarse.merge(tick, buckets, state.getCoarseSlices());
+    }
+
+    private Snapshot snapshotOf(BucketSliceRing ring, int slices) {
+        final long[] counts = new long[buckets.length()];
+        ring.addTo(clock.getTick(), slices, counts);
+        return buckets.snapshotOf(counts);
+    }
+
+    /**
+     * The state of a {@link MultiWindowBucketReservoir}: snapshots of its five-second and its
+     * thirty-second slices, the current ones first.
+     */
+    public static final class State {
+        private final List<BucketedSnapshot> fineSlices;
+        private final List<BucketedSnapshot> coarseSlices;
+
+        private State(List<BucketedSnapshot> fineSlices, List<BucketedSnapshot> coarseSlices) {
+            this.fineSlices = fineSlices;
+            this.coarseSlices = coarseSlices;
+        }
+
+        /**
+         * Returns snapshots of the five-second slices, the current one first.
+         *
+         * @return the five-second slices
+         */
+        public List<BucketedSnapshot> getFineSlices() {
+            return fineSlices;
+        }
+
+        /**
+         * Returns snapshots of the thirty-second slices, the current one first.
+         *
+         * @return the thirty-second slices
+         */
+        public List<BucketedSnapshot> getCoarseSlices() {
+            return coarseSlices;
+        }
+    }
+}
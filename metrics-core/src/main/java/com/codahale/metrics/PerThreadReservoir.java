@@ -0,0 +1,197 @@
+package com.codahale.metrics;
+
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.function.Supplier;
+
+import com.codahale.metrics.WeightedSnapshot.SampleBuffer;
+
+/**
+ * A {@link Reservoir} which gives every recording thread a private reservoir of its own, so that
+ * threads recording into a hot histogram or timer never contend on shared reservoir state. Snapshots
+ * merge the samples of all per-thread reservoirs.
+ * <p>
+ * The reservoirs live in slots of an open-addressed table indexed by the thread's id, rather than in
+ * a {@link ThreadLocal}: a thread usually finds its slot at the first probe, by comparing the slot's
+ * owner with itself. The table starts with at least twice as many slots as there are processors, and
+ * doubles when every slot is taken. A thread which has died gives up its slot, and its reservoir with
+ * the values in it, to the next new thread which needs one, so the reservoirs of dead threads are
+ * reused rather than leaked.
+ * <p>
+ * When the per-thread reservoirs sample the whole history of their thread, as
+ * {@link UniformReservoir} does, a busy thread's samples stand for more values than an idle thread's.
+ * Such reservoirs should be created with {@code weighByCount}, which weighs each thread's samples by
+ * the number of values the thread recorded per sample its reservoir holds. Reservoirs which hold
+ * every value of a window, such as {@link SlidingTimeWindowArrayReservoir}, should not, as each of
+ * their values counts once.
+ */
+public class PerThreadReservoir implements Reservoir {
+    private static final int MIN_SLOTS = 16;
+
+    private final Supplier<? extends Reservoir> reservoirs;
+    private final boolean weighByCount;
+    private volatile Slot[] slots;
+
+    /**
+     * Creates a new {@link PerThreadReservoir} which weighs the samples of every thread alike.
+     *
+     * @param reservoirs a supplier of the per-thread reservoirs
+     */
+    public PerThreadReservoir(Supplier<? extends Reservoir> reservoirs) {
+        this(reservoirs, false);
+    }
+
+    /**
+     * Creates a new {@link PerThreadReservoir}.
+     *
+     * @param reservoirs   a supplier of the per-thread reservoirs
+     * @param weighByCount whether to weigh the samples of each thread by the number of values it
+     *                     recorded per sample its reservoir holds
+     */
+    public PerThreadReservoir(Supplier<? extends Reservoir> reservoirs, boolean weighByCount) {
+        this.reservoirs = reservoirs;
+        this.weighByCount = weighByCount;
+        final int processors = Runtime.getRuntime().availableProcessors();
+        this.slots = newSlots(Math.max(MIN_SLOTS, Integer.highestOneBit(processors - 1) << 2));
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (Slot slot : slots) {
+            final Reservoir reservoir = slot.reservoir;
+            if (reservoir != null) {
+                size += reservoir.size();
+            }
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void update(long value) {
+        final Slot slot = slot();
+        slot.reservoir.update(value);
+        slot.add(1);
+    }
+
+    @Override
+    public void update(long[] values, int offset, int length) {
+        final Slot slot = slot();
+        slot.reservoir.update(values, offset, length);
+        slot.add(length);
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        final SampleBuffer buffer = new SampleBuffer(size());
+        for (Slot slot : slots) {
+            final Reservoir reservoir = slot.reservoir;
+            if (reservoir == null) {
+                continue;
+            }
+            final long count = slot.count;
+            final long[] values = reservoir.getSnapshot().getValues();
+            final double weight = weighByCount && values.length > 0 ? Math.max(1.0, (double) count / values.length) : 1.0;
+            for (long value : values) {
+                buffer.add(value, weight);
+            }
+        }
+        return new WeightedSnapshot(buffer);
+    }
+
+    private Slot slot() {
+        final Thread thread = Thread.currentThread();
+        final Slot[] table = slots;
+        final int mask = table.length - 1;
+        final int start = indexOf(thread, mask);
+        for (int i = 0; i <= mask; i++) {
+            final Thread owner = table[(start + i) & mask].owner;
+            if (owner == thread) {
+                return table[(start + i) & mask];
+            }
+            if (owner == null) {
+                // slots are claimed in probe order, so a thread's slot comes before any free one
+                break;
+            }
+        }
+        return claim(thread);
+    }
+
+    private synchronized Slot claim(Thread thread) {
+        for (; ; ) {
+            final Slot[] table = slots;
+            final int mask = table.length - 1;
+            final int start = indexOf(thread, mask);
+            for (int i = 0; i <= mask; i++) {
+                final Slot slot = table[(start + i) & mask];
+                final Thread owner = slot.owner;
+                if (owner == thread) {
+                    return slot;
+                }
+                if (owner == null || !owner.isAlive()) {
+                    if (slot.reservoir == null) {
+                        slot.reservoir = reservoirs.get();
+                    }
+                    slot.owner = thread;
+                    return slot;
+                }
+            }
+            slots = grow(table);
+        }
+    }
+
+    /*
+     * Doubles the table. The claimed slots are inserted first, in the order of the old table, so that
+     * every thread's slot still comes before any free one in its probe order; the old free slots have
+     * no reservoir and are replaced.
+     */
+    private static Slot[] grow(Slot[] table) {
+        final Slot[] grown = new Slot[table.length * 2];
+        final int mask = grown.length - 1;
+        for (Slot slot : table) {
+            if (slot.owner == null) {
+                continue;
+            }
+            int i = indexOf(slot.owner, mask);
+            while (grown[i] != null) {
+                i = (i + 1) & mask;
+            }
+            grown[i] = slot;
+        }
+        for (int i = 0; i < grown.length; i++) {
+            if (grown[i] == null) {
+                grown[i] = new Slot();
+            }
+        }
+        return grown;
+    }
+
+    private static Slot[] newSlots(int length) {
+        final Slot[] slots = new Slot[length];
+        for (int i = 0; i < length; i++) {
+            slots[i] = new Slot();
+        }
+        return slots;
+    }
+
+    private static int indexOf(Thread thread, int mask) {
+        // Fibonacci hashing spreads the sequential ids of threads over the table
+        return (int) ((thread.getId() * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+    }
+
+    /**
+     * The reservoir of one thread, and the number of values the thread recorded in it.
+     */
+    private static final class Slot {
+        private static final AtomicLongFieldUpdater<Slot> COUNT =
+                AtomicLongFieldUpdater.newUpdater(Slot.class, "count");
+
+        private volatile Thread owner;
+        private volatile Reservoir reservoir;
+        private volatile long count;
+
+        private void add(long n) {
+            // only the owner writes the count, so an ordered store is enough
+            COUNT.lazySet(this, count + n);
+        }
+    }
+}
@@ -18,6 +18,21 @@ public interface Reservoir {
      */
     void update(long value);
 
+    /**
+     * Adds a batch of recorded values to the reservoir. Implementations should take their locks or
+     * do their atomic operations once per batch rather than once per value where they can; by
+     * default the values are added one by one.
+     *
+     * @param values an array of recorded values
+     * @param offset the index of the first value to add
+     * @param length the number of values to add
+     */
+    default void update(long[] values, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            update(values[i]);
+        }
+    }
+
     /**
      * Returns a snapshot of the reservoir's values.
      *
@@ -0,0 +1,117 @@
+package com.codahale.metrics;
+
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
+
+/**
+ * A {@link Snapshot} of the durations sampled by a {@link SampledTimer}, which tells how they were
+ * sampled. All statistics are those of the sampled durations.
+ */
+public class SampledSnapshot extends Snapshot {
+    private final Snapshot snapshot;
+    private final int sampleEvery;
+    private final long sampledCount;
+    private final long count;
+
+    /**
+     * Create a new {@link SampledSnapshot}.
+     *
+     * @param snapshot     the snapshot of the sampled values
+     * @param sampleEvery  the number of events per sampled event when the snapshot was taken
+     * @param sampledCount the number of events sampled
+     * @param count        the number of events, sampled or not
+     */
+    public SampledSnapshot(Snapshot snapshot, int sampleEvery, long sampledCount, long count) {
+        this.snapshot = snapshot;
+        this.sampleEvery = sampleEvery;
+        this.sampledCount = sampledCount;
+        this.count = count;
+    }
+
+    /**
+     * Returns the number of events per sampled event when the snapshot was taken.
+     *
+     * @return the sampling interval
+     */
+    public int getSampleEvery() {
+        return sampleEvery;
+    }
+
+    /**
+     * Returns the number of events whose duration was sampled.
+     *
+     * @return the number of sampled events
+     */
+    public long getSampledCount() {
+        return sampledCount;
+    }
+
+    /**
+     * Returns the number of events, whether their duration was sampled or not.
+     *
+     * @return the number of events
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the fraction of all events whose duration was sampled, which may differ from
+     * {@code 1 / getSampleEvery()} if the sampling changed over time.
+     *
+     * @return the fraction of sampled events, or {@code 1} if there were no events
+     */
+    public double getSampledFraction() {
+        return count == 0 ? 1.0 : (double) sampledCount / count;
+    }
+
+    @Override
+    public double getValue(double quantile) {
+        return snapshot.getValue(quantile);
+    }
+
+    @Override
+    public double[] getValues(double[] quantiles) {
+        return snapshot.getValues(quantiles);
+    }
+
+    @Override
+    public long[] getValues() {
+        return snapshot.getValues();
+    }
+
+    @Override
+    public void forEach(LongConsumer action) {
+        snapshot.forEach(action);
+    }
+
+    @Override
+    public int size() {
+        return snapshot.size();
+    }
+
+    @Override
+    public long getMax() {
+        return snapshot.getMax();
+    }
+
+    @Override
+    public double getMean() {
+        return snapshot.getMean();
+    }
+
+    @Override
+    public long getMin() {
+        return snapshot.getMin();
+    }
+
+    @Override
+    public double getStdDev() {
+        return snapshot.getStdDev();
+    }
+
+    @Override
+    public void dump(OutputStream output) {
+        snapshot.dump(output);
+    }
+}
@@ -0,0 +1,258 @@
+package com.codahale.metrics;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Timer} for code which runs so often that reading the clock twice per event costs too much.
+ * Only a random sample of the events it times is measured: those read the clock and update the
+ * reservoir, while the others are merely counted. The count and the rates stay exact, and the
+ * snapshot, a {@link SampledSnapshot}, tells how the durations in it were sampled.
+ * <p>
+ * The timer either samples one in every {@code n} events, or adapts {@code n} to the rate of events
+ * so that it samples a target number of events per second. Both can be changed at runtime.
+ * <p>
+ * Durations passed to {@link #update(long, TimeUnit)} have already been measured, so they are always
+ * recorded. A token returned by {@link #start()} for an event which is not sampled is
+ * {@link Long#MIN_VALUE}.
+ */
+public class SampledTimer extends Timer {
+    private static final long UNSAMPLED = Long.MIN_VALUE;
+    // adaptive timers check whether to adjust their sampling on one in this many samples
+    private static final int ADJUST_EVERY = 64;
+    private static final long MIN_ADJUST_INTERVAL = TimeUnit.SECONDS.toNanos(1);
+
+    private final Clock clock;
+    private final Context unsampled;
+    private final AtomicLong lastAdjustTick;
+    private volatile long lastAdjustCount;
+    private volatile int sampleEvery;
+    private volatile long targetSamplesPerSecond;
+
+    /**
+     * Creates a new {@link SampledTimer} using an {@link ExponentiallyDecayingReservoir} and the
+     * default {@link Clock}, which samples one in every {@code sampleEvery} events.
+     *
+     * @param sampleEvery the number of events per sampled event
+     */
+    public SampledTimer(int sampleEvery) {
+        this(new ExponentiallyDecayingReservoir(), sampleEvery);
+    }
+
+    /**
+     * Creates a new {@link SampledTimer} using the given {@link Reservoir} and the default
+     * {@link Clock}, which samples one in every {@code sampleEvery} events.
+     *
+     * @param reservoir   the {@link Reservoir} implementation the timer should use
+     * @param sampleEvery the number of events per sampled event
+     */
+    public SampledTimer(Reservoir reservoir, int sampleEvery) {
+        this(reservoir, Clock.defaultClock(), sampleEvery);
+    }
+
+    /**
+     * Creates a new {@link SampledTimer} using the given {@link Reservoir} and {@link Clock}, which
+     * samples one in every {@code sampleEvery} events.
+     *
+     * @param reservoir   the {@link Reservoir} implementation the timer should use
+     * @param clock       the {@link Clock} implementation the timer should use
+     * @param sampleEvery the number of events per sampled event
+     */
+    public SampledTimer(Reservoir reservoir, Clock clock, int sampleEvery) {
+        super(reservoir, clock);
+        this.clock = clock;
+        this.unsampled = unsampledContext();
+        this.lastAdjustTick = new AtomicLong(clock.getTick());
+        setSampleEvery(sampleEvery);
+    }
+
+    /**
+     * Samples one in every {@code sampleEvery} events from now on, and stops adapting the sampling to
+     * the rate of events.
+     *
+     * @param sampleEvery the number of events per sampled event, at least {@code 1}
+     */
+    public synchronized void setSampleEvery(int sampleEvery) {
+        if (sampleEvery < 1) {
+            throw new IllegalArgumentException("sampleEvery must be at least 1: " + sampleEvery);
+        }
+        this.targetSamplesPerSecond = 0;
+        this.sampleEvery = sampleEvery;
+    }
+
+    /**
+     * Adapts the sampling to the rate of events from now on, so that about
+     * {@code targetSamplesPerSecond} events are sampled every second. The sampling is adjusted at most
+     * once a second, from the rate of events since the previous adjustment.
+     *
+     * @param targetSamplesPerSecond the number of events to sample per second, at least {@code 1}
+     */
+    public synchronized void setTargetSamplesPerSecond(long targetSamplesPerSecond) {
+        if (targetSamplesPerSecond < 1) {
+            throw new IllegalArgumentException("targetSamplesPerSecond must be at least 1: " + targetSamplesPerSecond);
+        }
+        // measure the rate of events from now on, not since whenever the timer last adapted
+        this.lastAdjustCount = getCount();
+        this.lastAdjustTick.set(clock.getTick());
+        this.targetSamplesPerSecond = targetSamplesPerSecond;
+    }
+
+    /**
+     * Returns the number of events per sampled event.
+     *
+     * @return the current sampling interval
+     */
+    public int getSampleEvery() {
+        return sampleEvery;
+    }
+
+    /**
+     * Returns the number of events sampled per second the timer adapts its sampling to, or {@code 0}
+     * if it samples at a fixed interval.
+     *
+     * @return the target number of samples per second
+     */
+    public long getTargetSamplesPerSecond() {
+        return targetSamplesPerSecond;
+    }
+
+    @Override
+    public <T> T time(Callable<T> event) throws Exception {
+        if (!sample()) {
+            try {
+                return event.call();
+            } finally {
+                markUnsampled();
+            }
+        }
+        final long startTime = startSample();
+        try {
+            return event.call();
+        } finally {
+            update(clock.getTick() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public <T> T timeSupplier(Supplier<T> event) {
+        if (!sample()) {
+            try {
+                return event.get();
+            } finally {
+                markUnsampled();
+            }
+        }
+        final long startTime = startSample();
+        try {
+            return event.get();
+        } finally {
+            update(clock.getTick() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void time(Runnable event) {
+        if (!sample()) {
+            try {
+                event.run();
+            } finally {
+                markUnsampled();
+            }
+            return;
+        }
+        final long startTime = startSample();
+        try {
+            event.run();
+        } finally {
+            update(clock.getTick() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Returns a new {@link Timer.Context}, or for events which are not sampled a shared context which
+     * only counts the event when stopped.
+     *
+     * @return a {@link Timer.Context}
+     */
+    @Override
+    public Context time() {
+        if (!sample()) {
+            return unsampled;
+        }
+        maybeAdjust();
+        return super.time();
+    }
+
+    @Override
+    public Context timeReusingContext() {
+        if (!sample()) {
+            return unsampled;
+        }
+        maybeAdjust();
+        return super.timeReusingContext();
+    }
+
+    @Override
+    public long start() {
+        return sample() ? startSample() : UNSAMPLED;
+    }
+
+    @Override
+    public long stop(long startToken) {
+        if (startToken == UNSAMPLED) {
+            markUnsampled();
+            return 0;
+        }
+        return super.stop(startToken);
+    }
+
+    /**
+     * Returns a snapshot of the sampled durations, along with how they were sampled.
+     *
+     * @return a {@link SampledSnapshot}
+     */
+    @Override
+    public SampledSnapshot getSnapshot() {
+        return new SampledSnapshot(super.getSnapshot(), sampleEvery, getRecordedCount(), getCount());
+    }
+
+    private boolean sample() {
+        final int n = sampleEvery;
+        return n == 1 || ThreadLocalRandom.current().nextInt(n) == 0;
+    }
+
+    private long startSample() {
+        final long tick = clock.getTick();
+        if (targetSamplesPerSecond > 0 && ThreadLocalRandom.current().nextInt(ADJUST_EVERY) == 0) {
+            adjust(tick);
+        }
+        return tick;
+    }
+
+    private void maybeAdjust() {
+        if (targetSamplesPerSecond > 0 && ThreadLocalRandom.current().nextInt(ADJUST_EVERY) == 0) {
+            adjust(clock.getTick());
+        }
+    }
+
+    private void adjust(long tick) {
+        final long last = lastAdjustTick.get();
+        final long elapsed = tick - last;
+        if (elapsed < MIN_ADJUST_INTERVAL || !lastAdjustTick.compareAndSet(last, tick)) {
+            return;
+        }
+        final long count = getCount();
+        final double eventsPerSecond = (count - lastAdjustCount) / (elapsed / (double) TimeUnit.SECONDS.toNanos(1));
+        lastAdjustCount = count;
+        // adjustments are rare, so take the lock rather than race a switch to a fixed interval
+        synchronized (this) {
+            final long target = targetSamplesPerSecond;
+            if (target > 0) {
+                sampleEvery = (int) Math.max(1, Math.min(Integer.MAX_VALUE, eventsPerSecond / target));
+            }
+        }
+    }
+}
@@ -18,6 +18,10 @@ import java.util.concurrent.atomic.AtomicInteger;
 /**
  * The abstract base class for all scheduled reporters (i.e., reporters which process a registry's
  * metrics periodically).
+ * <p>
+ * A reporter which reports the exact extremes of every period through
+ * {@link Summarizing#getSummaryAndReset()} ends the interval of every metric it reports, so only one
+ * such reporter should report a registry; others should read {@link Summarizing#getSummary()}.
  *
  * @see ConsoleReporter
  * @see CsvReporter
@@ -258,6 +262,17 @@ public abstract class ScheduledReporter implements Closeable, Reporter {
                                 SortedMap<String, Meter> meters,
                                 SortedMap<String, Timer> timers);
 
+    /**
+     * Returns the registry whose metrics the reporter reports, for looking up the tags of their
+     * names.
+     *
+     * @return the registry
+     * @see MetricRegistry#getTaggedName(String)
+     */
+    protected MetricRegistry getRegistry() {
+        return registry;
+    }
+
     protected String getRateUnit() {
         return rateUnit;
     }
@@ -69,6 +69,27 @@ public class SlidingTimeWindowArrayReservoir implements Reservoir {
         } while (!measurements.put(newTick, value));
     }
 
+    @Override
+    public void update(long[] values, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        long newTick;
+        do {
+            final long after = count.addAndGet(length);
+            if (after / TRIM_THRESHOLD != (after - length) / TRIM_THRESHOLD) {
+                trim();
+            }
+            long lastTick = this.lastTick.get();
+            // the whole batch is recorded at the current tick, so it expires at once
+            newTick = getTick();
+            boolean longOverflow = newTick < lastTick;
+            if (longOverflow) {
+                measurements.clear();
+            }
+        } while (!measurements.putAll(newTick, values, offset, length));
+    }
+
     @Override
     public Snapshot getSnapshot() {
         trim();
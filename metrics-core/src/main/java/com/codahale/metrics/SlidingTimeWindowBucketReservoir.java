@@ -0,0 +1,129 @@
+package com.codahale.metrics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link Reservoir} implementation backed by a sliding window of log-linear bucket counts, which
+ * covers the values recorded in the last {@code N} seconds (or other time unit) with a memory
+ * footprint which does not depend on the rate of updates.
+ * <p>
+ * The window is a fixed ring of time slices, by default 12, each counting values in the buckets of
+ * a {@link LogLinearBucketReservoir}. An update is an atomic increment of one bucket of the current
+ * slice, and a snapshot sums the buckets of the live slices. Values expire a whole slice at a time,
+ * so a snapshot covers between {@code window - window / slices} and {@code window} of time.
+ * <p>
+ * The first update of a time slice recycles the slice which held the values of one window earlier:
+ * it zeroes the slice's buckets while other updates of the new slice wait for it, which takes
+ * microseconds. Buckets are allocated in pages of 64 when first used and kept across recycles, so
+ * the reservoir stops allocating once it has seen the range of its values. An update which was
+ * descheduled for a whole window between finding its slice and incrementing it counts its value in
+ * the slice's next epoch.
+ * <p>
+ * The reservoir's state is a snapshot of every slice, the current one first, which can be merged
+ * into another sliding time window bucket reservoir with the same slices, whose values then expire
+ * when they would have in this one.
+ */
+public class SlidingTimeWindowBucketReservoir implements MergeableReservoir<List<BucketedSnapshot>> {
+    private static final int DEFAULT_SLICES = 12;
+    private static final int DEFAULT_SIGNIFICANT_DIGITS = 2;
+    private static final long DEFAULT_HIGHEST_TRACKABLE_VALUE = TimeUnit.HOURS.toNanos(1);
+
+    private final Clock clock;
+    private final LogLinearBuckets buckets;
+    private final BucketSliceRing ring;
+
+    /**
+     * Creates a new {@link SlidingTimeWindowBucketReservoir} with the given window of time, split into
+     * 12 slices, which keeps two significant digits of values up to one hour in nanoseconds.
+     *
+     * @param window     the window of time
+     * @param windowUnit the unit of {@code window}
+     */
+    public SlidingTimeWindowBucketReservoir(long window, TimeUnit windowUnit) {
+        this(window, windowUnit, Clock.defaultClock());
+    }
+
+    /**
+     * Creates a new {@link SlidingTimeWindowBucketReservoir} with the given clock and window of time,
+     * split into 12 slices, which keeps two significant digits of values up to one hour in
+     * nanoseconds.
+     *
+     * @param window     the window of time
+     * @param windowUnit the unit of {@code window}
+     * @param clock      the {@link Clock} to use
+     */
+    public SlidingTimeWindowBucketReservoir(long window, TimeUnit windowUnit, Clock clock) {
+        this(window, windowUnit, DEFAULT_SLICES, DEFAULT_SIGNIFICANT_DIGITS, DEFAULT_HIGHEST_TRACKABLE_VALUE, clock);
+    }
+
+    /**
+     * Creates a new {@link SlidingTimeWindowBucketReservoir}.
+     *
+     * @param window                the window of time
+     * @param windowUnit            the unit of {@code window}
+     * @param slices                the number of slices the window is split into
+     * @param significantDigits     the number of significant decimal digits to keep, in
+     *                              {@code [1..5]}
+     * @param highestTrackableValue the highest value to track with full precision
+     * @param clock                 the {@link Clock} to use
+     */
+    public SlidingTimeWindowBucketReservoir(long window, TimeUnit windowUnit, int slices,
+                                            int significantDigits, long highestTrackableValue, Clock clock) {
+        if (slices < 1) {
+            throw new IllegalArgumentException("The window must have at least one slice: " + slices);
+        }
+        this.clock = clock;
+        this.buckets = new LogLinearBuckets(significantDigits, highestTrackableValue);
+        this.ring = new BucketSliceRing(slices, windowUnit.toNanos(window) / slices, clock.getTick(), buckets.length());
+    }
+
+    @Override
+    public int size() {
+        return (int) Math.min(ring.count(clock.getTick(), ring.length()), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void update(long value) {
+        ring.current(clock.getTick()).add(buckets.indexOf(value), 1);
+    }
+
+    @Override
+    public void update(long[] values, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        final BucketSliceRing.Slice slice = ring.current(clock.getTick());
+        // runs of values falling into the same bucket are added to it at once
+        int bucket = buckets.indexOf(values[offset]);
+        long run = 1;
+        for (int i = offset + 1; i < offset + length; i++) {
+            final int next = buckets.indexOf(values[i]);
+            if (next == bucket) {
+                run++;
+            } else {
+                slice.add(bucket, run);
+                bucket = next;
+                run = 1;
+            }
+        }
+        slice.add(bucket, run);
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        final long[] counts = new long[buckets.length()];
+        ring.addTo(clock.getTick(), ring.length(), counts);
+        return buckets.snapshotOf(counts);
+    }
+
+    @Override
+    public List<BucketedSnapshot> exportState() {
+        return ring.export(clock.getTick(), buckets);
+    }
+
+    @Override
+    public void mergeState(List<BucketedSnapshot> state) {
+        ring.merge(clock.getTick(), buckets, state);
+    }
+}
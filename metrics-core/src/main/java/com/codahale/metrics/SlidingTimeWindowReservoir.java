@@ -1,5 +1,8 @@
 package com.codahale.metrics;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -18,6 +21,8 @@ public class SlidingTimeWindowReservoir implements Reservoir {
 
     private final Clock clock;
     private final ConcurrentSkipListMap<Long, Long> measurements;
+    // batches are stored whole at a single tick, so they expire at once
+    private final ConcurrentSkipListMap<Long, long[]> batches;
     private final long window;
     private final AtomicLong lastTick;
     private final AtomicLong count;
@@ -42,6 +47,7 @@ public class SlidingTimeWindowReservoir implements Reservoir {
     public SlidingTimeWindowReservoir(long window, TimeUnit windowUnit, Clock clock) {
         this.clock = clock;
         this.measurements = new ConcurrentSkipListMap<>();
+        this.batches = new ConcurrentSkipListMap<>();
         this.window = windowUnit.toNanos(window) * COLLISION_BUFFER;
         this.lastTick = new AtomicLong(clock.getTick() * COLLISION_BUFFER);
         this.count = new AtomicLong();
@@ -50,7 +56,11 @@ public class SlidingTimeWindowReservoir implements Reservoir {
     @Override
     public int size() {
         trim();
-        return measurements.size();
+        int size = measurements.size();
+        for (long[] batch : batches.values()) {
+            size += batch.length;
+        }
+        return size;
     }
 
     @Override
@@ -61,10 +71,37 @@ public class SlidingTimeWindowReservoir implements Reservoir {
         measurements.put(getTick(), value);
     }
 
+    @Override
+    public void update(long[] values, int offset, int length) {
+        if (length == 0) {
+            return;
+        }
+        final long after = count.addAndGet(length);
+        if (after / TRIM_THRESHOLD != (after - length) / TRIM_THRESHOLD) {
+            trim();
+        }
+        batches.put(getTick(), Arrays.copyOfRange(values, offset, offset + length));
+    }
+
     @Override
     public Snapshot getSnapshot() {
         trim();
-        return new UniformSnapshot(measurements.values());
+        final Object[] singleValues = measurements.values().toArray();
+        final List<long[]> batchValues = new ArrayList<>(batches.values());
+        int size = singleValues.length;
+        for (long[] batch : batchValues) {
+            size += batch.length;
+        }
+        final long[] values = new long[size];
+        int i = 0;
+        for (Object value : singleValues) {
+            values[i++] = (Long) value;
+        }
+        for (long[] batch : batchValues) {
+            System.arraycopy(batch, 0, values, i, batch.length);
+            i += batch.length;
+        }
+        return new UniformSnapshot(values);
     }
 
     private long getTick() {
@@ -83,11 +120,16 @@ public class SlidingTimeWindowReservoir implements Reservoir {
         final long now = getTick();
         final long windowStart = now - window;
         final long windowEnd = now + CLEAR_BUFFER;
+        trim(measurements, windowStart, windowEnd);
+        trim(batches, windowStart, windowEnd);
+    }
+
+    private static void trim(ConcurrentSkipListMap<Long, ?> map, long windowStart, long windowEnd) {
         if (windowStart < windowEnd) {
-            measurements.headMap(windowStart).clear();
-            measurements.tailMap(windowEnd).clear();
+            map.headMap(windowStart).clear();
+            map.tailMap(windowEnd).clear();
         } else {
-            measurements.subMap(windowEnd, windowStart).clear();
+            map.subMap(windowEnd, windowStart).clear();
         }
     }
 }
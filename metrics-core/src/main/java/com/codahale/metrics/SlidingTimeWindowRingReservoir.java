@@ -0,0 +1,275 @@
+package com.codahale.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A {@link Reservoir} implementation backed by a sliding window that stores only the measurements made
+ * in the last {@code N} seconds (or other time unit).
+ * <p>
+ * Unlike {@link SlidingTimeWindowArrayReservoir} it takes no locks: the window is a fixed ring of
+ * time slices, writers claim a slot in the current slice with a CAS, and readers copy the live slices
+ * without stopping the writers. Each slice holds at most about two billion measurements, beyond which
+ * further measurements of the slice's time are dropped. Measurements expire a whole slice at a time, so a snapshot covers
+ * between {@code window - window / slices} and {@code window} of time. Slices are recycled rather than
+ * reallocated, so under a steady load the reservoir does not allocate on update.
+ */
+public class SlidingTimeWindowRingReservoir implements Reservoir {
+    private static final int DEFAULT_SLICES = 16;
+    // the epoch of a slice which is being recycled
+    private static final long RECYCLING = Long.MIN_VALUE;
+
+    private final Clock clock;
+    private final Slice[] slices;
+    private final long sliceNanos;
+    private final long startTick;
+
+    /**
+     * Creates a new {@link SlidingTimeWindowRingReservoir} with the given window of time.
+     *
+     * @param window     the window of time
+     * @param windowUnit the unit of {@code window}
+     */
+    public SlidingTimeWindowRingReservoir(long window, TimeUnit windowUnit) {
+        this(window, windowUnit, Clock.defaultClock());
+    }
+
+    /**
+     * Creates a new {@link SlidingTimeWindowRingReservoir} with the given clock and window of time.
+     *
+     * @param window     the window of time
+     * @param windowUnit the unit of {@code window}
+     * @param clock      the {@link Clock} to use
+     */
+    public SlidingTimeWindowRingReservoir(long window, TimeUnit windowUnit, Clock clock) {
+        this(window, windowUnit, DEFAULT_SLICES, clock);
+    }
+
+    /**
+     * Creates a new {@link SlidingTimeWindowRingReservoir} with the given clock and window of time.
+     *
+     * @param window     the window of time
+     * @param windowUnit the unit of {@code window}
+     * @param slices     the number of slices the window is split into
+     * @param clock      the {@link Clock} to use
+     */
+    public SlidingTimeWindowRingReservoir(long window, TimeUnit windowUnit, int slices, Clock clock) {
+        if (slices < 1) {
+            throw new IllegalArgumentException("The window must have at least one slice: " + slices);
+        }
+        this.clock = clock;
+        this.startTick = clock.getTick();
+        this.sliceNanos = Math.max(1L, windowUnit.toNanos(window) / slices);
+        this.slices = new Slice[slices];
+        for (int i = 0; i < slices; i++) {
+            // epochs before the first one, so that every slice starts out expired
+            this.slices[i] = new Slice(i - slices);
+        }
+    }
+
+    @Override
+    public int size() {
+        final long epoch = currentEpoch();
+        long size = 0;
+        for (Slice slice : slices) {
+            if (isLive(epoch, slice.epoch.get())) {
+                size += slice.cursor.get();
+            }
+        }
+        return (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void update(long value) {
+        for (; ; ) {
+            final long epoch = currentEpoch();
+            final Slice slice = current(epoch);
+            if (slice != null) {
+                final int cursor = slice.claim(1);
+                if (cursor >= 0) {
+                    slice.write(cursor, value, epoch);
+                }
+                // otherwise the slice is full, there is nowhere to put the measurement
+                return;
+            }
+            // the slice is being recycled or the clock moved on, try again with the new epoch
+        }
+    }
+
+    @Override
+    public void update(long[] values, int offset, int length) {
+        if (length <= 0) {
+            return;
+        }
+        for (; ; ) {
+            final long epoch = currentEpoch();
+            final Slice slice = current(epoch);
+            if (slice != null) {
+                // claim the slots of the whole batch with a single CAS, as far as the slice has room
+                final int cursor = slice.claim(length);
+                final int claimed = Math.min(length, Slice.CAPACITY - cursor);
+                for (int i = 0; cursor >= 0 && i < claimed; i++) {
+                    slice.write(cursor + i, values[offset + i], epoch);
+                }
+                return;
+            }
+        }
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        final long epoch = currentEpoch();
+        long[] values = new long[size()];
+        int size = 0;
+        for (Slice slice : slices) {
+            final long sliceEpoch = slice.epoch.get();
+            if (!isLive(epoch, sliceEpoch)) {
+                continue;
+            }
+            final int cursor = slice.cursor.get();
+            if (size + cursor > values.length) {
+                values = Arrays.copyOf(values, Math.max(size + cursor, values.length * 2));
+            }
+            final int copied = slice.read(sliceEpoch, cursor, values, size);
+            // a slice which was recycled while we were copying it has expired, drop what we read
+            if (slice.epoch.get() == sliceEpoch) {
+                size += copied;
+            }
+        }
+        return new UniformSnapshot(size == values.length ? values : Arrays.copyOf(values, size));
+    }
+
+    /**
+     * Returns the slice of the given epoch, recycling it if it holds the measurements of an expired
+     * epoch; or null if the slice is being recycled or the clock moved on, in which case the caller
+     * should look again.
+     */
+    private Slice current(long epoch) {
+        final Slice slice = slices[(int) Math.floorMod(epoch, (long) slices.length)];
+        final long sliceEpoch = slice.epoch.get();
+        if (sliceEpoch == epoch) {
+            return slice;
+        }
+        if (sliceEpoch != RECYCLING && sliceEpoch < epoch && slice.epoch.compareAndSet(sliceEpoch, RECYCLING)) {
+            // the slice holds measurements of an expired epoch, recycle it for the current one
+            slice.cursor.set(0);
+            slice.epoch.set(epoch);
+            return slice;
+        }
+        return null;
+    }
+
+    private long currentEpoch() {
+        return (clock.getTick() - startTick) / sliceNanos;
+    }
+
+    private boolean isLive(long epoch, long sliceEpoch) {
+        final long age = epoch - sliceEpoch;
+        return sliceEpoch != RECYCLING && age >= 0 && age < slices.length;
+    }
+
+    /**
+     * The measurements of one time slice, the epoch they belong to, and the number of claimed slots.
+     * Recycling the slice parks its epoch at {@link #RECYCLING} while the cursor is reset, so writers
+     * of the new epoch only claim slots once the slice is theirs.
+     * <p>
+     * Slots live in segments which double in size, so the slice grows without copying and keeps its
+     * segments across recycles. Every slot is stamped with the epoch it was written in after its value,
+     * which lets readers skip slots which are claimed but not yet written, or left over from an
+     * earlier epoch. A writer which claimed a slot just as the slice was recycled stamps it with its
+     * own, expired, epoch, so its measurement is skipped as well.
+     */
+    private static final class Slice {
+        private static final int FIRST_SEGMENT_BITS = 6;
+        // the segments a slice can have, such that the largest one still has a positive int size
+        private static final int MAX_SEGMENTS = Integer.SIZE - 1 - FIRST_SEGMENT_BITS;
+        private static final int CAPACITY = firstSlot(MAX_SEGMENTS);
+
+        private final AtomicLong epoch;
+        private final AtomicInteger cursor = new AtomicInteger();
+        private final AtomicReferenceArray<Segment> segments = new AtomicReferenceArray<>(MAX_SEGMENTS);
+
+        private Slice(long epoch) {
+            this.epoch = new AtomicLong(epoch);
+        }
+
+        /**
+         * Claims up to {@code n} consecutive slots, as far as the slice has room, returning the first
+         * one; or -1 if the slice is full.
+         */
+        private int claim(int n) {
+            for (; ; ) {
+                final int current = cursor.get();
+                if (current >= CAPACITY) {
+                    return -1;
+                }
+                if (cursor.compareAndSet(current, current + Math.min(n, CAPACITY - current))) {
+                    return current;
+                }
+            }
+        }
+
+        private void write(int slot, long value, long epoch) {
+            final int segmentIndex = segmentIndex(slot);
+            Segment segment = segments.get(segmentIndex);
+            if (segment == null) {
+                segments.compareAndSet(segmentIndex, null, new Segment(1 << (segmentIndex + FIRST_SEGMENT_BITS)));
+                segment = segments.get(segmentIndex);
+            }
+            final int offset = offset(slot, segmentIndex);
+            segment.values.lazySet(offset, value);
+            segment.epochs.lazySet(offset, epoch);
+        }
+
+        private int read(long epoch, int cursor, long[] values, int from) {
+            int size = from;
+            for (int segmentIndex = 0; segmentIndex < MAX_SEGMENTS; segmentIndex++) {
+                final int first = firstSlot(segmentIndex);
+                if (first >= cursor) {
+                    break;
+                }
+                final Segment segment = segments.get(segmentIndex);
+                if (segment == null) {
+                    continue;
+                }
+                final int length = Math.min(segment.values.length(), cursor - first);
+                for (int i = 0; i < length; i++) {
+                    if (segment.epochs.get(i) == epoch) {
+                        values[size++] = segment.values.get(i);
+                    }
+                }
+            }
+            return size - from;
+        }
+
+        private static int segmentIndex(int slot) {
+            return 31 - Integer.numberOfLeadingZeros((slot >>> FIRST_SEGMENT_BITS) + 1);
+        }
+
+        private static int firstSlot(int segmentIndex) {
+            return ((1 << segmentIndex) - 1) << FIRST_SEGMENT_BITS;
+        }
+
+        private static int offset(int slot, int segmentIndex) {
+            return slot - firstSlot(segmentIndex);
+        }
+    }
+
+    private static final class Segment {
+        private final AtomicLongArray values;
+        private final AtomicLongArray epochs;
+
+        private Segment(int size) {
+            this.values = new AtomicLongArray(size);
+            this.epochs = new AtomicLongArray(size);
+            for (int i = 0; i < size; i++) {
+                // no epoch yet: epochs start one window before zero and only go up from there
+                epochs.set(i, RECYCLING);
+            }
+        }
+    }
+}
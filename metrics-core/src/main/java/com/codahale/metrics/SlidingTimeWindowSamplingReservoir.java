@@ -0,0 +1,254 @@
+package com.codahale.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.codahale.metrics.WeightedSnapshot.SampleBuffer;
+
+/**
+ * A {@link Reservoir} implementation backed by a sliding window that samples the measurements made
+ * in the last {@code N} seconds (or other time unit) into a fixed amount of memory.
+ * <p>
+ * The window is a ring of time slices, like in {@link SlidingTimeWindowRingReservoir}, but every
+ * slice keeps at most {@code size / slices} of its measurements, picked with Vitter's Algorithm R.
+ * A snapshot weights the samples of every slice by the number of measurements the slice has seen per
+ * sample it kept, so busy moments of the window are not under-represented. The reservoir never holds
+ * more than {@code size} samples, however many measurements are made.
+ *
+ * @see <a href="http://www.cs.umd.edu/~samir/498/vitter.pdf">Random Sampling with a Reservoir</a>
+ */
+public class SlidingTimeWindowSamplingReservoir implements Reservoir {
+    private static final int DEFAULT_SIZE = 1028;
+    private static final int DEFAULT_SLICES = 16;
+
+    private final Clock clock;
+    private final Slice[] slices;
+    private final long sliceNanos;
+    private final long startTick;
+
+    /**
+     * Creates a new {@link SlidingTimeWindowSamplingReservoir} of 1028 samples with the given window of
+     * time.
+     *
+     * @param window     the window of time
+     * @param windowUnit the unit of {@code window}
+     */
+    public SlidingTimeWindowSamplingReservoir(long window, TimeUnit windowUnit) {
+        this(window, windowUnit, DEFAULT_SIZE);
+    }
+
+    /**
+     * Creates a new {@link SlidingTimeWindowSamplingReservoir} with the given window of time.
+     *
+     * @param window     the window of time
+     * @param windowUnit the unit of {@code window}
+     * @param size       the number of samples to keep over the whole window
+     */
+    public SlidingTimeWindowSamplingReservoir(long window, TimeUnit windowUnit, int size) {
+        this(window, windowUnit, size, Clock.defaultClock());
+    }
+
+    /**
+     * Creates a new {@link SlidingTimeWindowSamplingReservoir} with the given clock and window of time.
+     *
+     * @param window     the window of time
+     * @param windowUnit the unit of {@code window}
+     * @param size       the number of samples to keep over the whole window
+     * @param clock      the {@link Clock} to use
+     */
+    public SlidingTimeWindowSamplingReservoir(long window, TimeUnit windowUnit, int size, Clock clock) {
+        this(window, windowUnit, size, DEFAULT_SLICES, clock);
+    }
+
+    /**
+     * Creates a new {@link SlidingTimeWindowSamplingReservoir} with the given clock and window of time.
+     *
+     * @param window     the window of time
+     * @param windowUnit the unit of {@code window}
+     * @param size       the number of samples to keep over the whole window
+     * @param slices     the number of slices the window is split into
+     * @param clock      the {@link Clock} to use
+     */
+    public SlidingTimeWindowSamplingReservoir(long window, TimeUnit windowUnit, int size, int slices, Clock clock) {
+        if (slices < 1) {
+            throw new IllegalArgumentException("The window must have at least one slice: " + slices);
+        }
+        if (size < slices) {
+            throw new IllegalArgumentException("Size " + size + " is less than the number of slices " + slices);
+        }
+        this.clock = clock;
+        this.startTick = clock.getTick();
+        this.sliceNanos = Math.max(1L, windowUnit.toNanos(window) / slices);
+        this.slices = new Slice[slices];
+        for (int i = 0; i < slices; i++) {
+            // epochs before the first one, so that every slice starts out expired
+            this.slices[i] = new Slice(i - slices, size / slices);
+        }
+    }
+
+    @Override
+    public int size() {
+        final int epoch = currentEpoch();
+        int size = 0;
+        for (Slice slice : slices) {
+            final long state = slice.state.get();
+            if (isLive(epoch, epochOf(state))) {
+                size += Math.min(countOf(state), slice.values.length());
+            }
+        }
+        return size;
+    }
+
+    @Override
+    public void update(long value) {
+        for (; ; ) {
+            final int epoch = currentEpoch();
+            final Slice slice = slices[Math.floorMod(epoch, slices.length)];
+            final long state = slice.state.get();
+            final int sliceEpoch = epochOf(state);
+            if (sliceEpoch == epoch) {
+                final int count = countOf(state);
+                if (count == Integer.MAX_VALUE) {
+                    // the slice cannot count any more measurements, leave its sample as it is
+                    return;
+                }
+                if (slice.state.compareAndSet(state, state + 1)) {
+                    slice.sample(count, value, epoch);
+                    return;
+                }
+            } else if (epoch - sliceEpoch > 0) {
+                // the slice holds measurements of an expired epoch, recycle it for the current one
+                slice.state.compareAndSet(state, stateOf(epoch, 0));
+            }
+            // otherwise the clock moved on while we were looking, try again with the new epoch
+        }
+    }
+
+    @Override
+    public void update(long[] values, int offset, int length) {
+        while (length > 0) {
+            final int epoch = currentEpoch();
+            final Slice slice = slices[Math.floorMod(epoch, slices.length)];
+            final long state = slice.state.get();
+            final int sliceEpoch = epochOf(state);
+            if (sliceEpoch == epoch) {
+                final int count = countOf(state);
+                // count the whole batch with a single CAS, as far as the slice can count
+                final int claimed = Math.min(length, Integer.MAX_VALUE - count);
+                if (claimed == 0) {
+                    return;
+                }
+                if (slice.state.compareAndSet(state, state + claimed)) {
+                    for (int i = 0; i < claimed; i++) {
+                        slice.sample(count + i, values[offset + i], epoch);
+                    }
+                    return;
+                }
+            } else if (epoch - sliceEpoch > 0) {
+                slice.state.compareAndSet(state, stateOf(epoch, 0));
+            }
+        }
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        return getSnapshot(new SampleBuffer(size()));
+    }
+
+    /**
+     * Fills the given buffer with the samples of the reservoir, and returns a snapshot of them which
+     * is backed by the buffer. Reusing a buffer across snapshots, for example on a reporter's thread,
+     * makes them allocation-free.
+     *
+     * @param buffer a buffer for the samples, which is cleared first
+     * @return a snapshot of the samples, valid until {@code buffer} is cleared
+     */
+    public WeightedSnapshot getSnapshot(SampleBuffer buffer) {
+        final int epoch = currentEpoch();
+        buffer.clear();
+        final long[] values = new long[slices[0].values.length()];
+        for (Slice slice : slices) {
+            final long state = slice.state.get();
+            final int sliceEpoch = epochOf(state);
+            if (!isLive(epoch, sliceEpoch)) {
+                continue;
+            }
+            final int count = countOf(state);
+            final int kept = slice.read(sliceEpoch, count, values);
+            // a slice which was recycled while we were copying it has expired
+            if (kept > 0 && epochOf(slice.state.get()) == sliceEpoch) {
+                // every sample of this slice stands for count / kept measurements
+                final double weight = (double) count / kept;
+                for (int i = 0; i < kept; i++) {
+                    buffer.add(values[i], weight);
+                }
+            }
+        }
+        return new WeightedSnapshot(buffer);
+    }
+
+    private int currentEpoch() {
+        return (int) ((clock.getTick() - startTick) / sliceNanos);
+    }
+
+    private boolean isLive(int epoch, int sliceEpoch) {
+        final int age = epoch - sliceEpoch;
+        return age >= 0 && age < slices.length;
+    }
+
+    private static long stateOf(int epoch, int count) {
+        return ((long) epoch << 32) | count;
+    }
+
+    private static int epochOf(long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int countOf(long state) {
+        return (int) state;
+    }
+
+    /**
+     * The sample of one time slice. The slice's epoch and the number of measurements it has seen are
+     * packed into a single {@code long}, so recycling the slice and counting a measurement are both a
+     * single CAS. Every sample is stamped with the epoch it was taken in after its value, which lets
+     * readers skip samples which are not written yet, or left over from an earlier epoch.
+     */
+    private static final class Slice {
+        private final AtomicLong state;
+        private final AtomicLongArray values;
+        private final AtomicIntegerArray epochs;
+
+        private Slice(int epoch, int size) {
+            this.state = new AtomicLong(stateOf(epoch, 0));
+            this.values = new AtomicLongArray(size);
+            this.epochs = new AtomicIntegerArray(size);
+            for (int i = 0; i < size; i++) {
+                epochs.set(i, epoch);
+            }
+        }
+
+        private void sample(int count, long value, int epoch) {
+            final int size = values.length();
+            final int slot = count < size ? count : ThreadLocalRandom.current().nextInt(count + 1);
+            if (slot < size) {
+                values.lazySet(slot, value);
+                epochs.lazySet(slot, epoch);
+            }
+        }
+
+        private int read(int epoch, int count, long[] buffer) {
+            final int length = Math.min(count, values.length());
+            int kept = 0;
+            for (int i = 0; i < length; i++) {
+                if (epochs.get(i) == epoch) {
+                    buffer[kept++] = values.get(i);
+                }
+            }
+            return kept;
+        }
+    }
+}
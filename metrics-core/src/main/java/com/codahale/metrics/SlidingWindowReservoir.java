@@ -30,6 +30,13 @@ public class SlidingWindowReservoir implements Reservoir {
         measurements[(int) (count++ % measurements.length)] = value;
     }
 
+    @Override
+    public synchronized void update(long[] values, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            measurements[(int) (count++ % measurements.length)] = values[i];
+        }
+    }
+
     @Override
     public Snapshot getSnapshot() {
         final long[] values = new long[size()];
@@ -1,6 +1,10 @@
 package com.codahale.metrics;
 
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.LongConsumer;
 
 /**
  * A statistical snapshot of a {@link Snapshot}.
@@ -15,6 +19,21 @@ public abstract class Snapshot {
      */
     public abstract double getValue(double quantile);
 
+    /**
+     * Returns the values at the given quantiles, in the order of {@code quantiles}. Snapshots may
+     * answer all quantiles in a single pass, which is cheapest when they are in ascending order.
+     *
+     * @param quantiles the quantiles, each in {@code [0..1]}
+     * @return the values in the distribution at {@code quantiles}
+     */
+    public double[] getValues(double[] quantiles) {
+        final double[] values = new double[quantiles.length];
+        for (int i = 0; i < quantiles.length; i++) {
+            values[i] = getValue(quantiles[i]);
+        }
+        return values;
+    }
+
     /**
      * Returns the entire set of values in the snapshot.
      *
@@ -22,6 +41,18 @@ public abstract class Snapshot {
      */
     public abstract long[] getValues();
 
+    /**
+     * Passes every value in the snapshot to the given action, in ascending order, without copying
+     * them like {@link #getValues()} does.
+     *
+     * @param action the action to perform on every value
+     */
+    public void forEach(LongConsumer action) {
+        for (long value : getValues()) {
+            action.accept(value);
+        }
+    }
+
     /**
      * Returns the number of values in the snapshot.
      *
@@ -118,4 +149,43 @@ public abstract class Snapshot {
      */
     public abstract void dump(OutputStream output);
 
+    /**
+     * Merges the given snapshots into one, such as the snapshots of the shards of a histogram or of the
+     * same metric in several registries. All snapshots must be of the same kind: see
+     * {@link UniformSnapshot#merge(Collection)}, {@link WeightedSnapshot#merge(Collection)} and
+     * {@link BucketedSnapshot#merge(Collection)}.
+     *
+     * @param snapshots the snapshots to merge
+     * @return a snapshot of the values of all {@code snapshots}
+     * @throws IllegalArgumentException if the snapshots are not all of the same mergeable kind
+     */
+    public static Snapshot mergeAll(Collection<? extends Snapshot> snapshots) {
+        if (snapshots.isEmpty()) {
+            return new UniformSnapshot(new long[0]);
+        }
+        final Class<?> kind = snapshots.iterator().next().getClass();
+        if (kind == UniformSnapshot.class) {
+            return UniformSnapshot.merge(castAll(snapshots, UniformSnapshot.class));
+        }
+        if (kind == WeightedSnapshot.class) {
+            return WeightedSnapshot.merge(castAll(snapshots, WeightedSnapshot.class));
+        }
+        if (kind == BucketedSnapshot.class) {
+            return BucketedSnapshot.merge(castAll(snapshots, BucketedSnapshot.class));
+        }
+        throw new IllegalArgumentException("Cannot merge snapshots of " + kind.getName());
+    }
+
+    private static <T extends Snapshot> List<T> castAll(Collection<? extends Snapshot> snapshots, Class<T> kind) {
+        final List<T> result = new ArrayList<>(snapshots.size());
+        for (Snapshot snapshot : snapshots) {
+            if (snapshot.getClass() != kind) {
+                throw new IllegalArgumentException("Cannot merge snapshots of " + kind.getName() +
+                        " and " + snapshot.getClass().getName());
+            }
+            result.add(kind.cast(snapshot));
+        }
+        return result;
+    }
+
 }
@@ -0,0 +1,98 @@
+package com.codahale.metrics;
+
+/**
+ * Merges ascending runs of {@code long}s, such as the values of several snapshots, with a binary heap
+ * of run indices. Every call to {@link #next()} names the run holding the smallest remaining value and
+ * its position in that run, so callers can carry along whatever they keep next to the values.
+ */
+final class SortedRunMerger {
+    private final long[][] runs;
+    private final int[] lengths;
+    private final int[] positions;
+    private final int[] heap;
+    private int heapSize;
+    private int run;
+    private int position;
+
+    /**
+     * @param runs    the runs to merge, each in ascending order
+     * @param lengths the number of values to merge from the start of each run
+     */
+    SortedRunMerger(long[][] runs, int[] lengths) {
+        this.runs = runs;
+        this.lengths = lengths;
+        this.positions = new int[runs.length];
+        this.heap = new int[runs.length];
+        for (int i = 0; i < runs.length; i++) {
+            if (lengths[i] > 0) {
+                heap[heapSize++] = i;
+            }
+        }
+        for (int i = heapSize / 2 - 1; i >= 0; i--) {
+            siftDown(i);
+        }
+    }
+
+    /**
+     * Moves on to the smallest remaining value.
+     *
+     * @return {@code false} if all runs are exhausted
+     */
+    boolean next() {
+        if (heapSize == 0) {
+            return false;
+        }
+        run = heap[0];
+        position = positions[run]++;
+        if (positions[run] == lengths[run]) {
+            heap[0] = heap[--heapSize];
+        }
+        siftDown(0);
+        return true;
+    }
+
+    /**
+     * @return the index of the run holding the current value
+     */
+    int run() {
+        return run;
+    }
+
+    /**
+     * @return the position of the current value in its run
+     */
+    int position() {
+        return position;
+    }
+
+    /**
+     * @return the current value
+     */
+    long value() {
+        return runs[run][position];
+    }
+
+    private long head(int r) {
+        return runs[r][positions[r]];
+    }
+
+    private void siftDown(int i) {
+        final int r = heap[i];
+        final long value = heapSize > i ? head(r) : 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && head(heap[child + 1]) < head(heap[child])) {
+                child++;
+            }
+            if (head(heap[child]) >= value) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = r;
+    }
+}
@@ -0,0 +1,389 @@
+package com.codahale.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.Math.exp;
+import static java.lang.Math.min;
+
+import com.codahale.metrics.WeightedSnapshot.SampleBuffer;
+
+/**
+ * An exponentially-decaying random reservoir of {@code long}s with the same forward-decaying
+ * priority sampling as {@link ExponentiallyDecayingReservoir}, but striped over the updating threads
+ * instead of guarded by a reservoir-wide lock.
+ * <p>
+ * Samples are kept in stripes, one per processor, each a min-heap of priorities backed by primitive
+ * arrays and guarded by a spin lock of its own. A writer takes the first free stripe, starting at the
+ * one its thread hashes to, and only yields once it has found every stripe busy. Every stripe keeps
+ * up to {@code size} samples of its own updates, so the highest {@code size} priorities of all
+ * stripes, which make up the snapshot, are exactly the samples a single reservoir would have kept.
+ * <p>
+ * Moving the landmark never stops the writers: it only publishes a new start time, and every stripe
+ * rescales itself to it the next time it is used.
+ * <p>
+ * This comes at a cost in memory and on the read side. Stripes grow with the samples they hold, so a
+ * busy reservoir holds up to {@code size} samples of 24 bytes per stripe, about 1.6 MB at 64 stripes
+ * and the default size. {@link #size()} and {@link #getSnapshot()} lock every stripe in turn, and a
+ * snapshot gathers the samples of all stripes and sorts their priorities to pick the highest
+ * {@code size} of them. Prefer {@link ExponentiallyDecayingReservoir} for metrics which are rarely
+ * updated concurrently, or which are very numerous.
+ *
+ * @see <a href="http://dimacs.rutgers.edu/~graham/pubs/papers/fwddecay.pdf">
+ * Cormode et al. Forward Decay: A Practical Time Decay Model for Streaming Systems. ICDE '09:
+ * Proceedings of the 2009 IEEE International Conference on Data Engineering (2009)</a>
+ */
+public class StripedExponentiallyDecayingReservoir implements Reservoir {
+    private static final int DEFAULT_SIZE = 1028;
+    private static final double DEFAULT_ALPHA = 0.015;
+    private static final long RESCALE_THRESHOLD = TimeUnit.HOURS.toNanos(1);
+
+    private final Stripe[] stripes;
+    private final double alpha;
+    private final int size;
+    private final Clock clock;
+    private volatile long startTime;
+    private final AtomicLong nextScaleTime;
+
+    /**
+     * Creates a new {@link StripedExponentiallyDecayingReservoir} of 1028 elements, which offers a
+     * 99.9% confidence level with a 5% margin of error assuming a normal distribution, and an alpha
+     * factor of 0.015, which heavily biases the reservoir to the past 5 minutes of measurements.
+     */
+    public StripedExponentiallyDecayingReservoir() {
+        this(DEFAULT_SIZE, DEFAULT_ALPHA);
+    }
+
+    /**
+     * Creates a new {@link StripedExponentiallyDecayingReservoir}.
+     *
+     * @param size  the number of samples to keep in the sampling reservoir
+     * @param alpha the exponential decay factor; the higher this is, the more biased the reservoir
+     *              will be towards newer values
+     */
+    public StripedExponentiallyDecayingReservoir(int size, double alpha) {
+        this(size, alpha, Clock.defaultClock());
+    }
+
+    /**
+     * Creates a new {@link StripedExponentiallyDecayingReservoir}.
+     *
+     * @param size  the number of samples to keep in the sampling reservoir
+     * @param alpha the exponential decay factor; the higher this is, the more biased the reservoir
+     *              will be towards newer values
+     * @param clock the clock used to timestamp samples and track rescaling
+     */
+    public StripedExponentiallyDecayingReservoir(int size, double alpha, Clock clock) {
+        this.alpha = alpha;
+        this.size = size;
+        this.clock = clock;
+        this.startTime = currentTimeInSeconds();
+        this.nextScaleTime = new AtomicLong(clock.getTick() + RESCALE_THRESHOLD);
+        this.stripes = new Stripe[Striping.defaultStripeCount()];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new Stripe(size, startTime);
+        }
+    }
+
+    @Override
+    public int size() {
+        long count = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock();
+            try {
+                count += stripe.count;
+            } finally {
+                stripe.unlock();
+            }
+        }
+        return (int) min(size, count);
+    }
+
+    @Override
+    public void update(long value) {
+        update(value, currentTimeInSeconds());
+    }
+
+    /**
+     * Adds an old value with a fixed timestamp to the reservoir.
+     *
+     * @param value     the value to be added
+     * @param timestamp the epoch timestamp of {@code value} in seconds
+     */
+    public void update(long value, long timestamp) {
+        rescaleIfNeeded();
+        final double random = ThreadLocalRandom.current().nextDouble();
+        final Stripe stripe = acquireStripe();
+        try {
+            stripe.rescale(startTime, alpha);
+            final double itemWeight = weight(timestamp - stripe.startTime);
+            stripe.offer(value, itemWeight, itemWeight / random);
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * Adds a batch of values, all timestamped now, to a single stripe.
+     */
+    @Override
+    public void update(long[] values, int offset, int length) {
+        final long timestamp = currentTimeInSeconds();
+        rescaleIfNeeded();
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final Stripe stripe = acquireStripe();
+        try {
+            stripe.rescale(startTime, alpha);
+            final double itemWeight = weight(timestamp - stripe.startTime);
+            for (int i = 0; i < length; i++) {
+                stripe.offer(values[offset + i], itemWeight, itemWeight / random.nextDouble());
+            }
+        } finally {
+            stripe.unlock();
+        }
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        return getSnapshot(new SampleBuffer(size));
+    }
+
+    /**
+     * Fills the given buffer with the samples of the reservoir, and returns a snapshot of them which
+     * is backed by the buffer. Reusing a buffer across snapshots, for example on a reporter's thread,
+     * makes them allocation-free.
+     *
+     * @param buffer a buffer for the samples, which is cleared first
+     * @return a snapshot of the samples, valid until {@code buffer} is cleared
+     */
+    public WeightedSnapshot getSnapshot(SampleBuffer buffer) {
+        rescaleIfNeeded();
+        final long landmark = startTime;
+        final Samples samples = new Samples(size);
+        for (Stripe stripe : stripes) {
+            stripe.lock();
+            try {
+                stripe.rescale(landmark, alpha);
+                samples.addAll(stripe);
+            } finally {
+                stripe.unlock();
+            }
+        }
+        buffer.clear();
+        samples.highestPriorities(size, buffer);
+        return new WeightedSnapshot(buffer);
+    }
+
+    private Stripe acquireStripe() {
+        final int mask = stripes.length - 1;
+        int index = Striping.threadHash();
+        for (int attempt = 1; ; attempt++) {
+            final Stripe stripe = stripes[index & mask];
+            if (stripe.tryLock()) {
+                return stripe;
+            }
+            index++;
+            if ((attempt & mask) == 0) {
+                // every stripe is busy, let the owners make progress
+                Thread.yield();
+            }
+        }
+    }
+
+    private void rescaleIfNeeded() {
+        final long now = clock.getTick();
+        final long next = nextScaleTime.get();
+        if (now >= next && nextScaleTime.compareAndSet(next, now + RESCALE_THRESHOLD)) {
+            // stripes catch up with the new landmark lazily, see Stripe#rescale
+            this.startTime = currentTimeInSeconds();
+        }
+    }
+
+    private long currentTimeInSeconds() {
+        return TimeUnit.MILLISECONDS.toSeconds(clock.getTime());
+    }
+
+    private double weight(long t) {
+        return exp(alpha * t);
+    }
+
+    /**
+     * A min-heap of sample priorities, with the samples' values and weights kept in parallel arrays.
+     * Only the thread which holds the stripe's lock may touch anything but the lock itself.
+     */
+    private static final class Stripe {
+        private static final int INITIAL_CAPACITY = 16;
+        private static final AtomicIntegerFieldUpdater<Stripe> LOCK =
+                AtomicIntegerFieldUpdater.newUpdater(Stripe.class, "lock");
+
+        private final int capacity;
+        private volatile int lock;
+        private long startTime;
+        private int count;
+        private double[] priorities;
+        private double[] weights;
+        private long[] values;
+
+        private Stripe(int capacity, long startTime) {
+            this.capacity = capacity;
+            this.startTime = startTime;
+            final int initialCapacity = min(capacity, INITIAL_CAPACITY);
+            this.priorities = new double[initialCapacity];
+            this.weights = new double[initialCapacity];
+            this.values = new long[initialCapacity];
+        }
+
+        private boolean tryLock() {
+            return lock == 0 && LOCK.compareAndSet(this, 0, 1);
+        }
+
+        private void lock() {
+            while (!tryLock()) {
+                Thread.yield();
+            }
+        }
+
+        private void unlock() {
+            lock = 0;
+        }
+
+        private void offer(long value, double weight, double priority) {
+            if (count < capacity) {
+                if (count == values.length) {
+                    grow();
+                }
+                set(count, value, weight, priority);
+                siftUp(count++);
+            } else if (priorities[0] < priority) {
+                set(0, value, weight, priority);
+                siftDown(0);
+            }
+        }
+
+        /*
+         * Forward decay lets us move the landmark by multiplying every weight and priority by
+         * exp(-alpha * (L' - L)). Scaling by a positive factor keeps the heap ordered, so apart from
+         * dropping samples whose weight has become zero this is a linear pass over the arrays.
+         */
+        private void rescale(long newStartTime, double alpha) {
+            if (newStartTime == startTime) {
+                return;
+            }
+            final double scalingFactor = exp(-alpha * (newStartTime - startTime));
+            startTime = newStartTime;
+            int kept = 0;
+            if (Double.compare(scalingFactor, 0) != 0) {
+                for (int i = 0; i < count; i++) {
+                    final double weight = weights[i] * scalingFactor;
+                    if (Double.compare(weight, 0) != 0) {
+                        set(kept++, values[i], weight, priorities[i] * scalingFactor);
+                    }
+                }
+            }
+            if (kept != count) {
+                count = kept;
+                for (int i = count / 2 - 1; i >= 0; i--) {
+                    siftDown(i);
+                }
+            }
+        }
+
+        private void grow() {
+            final int newLength = min(capacity, values.length * 2);
+            priorities = Arrays.copyOf(priorities, newLength);
+            weights = Arrays.copyOf(weights, newLength);
+            values = Arrays.copyOf(values, newLength);
+        }
+
+        private void set(int i, long value, double weight, double priority) {
+            values[i] = value;
+            weights[i] = weight;
+            priorities[i] = priority;
+        }
+
+        private void siftUp(int i) {
+            while (i > 0) {
+                final int parent = (i - 1) >>> 1;
+                if (priorities[parent] <= priorities[i]) {
+                    return;
+                }
+                swap(i, parent);
+                i = parent;
+            }
+        }
+
+        private void siftDown(int i) {
+            for (; ; ) {
+                final int left = 2 * i + 1;
+                if (left >= count) {
+                    return;
+                }
+                final int right = left + 1;
+                final int smallest = right < count && priorities[right] < priorities[left] ? right : left;
+                if (priorities[i] <= priorities[smallest]) {
+                    return;
+                }
+                swap(i, smallest);
+                i = smallest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            final double priority = priorities[i];
+            priorities[i] = priorities[j];
+            priorities[j] = priority;
+            final double weight = weights[i];
+            weights[i] = weights[j];
+            weights[j] = weight;
+            final long value = values[i];
+            values[i] = values[j];
+            values[j] = value;
+        }
+    }
+
+    /**
+     * The samples of all stripes, gathered for a snapshot.
+     */
+    private static final class Samples {
+        private double[] priorities;
+        private double[] weights;
+        private long[] values;
+        private int count;
+
+        private Samples(int initialCapacity) {
+            this.priorities = new double[initialCapacity];
+            this.weights = new double[initialCapacity];
+            this.values = new long[initialCapacity];
+        }
+
+        private void addAll(Stripe stripe) {
+            if (count + stripe.count > values.length) {
+                final int newLength = Math.max(count + stripe.count, values.length * 2);
+                priorities = Arrays.copyOf(priorities, newLength);
+                weights = Arrays.copyOf(weights, newLength);
+                values = Arrays.copyOf(values, newLength);
+            }
+            System.arraycopy(stripe.priorities, 0, priorities, count, stripe.count);
+            System.arraycopy(stripe.weights, 0, weights, count, stripe.count);
+            System.arraycopy(stripe.values, 0, values, count, stripe.count);
+            count += stripe.count;
+        }
+
+        private void highestPriorities(int size, SampleBuffer buffer) {
+            double threshold = Double.NEGATIVE_INFINITY;
+            if (count > size) {
+                final double[] sorted = Arrays.copyOf(priorities, count);
+                Arrays.sort(sorted);
+                threshold = sorted[count - size];
+            }
+            for (int i = 0; i < count && buffer.size() < size; i++) {
+                if (priorities[i] >= threshold) {
+                    buffer.add(values[i], weights[i]);
+                }
+            }
+        }
+    }
+}
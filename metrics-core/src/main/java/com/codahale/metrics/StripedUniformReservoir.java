@@ -0,0 +1,148 @@
+package com.codahale.metrics;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import com.codahale.metrics.WeightedSnapshot.SampleBuffer;
+
+/**
+ * A random sampling reservoir of a stream of {@code long}s which, unlike {@link UniformReservoir},
+ * does not count every update on a single shared counter. The reservoir is split into stripes, each
+ * picked by the updating thread and running Vitter's Algorithm R over its own part of the stream
+ * with its own counter and slice of the samples.
+ * <p>
+ * A snapshot weights the samples of every stripe by the number of values the stripe has seen per
+ * sample it kept, so it stays a uniform sample of the whole stream however unevenly the threads are
+ * spread over the stripes. Each stripe only keeps {@code size / stripes} samples though, so this
+ * reservoir suits metrics which are updated by many threads.
+ *
+ * @see <a href="http://www.cs.umd.edu/~samir/498/vitter.pdf">Random Sampling with a Reservoir</a>
+ */
+public class StripedUniformReservoir implements Reservoir {
+    private static final int DEFAULT_SIZE = 1028;
+    private static final int MIN_STRIPE_SIZE = 64;
+
+    private final Stripe[] stripes;
+    private final int stripeSize;
+
+    /**
+     * Creates a new {@link StripedUniformReservoir} of 1028 elements, which offers a 99.9% confidence
+     * level with a 5% margin of error assuming a normal distribution.
+     */
+    public StripedUniformReservoir() {
+        this(DEFAULT_SIZE);
+    }
+
+    /**
+     * Creates a new {@link StripedUniformReservoir} with as many stripes as there are processors,
+     * as long as each stripe keeps at least 64 samples.
+     *
+     * @param size the number of samples to keep in the sampling reservoir
+     */
+    public StripedUniformReservoir(int size) {
+        this(size, Math.max(1, Math.min(Striping.defaultStripeCount(), Integer.highestOneBit(size / MIN_STRIPE_SIZE))));
+    }
+
+    /**
+     * Creates a new {@link StripedUniformReservoir}.
+     *
+     * @param size    the number of samples to keep in the sampling reservoir
+     * @param stripes the number of stripes to split the reservoir into, a power of two
+     */
+    public StripedUniformReservoir(int size, int stripes) {
+        if (stripes <= 0 || Integer.bitCount(stripes) != 1) {
+            throw new IllegalArgumentException("The number of stripes must be a power of two: " + stripes);
+        }
+        if (size < stripes) {
+            throw new IllegalArgumentException("Size " + size + " is less than the number of stripes " + stripes);
+        }
+        this.stripeSize = size / stripes;
+        this.stripes = new Stripe[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new Stripe(stripeSize);
+        }
+    }
+
+    @Override
+    public int size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            size += Math.min(stripe.get(), stripeSize);
+        }
+        return (int) size;
+    }
+
+    @Override
+    public void update(long value) {
+        final Stripe stripe = stripes[Striping.threadHash() & (stripes.length - 1)];
+        final long c = stripe.incrementAndGet();
+        if (c <= stripeSize) {
+            stripe.values.set((int) c - 1, value);
+        } else {
+            final long r = ThreadLocalRandom.current().nextLong(c);
+            if (r < stripeSize) {
+                stripe.values.set((int) r, value);
+            }
+        }
+    }
+
+    @Override
+    public void update(long[] values, int offset, int length) {
+        final Stripe stripe = stripes[Striping.threadHash() & (stripes.length - 1)];
+        final long first = stripe.getAndAdd(length) + 1;
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < length; i++) {
+            final long c = first + i;
+            if (c <= stripeSize) {
+                stripe.values.set((int) c - 1, values[offset + i]);
+            } else {
+                final long r = random.nextLong(c);
+                if (r < stripeSize) {
+                    stripe.values.set((int) r, values[offset + i]);
+                }
+            }
+        }
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        return getSnapshot(new SampleBuffer(size()));
+    }
+
+    /**
+     * Fills the given buffer with the samples of the reservoir, and returns a snapshot of them which
+     * is backed by the buffer. Reusing a buffer across snapshots, for example on a reporter's thread,
+     * makes them allocation-free.
+     *
+     * @param buffer a buffer for the samples, which is cleared first
+     * @return a snapshot of the samples, valid until {@code buffer} is cleared
+     */
+    public WeightedSnapshot getSnapshot(SampleBuffer buffer) {
+        buffer.clear();
+        for (Stripe stripe : stripes) {
+            final long count = stripe.get();
+            final int kept = (int) Math.min(count, stripeSize);
+            // every sample of this stripe stands for count / kept values of the stream
+            final double weight = kept == 0 ? 0 : (double) count / kept;
+            for (int i = 0; i < kept; i++) {
+                buffer.add(stripe.values.get(i), weight);
+            }
+        }
+        return new WeightedSnapshot(buffer);
+    }
+
+    /**
+     * The counter of a stripe, padded to keep the counters of neighbouring stripes on different cache
+     * lines, and its slice of the samples.
+     */
+    @SuppressWarnings({"unused", "serial"})
+    private static final class Stripe extends AtomicLong {
+        private long p1, p2, p3, p4, p5, p6, p7;
+        private final AtomicLongArray values;
+
+        private Stripe(int size) {
+            this.values = new AtomicLongArray(size);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.codahale.metrics;
+
+/**
+ * Helpers for spreading the updates of concurrent threads over independent stripes.
+ */
+final class Striping {
+    private static final int MAX_STRIPES = 64;
+
+    private Striping() {
+    }
+
+    /**
+     * Returns the default number of stripes: the smallest power of two which is not less than the
+     * number of available processors, capped at {@code 64}.
+     *
+     * @return the default number of stripes
+     */
+    static int defaultStripeCount() {
+        final int processors = Runtime.getRuntime().availableProcessors();
+        int stripes = 1;
+        while (stripes < processors && stripes < MAX_STRIPES) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+
+    /**
+     * Returns a well-mixed hash of the current thread, stable for the thread's lifetime, which can be
+     * used to pick a stripe.
+     *
+     * @return the current thread's hash
+     */
+    static int threadHash() {
+        return threadHash(Thread.currentThread());
+    }
+
+    /**
+     * Returns a well-mixed hash of the given thread, as {@link #threadHash()} would return on it.
+     *
+     * @param thread the thread
+     * @return the thread's hash
+     */
+    static int threadHash(Thread thread) {
+        long h = thread.getId();
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        h = (h ^ (h >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return (int) (h ^ (h >>> 33));
+    }
+}
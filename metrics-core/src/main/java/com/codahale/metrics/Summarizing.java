@@ -0,0 +1,26 @@
+package com.codahale.metrics;
+
+/**
+ * An object which keeps an exact {@link IntervalSummary} of the values it records.
+ * <p>
+ * An object has a single interval, which every call to {@link #getSummaryAndReset()} ends, so it
+ * should have a single consumer which resets it, such as one reporter. Two consumers would each see
+ * only part of the values; others should read the current interval with {@link #getSummary()}.
+ */
+public interface Summarizing {
+    /**
+     * Returns a summary of the values recorded since the summary was last reset.
+     *
+     * @return the summary of the current interval
+     */
+    IntervalSummary getSummary();
+
+    /**
+     * Returns a summary of the values recorded since the summary was last reset, and resets it. A
+     * reporter calls this once per reporting period to get the exact extremes of every period. As
+     * every call ends the interval for everyone, only one consumer should call this.
+     *
+     * @return the summary of the interval which just ended
+     */
+    IntervalSummary getSummaryAndReset();
+}
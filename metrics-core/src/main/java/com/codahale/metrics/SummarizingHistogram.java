@@ -0,0 +1,51 @@
+package com.codahale.metrics;
+
+/**
+ * A {@link Histogram} which also keeps an exact {@link IntervalSummary} of the count, sum, minimum
+ * and maximum of the values recorded since the summary was last reset, which a sampling reservoir
+ * can miss.
+ * <p>
+ * The summary is kept in place of the count of a {@link Histogram}, in stripes which are only added
+ * once concurrent updates collide. An update adds to a stripe's count and sum, and writes its
+ * minimum or maximum when the value is a new extreme, so it costs a few more atomic operations than
+ * the single add of a {@link Histogram}. The histogram has a single interval, so only one consumer,
+ * such as one reporter, should reset it.
+ */
+public class SummarizingHistogram extends Histogram implements Summarizing {
+    private final SummaryRecorder summary;
+
+    /**
+     * Creates a new {@link SummarizingHistogram} with the given reservoir.
+     *
+     * @param reservoir the reservoir to create a histogram from
+     */
+    public SummarizingHistogram(Reservoir reservoir) {
+        super(reservoir, null);
+        this.summary = new SummaryRecorder();
+    }
+
+    @Override
+    public long getCount() {
+        return summary.count();
+    }
+
+    @Override
+    public IntervalSummary getSummary() {
+        return summary.summary();
+    }
+
+    @Override
+    public IntervalSummary getSummaryAndReset() {
+        return summary.summaryAndReset();
+    }
+
+    @Override
+    void record(long value) {
+        summary.update(value);
+    }
+
+    @Override
+    void record(long[] values, int offset, int length) {
+        summary.update(values, offset, length);
+    }
+}
@@ -0,0 +1,51 @@
+package com.codahale.metrics;
+
+/**
+ * A {@link Timer} which records its durations into a {@link SummarizingHistogram}, and so also keeps
+ * an exact {@link IntervalSummary} of them, in nanoseconds.
+ */
+public class SummarizingTimer extends Timer implements Summarizing {
+    private final SummarizingHistogram histogram;
+
+    /**
+     * Creates a new {@link SummarizingTimer} using an {@link ExponentiallyDecayingReservoir} and the
+     * default {@link Clock}.
+     */
+    public SummarizingTimer() {
+        this(new ExponentiallyDecayingReservoir());
+    }
+
+    /**
+     * Creates a new {@link SummarizingTimer} that uses the given {@link Reservoir}.
+     *
+     * @param reservoir the {@link Reservoir} implementation the timer should use
+     */
+    public SummarizingTimer(Reservoir reservoir) {
+        this(reservoir, Clock.defaultClock());
+    }
+
+    /**
+     * Creates a new {@link SummarizingTimer} that uses the given {@link Reservoir} and {@link Clock}.
+     *
+     * @param reservoir the {@link Reservoir} implementation the timer should use
+     * @param clock     the {@link Clock} implementation the timer should use
+     */
+    public SummarizingTimer(Reservoir reservoir, Clock clock) {
+        this(new SummarizingHistogram(reservoir), clock);
+    }
+
+    private SummarizingTimer(SummarizingHistogram histogram, Clock clock) {
+        super(histogram, new Meter(clock), clock);
+        this.histogram = histogram;
+    }
+
+    @Override
+    public IntervalSummary getSummary() {
+        return histogram.getSummary();
+    }
+
+    @Override
+    public IntervalSummary getSummaryAndReset() {
+        return histogram.getSummaryAndReset();
+    }
+}
@@ -0,0 +1,182 @@
+package com.codahale.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Keeps the exact count, sum, minimum and maximum of recorded values, striped over the updating
+ * threads so that concurrent updates rarely touch the same cache line.
+ * <p>
+ * Like {@link java.util.concurrent.atomic.LongAdder}, the recorder starts out with a single stripe
+ * and only adds stripes, up to one per processor, once concurrent updates collide on one. Every
+ * stripe is an array of {@code long}s padded to a cache line. An update adds to its stripe's count
+ * and sum, which are never reset, and only writes the stripe's minimum or maximum when the value is a
+ * new extreme, which becomes rare once a stripe has seen a few values. A reset remembers the count
+ * and sum of every stripe as the start of the next interval, and swaps the stripe's extremes back to
+ * their empty state. An update racing with a reset is therefore counted in exactly one interval,
+ * though its value may also show in the sum or extremes of the adjacent one.
+ */
+final class SummaryRecorder {
+    private static final int COUNT = 0;
+    private static final int SUM = 1;
+    private static final int MIN = 2;
+    private static final int MAX = 3;
+    private static final int COUNT_AT_RESET = 4;
+    private static final int SUM_AT_RESET = 5;
+    // 8 longs, so that every stripe fills a 64-byte cache line
+    private static final int STRIDE = 8;
+
+    private final int maxStripes;
+    private volatile AtomicLongArray[] stripes;
+
+    SummaryRecorder() {
+        this(Striping.defaultStripeCount());
+    }
+
+    SummaryRecorder(int maxStripes) {
+        this.maxStripes = maxStripes;
+        this.stripes = new AtomicLongArray[]{newStripe()};
+    }
+
+    void update(long value) {
+        final AtomicLongArray[] current = stripes;
+        final AtomicLongArray stripe = stripeOf(current);
+        updateMin(stripe, value);
+        updateMax(stripe, value);
+        stripe.getAndAdd(SUM, value);
+        addCount(current, stripe, 1);
+    }
+
+    void update(long[] values, int offset, int length) {
+        long sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = offset; i < offset + length; i++) {
+            final long value = values[i];
+            sum += value;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+        final AtomicLongArray[] current = stripes;
+        final AtomicLongArray stripe = stripeOf(current);
+        updateMin(stripe, min);
+        updateMax(stripe, max);
+        stripe.getAndAdd(SUM, sum);
+        addCount(current, stripe, length);
+    }
+
+    /**
+     * Returns the number of values recorded since the recorder was created, regardless of resets.
+     */
+    long count() {
+        long count = 0;
+        for (AtomicLongArray stripe : stripes) {
+            count += stripe.get(COUNT);
+        }
+        return count;
+    }
+
+    IntervalSummary summary() {
+        long count = 0;
+        long sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (AtomicLongArray stripe : stripes) {
+            count += stripe.get(COUNT) - stripe.get(COUNT_AT_RESET);
+            sum += stripe.get(SUM) - stripe.get(SUM_AT_RESET);
+            min = Math.min(min, stripe.get(MIN));
+            max = Math.max(max, stripe.get(MAX));
+        }
+        return summaryOf(count, sum, min, max);
+    }
+
+    synchronized IntervalSummary summaryAndReset() {
+        long count = 0;
+        long sum = 0;
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (AtomicLongArray stripe : stripes) {
+            // updates write the count last and it is read first here, so the sum and extremes of
+            // every value it includes are in this interval too
+            final long stripeCount = stripe.get(COUNT);
+            final long stripeSum = stripe.get(SUM);
+            min = Math.min(min, stripe.getAndSet(MIN, Long.MAX_VALUE));
+            max = Math.max(max, stripe.getAndSet(MAX, Long.MIN_VALUE));
+            final long stripeCountAtReset = stripe.get(COUNT_AT_RESET);
+            if (stripeCount == stripeCountAtReset) {
+                // any sum added since is of values still being counted, so it is left to the
+                // interval they are counted in
+                continue;
+            }
+            count += stripeCount - stripeCountAtReset;
+            sum += stripeSum - stripe.get(SUM_AT_RESET);
+            stripe.lazySet(COUNT_AT_RESET, stripeCount);
+            stripe.lazySet(SUM_AT_RESET, stripeSum);
+        }
+        return summaryOf(count, sum, min, max);
+    }
+
+    private static IntervalSummary summaryOf(long count, long sum, long min, long max) {
+        if (count == 0) {
+            return IntervalSummary.empty();
+        }
+        // the only values counted had their extremes taken by the previous reset, so the mean is
+        // the best estimate of them left
+        if (min > max) {
+            final long mean = sum / count;
+            return new IntervalSummary(count, sum, mean, mean);
+        }
+        return new IntervalSummary(count, sum, min, max);
+    }
+
+    private static AtomicLongArray stripeOf(AtomicLongArray[] current) {
+        // until updates collide there is a single stripe, and no need to hash the thread
+        return current.length == 1 ? current[0] : current[Striping.threadHash() & (current.length - 1)];
+    }
+
+    /**
+     * Adds to the count of a stripe, which updates write last. A collision with another update of the
+     * stripe makes the recorder spread the threads over more stripes.
+     */
+    private void addCount(AtomicLongArray[] current, AtomicLongArray stripe, long n) {
+        final long count = stripe.get(COUNT);
+        if (!stripe.compareAndSet(COUNT, count, count + n)) {
+            stripe.getAndAdd(COUNT, n);
+            if (current.length < maxStripes) {
+                grow(current);
+            }
+        }
+    }
+
+    private synchronized void grow(AtomicLongArray[] current) {
+        // the existing stripes are kept, so updates which still hold them are not lost
+        if (stripes == current && current.length < maxStripes) {
+            final AtomicLongArray[] grown = Arrays.copyOf(current, current.length * 2);
+            for (int i = current.length; i < grown.length; i++) {
+                grown[i] = newStripe();
+            }
+            stripes = grown;
+        }
+    }
+
+    private static AtomicLongArray newStripe() {
+        final AtomicLongArray stripe = new AtomicLongArray(STRIDE);
+        stripe.set(MIN, Long.MAX_VALUE);
+        stripe.set(MAX, Long.MIN_VALUE);
+        return stripe;
+    }
+
+    private static void updateMin(AtomicLongArray stripe, long value) {
+        long current = stripe.get(MIN);
+        while (value < current && !stripe.compareAndSet(MIN, current, value)) {
+            current = stripe.get(MIN);
+        }
+    }
+
+    private static void updateMax(AtomicLongArray stripe, long value) {
+        long current = stripe.get(MAX);
+        while (value > current && !stripe.compareAndSet(MAX, current, value)) {
+            current = stripe.get(MAX);
+        }
+    }
+}
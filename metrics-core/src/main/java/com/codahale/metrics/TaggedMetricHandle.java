@@ -0,0 +1,160 @@
+package com.codahale.metrics;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+
+/**
+ * A pre-resolved family of metrics of one type in a {@link MetricRegistry}, whose names are a base
+ * name tagged with a fixed set of tag keys, such as the tenant, the endpoint and the status of a
+ * request.
+ * <p>
+ * A lookup takes the values of the tags, in the order of the handle's tag keys, and walks a tree of
+ * hash maps with one level per tag, at whose leaves the handle keeps the resolved
+ * {@link MetricName}s. A repeated lookup therefore costs a hash lookup per tag and a registry lookup
+ * by a name whose key and hash are known, and neither builds a string nor allocates. Lookups with up
+ * to three tags have methods of their own, which do not allocate an array for the values either.
+ * <p>
+ * The handle only keeps names, not metrics, so a metric removed from the registry is created anew by
+ * the next lookup.
+ *
+ * @param <T> the type of the metrics
+ */
+public class TaggedMetricHandle<T extends Metric> {
+    private final MetricName name;
+    private final String[] tagKeys;
+    private final Function<MetricName, T> lookup;
+    private final Node root;
+
+    TaggedMetricHandle(MetricName name, String[] tagKeys, Function<MetricName, T> lookup) {
+        if (tagKeys.length == 0) {
+            throw new IllegalArgumentException("At least one tag key is required");
+        }
+        for (int i = 0; i < tagKeys.length; i++) {
+            MetricName.checkTag(tagKeys[i]);
+            for (int j = 0; j < i; j++) {
+                if (tagKeys[i].equals(tagKeys[j])) {
+                    throw new IllegalArgumentException("Duplicate tag key: " + tagKeys[i]);
+                }
+            }
+        }
+        this.name = name;
+        this.tagKeys = tagKeys.clone();
+        this.lookup = lookup;
+        this.root = new Node();
+    }
+
+    /**
+     * Returns the base name of the handle's metrics.
+     *
+     * @return the base name
+     */
+    public MetricName getName() {
+        return name;
+    }
+
+    /**
+     * Returns the keys of the tags, in the order in which lookups take their values.
+     *
+     * @return the tag keys
+     */
+    public String[] getTagKeys() {
+        return tagKeys.clone();
+    }
+
+    /**
+     * Returns the metric registered under the base name tagged with the given value of the handle's
+     * only tag; or creates and registers a new one if none is registered.
+     *
+     * @param value the value of the tag
+     * @return a new or pre-existing metric
+     */
+    public T get(String value) {
+        checkArity(1);
+        final Node node = root.child(value);
+        final MetricName resolved = node.name;
+        return lookup.apply(resolved != null ? resolved : node.resolve(this, value));
+    }
+
+    /**
+     * Returns the metric registered under the base name tagged with the given values of the handle's
+     * two tags; or creates and registers a new one if none is registered.
+     *
+     * @param first  the value of the first tag
+     * @param second the value of the second tag
+     * @return a new or pre-existing metric
+     */
+    public T get(String first, String second) {
+        checkArity(2);
+        final Node node = root.child(first).child(second);
+        final MetricName resolved = node.name;
+        return lookup.apply(resolved != null ? resolved : node.resolve(this, first, second));
+    }
+
+    /**
+     * Returns the metric registered under the base name tagged with the given values of the handle's
+     * three tags; or creates and registers a new one if none is registered.
+     *
+     * @param first  the value of the first tag
+     * @param second the value of the second tag
+     * @param third  the value of the third tag
+     * @return a new or pre-existing metric
+     */
+    public T get(String first, String second, String third) {
+        checkArity(3);
+        final Node node = root.child(first).child(second).child(third);
+        final MetricName resolved = node.name;
+        return lookup.apply(resolved != null ? resolved : node.resolve(this, first, second, third));
+    }
+
+    /**
+     * Returns the metric registered under the base name tagged with the given values of the handle's
+     * tags; or creates and registers a new one if none is registered.
+     *
+     * @param values the values of the tags, in the order of the tag keys
+     * @return a new or pre-existing metric
+     */
+    public T get(String... values) {
+        checkArity(values.length);
+        Node node = root;
+        for (String value : values) {
+            node = node.child(value);
+        }
+        final MetricName resolved = node.name;
+        return lookup.apply(resolved != null ? resolved : node.resolve(this, values));
+    }
+
+    private void checkArity(int values) {
+        if (values != tagKeys.length) {
+            throw new IllegalArgumentException("Expected " + tagKeys.length + " tag values, got " + values);
+        }
+    }
+
+    /**
+     * A level of the tree: the nodes for the values of the next tag, and the resolved name if the
+     * node is a leaf.
+     */
+    private static final class Node {
+        private final ConcurrentMap<String, Node> children = new ConcurrentHashMap<>();
+        private volatile MetricName name;
+
+        private Node child(String value) {
+            if (value == null) {
+                throw new IllegalArgumentException("Tag values may not be null");
+            }
+            final Node child = children.get(value);
+            return child != null ? child : children.computeIfAbsent(value, v -> new Node());
+        }
+
+        private MetricName resolve(TaggedMetricHandle<?> handle, String... values) {
+            final String[] keysAndValues = new String[values.length * 2];
+            for (int i = 0; i < values.length; i++) {
+                keysAndValues[2 * i] = handle.tagKeys[i];
+                keysAndValues[2 * i + 1] = values[i];
+            }
+            final MetricName resolved = handle.name.tagged(keysAndValues);
+            name = resolved;
+            return resolved;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.codahale.metrics;
+
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+
+/**
+ * A {@link Counter} for counting in tight loops, where each thread counts into a cell of its own.
+ * <p>
+ * A thread only ever writes its own cell, so an increment is a plain addition published with an
+ * ordered write rather than the compare-and-swap a {@link Counter} does on every update. The count
+ * is the sum of all the cells, which sees every increment as soon as the ordered write leaves the
+ * thread's store buffer, so it may lag behind the updating threads by the last few increments. The
+ * cells of threads which have died are folded into a single total when the count is read, and when
+ * a new thread creates its cell, so that threads which come and go do not pile up cells.
+ * <p>
+ * Looking up the thread's cell costs a {@link ThreadLocal} access on every update. Loops which count
+ * a lot can look it up once with {@link #cell()} and increment the {@link Cell} directly:
+ * <pre><code>
+ * final ThreadLocalCounter processed = (ThreadLocalCounter) registry.counter("processed", ThreadLocalCounter::new);
+ * final ThreadLocalCounter.Cell cell = processed.cell();
+ * for (Item item : batch) {
+ *     process(item);
+ *     cell.inc();
+ * }
+ * </code></pre>
+ */
+public class ThreadLocalCounter extends Counter {
+    private final ThreadLocal<Cell> cell = ThreadLocal.withInitial(this::newCell);
+    // guarded by this
+    private final List<Cell> cells = new ArrayList<>();
+    private long retired;
+
+    /**
+     * Creates a new {@link ThreadLocalCounter}.
+     */
+    public ThreadLocalCounter() {
+        // every update and read is overridden, so the counter needs no count of its own
+        super(null);
+    }
+
+    /**
+     * Returns the calling thread's cell of this counter. The cell must only be updated by the
+     * calling thread.
+     *
+     * @return the calling thread's cell
+     */
+    public Cell cell() {
+        return cell.get();
+    }
+
+    @Override
+    public void inc(long n) {
+        cell.get().add(n);
+    }
+
+    @Override
+    public void dec(long n) {
+        cell.get().add(-n);
+    }
+
+    @Override
+    public synchronized long getCount() {
+        retireDeadCells();
+        long count = retired;
+        for (Cell c : cells) {
+            count += c.value;
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of cells which are not yet folded into the total.
+     */
+    synchronized int cellCount() {
+        return cells.size();
+    }
+
+    private synchronized Cell newCell() {
+        retireDeadCells();
+        final Cell c = new Cell(Thread.currentThread());
+        cells.add(c);
+        return c;
+    }
+
+    private void retireDeadCells() {
+        for (Iterator<Cell> it = cells.iterator(); it.hasNext(); ) {
+            final Cell c = it.next();
+            final Thread owner = c.owner.get();
+            // once its owner is dead, the cell can no longer change and all its writes are visible
+            if (owner == null || !owner.isAlive()) {
+                retired += c.value;
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * A thread's share of a {@link ThreadLocalCounter}, which only that thread may update.
+     */
+    public static final class Cell {
+        private static final AtomicLongFieldUpdater<Cell> VALUE =
+                AtomicLongFieldUpdater.newUpdater(Cell.class, "value");
+
+        private final WeakReference<Thread> owner;
+        private volatile long value;
+
+        private Cell(Thread owner) {
+            this.owner = new WeakReference<>(owner);
+        }
+
+        /**
+         * Increments the counter by one.
+         */
+        public void inc() {
+            add(1);
+        }
+
+        /**
+         * Increments the counter by {@code n}.
+         *
+         * @param n the amount by which the counter will be increased
+         */
+        public void inc(long n) {
+            add(n);
+        }
+
+        /**
+         * Decrements the counter by one.
+         */
+        public void dec() {
+            add(-1);
+        }
+
+        /**
+         * Decrements the counter by {@code n}.
+         *
+         * @param n the amount by which the counter will be decreased
+         */
+        public void dec(long n) {
+            add(-n);
+        }
+
+        // only called by the owner thread, so the read-modify-write needs no atomicity
+        private void add(long n) {
+            VALUE.lazySet(this, value + n);
+        }
+    }
+}
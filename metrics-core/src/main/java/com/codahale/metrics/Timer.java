@@ -1,5 +1,6 @@
 package com.codahale.metrics;
 
+import java.lang.ref.WeakReference;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
@@ -7,6 +8,8 @@ import java.util.function.Supplier;
 /**
  * A timer metric which aggregates timing durations and provides duration statistics, plus
  * throughput statistics via {@link Meter}.
+ *
+ * @see SummarizingTimer
  */
 public class Timer implements Metered, Sampling {
     /**
@@ -20,16 +23,21 @@ public class Timer implements Metered, Sampling {
         private final long startTime;
 
         private Context(Timer timer, Clock clock) {
+            this(timer, clock, clock.getTick());
+        }
+
+        private Context(Timer timer, Clock clock, long startTime) {
             this.timer = timer;
             this.clock = clock;
-            this.startTime = clock.getTick();
+            this.startTime = startTime;
         }
 
         /**
          * Updates the timer with the difference between current and start time. Call to this method will
          * not reset the start time. Multiple calls result in multiple updates.
          *
-         * @return the elapsed time in nanoseconds
+         * @return the elapsed time in nanoseconds, or {@code 0} if the event was not sampled by a
+         * {@link SampledTimer}
          */
         public long stop() {
             final long elapsed = clock.getTick() - startTime;
@@ -46,9 +54,61 @@ public class Timer implements Metered, Sampling {
         }
     }
 
-    private final Meter meter;
+    /**
+     * A context for an event which is not sampled, which only counts the event when stopped, without
+     * reading the clock.
+     */
+    private static final class UnsampledContext extends Context {
+        private UnsampledContext(Timer timer, Clock clock) {
+            super(timer, clock, 0);
+        }
+
+        @Override
+        public long stop() {
+            super.timer.markUnsampled();
+            return 0;
+        }
+    }
+
+    /**
+     * A thread's context for {@link #timeReusingContext()}, which is restarted rather than created
+     * for every event.
+     * <p>
+     * The context is the value of the timer's thread local, so it only holds the timer weakly: a
+     * strong reference would keep the thread local, and with it the timer, reachable from every
+     * thread which ever timed it, for as long as that thread lives.
+     */
+    private static final class ReusableContext extends Context {
+        private final WeakReference<Timer> timer;
+        private long restartTime;
+
+        private ReusableContext(Timer timer, Clock clock) {
+            // stop() is overridden to use the weak reference, so the context's own timer is unused
+            super(null, clock, 0);
+            this.timer = new WeakReference<>(timer);
+        }
+
+        private Context restart() {
+            this.restartTime = super.clock.getTick();
+            return this;
+        }
+
+        @Override
+        public long stop() {
+            final long elapsed = super.clock.getTick() - restartTime;
+            final Timer t = timer.get();
+            // only gone if the caller kept the context but dropped the timer
+            if (t != null) {
+                t.update(elapsed, TimeUnit.NANOSECONDS);
+            }
+            return elapsed;
+        }
+    }
+
+    private final AbstractMeter meter;
     private final Histogram histogram;
     private final Clock clock;
+    private volatile ThreadLocal<ReusableContext> contexts;
 
     /**
      * Creates a new {@link Timer} using an {@link ExponentiallyDecayingReservoir} and the default
@@ -74,9 +134,29 @@ public class Timer implements Metered, Sampling {
      * @param clock     the {@link Clock} implementation the timer should use
      */
     public Timer(Reservoir reservoir, Clock clock) {
-        this.meter = new Meter(clock);
+        this(reservoir, clock, null);
+    }
+
+    /**
+     * Creates a new {@link Timer} that uses the given {@link Reservoir} and {@link Clock}, and whose
+     * rates are advanced by the given {@link MeterTicker}.
+     *
+     * @param reservoir the {@link Reservoir} implementation the timer should use
+     * @param clock     the {@link Clock} implementation the timer should use
+     * @param ticker    the ticker which advances the timer's rates, or {@code null} to let the timer
+     *                  advance them itself
+     */
+    public Timer(Reservoir reservoir, Clock clock, MeterTicker ticker) {
+        this(new Histogram(reservoir), new Meter(clock, ticker), clock);
+    }
+
+    /**
+     * Creates a new {@link Timer} from its parts.
+     */
+    Timer(Histogram histogram, AbstractMeter meter, Clock clock) {
+        this.meter = meter;
         this.clock = clock;
-        this.histogram = new Histogram(reservoir);
+        this.histogram = histogram;
     }
 
     /**
@@ -89,6 +169,38 @@ public class Timer implements Metered, Sampling {
         update(unit.toNanos(duration));
     }
 
+    /**
+     * Adds a batch of recorded durations. Negative durations are ignored, like in
+     * {@link #update(long, TimeUnit)}.
+     *
+     * @param durations an array of recorded durations
+     * @param offset    the index of the first duration to add
+     * @param length    the number of durations to add
+     * @param unit      the scale unit of the durations
+     */
+    public void update(long[] durations, int offset, int length, TimeUnit unit) {
+        if (offset < 0 || length < 0 || offset > durations.length - length) {
+            throw new IndexOutOfBoundsException("Batch [" + offset + ", " + (offset + length) +
+                    ") is outside of an array of " + durations.length);
+        }
+        long[] nanos = durations;
+        int from = offset;
+        int count = length;
+        if (unit != TimeUnit.NANOSECONDS || containsNegative(durations, offset, length)) {
+            nanos = new long[length];
+            from = 0;
+            count = 0;
+            for (int i = offset; i < offset + length; i++) {
+                if (durations[i] >= 0) {
+                    nanos[count++] = unit.toNanos(durations[i]);
+                }
+            }
+        }
+        if (count > 0) {
+            record(nanos, from, count);
+        }
+    }
+
     /**
      * Times and records the duration of event.
      *
@@ -150,9 +262,50 @@ public class Timer implements Metered, Sampling {
         return new Context(this, clock);
     }
 
+    /**
+     * Returns the calling thread's {@link Context} of this timer, restarted. Unlike {@link #time()}
+     * this does not allocate, but the context must be stopped before the same thread times this timer
+     * again, and must not be handed to other threads.
+     *
+     * @return the calling thread's restarted {@link Context}
+     * @see Context
+     */
+    public Context timeReusingContext() {
+        ThreadLocal<ReusableContext> c = contexts;
+        if (c == null) {
+            // created on first use, to keep timers which never reuse contexts small; a race only
+            // creates a context which is used once
+            c = ThreadLocal.withInitial(() -> new ReusableContext(this, clock));
+            contexts = c;
+        }
+        return c.get().restart();
+    }
+
+    /**
+     * Starts timing an event without allocating a {@link Context}. Pass the returned token to
+     * {@link #stop(long)} once the event is over.
+     *
+     * @return a token marking the start of the event
+     */
+    public long start() {
+        return clock.getTick();
+    }
+
+    /**
+     * Records the duration of an event started with {@link #start()}.
+     *
+     * @param startToken the token returned by {@link #start()}
+     * @return the elapsed time in nanoseconds
+     */
+    public long stop(long startToken) {
+        final long elapsed = clock.getTick() - startToken;
+        update(elapsed);
+        return elapsed;
+    }
+
     @Override
     public long getCount() {
-        return histogram.getCount();
+        return meter.getCount();
     }
 
     @Override
@@ -180,10 +333,58 @@ public class Timer implements Metered, Sampling {
         return histogram.getSnapshot();
     }
 
+    /**
+     * Returns a context which only counts the event when stopped, without reading the clock.
+     */
+    Context unsampledContext() {
+        return new UnsampledContext(this, clock);
+    }
+
+    /**
+     * Counts an event whose duration was not measured.
+     */
+    void markUnsampled() {
+        meter.markWithoutTick(1);
+    }
+
+    /**
+     * Returns the number of durations recorded in the histogram, which is less than the count of a
+     * {@link SampledTimer}.
+     */
+    long getRecordedCount() {
+        return histogram.getCount();
+    }
+
+    private static boolean containsNegative(long[] durations, int offset, int length) {
+        for (int i = offset; i < offset + length; i++) {
+            if (durations[i] < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private void update(long duration) {
         if (duration >= 0) {
-            histogram.update(duration);
-            meter.mark();
+            record(duration);
         }
     }
+
+    /**
+     * Records a duration in nanoseconds, which is not negative.
+     */
+    void record(long nanos) {
+        // the meter is marked first, so that it closes its tick interval before the histogram
+        // counts the new duration
+        meter.mark(1);
+        histogram.update(nanos);
+    }
+
+    /**
+     * Records a batch of durations in nanoseconds, none of which is negative.
+     */
+    void record(long[] nanos, int offset, int length) {
+        meter.mark(length);
+        histogram.update(nanos, offset, length);
+    }
 }
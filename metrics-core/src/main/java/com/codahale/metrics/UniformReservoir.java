@@ -58,6 +58,24 @@ public class UniformReservoir implements Reservoir {
         }
     }
 
+    @Override
+    public void update(long[] batch, int offset, int length) {
+        // claim the positions of the whole batch in the stream at once
+        final long first = count.getAndAdd(length) + 1;
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < length; i++) {
+            final long c = first + i;
+            if (c <= values.length()) {
+                values.set((int) c - 1, batch[offset + i]);
+            } else {
+                final long r = random.nextLong(c);
+                if (r < values.length()) {
+                    values.set((int) r, batch[offset + i]);
+                }
+            }
+        }
+    }
+
     @Override
     public Snapshot getSnapshot() {
         final int s = size();
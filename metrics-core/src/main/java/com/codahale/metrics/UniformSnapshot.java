@@ -5,6 +5,7 @@ import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.function.LongConsumer;
 
 import static java.lang.Math.floor;
 import static java.nio.charset.StandardCharsets.UTF_8;
@@ -15,6 +16,9 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 public class UniformSnapshot extends Snapshot {
 
     private final long[] values;
+    private double mean;
+    private double stdDev;
+    private volatile boolean hasMoments;
 
     /**
      * Create a new {@link Snapshot} with the given values.
@@ -36,8 +40,43 @@ public class UniformSnapshot extends Snapshot {
      * @param values an unordered set of values in the reservoir that can be used by this class directly
      */
     public UniformSnapshot(long[] values) {
-        this.values = Arrays.copyOf(values, values.length);
-        Arrays.sort(this.values);
+        this(values, false);
+    }
+
+    private UniformSnapshot(long[] values, boolean sorted) {
+        if (sorted) {
+            this.values = values;
+        } else {
+            this.values = Arrays.copyOf(values, values.length);
+            Arrays.sort(this.values);
+        }
+    }
+
+    /**
+     * Merges the given snapshots into one which holds the values of all of them, each counting as much
+     * as any other. The values of every snapshot are already sorted, so they are merged in a single pass.
+     *
+     * @param snapshots the snapshots to merge
+     * @return a snapshot of the values of all {@code snapshots}
+     */
+    public static UniformSnapshot merge(Collection<UniformSnapshot> snapshots) {
+        final long[][] runs = new long[snapshots.size()][];
+        final int[] lengths = new int[runs.length];
+        int size = 0;
+        int i = 0;
+        for (UniformSnapshot snapshot : snapshots) {
+            runs[i] = snapshot.values;
+            lengths[i] = snapshot.values.length;
+            size += lengths[i];
+            i++;
+        }
+
+        final long[] merged = new long[size];
+        final SortedRunMerger merger = new SortedRunMerger(runs, lengths);
+        for (int j = 0; merger.next(); j++) {
+            merged[j] = merger.value();
+        }
+        return new UniformSnapshot(merged, true);
     }
 
     /**
@@ -92,6 +131,13 @@ public class UniformSnapshot extends Snapshot {
         return Arrays.copyOf(values, values.length);
     }
 
+    @Override
+    public void forEach(LongConsumer action) {
+        for (long value : values) {
+            action.accept(value);
+        }
+    }
+
     /**
      * Returns the highest value in the snapshot.
      *
@@ -119,46 +165,45 @@ public class UniformSnapshot extends Snapshot {
     }
 
     /**
-     * Returns the arithmetic mean of the values in the snapshot.
+     * Returns the arithmetic mean of the values in the snapshot. It is computed on first use, along
+     * with the standard deviation.
      *
      * @return the arithmetic mean
      */
     @Override
     public double getMean() {
-        if (values.length == 0) {
-            return 0;
-        }
-
-        double sum = 0;
-        for (long value : values) {
-            sum += value;
+        if (!hasMoments) {
+            computeMoments();
         }
-        return sum / values.length;
+        return mean;
     }
 
     /**
-     * Returns the standard deviation of the values in the snapshot.
+     * Returns the standard deviation of the values in the snapshot. It is computed on first use, along
+     * with the mean.
      *
      * @return the standard deviation value
      */
     @Override
     public double getStdDev() {
-        // two-pass algorithm for variance, avoids numeric overflow
-
-        if (values.length <= 1) {
-            return 0;
+        if (!hasMoments) {
+            computeMoments();
         }
+        return stdDev;
+    }
 
-        final double mean = getMean();
+    private void computeMoments() {
+        // Welford's algorithm, a single pass which avoids numeric overflow
+        double mean = 0;
         double sum = 0;
-
-        for (long value : values) {
-            final double diff = value - mean;
-            sum += diff * diff;
+        for (int i = 0; i < values.length; i++) {
+            final double diff = values[i] - mean;
+            mean += diff / (i + 1);
+            sum += diff * (values[i] - mean);
         }
-
-        final double variance = sum / (values.length - 1);
-        return Math.sqrt(variance);
+        this.mean = mean;
+        this.stdDev = values.length <= 1 ? 0 : Math.sqrt(sum / (values.length - 1));
+        this.hasMoments = true;
     }
 
     /**
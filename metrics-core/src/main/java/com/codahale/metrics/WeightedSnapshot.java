@@ -5,7 +5,7 @@ import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.Comparator;
+import java.util.function.LongConsumer;
 
 import static java.nio.charset.StandardCharsets.UTF_8;
 
@@ -13,6 +13,7 @@ import static java.nio.charset.StandardCharsets.UTF_8;
  * A statistical snapshot of a {@link WeightedSnapshot}.
  */
 public class WeightedSnapshot extends Snapshot {
+    private static final int INSERTION_SORT_THRESHOLD = 16;
 
     /**
      * A single sample item with value and its weights for {@link WeightedSnapshot}.
@@ -27,9 +28,73 @@ public class WeightedSnapshot extends Snapshot {
         }
     }
 
+    /**
+     * A growable buffer of weighted samples, which reservoirs fill to build a {@link WeightedSnapshot}
+     * without allocating a {@link WeightedSample} per value. A buffer can be reused for any number of
+     * snapshots, which then allocate nothing once the buffer is large enough, but a snapshot built on a
+     * buffer is only valid until the buffer is cleared.
+     */
+    public static final class SampleBuffer {
+        private long[] values;
+        private double[] weights;
+        private double[] quantiles;
+        private int size;
+
+        /**
+         * Creates a new, empty {@link SampleBuffer}.
+         *
+         * @param initialCapacity the number of samples the buffer can hold before it grows
+         */
+        public SampleBuffer(int initialCapacity) {
+            final int capacity = Math.max(1, initialCapacity);
+            this.values = new long[capacity];
+            this.weights = new double[capacity];
+            this.quantiles = new double[capacity];
+        }
+
+        /**
+         * Adds a sample to the buffer.
+         *
+         * @param value  the value of the sample
+         * @param weight the weight of the sample
+         */
+        public void add(long value, double weight) {
+            if (size == values.length) {
+                final int capacity = values.length * 2;
+                values = Arrays.copyOf(values, capacity);
+                weights = Arrays.copyOf(weights, capacity);
+                quantiles = new double[capacity];
+            }
+            values[size] = value;
+            weights[size] = weight;
+            size++;
+        }
+
+        /**
+         * Removes all samples from the buffer, invalidating the snapshots built on it.
+         */
+        public void clear() {
+            size = 0;
+        }
+
+        /**
+         * Returns the number of samples in the buffer.
+         *
+         * @return the number of samples
+         */
+        public int size() {
+            return size;
+        }
+    }
+
     private final long[] values;
     private final double[] normWeights;
     private final double[] quantiles;
+    private final int size;
+    private final double sumWeight;
+    private double mean;
+    private double stdDev;
+    private volatile boolean hasMoments;
 
     /**
      * Create a new {@link Snapshot} with the given values.
@@ -37,27 +102,159 @@ public class WeightedSnapshot extends Snapshot {
      * @param values an unordered set of values in the reservoir
      */
     public WeightedSnapshot(Collection<WeightedSample> values) {
-        final WeightedSample[] copy = values.toArray(new WeightedSample[]{});
+        this(fill(new SampleBuffer(values.size()), values));
+    }
 
-        Arrays.sort(copy, Comparator.comparing(w -> w.value));
+    /**
+     * Create a new {@link Snapshot} with the samples of the given buffer. The samples are sorted and
+     * their weights normalized in place, and the snapshot keeps using the buffer's arrays rather than
+     * copying them, so the buffer must not be cleared or refilled while the snapshot is in use.
+     *
+     * @param samples an unordered buffer of samples
+     */
+    public WeightedSnapshot(SampleBuffer samples) {
+        this(sort(samples.values, samples.weights, samples.size), samples.weights, samples.quantiles, samples.size);
+    }
 
-        this.values = new long[copy.length];
-        this.normWeights = new double[copy.length];
-        this.quantiles = new double[copy.length];
+    /**
+     * @param values    the values, in ascending order, which the snapshot takes over
+     * @param weights   the weights of the values, which the snapshot takes over and normalizes in place
+     * @param quantiles an array for the cumulative weights, which the snapshot takes over
+     * @param size      the number of values to use from the start of the arrays
+     */
+    private WeightedSnapshot(long[] values, double[] weights, double[] quantiles, int size) {
+        this.values = values;
+        this.normWeights = weights;
+        this.quantiles = quantiles;
+        this.size = size;
+        this.sumWeight = normalize(weights, quantiles, size);
+    }
 
+    private static SampleBuffer fill(SampleBuffer buffer, Collection<WeightedSample> samples) {
+        for (WeightedSample sample : samples) {
+            buffer.add(sample.value, sample.weight);
+        }
+        return buffer;
+    }
+
+    private static double normalize(double[] weights, double[] quantiles, int size) {
         double sumWeight = 0;
-        for (WeightedSample sample : copy) {
-            sumWeight += sample.weight;
+        for (int i = 0; i < size; i++) {
+            sumWeight += weights[i];
         }
 
-        for (int i = 0; i < copy.length; i++) {
-            this.values[i] = copy[i].value;
-            this.normWeights[i] = sumWeight != 0 ? copy[i].weight / sumWeight : 0;
+        for (int i = 0; i < size; i++) {
+            weights[i] = sumWeight != 0 ? weights[i] / sumWeight : 0;
         }
 
-        for (int i = 1; i < copy.length; i++) {
-            this.quantiles[i] = this.quantiles[i - 1] + this.normWeights[i - 1];
+        if (size > 0) {
+            quantiles[0] = 0;
+        }
+        for (int i = 1; i < size; i++) {
+            quantiles[i] = quantiles[i - 1] + weights[i - 1];
         }
+        return sumWeight;
+    }
+
+    /**
+     * Sorts the first {@code size} values in ascending order, moving their weights along with them, with
+     * a quicksort on the primitive arrays which does not box or allocate.
+     *
+     * @return {@code values}
+     */
+    private static long[] sort(long[] values, double[] weights, int size) {
+        sort(values, weights, 0, size - 1);
+        return values;
+    }
+
+    private static void sort(long[] values, double[] weights, int low, int high) {
+        while (high - low >= INSERTION_SORT_THRESHOLD) {
+            // median of three, which leaves a sentinel at both ends of the range
+            final int middle = (low + high) >>> 1;
+            if (values[middle] < values[low]) {
+                swap(values, weights, middle, low);
+            }
+            if (values[high] < values[low]) {
+                swap(values, weights, high, low);
+            }
+            if (values[high] < values[middle]) {
+                swap(values, weights, high, middle);
+            }
+            final long pivot = values[middle];
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (values[i] < pivot) {
+                    i++;
+                }
+                while (values[j] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(values, weights, i++, j--);
+                }
+            }
+            // recurse into the smaller part and loop over the larger one, to bound the stack depth
+            if (j - low < high - i) {
+                sort(values, weights, low, j);
+                low = i;
+            } else {
+                sort(values, weights, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            final long value = values[i];
+            final double weight = weights[i];
+            int j = i - 1;
+            while (j >= low && values[j] > value) {
+                values[j + 1] = values[j];
+                weights[j + 1] = weights[j];
+                j--;
+            }
+            values[j + 1] = value;
+            weights[j + 1] = weight;
+        }
+    }
+
+    private static void swap(long[] values, double[] weights, int i, int j) {
+        final long value = values[i];
+        values[i] = values[j];
+        values[j] = value;
+        final double weight = weights[i];
+        weights[i] = weights[j];
+        weights[j] = weight;
+    }
+
+    /**
+     * Merges the given snapshots into one which holds the values of all of them, each keeping its
+     * original weight. The weights of all snapshots must be on the same scale, for example the number
+     * of values each sample stands for. The values of every snapshot are already sorted, so they are
+     * merged in a single pass.
+     *
+     * @param snapshots the snapshots to merge
+     * @return a snapshot of the weighted values of all {@code snapshots}
+     */
+    public static WeightedSnapshot merge(Collection<WeightedSnapshot> snapshots) {
+        final WeightedSnapshot[] sources = snapshots.toArray(new WeightedSnapshot[0]);
+        final long[][] runs = new long[sources.length][];
+        final int[] lengths = new int[sources.length];
+        int size = 0;
+        for (int i = 0; i < sources.length; i++) {
+            runs[i] = sources[i].values;
+            lengths[i] = sources[i].size;
+            size += lengths[i];
+        }
+
+        final long[] values = new long[size];
+        final double[] weights = new double[size];
+        final SortedRunMerger merger = new SortedRunMerger(runs, lengths);
+        for (int j = 0; merger.next(); j++) {
+            final WeightedSnapshot source = sources[merger.run()];
+            values[j] = merger.value();
+            weights[j] = source.normWeights[merger.position()] * source.sumWeight;
+        }
+        return new WeightedSnapshot(values, weights, new double[size], size);
     }
 
     /**
@@ -72,20 +269,57 @@ public class WeightedSnapshot extends Snapshot {
             throw new IllegalArgumentException(quantile + " is not in [0..1]");
         }
 
-        if (values.length == 0) {
+        if (size == 0) {
             return 0.0;
         }
 
-        int posx = Arrays.binarySearch(quantiles, quantile);
-        if (posx < 0)
-            posx = ((-posx) - 1) - 1;
+        return valueAt(position(quantile, 0));
+    }
+
+    /**
+     * Returns the values at the given quantiles, in the order of {@code quantiles}. Ascending
+     * quantiles are answered in a single sweep over the cumulative weights.
+     *
+     * @param quantiles the quantiles, each in {@code [0..1]}
+     * @return the values in the distribution at {@code quantiles}
+     */
+    @Override
+    public double[] getValues(double[] quantiles) {
+        final double[] result = new double[quantiles.length];
+        int from = 0;
+        double previous = 0;
+        for (int i = 0; i < quantiles.length; i++) {
+            final double quantile = quantiles[i];
+            if (quantile < 0.0 || quantile > 1.0 || Double.isNaN(quantile)) {
+                throw new IllegalArgumentException(quantile + " is not in [0..1]");
+            }
+            if (size == 0) {
+                continue;
+            }
+            // a higher quantile is never found before the position of a lower one
+            if (quantile < previous) {
+                from = 0;
+            }
+            final int posx = position(quantile, from);
+            result[i] = valueAt(posx);
+            from = Math.max(0, posx);
+            previous = quantile;
+        }
+        return result;
+    }
+
+    private int position(double quantile, int from) {
+        final int posx = Arrays.binarySearch(quantiles, from, size, quantile);
+        return posx < 0 ? ((-posx) - 1) - 1 : posx;
+    }
 
+    private double valueAt(int posx) {
         if (posx < 1) {
             return values[0];
         }
 
-        if (posx >= values.length) {
-            return values[values.length - 1];
+        if (posx >= size) {
+            return values[size - 1];
         }
 
         return values[posx];
@@ -98,7 +332,7 @@ public class WeightedSnapshot extends Snapshot {
      */
     @Override
     public int size() {
-        return values.length;
+        return size;
     }
 
     /**
@@ -108,7 +342,7 @@ public class WeightedSnapshot extends Snapshot {
      */
     @Override
     public long[] getValues() {
-        return Arrays.copyOf(values, values.length);
+        return Arrays.copyOf(values, size);
     }
 
     /**
@@ -118,10 +352,10 @@ public class WeightedSnapshot extends Snapshot {
      */
     @Override
     public long getMax() {
-        if (values.length == 0) {
+        if (size == 0) {
             return 0;
         }
-        return values[values.length - 1];
+        return values[size - 1];
     }
 
     /**
@@ -131,52 +365,70 @@ public class WeightedSnapshot extends Snapshot {
      */
     @Override
     public long getMin() {
-        if (values.length == 0) {
+        if (size == 0) {
             return 0;
         }
         return values[0];
     }
 
     /**
-     * Returns the weighted arithmetic mean of the values in the snapshot.
+     * Returns the weighted arithmetic mean of the values in the snapshot. It is computed on first use,
+     * along with the standard deviation.
      *
      * @return the weighted arithmetic mean
      */
     @Override
     public double getMean() {
-        if (values.length == 0) {
-            return 0;
-        }
-
-        double sum = 0;
-        for (int i = 0; i < values.length; i++) {
-            sum += values[i] * normWeights[i];
+        if (!hasMoments) {
+            computeMoments();
         }
-        return sum;
+        return mean;
     }
 
     /**
-     * Returns the weighted standard deviation of the values in the snapshot.
+     * Returns the weighted standard deviation of the values in the snapshot. It is computed on first
+     * use, along with the mean.
      *
      * @return the weighted standard deviation value
      */
     @Override
     public double getStdDev() {
-        // two-pass algorithm for variance, avoids numeric overflow
-
-        if (values.length <= 1) {
-            return 0;
+        if (!hasMoments) {
+            computeMoments();
         }
+        return stdDev;
+    }
 
-        final double mean = getMean();
+    private void computeMoments() {
+        // West's weighted form of Welford's algorithm, a single pass which avoids numeric overflow
+        double mean = 0;
         double variance = 0;
-
-        for (int i = 0; i < values.length; i++) {
+        double seenWeight = 0;
+        for (int i = 0; i < size; i++) {
+            final double weight = normWeights[i];
+            if (weight == 0) {
+                continue;
+            }
+            seenWeight += weight;
             final double diff = values[i] - mean;
-            variance += normWeights[i] * diff * diff;
+            mean += diff * weight / seenWeight;
+            variance += weight * diff * (values[i] - mean);
         }
+        this.mean = mean;
+        this.stdDev = size <= 1 ? 0 : Math.sqrt(Math.max(0, variance));
+        this.hasMoments = true;
+    }
 
-        return Math.sqrt(variance);
+    /**
+     * Passes every value in the snapshot to the given action, in ascending order.
+     *
+     * @param action the action to perform on every value
+     */
+    @Override
+    public void forEach(LongConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(values[i]);
+        }
     }
 
     /**
@@ -187,8 +439,8 @@ public class WeightedSnapshot extends Snapshot {
     @Override
     public void dump(OutputStream output) {
         try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, UTF_8))) {
-            for (long value : values) {
-                out.printf("%d%n", value);
+            for (int i = 0; i < size; i++) {
+                out.printf("%d%n", values[i]);
             }
         }
     }
@@ -0,0 +1,43 @@
+package com.codahale.metrics;
+
+/**
+ * A {@link Histogram} which keeps the distributions of the last one, five and fifteen minutes of its
+ * values in a {@link MultiWindowBucketReservoir}, so that a single histogram can report percentiles
+ * over all three windows. {@link #getSnapshot()} returns the snapshot of the last minute.
+ */
+public class WindowedHistogram extends Histogram implements WindowedSampling {
+    private final MultiWindowBucketReservoir reservoir;
+
+    /**
+     * Creates a new {@link WindowedHistogram} with a {@link MultiWindowBucketReservoir} and the
+     * default {@link Clock}.
+     */
+    public WindowedHistogram() {
+        this(new MultiWindowBucketReservoir());
+    }
+
+    /**
+     * Creates a new {@link WindowedHistogram} with the given reservoir.
+     *
+     * @param reservoir the reservoir to create a histogram from
+     */
+    public WindowedHistogram(MultiWindowBucketReservoir reservoir) {
+        super(reservoir);
+        this.reservoir = reservoir;
+    }
+
+    @Override
+    public Snapshot getOneMinuteSnapshot() {
+        return reservoir.getOneMinuteSnapshot();
+    }
+
+    @Override
+    public Snapshot getFiveMinuteSnapshot() {
+        return reservoir.getFiveMinuteSnapshot();
+    }
+
+    @Override
+    public Snapshot getFifteenMinuteSnapshot() {
+        return reservoir.getFifteenMinuteSnapshot();
+    }
+}
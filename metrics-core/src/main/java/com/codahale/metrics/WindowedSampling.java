@@ -0,0 +1,29 @@
+package com.codahale.metrics;
+
+/**
+ * An object which samples values over several sliding windows of time, the way a {@link Metered}
+ * object keeps rates over several windows. Its {@link #getSnapshot()} is the snapshot of the shortest
+ * window, the last minute, so reporters need not report {@link #getOneMinuteSnapshot()} separately.
+ */
+public interface WindowedSampling extends Sampling {
+    /**
+     * Returns a snapshot of the values of the last minute.
+     *
+     * @return a snapshot of the values of the last minute
+     */
+    Snapshot getOneMinuteSnapshot();
+
+    /**
+     * Returns a snapshot of the values of the last five minutes.
+     *
+     * @return a snapshot of the values of the last five minutes
+     */
+    Snapshot getFiveMinuteSnapshot();
+
+    /**
+     * Returns a snapshot of the values of the last fifteen minutes.
+     *
+     * @return a snapshot of the values of the last fifteen minutes
+     */
+    Snapshot getFifteenMinuteSnapshot();
+}
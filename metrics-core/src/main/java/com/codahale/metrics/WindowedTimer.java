@@ -0,0 +1,56 @@
+package com.codahale.metrics;
+
+/**
+ * A {@link Timer} which keeps the distributions of the durations of the last one, five and fifteen
+ * minutes in a {@link MultiWindowBucketReservoir}, next to the timer's rates over the same windows.
+ * A single timer can report percentiles over all three windows, where it would otherwise take a
+ * timer per window, each timing every event. {@link #getSnapshot()} returns the snapshot of the last
+ * minute.
+ */
+public class WindowedTimer extends Timer implements WindowedSampling {
+    private final MultiWindowBucketReservoir reservoir;
+
+    /**
+     * Creates a new {@link WindowedTimer} with a {@link MultiWindowBucketReservoir} and the default
+     * {@link Clock}.
+     */
+    public WindowedTimer() {
+        this(Clock.defaultClock());
+    }
+
+    /**
+     * Creates a new {@link WindowedTimer} with a {@link MultiWindowBucketReservoir}, both using the
+     * given {@link Clock}.
+     *
+     * @param clock the {@link Clock} implementation the timer should use
+     */
+    public WindowedTimer(Clock clock) {
+        this(new MultiWindowBucketReservoir(clock), clock);
+    }
+
+    /**
+     * Creates a new {@link WindowedTimer} that uses the given reservoir and {@link Clock}.
+     *
+     * @param reservoir the reservoir the timer should use
+     * @param clock     the {@link Clock} implementation the timer should use
+     */
+    public WindowedTimer(MultiWindowBucketReservoir reservoir, Clock clock) {
+        super(reservoir, clock);
+        this.reservoir = reservoir;
+    }
+
+    @Override
+    public Snapshot getOneMinuteSnapshot() {
+        return reservoir.getOneMinuteSnapshot();
+    }
+
+    @Override
+    public Snapshot getFiveMinuteSnapshot() {
+        return reservoir.getFiveMinuteSnapshot();
+    }
+
+    @Override
+    public Snapshot getFifteenMinuteSnapshot() {
+        return reservoir.getFifteenMinuteSnapshot();
+    }
+}
@@ -0,0 +1,78 @@
+package com.codahale.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A synchronization primitive which lets wait-free writers update a data structure while a reader
+ * swaps it for another one, in the style of HdrHistogram's {@code WriterReaderPhaser}.
+ * <p>
+ * Writers wrap every update in {@link #writerCriticalSectionEnter()} and
+ * {@link #writerCriticalSectionExit(long)}, which are a single atomic increment each. A reader takes
+ * the {@link #readerLock()}, publishes the new data structure to the writers, and then calls
+ * {@link #flipPhase()}, which waits until every writer that might still be updating the old one has
+ * left its critical section. Only the reader ever waits.
+ */
+final class WriterReaderPhaser {
+    private final AtomicLong startEpoch = new AtomicLong();
+    private final AtomicLong evenEndEpoch = new AtomicLong();
+    private final AtomicLong oddEndEpoch = new AtomicLong(Long.MIN_VALUE);
+    private final ReentrantLock readerLock = new ReentrantLock();
+
+    /**
+     * Marks the start of a writer's critical section.
+     *
+     * @return a token to pass to {@link #writerCriticalSectionExit(long)}
+     */
+    long writerCriticalSectionEnter() {
+        return startEpoch.getAndIncrement();
+    }
+
+    /**
+     * Marks the end of a writer's critical section.
+     *
+     * @param token the token returned by the matching {@link #writerCriticalSectionEnter()}
+     */
+    void writerCriticalSectionExit(long token) {
+        (token < 0 ? oddEndEpoch : evenEndEpoch).getAndIncrement();
+    }
+
+    /**
+     * Makes the current thread the only reader, waiting for any other reader to finish.
+     */
+    void readerLock() {
+        readerLock.lock();
+    }
+
+    /**
+     * Releases the reader lock.
+     */
+    void readerUnlock() {
+        readerLock.unlock();
+    }
+
+    /**
+     * Moves the writers on to the next phase, and waits until all writers which entered their critical
+     * section in the previous phase have left it. Must be called with the reader lock held.
+     */
+    void flipPhase() {
+        if (!readerLock.isHeldByCurrentThread()) {
+            throw new IllegalStateException("flipPhase() can only be called while holding the reader lock");
+        }
+
+        final boolean nextPhaseIsEven = startEpoch.get() < 0;
+
+        // reset the end epoch of the next phase, so writers exiting in it are counted from scratch
+        final long initialStartValue = nextPhaseIsEven ? 0 : Long.MIN_VALUE;
+        (nextPhaseIsEven ? evenEndEpoch : oddEndEpoch).lazySet(initialStartValue);
+
+        // swap the start epoch, which tells us how many writers entered the previous phase
+        final long startValueAtFlip = startEpoch.getAndSet(initialStartValue);
+
+        // wait for the writers of the previous phase to leave their critical sections
+        final AtomicLong previousEndEpoch = nextPhaseIsEven ? oddEndEpoch : evenEndEpoch;
+        while (previousEndEpoch.get() != startValueAtFlip) {
+            Thread.yield();
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+public class BucketedSnapshotTest {
+    private final Snapshot snapshot = new BucketedSnapshot(
+            new long[]{1, 2, 3, 4, 5, 6}, new long[]{2, 3, 2, 2, 1, 0});
+
+    @Test
+    public void smallQuantilesAreTheFirstValue() {
+        assertThat(snapshot.getValue(0.0))
+                .isEqualTo(1.0, offset(0.1));
+    }
+
+    @Test
+    public void bigQuantilesAreTheLastNonEmptyValue() {
+        assertThat(snapshot.getValue(1.0))
+                .isEqualTo(5.0, offset(0.1));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void disallowsNotANumberQuantile() {
+        snapshot.getValue(Double.NaN);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void disallowsNegativeQuantile() {
+        snapshot.getValue(-0.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void disallowsQuantileOverOne() {
+        snapshot.getValue(1.5);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void disallowsUnorderedValues() {
+        new BucketedSnapshot(new long[]{2, 1}, new long[]{1, 1});
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void disallowsMismatchedLengths() {
+        new BucketedSnapshot(new long[]{1, 2}, new long[]{1});
+    }
+
+    @Test
+    public void hasAMedian() {
+        assertThat(snapshot.getMedian()).isEqualTo(2.0, offset(0.1));
+    }
+
+    @Test
+    public void hasAp75() {
+        assertThat(snapshot.get75thPercentile()).isEqualTo(4.0, offset(0.1));
+    }
+
+    @Test
+    public void hasAp95() {
+        assertThat(snapshot.get95thPercentile()).isEqualTo(5.0, offset(0.1));
+    }
+
+    @Test
+    public void hasValues() {
+        assertThat(snapshot.getValues())
+                .containsExactly(1, 1, 2, 2, 2, 3, 3, 4, 4, 5);
+    }
+
+    @Test
+    public void hasASize() {
+        assertThat(snapshot.size())
+                .isEqualTo(10);
+    }
+
+    @Test
+    public void dumpsToAStream() {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        new BucketedSnapshot(new long[]{1, 2}, new long[]{2, 1}).dump(output);
+
+        assertThat(output.toString())
+                .isEqualTo(String.format("1%n1%n2%n"));
+    }
+
+    @Test
+    public void calculatesTheMinimumValue() {
+        assertThat(snapshot.getMin())
+                .isEqualTo(1);
+    }
+
+    @Test
+    public void calculatesTheMaximumValue() {
+        assertThat(snapshot.getMax())
+                .isEqualTo(5);
+    }
+
+    @Test
+    public void calculatesTheMeanValue() {
+        assertThat(snapshot.getMean())
+                .isEqualTo(2.7);
+    }
+
+    @Test
+    public void calculatesTheStdDev() {
+        assertThat(snapshot.getStdDev())
+                .isEqualTo(1.3375, offset(0.0001));
+    }
+
+    @Test
+    public void calculatesZeroesForAnEmptySnapshot() {
+        final Snapshot emptySnapshot = new BucketedSnapshot(new long[]{1, 2}, new long[]{0, 0});
+
+        assertThat(emptySnapshot.size()).isZero();
+        assertThat(emptySnapshot.getMin()).isZero();
+        assertThat(emptySnapshot.getMax()).isZero();
+        assertThat(emptySnapshot.getMean()).isZero();
+        assertThat(emptySnapshot.getStdDev()).isZero();
+        assertThat(emptySnapshot.getValue(0.5)).isZero();
+    }
+
+    @Test
+    public void calculatesAStdDevOfZeroForASingletonSnapshot() {
+        final Snapshot singleItemSnapshot = new BucketedSnapshot(new long[]{1}, new long[]{1});
+
+        assertThat(singleItemSnapshot.getStdDev())
+                .isZero();
+    }
+
+    @Test
+    public void mergesSnapshotsAddingUpEqualBuckets() {
+        final BucketedSnapshot merged = BucketedSnapshot.merge(asList(
+                new BucketedSnapshot(new long[]{1, 3, 5}, new long[]{1, 2, 3}),
+                new BucketedSnapshot(new long[]{2, 3}, new long[]{4, 5})));
+
+        assertThat(merged.getBucketValues())
+                .containsExactly(1, 2, 3, 5);
+        assertThat(merged.getBucketCounts())
+                .containsExactly(1, 4, 7, 3);
+        assertThat(merged.getCount())
+                .isEqualTo(15);
+        assertThat(merged.getMedian())
+                .isEqualTo(3.0, offset(0.1));
+    }
+
+    @Test
+    public void mergingNothingIsEmpty() {
+        final BucketedSnapshot merged = BucketedSnapshot.merge(Collections.emptyList());
+
+        assertThat(merged.size()).isZero();
+        assertThat(merged.getBucketValues()).isEmpty();
+    }
+
+    @Test
+    public void iteratesOverEveryRecordedValue() {
+        final List<Long> values = new ArrayList<>();
+
+        snapshot.forEach(values::add);
+
+        assertThat(values)
+                .containsExactly(1L, 1L, 2L, 2L, 2L, 3L, 3L, 4L, 4L, 5L);
+    }
+
+    @Test
+    public void scalesDownTheValuesOfLargeDistributions() {
+        final BucketedSnapshot large = new BucketedSnapshot(
+                new long[]{1, 2}, new long[]{3_000_000_000L, 1_000_000_000L});
+
+        final long[] values = large.getValues();
+
+        assertThat(values)
+                .hasSize(BucketedSnapshot.MAX_EXPANDED_VALUES);
+        assertThat(values[BucketedSnapshot.MAX_EXPANDED_VALUES / 4 * 3 - 1])
+                .isEqualTo(1);
+        assertThat(values[BucketedSnapshot.MAX_EXPANDED_VALUES / 4 * 3])
+                .isEqualTo(2);
+
+        final List<Long> iterated = new ArrayList<>();
+        large.forEach(iterated::add);
+        assertThat(iterated)
+                .hasSize(BucketedSnapshot.MAX_EXPANDED_VALUES);
+    }
+}
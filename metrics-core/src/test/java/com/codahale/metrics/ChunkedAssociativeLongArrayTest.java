@@ -37,4 +37,17 @@ public class ChunkedAssociativeLongArrayTest {
                 .isEqualTo(6);
 
     }
+
+    @Test
+    public void trimsEqualKeysTogether() {
+        ChunkedAssociativeLongArray array = new ChunkedAssociativeLongArray(3);
+        array.put(1, 1);
+        array.putAll(2, new long[]{2, 3, 4, 5, 6}, 0, 5);
+        array.put(3, 7);
+
+        array.trim(2, 3);
+
+        then(array.values())
+                .isEqualTo(new long[]{2, 3, 4, 5, 6});
+    }
 }
@@ -0,0 +1,121 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+public class CompactExponentiallyDecayingReservoirTest {
+    @Test
+    public void aReservoirOf100OutOf1000Elements() {
+        final CompactExponentiallyDecayingReservoir reservoir = new CompactExponentiallyDecayingReservoir(100, 0.99);
+        for (int i = 0; i < 1000; i++) {
+            reservoir.update(i);
+        }
+
+        assertThat(reservoir.size())
+                .isEqualTo(100);
+        final Snapshot snapshot = reservoir.getSnapshot();
+        assertThat(snapshot.size())
+                .isEqualTo(100);
+        assertThat(snapshot.getMin())
+                .isGreaterThanOrEqualTo(0);
+        assertThat(snapshot.getMax())
+                .isLessThan(1000);
+    }
+
+    @Test
+    public void aReservoirOf100OutOf10Elements() {
+        final CompactExponentiallyDecayingReservoir reservoir = new CompactExponentiallyDecayingReservoir(100, 0.99);
+        for (int i = 0; i < 10; i++) {
+            reservoir.update(i);
+        }
+
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+
+    @Test
+    public void biasesTheSamplesTowardsNewerValues() {
+        final ManualClock clock = new ManualClock();
+        final CompactExponentiallyDecayingReservoir reservoir = new CompactExponentiallyDecayingReservoir(100, 0.015, clock);
+        for (int i = 0; i < 1000; i++) {
+            reservoir.update(1000 + i);
+        }
+        // ten minutes later, the old values weigh e^-9 as much as the new ones
+        clock.addSeconds(600);
+        for (int i = 0; i < 1000; i++) {
+            reservoir.update(i);
+        }
+
+        assertThat(reservoir.getSnapshot().getMedian())
+                .isLessThan(1000);
+    }
+
+    @Test
+    public void keepsTheSamplesWhenRescaling() {
+        final ManualClock clock = new ManualClock();
+        final CompactExponentiallyDecayingReservoir reservoir = new CompactExponentiallyDecayingReservoir(10, 0.015, clock);
+        for (int i = 0; i < 10; i++) {
+            reservoir.update(100);
+        }
+
+        clock.addSeconds(3601);
+        reservoir.update(200);
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+        assertThat(snapshot.size())
+                .isEqualTo(10);
+        assertThat(snapshot.getMean())
+                .isBetween(100.0, 200.0);
+    }
+
+    @Test
+    public void dropsSamplesWhichDecayToNothing() {
+        final ManualClock clock = new ManualClock();
+        final CompactExponentiallyDecayingReservoir reservoir = new CompactExponentiallyDecayingReservoir(10, 0.015, clock);
+        reservoir.update(100);
+
+        clock.addHours(24 * 30);
+        reservoir.update(200);
+
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsExactly(200);
+    }
+
+    @Test
+    public void recordsBatchesLikeSingleUpdates() {
+        final CompactExponentiallyDecayingReservoir reservoir = new CompactExponentiallyDecayingReservoir(1000, 0.015);
+        final long[] batch = new long[500];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = i;
+        }
+
+        reservoir.update(batch, 100, 400);
+
+        assertThat(reservoir.size())
+                .isEqualTo(400);
+        assertThat(reservoir.getSnapshot().getMean())
+                .isEqualTo(299.5, offset(0.001));
+    }
+
+    @Test
+    public void growsWithTheNumberOfValues() {
+        final CompactExponentiallyDecayingReservoir reservoir = new CompactExponentiallyDecayingReservoir();
+        final long empty = RetainedSize.of(reservoir, Clock.defaultClock());
+        reservoir.update(1);
+        final long oneValue = RetainedSize.of(reservoir, Clock.defaultClock());
+        for (int i = 0; i < 10000; i++) {
+            reservoir.update(i);
+        }
+        final long full = RetainedSize.of(reservoir, Clock.defaultClock());
+
+        assertThat(empty)
+                .isLessThan(128);
+        assertThat(oneValue)
+                .isLessThan(empty + 512);
+        // three arrays of 1028 samples and their headers
+        assertThat(full)
+                .isLessThan(empty + 1028 * 24 + 128);
+    }
+}
@@ -0,0 +1,57 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CompactHistogramTest {
+    private final CompactHistogram histogram = new CompactHistogram();
+
+    @Test
+    public void recordsValues() {
+        histogram.update(10);
+        histogram.update(new long[]{5, 30}, 0, 2);
+
+        assertThat(histogram.getCount())
+                .isEqualTo(3);
+        assertThat(histogram.getSnapshot().getValues())
+                .containsExactly(5, 10, 30);
+    }
+
+    @Test
+    public void hasAnEmptySnapshotBeforeTheFirstUpdate() {
+        final long before = RetainedSize.of(histogram, Clock.defaultClock());
+
+        assertThat(histogram.getSnapshot().size())
+                .isZero();
+        assertThat(RetainedSize.of(histogram, Clock.defaultClock()))
+                .isEqualTo(before);
+    }
+
+    @Test
+    public void createsTheReservoirOnTheFirstUpdate() {
+        final UniformReservoir reservoir = new UniformReservoir();
+        final CompactHistogram lazy = new CompactHistogram(() -> reservoir);
+
+        lazy.update(42);
+
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsExactly(42);
+    }
+
+    @Test
+    public void takesLessMemoryThanAHistogram() {
+        final Histogram regular = new Histogram(new ExponentiallyDecayingReservoir());
+
+        assertThat(RetainedSize.of(histogram, Clock.defaultClock()))
+                .isLessThan(256);
+
+        for (int i = 0; i < 10000; i++) {
+            histogram.update(i);
+            regular.update(i);
+        }
+
+        assertThat(RetainedSize.of(histogram, Clock.defaultClock()))
+                .isLessThan(RetainedSize.of(regular, Clock.defaultClock()) / 2);
+    }
+}
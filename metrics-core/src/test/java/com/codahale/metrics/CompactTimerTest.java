@@ -0,0 +1,84 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+public class CompactTimerTest {
+    private final ManualClock clock = new ManualClock();
+    private final CompactTimer timer = new CompactTimer(CompactExponentiallyDecayingReservoir::new, clock);
+
+    @Test
+    public void recordsDurationsAndCountsThem() throws Exception {
+        timer.update(10, TimeUnit.MILLISECONDS);
+        timer.time(() -> clock.addMillis(5));
+        timer.update(-1, TimeUnit.MILLISECONDS);
+
+        assertThat(timer.getCount())
+                .isEqualTo(2);
+        assertThat(timer.getSnapshot().getValues())
+                .containsExactly(5000000, 10000000);
+    }
+
+    @Test
+    public void countsUnsampledEventsWithoutRecordingThem() {
+        timer.update(10, TimeUnit.MILLISECONDS);
+        timer.unsampledContext().stop();
+
+        assertThat(timer.getCount())
+                .isEqualTo(2);
+        assertThat(timer.getSnapshot().getValues())
+                .containsExactly(10000000);
+    }
+
+    @Test
+    public void hasTheRatesOfAMeter() {
+        final Meter meter = new Meter(clock);
+        for (int i = 0; i < 1000; i++) {
+            timer.update(1, TimeUnit.MILLISECONDS);
+        }
+        meter.mark(1000);
+        clock.addSeconds(6);
+        timer.update(1, TimeUnit.MILLISECONDS);
+        meter.mark();
+        clock.addSeconds(20);
+
+        assertThat(timer.getOneMinuteRate())
+                .isEqualTo(meter.getOneMinuteRate(), offset(1e-9));
+        assertThat(timer.getFiveMinuteRate())
+                .isEqualTo(meter.getFiveMinuteRate(), offset(1e-9));
+        assertThat(timer.getFifteenMinuteRate())
+                .isEqualTo(meter.getFifteenMinuteRate(), offset(1e-9));
+        assertThat(timer.getMeanRate())
+                .isEqualTo(meter.getMeanRate(), offset(1e-9));
+    }
+
+    @Test
+    public void startsOutWithNoRates() {
+        assertThat(timer.getMeanRate())
+                .isZero();
+        assertThat(timer.getOneMinuteRate())
+                .isZero();
+    }
+
+    @Test
+    public void takesLessMemoryThanATimer() {
+        final CompactTimer compact = new CompactTimer();
+        final Timer regular = new Timer();
+
+        assertThat(RetainedSize.of(compact, Clock.defaultClock()))
+                .isLessThan(512)
+                .isLessThan(RetainedSize.of(regular, Clock.defaultClock()) / 2);
+
+        for (int i = 0; i < 10000; i++) {
+            compact.update(i, TimeUnit.NANOSECONDS);
+            regular.update(i, TimeUnit.NANOSECONDS);
+        }
+
+        assertThat(RetainedSize.of(compact, Clock.defaultClock()))
+                .isLessThan(RetainedSize.of(regular, Clock.defaultClock()) / 2);
+    }
+}
@@ -0,0 +1,106 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class CoordinatedOmissionReservoirTest {
+    private final CoordinatedOmissionReservoir reservoir = new CoordinatedOmissionReservoir(100, 2, 1000000);
+
+    @Test
+    public void recordsValuesWithinTheExpectedIntervalAsTheyAre() {
+        reservoir.update(10);
+        reservoir.update(100);
+        reservoir.update(199);
+
+        final CorrectedSnapshot snapshot = reservoir.getSnapshot();
+
+        assertThat(reservoir.size())
+                .isEqualTo(3);
+        assertThat(snapshot.getValues())
+                .isEqualTo(snapshot.getRawSnapshot().getValues());
+    }
+
+    @Test
+    public void backfillsTheValuesOfTheRequestsAStallHeldBack() {
+        final LogLinearBucketReservoir expected = new LogLinearBucketReservoir(2, 1000000);
+        for (long value : new long[]{100, 200, 300, 400, 500, 600, 700, 800, 900, 1000}) {
+            expected.update(value);
+        }
+
+        reservoir.update(1000);
+
+        final CorrectedSnapshot snapshot = reservoir.getSnapshot();
+
+        assertThat(snapshot.getValues())
+                .isEqualTo(expected.getSnapshot().getValues());
+        assertThat(snapshot.getRawSnapshot().size())
+                .isEqualTo(1);
+        assertThat(snapshot.getRawSnapshot().getMax())
+                .isEqualTo(snapshot.getMax());
+        assertThat(snapshot.getExpectedInterval())
+                .isEqualTo(100);
+    }
+
+    @Test
+    public void backfillsLikeRecordingEverySyntheticValue() {
+        final CoordinatedOmissionReservoir nanos = new CoordinatedOmissionReservoir(1, TimeUnit.MILLISECONDS);
+        final LogLinearBucketReservoir expected = new LogLinearBucketReservoir();
+        final long stall = TimeUnit.SECONDS.toNanos(10) + 12345;
+        for (long value = stall; value >= TimeUnit.MILLISECONDS.toNanos(1); value -= TimeUnit.MILLISECONDS.toNanos(1)) {
+            expected.update(value);
+        }
+
+        nanos.update(stall);
+
+        assertThat(nanos.size())
+                .isEqualTo(10000);
+        assertThat(nanos.getSnapshot().getValues())
+                .isEqualTo(expected.getSnapshot().getValues());
+    }
+
+    @Test
+    public void timersReportTheCorrectedDistribution() {
+        final Timer timer = new Timer(new CoordinatedOmissionReservoir(10, TimeUnit.MILLISECONDS));
+        timer.update(1, TimeUnit.MILLISECONDS);
+        timer.update(50, TimeUnit.MILLISECONDS);
+
+        final CorrectedSnapshot snapshot = (CorrectedSnapshot) timer.getSnapshot();
+
+        assertThat(timer.getCount())
+                .isEqualTo(2);
+        assertThat(snapshot.size())
+                .isEqualTo(6);
+        assertThat(snapshot.getRawSnapshot().size())
+                .isEqualTo(2);
+        assertThat(snapshot.getMedian())
+                .isGreaterThan(snapshot.getRawSnapshot().getMedian());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void requiresAPositiveExpectedInterval() {
+        new CoordinatedOmissionReservoir(0, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    public void mergesTheStateOfOtherReservoirs() {
+        final CoordinatedOmissionReservoir shard = new CoordinatedOmissionReservoir(100, 2, 1000000);
+        final CoordinatedOmissionReservoir whole = new CoordinatedOmissionReservoir(100, 2, 1000000);
+        shard.update(1000);
+        whole.update(1000);
+        reservoir.update(10);
+        whole.update(10);
+
+        reservoir.mergeState(shard.exportState());
+
+        final CorrectedSnapshot snapshot = reservoir.getSnapshot();
+        assertThat(reservoir.size())
+                .isEqualTo(11);
+        assertThat(snapshot.getRawSnapshot().getValues())
+                .containsExactly(whole.getSnapshot().getRawSnapshot().getValues());
+        assertThat(snapshot.getValues())
+                .containsExactly(whole.getSnapshot().getValues());
+    }
+}
@@ -0,0 +1,128 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+public class DDSketchReservoirTest {
+    @Test
+    public void recordsSmallValuesExactly() {
+        final DDSketchReservoir reservoir = new DDSketchReservoir();
+        for (int i = 1; i <= 50; i++) {
+            reservoir.update(i);
+        }
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+
+        assertThat(reservoir.size()).isEqualTo(50);
+        assertThat(snapshot.getMin()).isEqualTo(1);
+        assertThat(snapshot.getMax()).isEqualTo(50);
+        assertThat(snapshot.getMedian()).isEqualTo(25.0);
+    }
+
+    @Test
+    public void keepsTheRelativeAccuracyOfEveryBucket() {
+        final LogBuckets buckets = new LogBuckets(0.02);
+        final Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            final long value = (long) (Math.pow(10, random.nextDouble() * 18) * (random.nextBoolean() ? 1 : -1));
+            final long bucketValue = buckets.valueAt(buckets.indexOf(value));
+
+            assertThat(buckets.indexOf(bucketValue)).isEqualTo(buckets.indexOf(value));
+            assertThat((double) bucketValue).isEqualTo(value, offset(Math.abs(value) * 0.02 + 0.5));
+        }
+    }
+
+    @Test
+    public void keepsTheRelativeAccuracyOfTheQuantilesOfAHeavyTailedDistribution() {
+        final DDSketchReservoir reservoir = new DDSketchReservoir(0.01);
+        final Random random = new Random(42);
+        final long[] values = new long[100000];
+        for (int i = 0; i < values.length; i++) {
+            // a Pareto distribution with a scale of a millisecond in nanoseconds
+            values[i] = (long) (1000000 / Math.pow(random.nextDouble(), 1 / 1.2));
+            reservoir.update(values[i]);
+        }
+        Arrays.sort(values);
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+
+        for (double quantile : new double[]{0.5, 0.75, 0.9, 0.99, 0.999, 0.9999, 1.0}) {
+            final long expected = values[(int) Math.max(0, Math.ceil(quantile * values.length) - 1)];
+            assertThat(snapshot.getValue(quantile)).isEqualTo(expected, offset(expected * 0.01 + 0.5));
+        }
+    }
+
+    @Test
+    public void recordsZeroAndNegativeValues() {
+        final DDSketchReservoir reservoir = new DDSketchReservoir();
+        reservoir.update(-1000);
+        reservoir.update(Long.MIN_VALUE);
+        reservoir.update(0);
+        reservoir.update(1000);
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+
+        assertThat((double) snapshot.getMin()).isEqualTo(Long.MIN_VALUE, offset(-0.01 * Long.MIN_VALUE));
+        assertThat(snapshot.getValue(0.5)).isEqualTo(-1000, offset(10.0));
+        assertThat(snapshot.getValue(0.75)).isZero();
+        assertThat((double) snapshot.getMax()).isEqualTo(1000, offset(10.0));
+    }
+
+    @Test
+    public void emptyReservoirHasAnEmptySnapshot() {
+        final Snapshot snapshot = new DDSketchReservoir().getSnapshot();
+
+        assertThat(snapshot.size()).isZero();
+        assertThat(snapshot.getMedian()).isZero();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void disallowsRelativeAccuraciesOutsideOfTheUnitInterval() {
+        new DDSketchReservoir(1.0);
+    }
+
+    @Test
+    public void mergesTheStateOfOtherReservoirs() {
+        final DDSketchReservoir shard1 = new DDSketchReservoir();
+        final DDSketchReservoir shard2 = new DDSketchReservoir();
+        final DDSketchReservoir whole = new DDSketchReservoir();
+        for (int i = 1; i <= 1000; i++) {
+            (i % 3 == 0 ? shard1 : shard2).update(i * 7919L);
+            whole.update(i * 7919L);
+        }
+
+        final DDSketchReservoir merged = new DDSketchReservoir();
+        merged.mergeState(shard1.exportState());
+        merged.mergeState(shard2.exportState());
+
+        assertThat(merged.size())
+                .isEqualTo(1000);
+        assertThat(merged.getSnapshot().getValues())
+                .containsExactly(whole.getSnapshot().getValues());
+        assertThat(BucketedSnapshot.merge(asList(shard1.exportState(), shard2.exportState())).getValues())
+                .containsExactly(whole.getSnapshot().getValues());
+    }
+
+    @Test
+    public void recordsBatchesLikeSingleUpdates() {
+        final DDSketchReservoir single = new DDSketchReservoir();
+        final DDSketchReservoir batched = new DDSketchReservoir();
+        final Random random = new Random(42);
+        final long[] batch = new long[1000];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = random.nextInt(1000000);
+            single.update(batch[i]);
+        }
+
+        batched.update(batch, 0, batch.length);
+
+        assertThat(batched.size()).isEqualTo(1000);
+        assertThat(batched.getSnapshot().getValues()).isEqualTo(single.getSnapshot().getValues());
+    }
+}
@@ -215,6 +215,33 @@ public class EWMATest {
         assertThat(ewma.getRate(TimeUnit.SECONDS)).isEqualTo(0.22072766, offset(0.000001));
     }
 
+    @Test
+    public void tickingManyIntervalsAtOnceMatchesTickingEachOfThem() {
+        final EWMA stepped = EWMA.fiveMinuteEWMA();
+        final EWMA jumped = EWMA.fiveMinuteEWMA();
+
+        stepped.update(3);
+        stepped.tick();
+        jumped.tick(3, 1);
+
+        stepped.update(40);
+        for (int i = 0; i < 1000; i++) {
+            stepped.tick();
+        }
+        jumped.tick(40, 1000);
+
+        assertThat(jumped.getRate(TimeUnit.SECONDS))
+                .isEqualTo(stepped.getRate(TimeUnit.SECONDS), offset(1e-12));
+    }
+
+    @Test
+    public void tickingNoIntervalsChangesNothing() {
+        final EWMA ewma = EWMA.oneMinuteEWMA();
+        ewma.tick(3, 1);
+        ewma.tick(100, 0);
+
+        assertThat(ewma.getRate(TimeUnit.SECONDS)).isEqualTo(0.6, offset(0.000001));
+    }
 
     private void elapseMinute(EWMA ewma) {
         for (int i = 1; i <= 12; i++) {
@@ -343,4 +343,42 @@ public class ExponentiallyDecayingReservoirTest {
         }
     }
 
+    @Test
+    public void aReservoirOf100OutOf1000ElementsInBatches() {
+        final ExponentiallyDecayingReservoir reservoir = new ExponentiallyDecayingReservoir(100, 0.99);
+        final long[] batch = new long[10];
+        for (int i = 0; i < 1000; i += batch.length) {
+            for (int j = 0; j < batch.length; j++) {
+                batch[j] = (long) i + j;
+            }
+            reservoir.update(batch, 0, batch.length);
+        }
+
+        assertThat(reservoir.size())
+                .isEqualTo(100);
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+
+        assertThat(snapshot.size())
+                .isEqualTo(100);
+
+        assertAllValuesBetween(reservoir, 0, 1000);
+    }
+
+    @Test
+    public void fillsACallerSuppliedBuffer() {
+        final ExponentiallyDecayingReservoir reservoir = new ExponentiallyDecayingReservoir(100, 0.99);
+        for (int i = 0; i < 1000; i++) {
+            reservoir.update(i);
+        }
+        final WeightedSnapshot.SampleBuffer buffer = new WeightedSnapshot.SampleBuffer(1);
+        buffer.add(-1, 1);
+
+        final WeightedSnapshot snapshot = reservoir.getSnapshot(buffer);
+
+        assertThat(buffer.size())
+                .isEqualTo(100);
+        assertThat(snapshot.getValues())
+                .containsExactly(reservoir.getSnapshot().getValues());
+    }
 }
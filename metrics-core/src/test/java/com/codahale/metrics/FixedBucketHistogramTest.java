@@ -0,0 +1,94 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FixedBucketHistogramTest {
+    private final FixedBucketHistogram histogram = new FixedBucketHistogram(10, 50, 100, 250);
+
+    @Test
+    public void countsValuesUpToEachInclusiveBound() {
+        for (long value : new long[]{-5, 0, 10, 11, 50, 99, 100, 101, 250, 251, 1000}) {
+            histogram.update(value);
+        }
+
+        assertThat(histogram.getBucketBounds())
+                .containsExactly(10, 50, 100, 250);
+        assertThat(histogram.getBucketCounts())
+                .containsExactly(3, 2, 2, 2, 2);
+        assertThat(histogram.getCumulativeBucketCounts())
+                .containsExactly(3, 5, 7, 9, 11);
+        assertThat(histogram.getCount())
+                .isEqualTo(11);
+    }
+
+    @Test
+    public void findsTheBucketOfEveryValue() {
+        final long[] bounds = new long[37];
+        for (int i = 0; i < bounds.length; i++) {
+            bounds[i] = i * 3L;
+        }
+        final FixedBucketReservoir reservoir = new FixedBucketReservoir(bounds);
+
+        for (long value = -2; value <= bounds[bounds.length - 1] + 2; value++) {
+            int expected = 0;
+            while (expected < bounds.length && bounds[expected] < value) {
+                expected++;
+            }
+            assertThat(reservoir.indexOf(value))
+                    .as("bucket of %d", value)
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    public void snapshotsRepresentBucketsByTheirBounds() {
+        histogram.update(7);
+        histogram.update(42);
+        histogram.update(42);
+
+        final Snapshot snapshot = histogram.getSnapshot();
+
+        assertThat(snapshot.getValues())
+                .containsExactly(10, 50, 50);
+        assertThat(snapshot.getMax())
+                .isEqualTo(50);
+    }
+
+    @Test
+    public void snapshotsRepresentTheOverflowBucketByItsHighestValue() {
+        histogram.update(300);
+        histogram.update(7000);
+
+        assertThat(histogram.getSnapshot().getValues())
+                .containsExactly(7000, 7000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void requiresAscendingBounds() {
+        new FixedBucketHistogram(10, 10, 20);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void requiresABound() {
+        new FixedBucketHistogram();
+    }
+
+    @Test
+    public void mergesTheStateOfOtherReservoirs() {
+        final FixedBucketReservoir shard = new FixedBucketReservoir(new long[]{10, 50, 100, 250});
+        final FixedBucketReservoir merged = new FixedBucketReservoir(new long[]{10, 50, 100, 250});
+        for (long value : new long[]{5, 50, 300, 1000}) {
+            shard.update(value);
+        }
+        merged.update(60);
+
+        merged.mergeState(shard.exportState());
+
+        assertThat(merged.counts())
+                .containsExactly(1, 1, 1, 0, 2);
+        assertThat(merged.getSnapshot().getMax())
+                .isEqualTo(1000);
+    }
+}
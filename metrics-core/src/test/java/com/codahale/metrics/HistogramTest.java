@@ -37,4 +37,21 @@ public class HistogramTest {
 
         verify(reservoir).update(1);
     }
+
+    @Test
+    public void updatesTheCountAndTheReservoirWithBatches() {
+        final long[] values = {1, 2, 3, 4, 5};
+
+        histogram.update(values, 1, 3);
+
+        assertThat(histogram.getCount())
+                .isEqualTo(3);
+
+        verify(reservoir).update(values, 1, 3);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rejectsBatchesOutsideOfTheArray() {
+        histogram.update(new long[3], 2, 2);
+    }
 }
@@ -0,0 +1,97 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class IntervalRecorderReservoirTest {
+    @Test
+    public void snapshotsOnlyHoldTheValuesOfTheLastInterval() {
+        final IntervalRecorderReservoir reservoir = new IntervalRecorderReservoir();
+        for (int i = 1; i <= 10; i++) {
+            reservoir.update(i);
+        }
+
+        final Snapshot first = reservoir.getSnapshot();
+
+        reservoir.update(100);
+        reservoir.update(200);
+
+        assertThat(reservoir.size()).isEqualTo(2);
+
+        final Snapshot second = reservoir.getSnapshot();
+
+        assertThat(first.getValues()).containsExactly(1, 2, 3, 4, 5, 6, 7, 8, 9, 10);
+        assertThat(second.getValues()).containsExactly(100, 200);
+    }
+
+    @Test
+    public void snapshotOfAnIntervalWithoutValuesIsEmpty() {
+        final IntervalRecorderReservoir reservoir = new IntervalRecorderReservoir();
+        reservoir.update(42);
+        reservoir.getSnapshot();
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+
+        assertThat(reservoir.size()).isZero();
+        assertThat(snapshot.size()).isZero();
+        assertThat(snapshot.getMax()).isZero();
+    }
+
+    @Test
+    public void recordsBatchesLikeSingleUpdates() {
+        final IntervalRecorderReservoir single = new IntervalRecorderReservoir();
+        final IntervalRecorderReservoir batched = new IntervalRecorderReservoir();
+        final long[] batch = new long[1000];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = i * 7919L;
+            single.update(batch[i]);
+        }
+
+        batched.update(batch, 0, batch.length);
+
+        assertThat(batched.size()).isEqualTo(1000);
+        assertThat(batched.getSnapshot().getValues()).isEqualTo(single.getSnapshot().getValues());
+    }
+
+    @Test
+    public void losesNoValuesRecordedWhileTakingSnapshots() throws Exception {
+        final IntervalRecorderReservoir reservoir = new IntervalRecorderReservoir();
+        final int writers = 4;
+        final int updatesPerWriter = 100000;
+        final CountDownLatch done = new CountDownLatch(writers);
+        for (int t = 0; t < writers; t++) {
+            new Thread(() -> {
+                for (int i = 0; i < updatesPerWriter; i++) {
+                    reservoir.update(i);
+                }
+                done.countDown();
+            }).start();
+        }
+
+        long total = 0;
+        while (done.getCount() > 0) {
+            total += reservoir.getSnapshot().size();
+        }
+        total += reservoir.getSnapshot().size();
+
+        assertThat(total).isEqualTo((long) writers * updatesPerWriter);
+    }
+
+    @Test
+    public void mergesTheStateOfOtherReservoirsIntoTheCurrentInterval() {
+        final IntervalRecorderReservoir shard = new IntervalRecorderReservoir();
+        shard.update(100);
+        shard.update(200);
+
+        final IntervalRecorderReservoir merged = new IntervalRecorderReservoir();
+        merged.update(10);
+        merged.mergeState(shard.exportState());
+
+        assertThat(shard.size()).isZero();
+        assertThat(merged.size()).isEqualTo(3);
+        assertThat(merged.getSnapshot().getValues()).containsExactly(10, 100, 200);
+    }
+}
@@ -0,0 +1,130 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+public class LogLinearBucketReservoirTest {
+    @Test
+    public void recordsSmallValuesExactly() {
+        final LogLinearBucketReservoir reservoir = new LogLinearBucketReservoir();
+        for (int i = 1; i <= 100; i++) {
+            reservoir.update(i);
+        }
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+
+        assertThat(reservoir.size()).isEqualTo(100);
+        assertThat(snapshot.size()).isEqualTo(100);
+        assertThat(snapshot.getMin()).isEqualTo(1);
+        assertThat(snapshot.getMax()).isEqualTo(100);
+        assertThat(snapshot.getMedian()).isEqualTo(50.0);
+        assertThat(snapshot.get99thPercentile()).isEqualTo(99.0);
+        assertThat(snapshot.getMean()).isEqualTo(50.5);
+    }
+
+    @Test
+    public void keepsTheConfiguredNumberOfSignificantDigits() {
+        final LogLinearBuckets buckets = new LogLinearBuckets(3, Long.MAX_VALUE);
+        final Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            final long value = (long) Math.pow(10, random.nextDouble() * 18);
+            final int index = buckets.indexOf(value);
+
+            assertThat(buckets.lowestEquivalentValue(index)).isLessThanOrEqualTo(value);
+            assertThat(buckets.lowestEquivalentValue(index + 1)).isGreaterThan(value);
+            assertThat((double) buckets.valueAt(index)).isEqualTo(value, offset(value / 1000.0));
+        }
+    }
+
+    @Test
+    public void estimatesQuantilesOfAUniformDistribution() {
+        final LogLinearBucketReservoir reservoir = new LogLinearBucketReservoir();
+        for (int i = 0; i < 1000000; i++) {
+            reservoir.update(i);
+        }
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+
+        assertThat(snapshot.getMedian()).isEqualTo(500000, offset(5000.0));
+        assertThat(snapshot.get95thPercentile()).isEqualTo(950000, offset(9500.0));
+        assertThat(snapshot.get999thPercentile()).isEqualTo(999000, offset(9990.0));
+        assertThat(snapshot.getMean()).isEqualTo(500000, offset(5000.0));
+        assertThat(snapshot.getStdDev()).isEqualTo(288675, offset(2886.0));
+    }
+
+    @Test
+    public void clampsValuesOutsideOfTheTrackableRange() {
+        final LogLinearBucketReservoir reservoir = new LogLinearBucketReservoir(2, 1000);
+        reservoir.update(-5);
+        reservoir.update(1000000);
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+
+        assertThat(snapshot.getMin()).isZero();
+        assertThat((double) snapshot.getMax()).isEqualTo(1000, offset(10.0));
+    }
+
+    @Test
+    public void emptyReservoirHasAnEmptySnapshot() {
+        final Snapshot snapshot = new LogLinearBucketReservoir().getSnapshot();
+
+        assertThat(snapshot.size()).isZero();
+        assertThat(snapshot.getValues()).isEmpty();
+        assertThat(snapshot.getMax()).isZero();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void disallowsTooManySignificantDigits() {
+        new LogLinearBucketReservoir(6, 1000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void disallowsNonPositiveHighestTrackableValue() {
+        new LogLinearBucketReservoir(2, 0);
+    }
+
+    @Test
+    public void mergesTheStateOfOtherReservoirs() {
+        final LogLinearBucketReservoir shard1 = new LogLinearBucketReservoir(2, 1000000);
+        final LogLinearBucketReservoir shard2 = new LogLinearBucketReservoir(2, 1000000);
+        final LogLinearBucketReservoir whole = new LogLinearBucketReservoir(2, 1000000);
+        for (int i = 1; i <= 1000; i++) {
+            (i % 3 == 0 ? shard1 : shard2).update(i * 7);
+            whole.update(i * 7);
+        }
+
+        final LogLinearBucketReservoir merged = new LogLinearBucketReservoir(2, 1000000);
+        merged.mergeState(shard1.exportState());
+        merged.mergeState(shard2.exportState());
+
+        assertThat(merged.size())
+                .isEqualTo(1000);
+        assertThat(merged.getSnapshot().getValues())
+                .containsExactly(whole.getSnapshot().getValues());
+        assertThat(BucketedSnapshot.merge(asList(shard1.exportState(), shard2.exportState())).getValues())
+                .containsExactly(whole.getSnapshot().getValues());
+    }
+
+    @Test
+    public void recordsBatchesLikeSingleUpdates() {
+        final LogLinearBucketReservoir single = new LogLinearBucketReservoir();
+        final LogLinearBucketReservoir batched = new LogLinearBucketReservoir();
+        final Random random = new Random(42);
+        final long[] batch = new long[1000];
+        for (int i = 0; i < batch.length; i++) {
+            // runs of equal values share a bucket
+            batch[i] = i % 10 == 0 ? random.nextInt(1000000) : batch[Math.max(0, i - 1)];
+            single.update(batch[i]);
+        }
+
+        batched.update(batch, 0, batch.length);
+
+        assertThat(batched.size()).isEqualTo(1000);
+        assertThat(batched.getSnapshot().getValues()).isEqualTo(single.getSnapshot().getValues());
+    }
+}
@@ -55,4 +55,25 @@ public class MeterTest {
         assertThat(meter.getFifteenMinuteRate())
                 .isEqualTo(0.1988, offset(0.001));
     }
+
+    @Test
+    public void decaysTheRatesOverLongIdlePeriods() {
+        final ManualClock manualClock = new ManualClock();
+        final Meter idleMeter = new Meter(manualClock);
+        idleMeter.mark(1000);
+        manualClock.addSeconds(6);
+        idleMeter.mark();
+
+        final double rate = idleMeter.getFifteenMinuteRate();
+        assertThat(rate)
+                .isGreaterThan(0);
+
+        // a year of ticks, which used to be ticked one after the other
+        manualClock.addHours(24 * 365);
+
+        assertThat(idleMeter.getFifteenMinuteRate())
+                .isEqualTo(0.0, offset(0.000001));
+        assertThat(idleMeter.getCount())
+                .isEqualTo(1001);
+    }
 }
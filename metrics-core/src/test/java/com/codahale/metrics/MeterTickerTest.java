@@ -0,0 +1,116 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class MeterTickerTest {
+    private static final double EWMA_M1_ALPHA = 1 - Math.exp(-5 / 60.0);
+
+    private final ScheduledFuture<?> ticks = mock(ScheduledFuture.class);
+    private final ScheduledExecutorService executor = executorScheduling(ticks);
+    private final MeterTicker ticker = new MeterTicker(executor);
+    private final Clock clock = mock(Clock.class);
+
+    @Test
+    public void schedulesATickEveryFiveSeconds() {
+        verify(executor).scheduleAtFixedRate(any(Runnable.class), eq(5L), eq(5L), eq(TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void keepsTickingAfterAnExceptionFromAMeter() {
+        final ArgumentCaptor<Runnable> task = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).scheduleAtFixedRate(task.capture(), eq(5L), eq(5L), eq(TimeUnit.SECONDS));
+        final Meter meter = mock(Meter.class);
+        doThrow(new IllegalStateException("broken")).when(meter).tick();
+        ticker.register(meter);
+
+        task.getValue().run();
+        task.getValue().run();
+
+        verify(meter, times(2)).tick();
+    }
+
+    @Test
+    public void cancelsItsTicksWhenClosed() {
+        ticker.close();
+
+        verify(ticks).cancel(false);
+        verify(executor, never()).shutdown();
+    }
+
+    @Test
+    public void advancesTheRatesOfItsMeters() {
+        final Meter meter = new Meter(clock, ticker);
+        final Timer timer = new Timer(new UniformReservoir(), clock, ticker);
+        meter.mark(5);
+        timer.update(1, TimeUnit.SECONDS);
+
+        assertThat(meter.getOneMinuteRate())
+                .isZero();
+
+        ticker.tick();
+
+        assertThat(meter.getOneMinuteRate())
+                .isEqualTo(1.0, offset(0.000001));
+        assertThat(timer.getOneMinuteRate())
+                .isEqualTo(0.2, offset(0.000001));
+
+        ticker.tick();
+
+        assertThat(meter.getOneMinuteRate())
+                .isEqualTo(1.0 - EWMA_M1_ALPHA, offset(0.000001));
+    }
+
+    @Test
+    public void metersWithATickerDoNotReadTheClockWhenMarked() {
+        final Meter meter = new Meter(clock, ticker);
+        for (int i = 0; i < 100; i++) {
+            meter.mark();
+            meter.getFifteenMinuteRate();
+        }
+
+        // only once, for the start time of the mean rate
+        verify(clock, times(1)).getTick();
+        assertThat(meter.getCount())
+                .isEqualTo(100);
+    }
+
+    @Test
+    public void forgetsMetersWhichAreNoLongerUsed() throws Exception {
+        new Meter(clock, ticker);
+        final Meter kept = new Meter(clock, ticker);
+
+        for (int i = 0; i < 100 && ticker.size() > 1; i++) {
+            System.gc();
+            Thread.sleep(10);
+            ticker.tick();
+        }
+
+        assertThat(ticker.size())
+                .isEqualTo(1);
+        assertThat(kept.getCount())
+                .isZero();
+    }
+
+    private static ScheduledExecutorService executorScheduling(ScheduledFuture<?> ticks) {
+        final ScheduledExecutorService executor = mock(ScheduledExecutorService.class);
+        doReturn(ticks).when(executor).scheduleAtFixedRate(any(Runnable.class), anyLong(), anyLong(), any(TimeUnit.class));
+        return executor;
+    }
+}
@@ -0,0 +1,100 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+public class MetricNameTest {
+    @Test
+    public void buildsTheSameDottedNamesAsTheRegistry() {
+        assertThat(MetricName.name("one", null, "", "two").getKey())
+                .isEqualTo(MetricRegistry.name("one", null, "", "two"))
+                .isEqualTo("one.two");
+        assertThat(MetricName.name(MetricNameTest.class, "one").getKey())
+                .isEqualTo(MetricRegistry.name(MetricNameTest.class, "one"));
+    }
+
+    @Test
+    public void resolvesFurtherElements() {
+        final MetricName name = MetricName.of("one");
+
+        assertThat(name.resolve("two", null, "three"))
+                .isEqualTo(MetricName.of("one.two.three"));
+        assertThat(name.resolve("two", null, "three").hashCode())
+                .isEqualTo(MetricName.of("one.two.three").hashCode());
+        assertThat(name.resolve(null, ""))
+                .isSameAs(name);
+        assertThat(MetricName.of("").resolve("two"))
+                .isEqualTo(MetricName.of("two"));
+    }
+
+    @Test
+    public void isEqualByItsKey() {
+        assertThat(MetricName.of("one.two"))
+                .isEqualTo(MetricName.name("one", "two"))
+                .isNotEqualTo(MetricName.of("one.three"))
+                .isNotEqualTo("one.two")
+                .hasToString("one.two");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsANullName() {
+        MetricName.of(null);
+    }
+
+    @Test
+    public void keysTaggedNamesByTheirSortedTags() {
+        final MetricName name = MetricName.of("requests").tagged("tenant", "acme", "endpoint", "/users");
+
+        assertThat(name.getKey())
+                .isEqualTo("requests{endpoint=/users,tenant=acme}");
+        assertThat(name.getName())
+                .isEqualTo("requests");
+        assertThat(name.getTags())
+                .containsExactly(entry("endpoint", "/users"), entry("tenant", "acme"));
+        assertThat(name)
+                .isEqualTo(MetricName.of("requests").tagged("endpoint", "/users").tagged("tenant", "acme"));
+    }
+
+    @Test
+    public void replacesTagsWithTheSameKey() {
+        assertThat(MetricName.of("requests").tagged("tenant", "acme").tagged("tenant", "other").getKey())
+                .isEqualTo("requests{tenant=other}");
+    }
+
+    @Test
+    public void keepsTheTagsWhenResolvingFurtherElements() {
+        assertThat(MetricName.of("requests").tagged("tenant", "acme").resolve("errors").getKey())
+                .isEqualTo("requests.errors{tenant=acme}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsATagWithoutAValue() {
+        MetricName.of("requests").tagged("tenant");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsTagsWhichWouldMakeTheKeyAmbiguous() {
+        MetricName.of("requests").tagged("tenant", "a,b=c");
+    }
+
+    @Test
+    public void keepsWhatARendererRendered() {
+        final MetricName name = MetricName.of("requests").tagged("tenant", "acme");
+        final AtomicInteger renders = new AtomicInteger();
+        final Function<MetricName, String> renderer = n -> n.getName() + renders.incrementAndGet();
+
+        assertThat(name.render(renderer))
+                .isEqualTo("requests1");
+        assertThat(name.render(renderer))
+                .isEqualTo("requests1");
+        assertThat(name.<String>render(n -> "other"))
+                .isEqualTo("other");
+        assertThat(name.render(renderer))
+                .isEqualTo("requests1");
+    }
+}
@@ -5,10 +5,12 @@ import org.junit.Test;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
 
 import static com.codahale.metrics.MetricRegistry.name;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.entry;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
@@ -118,6 +120,25 @@ public class MetricRegistryTest {
         verify(listener).onHistogramAdded("thing", histogram1);
     }
 
+    @Test
+    public void accessingAFixedBucketHistogramRegistersAndReusesIt() {
+        final FixedBucketHistogram histogram1 = registry.fixedBucketHistogram("thing", 10, 50, 100);
+        final FixedBucketHistogram histogram2 = registry.fixedBucketHistogram("thing", 10, 50, 100);
+
+        assertThat(histogram1)
+                .isSameAs(histogram2);
+        assertThat(registry.histogram("thing"))
+                .isSameAs(histogram1);
+
+        verify(listener).onHistogramAdded("thing", histogram1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void accessingAHistogramAsAFixedBucketHistogramThrows() {
+        registry.histogram("thing");
+        registry.fixedBucketHistogram("thing", 10, 50, 100);
+    }
+
     @Test
     public void removingAHistogramTriggersANotification() {
         registry.register("thing", histogram);
@@ -427,4 +448,155 @@ public class MetricRegistryTest {
         verify(listener).onTimerRemoved("timer-1");
         verify(listener).onHistogramRemoved("histogram-1");
     }
+
+    @Test
+    public void metersAndTimersOfARegistryWithATickerAreTickedByIt() {
+        final MeterTicker ticker = new MeterTicker(mock(ScheduledExecutorService.class));
+        final MetricRegistry tickedRegistry = new MetricRegistry(ticker);
+
+        final Meter meter1 = tickedRegistry.meter("meter");
+        final Timer timer1 = tickedRegistry.timer("timer");
+
+        assertThat(tickedRegistry.meter("meter"))
+                .isSameAs(meter1);
+        assertThat(tickedRegistry.timer("timer"))
+                .isSameAs(timer1);
+        assertThat(ticker.size())
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void accessingATimerByMetricNameRegistersAndReusesTheTimer() {
+        final MetricName name = MetricName.name("thing", "timer");
+        final Timer timer1 = registry.timer(name);
+
+        assertThat(registry.timer(MetricName.of("thing.timer")))
+                .isSameAs(timer1);
+        assertThat(registry.timer("thing.timer"))
+                .isSameAs(timer1);
+
+        verify(listener).onTimerAdded("thing.timer", timer1);
+
+        assertThat(registry.remove(name))
+                .isTrue();
+
+        verify(listener).onTimerRemoved("thing.timer");
+    }
+
+    @Test
+    public void handlesResolveParameterisedNames() {
+        final MetricHandle<Counter> handle = registry.counterHandle(MetricName.name(MetricRegistryTest.class, "requests"));
+        final Counter tenant1 = handle.get("tenant1");
+
+        assertThat(handle.get("tenant1"))
+                .isSameAs(tenant1)
+                .isSameAs(registry.counter(name(MetricRegistryTest.class, "requests", "tenant1")));
+        assertThat(handle.get("tenant2"))
+                .isNotSameAs(tenant1);
+        assertThat(handle.get(null))
+                .isSameAs(handle.get())
+                .isSameAs(registry.counter(name(MetricRegistryTest.class, "requests")));
+
+        registry.remove(name(MetricRegistryTest.class, "requests", "tenant1"));
+
+        assertThat(handle.get("tenant1"))
+                .isNotSameAs(tenant1)
+                .isSameAs(registry.counter(name(MetricRegistryTest.class, "requests", "tenant1")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void handlesRejectNamesOfADifferentType() {
+        registry.meter(name("thing", "tenant1"));
+
+        registry.timerHandle(MetricName.of("thing")).get("tenant1");
+    }
+
+    @Test
+    public void taggedHandlesLookMetricsUpByTheirTagValues() {
+        final TaggedMetricHandle<Timer> handle =
+                registry.taggedTimerHandle(MetricName.of("requests"), "tenant", "endpoint", "status");
+        final Timer timer1 = handle.get("acme", "/users", "200");
+
+        assertThat(handle.get("acme", "/users", "200"))
+                .isSameAs(timer1)
+                .isSameAs(handle.get(new String[]{"acme", "/users", "200"}))
+                .isSameAs(registry.timer("requests{endpoint=/users,status=200,tenant=acme}"));
+        assertThat(handle.get("acme", "/users", "500"))
+                .isNotSameAs(timer1);
+        assertThat(registry.getTaggedName("requests{endpoint=/users,status=200,tenant=acme}").getTags())
+                .containsExactly(entry("endpoint", "/users"), entry("status", "200"), entry("tenant", "acme"));
+
+        verify(listener).onTimerAdded("requests{endpoint=/users,status=200,tenant=acme}", timer1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void taggedHandlesRejectTheWrongNumberOfTagValues() {
+        registry.taggedCounterHandle(MetricName.of("requests"), "tenant", "endpoint").get("acme");
+    }
+
+    @Test
+    public void keepsTheTaggedNamesOfRegisteredMetricsForTheirListeners() {
+        final MetricName name = MetricName.of("sessions").tagged("tenant", "acme");
+        final MetricName[] seen = new MetricName[2];
+        registry.addListener(new MetricRegistryListener.Base() {
+            @Override
+            public void onGaugeAdded(String key, Gauge<?> gauge) {
+                seen[0] = registry.getTaggedName(key);
+            }
+
+            @Override
+            public void onGaugeRemoved(String key) {
+                seen[1] = registry.getTaggedName(key);
+            }
+        });
+
+        registry.register(name, gauge);
+        registry.remove(name);
+
+        assertThat(seen)
+                .containsExactly(name, name);
+        assertThat(registry.getTaggedName(name.getKey()))
+                .isNull();
+        assertThat(registry.getTaggedName("thing"))
+                .isNull();
+    }
+
+    @Test
+    public void doesNotKeepTheTagsOfMetricsWhichFailedToRegister() {
+        final MetricName name = MetricName.of("sessions").tagged("tenant", "acme");
+        registry.counter(name.getKey());
+
+        try {
+            registry.timer(name);
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException e) {
+            // a counter is already registered under the key
+        }
+        try {
+            registry.register(name, gauge);
+            failBecauseExceptionWasNotThrown(IllegalArgumentException.class);
+        } catch (IllegalArgumentException e) {
+            // the key is already registered
+        }
+
+        assertThat(registry.getTaggedName(name.getKey()))
+                .isNull();
+    }
+
+    @Test
+    public void keepsTheTagsOfAMetricRegisteredAgainWhileTheOldOneIsRemoved() {
+        final MetricName name = MetricName.of("sessions").tagged("tenant", "acme");
+        registry.counter(name);
+        registry.addListener(new MetricRegistryListener.Base() {
+            @Override
+            public void onCounterRemoved(String key) {
+                registry.counter(name);
+            }
+        });
+
+        registry.remove(name);
+
+        assertThat(registry.getTaggedName(name.getKey()))
+                .isEqualTo(name);
+    }
 }
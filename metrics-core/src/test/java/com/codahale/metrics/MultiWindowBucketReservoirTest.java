@@ -0,0 +1,99 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class MultiWindowBucketReservoirTest {
+    private final ManualClock clock = new ManualClock();
+    private final MultiWindowBucketReservoir reservoir = new MultiWindowBucketReservoir(clock);
+
+    @Test
+    public void keepsEveryWindowFromOneStreamOfUpdates() {
+        reservoir.update(10);
+        clock.addSeconds(4 * 60);
+        reservoir.update(20);
+        clock.addSeconds(5 * 60);
+        reservoir.update(30);
+
+        assertThat(reservoir.getOneMinuteSnapshot().getValues())
+                .containsExactly(30);
+        assertThat(reservoir.getFiveMinuteSnapshot().getValues())
+                .containsExactly(30);
+        assertThat(reservoir.getFifteenMinuteSnapshot().getValues())
+                .containsExactly(10, 20, 30);
+    }
+
+    @Test
+    public void windowsExpireIndependently() {
+        reservoir.update(10);
+        clock.addSeconds(2 * 60);
+
+        assertThat(reservoir.getOneMinuteSnapshot().size())
+                .isZero();
+        assertThat(reservoir.getFiveMinuteSnapshot().getValues())
+                .containsExactly(10);
+
+        clock.addSeconds(4 * 60);
+
+        assertThat(reservoir.getFiveMinuteSnapshot().size())
+                .isZero();
+        assertThat(reservoir.getFifteenMinuteSnapshot().getValues())
+                .containsExactly(10);
+
+        clock.addSeconds(10 * 60);
+
+        assertThat(reservoir.getFifteenMinuteSnapshot().size())
+                .isZero();
+    }
+
+    @Test
+    public void theSnapshotAndSizeAreThoseOfTheLastMinute() {
+        reservoir.update(10);
+        clock.addSeconds(2 * 60);
+        reservoir.update(20);
+        reservoir.update(30);
+
+        assertThat(reservoir.size())
+                .isEqualTo(2);
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsExactly(20, 30);
+    }
+
+    @Test
+    public void recordsBatchesLikeSingleUpdates() {
+        final MultiWindowBucketReservoir single = new MultiWindowBucketReservoir(clock);
+        final long[] batch = new long[1000];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = i * 7919L;
+            single.update(batch[i]);
+        }
+
+        reservoir.update(batch, 0, batch.length);
+
+        assertThat(reservoir.getOneMinuteSnapshot().getValues())
+                .isEqualTo(single.getOneMinuteSnapshot().getValues());
+        assertThat(reservoir.getFifteenMinuteSnapshot().getValues())
+                .isEqualTo(single.getFifteenMinuteSnapshot().getValues());
+    }
+
+    @Test
+    public void mergesTheStateOfOtherReservoirsKeepingTheAgeOfTheValues() {
+        final ManualClock shardClock = new ManualClock();
+        final MultiWindowBucketReservoir shard = new MultiWindowBucketReservoir(shardClock);
+        shard.update(10);
+        shardClock.addSeconds(4 * 60);
+        shard.update(20);
+        shardClock.addSeconds(2 * 60);
+        shard.update(30);
+
+        reservoir.mergeState(shard.exportState());
+
+        assertThat(reservoir.getOneMinuteSnapshot().getValues())
+                .containsExactly(30);
+        assertThat(reservoir.getFiveMinuteSnapshot().getValues())
+                .containsExactly(20, 30);
+        assertThat(reservoir.getFifteenMinuteSnapshot().getValues())
+                .containsExactly(10, 20, 30);
+    }
+}
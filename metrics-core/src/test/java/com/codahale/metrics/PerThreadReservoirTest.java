@@ -0,0 +1,129 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+public class PerThreadReservoirTest {
+    @Test
+    public void mergesTheValuesOfEveryThread() throws Exception {
+        final PerThreadReservoir reservoir = new PerThreadReservoir(() -> new SlidingWindowReservoir(100));
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final long value = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 10; i++) {
+                    reservoir.update(value);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        reservoir.update(4);
+
+        assertThat(reservoir.size())
+                .isEqualTo(41);
+        assertThat(reservoir.getSnapshot().getValues())
+                .hasSize(41)
+                .startsWith(0, 0, 0)
+                .endsWith(3, 3, 4);
+    }
+
+    @Test
+    public void weighsTheSamplesOfBusyThreadsByTheirCount() throws Exception {
+        final PerThreadReservoir reservoir = new PerThreadReservoir(() -> new UniformReservoir(10), true);
+        final CountDownLatch recorded = new CountDownLatch(1);
+        final CountDownLatch done = new CountDownLatch(1);
+        // one thread records 1000 values of 1, and stays alive to keep its own reservoir
+        final Thread busy = new Thread(() -> {
+            for (int i = 0; i < 1000; i++) {
+                reservoir.update(1);
+            }
+            recorded.countDown();
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        busy.start();
+        try {
+            recorded.await();
+            // and another 10 values of 2
+            for (int i = 0; i < 10; i++) {
+                reservoir.update(2);
+            }
+
+            final Snapshot snapshot = reservoir.getSnapshot();
+
+            assertThat(snapshot.size())
+                    .isEqualTo(20);
+            assertThat(snapshot.getMean())
+                    .isCloseTo((1000 * 1 + 10 * 2) / 1010.0, offset(0.001));
+            assertThat(snapshot.get95thPercentile())
+                    .isEqualTo(1.0);
+        } finally {
+            done.countDown();
+        }
+    }
+
+    @Test
+    public void reusesTheReservoirsOfDeadThreads() throws Exception {
+        final PerThreadReservoir reservoir = new PerThreadReservoir(() -> new SlidingWindowReservoir(1000));
+        for (int t = 0; t < 200; t++) {
+            final Thread thread = new Thread(() -> reservoir.update(1), "recorder");
+            thread.start();
+            thread.join();
+        }
+
+        final long slots = RetainedSize.of(reservoir);
+        for (int t = 0; t < 200; t++) {
+            final Thread thread = new Thread(() -> reservoir.update(1), "recorder");
+            thread.start();
+            thread.join();
+        }
+
+        assertThat(RetainedSize.of(reservoir))
+                .isEqualTo(slots);
+        assertThat(reservoir.size())
+                .isEqualTo(400);
+    }
+
+    @Test
+    public void growsForMoreLiveThreadsThanSlots() throws Exception {
+        final PerThreadReservoir reservoir = new PerThreadReservoir(() -> new SlidingWindowReservoir(10));
+        final int threads = 300;
+        final CountDownLatch recorded = new CountDownLatch(threads);
+        final CountDownLatch done = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                reservoir.update(1);
+                recorded.countDown();
+                try {
+                    done.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }).start();
+        }
+
+        try {
+            assertThat(recorded.await(10, TimeUnit.SECONDS))
+                    .isTrue();
+            assertThat(reservoir.size())
+                    .isEqualTo(threads);
+        } finally {
+            done.countDown();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.codahale.metrics;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Estimates the memory retained by an object graph, assuming the layout of a 64-bit HotSpot JVM with
+ * compressed references: 12-byte object headers, 16-byte array headers, 4-byte references and
+ * 8-byte alignment. Objects reachable from the given shared roots, classes and threads are not
+ * counted.
+ * <p>
+ * On JDK 9 and later the walk reads fields of {@code java.util} and {@code java.util.concurrent}
+ * classes, which the {@code open-jdk-internals} profile opens to the tests. A field which cannot be read fails
+ * the test, as leaving out what it holds would under-count the graph.
+ */
+final class RetainedSize {
+    private RetainedSize() {
+    }
+
+    static long of(Object root, Object... shared) {
+        final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (Object object : shared) {
+            walk(object, visited);
+        }
+        final long before = sizeOf(visited);
+        walk(root, visited);
+        return sizeOf(visited) - before;
+    }
+
+    private static long sizeOf(Set<Object> objects) {
+        long size = 0;
+        for (Object object : objects) {
+            size += shallowSize(object);
+        }
+        return size;
+    }
+
+    private static void walk(Object root, Set<Object> visited) {
+        final Deque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            final Object object = pending.pop();
+            if (object instanceof Class || object instanceof Thread || object instanceof ClassLoader
+                    || !visited.add(object)) {
+                continue;
+            }
+            final Class<?> type = object.getClass();
+            if (type.isArray()) {
+                if (!type.getComponentType().isPrimitive()) {
+                    for (int i = 0; i < Array.getLength(object); i++) {
+                        final Object element = Array.get(object, i);
+                        if (element != null) {
+                            pending.push(element);
+                        }
+                    }
+                }
+                continue;
+            }
+            for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()) {
+                        continue;
+                    }
+                    try {
+                        field.setAccessible(true);
+                        final Object value = field.get(object);
+                        if (value != null) {
+                            pending.push(value);
+                        }
+                    } catch (RuntimeException | IllegalAccessException e) {
+                        throw new AssertionError("Cannot read " + field + ", open its package to the tests", e);
+                    }
+                }
+            }
+        }
+    }
+
+    private static long shallowSize(Object object) {
+        final Class<?> type = object.getClass();
+        if (type.isArray()) {
+            final Class<?> component = type.getComponentType();
+            return align(16 + (long) Array.getLength(object) * sizeOf(component));
+        }
+        long size = 12;
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    size += sizeOf(field.getType());
+                }
+            }
+        }
+        return align(size);
+    }
+
+    private static int sizeOf(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        } else if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return 4;
+    }
+
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+}
@@ -0,0 +1,141 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.failBecauseExceptionWasNotThrown;
+
+public class SampledTimerTest {
+    private final ManualClock clock = new ManualClock();
+
+    @Test
+    public void recordsEveryEventWhenSamplingAll() {
+        final SampledTimer timer = new SampledTimer(new UniformReservoir(), clock, 1);
+        for (int i = 0; i < 10; i++) {
+            timer.time(() -> clock.addMillis(1));
+        }
+
+        final SampledSnapshot snapshot = timer.getSnapshot();
+
+        assertThat(timer.getCount())
+                .isEqualTo(10);
+        assertThat(snapshot.size())
+                .isEqualTo(10);
+        assertThat(snapshot.getMax())
+                .isEqualTo(1000000);
+        assertThat(snapshot.getSampledFraction())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    public void countsEveryEventButOnlyRecordsTheSampledOnes() {
+        final SampledTimer timer = new SampledTimer(new UniformReservoir(100000), clock, 10);
+        for (int i = 0; i < 100000; i++) {
+            timer.time(() -> clock.addNanos(1000));
+        }
+
+        final SampledSnapshot snapshot = timer.getSnapshot();
+
+        assertThat(timer.getCount())
+                .isEqualTo(100000);
+        assertThat(snapshot.getCount())
+                .isEqualTo(100000);
+        assertThat(snapshot.getSampleEvery())
+                .isEqualTo(10);
+        assertThat(snapshot.getSampledCount())
+                .isEqualTo(snapshot.size())
+                .isBetween(9000L, 11000L);
+        assertThat(snapshot.getMin())
+                .isEqualTo(1000);
+    }
+
+    @Test
+    public void countsUnsampledContextsAndTokens() {
+        final SampledTimer timer = new SampledTimer(new UniformReservoir(), clock, Integer.MAX_VALUE);
+
+        final Timer.Context context = timer.time();
+        final long token = timer.start();
+
+        assertThat(timer.time())
+                .isSameAs(context);
+        assertThat(context.stop())
+                .isZero();
+        assertThat(timer.stop(token))
+                .isZero();
+        assertThat(timer.getCount())
+                .isEqualTo(2);
+        assertThat(timer.getSnapshot().size())
+                .isZero();
+    }
+
+    @Test
+    public void countsUnsampledEventsWhichThrow() throws Exception {
+        final SampledTimer timer = new SampledTimer(new UniformReservoir(), clock, Integer.MAX_VALUE);
+
+        try {
+            timer.time(() -> {
+                throw new IllegalStateException();
+            });
+            failBecauseExceptionWasNotThrown(IllegalStateException.class);
+        } catch (IllegalStateException e) {
+            assertThat(timer.getCount())
+                    .isEqualTo(1);
+        }
+    }
+
+    @Test
+    public void adaptsTheSamplingToTheRateOfEvents() {
+        final SampledTimer timer = new SampledTimer(new UniformReservoir(), clock, 1);
+        timer.setTargetSamplesPerSecond(100);
+
+        // a million events per second, for three seconds
+        for (int i = 0; i < 3000000; i++) {
+            timer.time(() -> clock.addNanos(1000));
+        }
+
+        assertThat(timer.getTargetSamplesPerSecond())
+                .isEqualTo(100);
+        assertThat(timer.getSampleEvery())
+                .isBetween(5000, 20000);
+        assertThat(timer.getCount())
+                .isEqualTo(3000000);
+    }
+
+    @Test
+    public void adaptsToTheRateOfEventsSinceTheTargetWasSet() {
+        final SampledTimer timer = new SampledTimer(new UniformReservoir(), clock, 1);
+        // a burst of a million events, just before the timer starts adapting
+        for (int i = 0; i < 1000000; i++) {
+            timer.time(() -> {
+            });
+        }
+        timer.setTargetSamplesPerSecond(100);
+
+        // a thousand events per second, for three seconds
+        for (int i = 0; i < 3000; i++) {
+            timer.time(() -> clock.addMillis(1));
+        }
+
+        assertThat(timer.getSampleEvery())
+                .isBetween(5, 20);
+    }
+
+    @Test
+    public void changesTheSamplingAtRuntime() {
+        final SampledTimer timer = new SampledTimer(new UniformReservoir(), clock, Integer.MAX_VALUE);
+        timer.setTargetSamplesPerSecond(10);
+        timer.setSampleEvery(1);
+
+        timer.time(() -> clock.addMillis(5));
+
+        assertThat(timer.getTargetSamplesPerSecond())
+                .isZero();
+        assertThat(timer.getSnapshot().getValues())
+                .containsExactly(5000000);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsSamplingIntervalsBelowOne() {
+        new SampledTimer(0);
+    }
+}
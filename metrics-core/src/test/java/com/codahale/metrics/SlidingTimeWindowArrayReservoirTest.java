@@ -147,4 +147,38 @@ public class SlidingTimeWindowArrayReservoirTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void storesBatchesWithDuplicateTicks() {
+        final Clock clock = mock(Clock.class);
+        final SlidingTimeWindowArrayReservoir reservoir = new SlidingTimeWindowArrayReservoir(10, NANOSECONDS, clock);
+
+        when(clock.getTick()).thenReturn(20L);
+
+        reservoir.update(1);
+        reservoir.update(new long[]{2, 3, 4}, 0, 3);
+        reservoir.update(5);
+
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsExactly(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    public void expiresLargeBatchesWithTheirTick() {
+        final ManualClock clock = new ManualClock();
+        final SlidingTimeWindowArrayReservoir reservoir = new SlidingTimeWindowArrayReservoir(10, NANOSECONDS, clock);
+
+        // more values than ticks of the window, which must not be stamped past the current tick
+        reservoir.update(new long[100000], 0, 100000);
+        clock.addNanos(5);
+        reservoir.update(1);
+
+        assertThat(reservoir.size())
+                .isEqualTo(100001);
+
+        clock.addNanos(6);
+
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsExactly(1);
+    }
+}
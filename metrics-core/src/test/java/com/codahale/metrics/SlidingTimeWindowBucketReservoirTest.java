@@ -0,0 +1,121 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SlidingTimeWindowBucketReservoirTest {
+    private final ManualClock clock = new ManualClock();
+    private final SlidingTimeWindowBucketReservoir reservoir =
+            new SlidingTimeWindowBucketReservoir(1, TimeUnit.MINUTES, clock);
+
+    @Test
+    public void recordsTheValuesOfTheWindow() {
+        reservoir.update(10);
+        reservoir.update(20);
+        clock.addSeconds(30);
+        reservoir.update(30);
+
+        assertThat(reservoir.size())
+                .isEqualTo(3);
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsExactly(10, 20, 30);
+    }
+
+    @Test
+    public void expiresValuesASliceAtATime() {
+        reservoir.update(10);
+        clock.addSeconds(30);
+        reservoir.update(20);
+
+        // the first five-second slice has left the window, the one of the second value has not
+        clock.addSeconds(31);
+
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsExactly(20);
+
+        clock.addSeconds(30);
+
+        assertThat(reservoir.getSnapshot().size())
+                .isZero();
+        assertThat(reservoir.size())
+                .isZero();
+    }
+
+    @Test
+    public void recyclesExpiredSlices() {
+        reservoir.update(10);
+        clock.addSeconds(60);
+        reservoir.update(20);
+
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsExactly(20);
+    }
+
+    @Test
+    public void keepsAFixedFootprintOverTime() {
+        for (int i = 0; i < 12; i++) {
+            reservoir.update(1000000 + i);
+            clock.addSeconds(5);
+        }
+        final long firstWindow = RetainedSize.of(reservoir, clock);
+
+        for (int i = 0; i < 1200; i++) {
+            for (int j = 0; j < 100; j++) {
+                reservoir.update(1000000 + j);
+            }
+            clock.addSeconds(5);
+        }
+
+        assertThat(RetainedSize.of(reservoir, clock))
+                .isEqualTo(firstWindow);
+    }
+
+    @Test
+    public void recordsBatchesLikeSingleUpdates() {
+        final SlidingTimeWindowBucketReservoir single = new SlidingTimeWindowBucketReservoir(1, TimeUnit.MINUTES, clock);
+        final long[] batch = new long[1000];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = i * 7919L;
+            single.update(batch[i]);
+        }
+
+        reservoir.update(batch, 0, batch.length);
+
+        assertThat(reservoir.size())
+                .isEqualTo(1000);
+        assertThat(reservoir.getSnapshot().getValues())
+                .isEqualTo(single.getSnapshot().getValues());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void requiresAtLeastOneSlice() {
+        new SlidingTimeWindowBucketReservoir(1, TimeUnit.MINUTES, 0, 2, 1000, clock);
+    }
+
+    @Test
+    public void mergesTheStateOfOtherReservoirsKeepingTheAgeOfTheValues() {
+        final ManualClock shardClock = new ManualClock();
+        final SlidingTimeWindowBucketReservoir shard =
+                new SlidingTimeWindowBucketReservoir(1, TimeUnit.MINUTES, shardClock);
+        shard.update(10);
+        shardClock.addSeconds(30);
+        shard.update(20);
+
+        reservoir.update(30);
+        reservoir.mergeState(shard.exportState());
+
+        assertThat(reservoir.size())
+                .isEqualTo(3);
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsExactly(10, 20, 30);
+
+        // the first value was half a minute old when it was merged
+        clock.addSeconds(31);
+
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsExactly(20, 30);
+    }
+}
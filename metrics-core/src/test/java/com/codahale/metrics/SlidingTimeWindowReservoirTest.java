@@ -113,4 +113,40 @@ public class SlidingTimeWindowReservoirTest {
             }
         }
     }
-}
\ No newline at end of file
+
+    @Test
+    public void storesBatchesWithDuplicateTicks() {
+        final Clock clock = mock(Clock.class);
+        final SlidingTimeWindowReservoir reservoir = new SlidingTimeWindowReservoir(10, NANOSECONDS, clock);
+
+        when(clock.getTick()).thenReturn(20L);
+
+        reservoir.update(1);
+        reservoir.update(new long[]{2, 3, 4}, 0, 3);
+        reservoir.update(5);
+
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsExactly(1, 2, 3, 4, 5);
+    }
+
+    @Test
+    public void expiresABatchAtOnce() {
+        final Clock clock = mock(Clock.class);
+        final SlidingTimeWindowReservoir reservoir = new SlidingTimeWindowReservoir(10, NANOSECONDS, clock);
+        final long[] batch = new long[1000];
+        Arrays.fill(batch, 1);
+
+        when(clock.getTick()).thenReturn(20L);
+        reservoir.update(batch, 0, batch.length);
+        when(clock.getTick()).thenReturn(25L);
+        reservoir.update(2);
+
+        assertThat(reservoir.size())
+                .isEqualTo(1001);
+
+        when(clock.getTick()).thenReturn(31L);
+
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsOnly(2);
+    }
+}
@@ -0,0 +1,177 @@
+package com.codahale.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class SlidingTimeWindowRingReservoirTest {
+
+    @Test
+    public void storesMeasurementsWithDuplicateTicks() {
+        final Clock clock = mock(Clock.class);
+        when(clock.getTick()).thenReturn(0L);
+        final SlidingTimeWindowRingReservoir reservoir = new SlidingTimeWindowRingReservoir(10, NANOSECONDS, 10, clock);
+
+        when(clock.getTick()).thenReturn(20L);
+
+        reservoir.update(1);
+        reservoir.update(2);
+
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsOnly(1, 2);
+    }
+
+    @Test
+    public void boundsMeasurementsToATimeWindow() {
+        final Clock clock = mock(Clock.class);
+        when(clock.getTick()).thenReturn(0L);
+        final SlidingTimeWindowRingReservoir reservoir = new SlidingTimeWindowRingReservoir(10, NANOSECONDS, 10, clock);
+
+        reservoir.update(1);
+
+        when(clock.getTick()).thenReturn(5L);
+        reservoir.update(2);
+
+        when(clock.getTick()).thenReturn(10L);
+        reservoir.update(3);
+
+        when(clock.getTick()).thenReturn(15L);
+        reservoir.update(4);
+
+        when(clock.getTick()).thenReturn(20L);
+        reservoir.update(5);
+
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsOnly(4, 5);
+        assertThat(reservoir.size())
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void expiresMeasurementsASliceAtATime() {
+        final ManualClock clock = new ManualClock();
+        final SlidingTimeWindowRingReservoir reservoir = new SlidingTimeWindowRingReservoir(100, NANOSECONDS, 4, clock);
+
+        for (int i = 0; i < 100; i++) {
+            if (i > 0) {
+                clock.addNanos(1);
+            }
+            reservoir.update(i);
+        }
+        assertThat(reservoir.size())
+                .isEqualTo(100);
+
+        // the first slice of 25ns has expired as a whole
+        clock.addNanos(1);
+        assertThat(reservoir.getSnapshot().getValues())
+                .hasSize(75)
+                .startsWith(25);
+
+        clock.addNanos(100);
+        assertThat(reservoir.size())
+                .isEqualTo(0);
+        assertThat(reservoir.getSnapshot().size())
+                .isEqualTo(0);
+    }
+
+    @Test
+    public void growsAndRecyclesSlices() {
+        final ManualClock clock = new ManualClock();
+        final SlidingTimeWindowRingReservoir reservoir = new SlidingTimeWindowRingReservoir(4, NANOSECONDS, 2, clock);
+
+        for (int round = 0; round < 4; round++) {
+            final int count = round % 2 == 0 ? 5000 : 10;
+            for (int i = 0; i < count; i++) {
+                reservoir.update(round);
+            }
+            clock.addNanos(2);
+            reservoir.update(-round);
+
+            final Snapshot snapshot = reservoir.getSnapshot();
+            assertThat(snapshot.size())
+                    .isEqualTo(count + 1);
+            assertThat(snapshot.getMax())
+                    .isEqualTo(round);
+            assertThat(snapshot.getMin())
+                    .isEqualTo(-round);
+
+            // move the whole window on, so the next round reuses both slices
+            clock.addNanos(4);
+        }
+    }
+
+    @Test
+    public void keepsEveryConcurrentMeasurement() throws Exception {
+        final SlidingTimeWindowRingReservoir reservoir =
+                new SlidingTimeWindowRingReservoir(1, NANOSECONDS, 1, new ManualClock());
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final Thread thread = new Thread(() -> {
+                for (int i = 0; i < 100000; i++) {
+                    reservoir.update(i);
+                    if (i % 10000 == 0) {
+                        reservoir.getSnapshot();
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+        assertThat(snapshot.size())
+                .isEqualTo(400000);
+        assertThat(snapshot.getMax())
+                .isEqualTo(99999);
+    }
+
+    @Test
+    public void expiresMeasurementsAfterMoreEpochsThanFitInAnInt() {
+        final ManualClock clock = new ManualClock();
+        final SlidingTimeWindowRingReservoir reservoir = new SlidingTimeWindowRingReservoir(10, NANOSECONDS, 10, clock);
+
+        reservoir.update(1);
+        clock.addNanos(1L << 32);
+        reservoir.update(2);
+
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsOnly(2);
+        assertThat(reservoir.size())
+                .isEqualTo(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void disallowsWindowsWithoutSlices() {
+        new SlidingTimeWindowRingReservoir(10, NANOSECONDS, 0, new ManualClock());
+    }
+
+    @Test
+    public void storesBatchesInTheCurrentSlice() {
+        final ManualClock clock = new ManualClock();
+        final SlidingTimeWindowRingReservoir reservoir = new SlidingTimeWindowRingReservoir(10, NANOSECONDS, 10, clock);
+        final long[] batch = new long[100];
+        for (int i = 0; i < batch.length; i++) {
+            batch[i] = i;
+        }
+
+        reservoir.update(batch, 10, 90);
+        clock.addNanos(5);
+        reservoir.update(batch, 0, 10);
+
+        assertThat(reservoir.size())
+                .isEqualTo(100);
+
+        clock.addNanos(6);
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+}
@@ -0,0 +1,105 @@
+package com.codahale.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import org.junit.Test;
+
+public class SlidingTimeWindowSamplingReservoirTest {
+
+    @Test
+    public void keepsEveryMeasurementWhileTheSlicesAreNotFull() {
+        final ManualClock clock = new ManualClock();
+        final SlidingTimeWindowSamplingReservoir reservoir = new SlidingTimeWindowSamplingReservoir(10, NANOSECONDS, 100, 10, clock);
+
+        for (int i = 0; i < 10; i++) {
+            reservoir.update(i);
+            reservoir.update(i);
+            clock.addNanos(1);
+        }
+
+        assertThat(reservoir.size())
+                .isEqualTo(18);
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsOnly(1, 2, 3, 4, 5, 6, 7, 8, 9);
+    }
+
+    @Test
+    public void boundsMeasurementsToATimeWindow() {
+        final ManualClock clock = new ManualClock();
+        final SlidingTimeWindowSamplingReservoir reservoir = new SlidingTimeWindowSamplingReservoir(10, NANOSECONDS, 100, 10, clock);
+
+        reservoir.update(1);
+
+        clock.addNanos(5);
+        reservoir.update(2);
+
+        clock.addNanos(5);
+        reservoir.update(3);
+
+        clock.addNanos(5);
+        reservoir.update(4);
+
+        clock.addNanos(5);
+        reservoir.update(5);
+
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsOnly(4, 5);
+
+        clock.addNanos(10);
+        assertThat(reservoir.size())
+                .isEqualTo(0);
+    }
+
+    @Test
+    public void boundsTheNumberOfSamples() {
+        final ManualClock clock = new ManualClock();
+        final SlidingTimeWindowSamplingReservoir reservoir = new SlidingTimeWindowSamplingReservoir(100, NANOSECONDS, 40, 4, clock);
+
+        for (int i = 0; i < 100000; i++) {
+            reservoir.update(i);
+            if (i % 1000 == 0) {
+                clock.addNanos(1);
+            }
+        }
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+        assertThat(reservoir.size())
+                .isEqualTo(40);
+        assertThat(snapshot.size())
+                .isEqualTo(40);
+        for (long value : snapshot.getValues()) {
+            assertThat(value)
+                    .isBetween(0L, 99999L);
+        }
+    }
+
+    @Test
+    public void weightsSlicesByTheirCount() {
+        final ManualClock clock = new ManualClock();
+        final SlidingTimeWindowSamplingReservoir reservoir = new SlidingTimeWindowSamplingReservoir(2, NANOSECONDS, 20, 2, clock);
+
+        for (int i = 0; i < 100000; i++) {
+            reservoir.update(1);
+        }
+        clock.addNanos(1);
+        for (int i = 0; i < 10; i++) {
+            reservoir.update(1000);
+        }
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+
+        // unweighted, the quiet slice's 10 samples would pull the mean up to ~500
+        assertThat(snapshot.size())
+                .isEqualTo(20);
+        assertThat(snapshot.getMean())
+                .isLessThan(2);
+        assertThat(snapshot.get999thPercentile())
+                .isEqualTo(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void disallowsSizesSmallerThanTheNumberOfSlices() {
+        new SlidingTimeWindowSamplingReservoir(10, NANOSECONDS, 3, 4, new ManualClock());
+    }
+}
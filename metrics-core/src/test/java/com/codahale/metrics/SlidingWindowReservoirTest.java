@@ -26,4 +26,13 @@ public class SlidingWindowReservoirTest {
         assertThat(reservoir.getSnapshot().getValues())
                 .containsOnly(2, 3, 4);
     }
+
+    @Test
+    public void onlyKeepsTheMostRecentFromBatches() {
+        reservoir.update(1);
+        reservoir.update(new long[]{0, 2, 3, 4, 0}, 1, 3);
+
+        assertThat(reservoir.getSnapshot().getValues())
+                .containsOnly(2, 3, 4);
+    }
 }
@@ -0,0 +1,65 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class StripedUniformReservoirTest {
+    @Test
+    public void aReservoirOf100OutOf1000Elements() {
+        final StripedUniformReservoir reservoir = new StripedUniformReservoir(100, 1);
+        for (int i = 0; i < 1000; i++) {
+            reservoir.update(i);
+        }
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+
+        assertThat(reservoir.size())
+                .isEqualTo(100);
+
+        assertThat(snapshot.size())
+                .isEqualTo(100);
+
+        for (double i : snapshot.getValues()) {
+            assertThat(i)
+                    .isLessThan(1000)
+                    .isGreaterThanOrEqualTo(0);
+        }
+    }
+
+    @Test
+    public void weightsStripesByTheirShareOfTheStream() throws Exception {
+        final StripedUniformReservoir reservoir = new StripedUniformReservoir(100, 4);
+        final Thread busy = new Thread(() -> {
+            for (int i = 0; i < 100000; i++) {
+                reservoir.update(1);
+            }
+        });
+        Thread quiet;
+        do {
+            quiet = new Thread(() -> {
+                for (int i = 0; i < 100; i++) {
+                    reservoir.update(1000);
+                }
+            });
+            // a stripe can only be weighted apart from the others if the threads use different ones
+        } while (((Striping.threadHash(busy) ^ Striping.threadHash(quiet)) & 3) == 0);
+        busy.start();
+        quiet.start();
+        busy.join();
+        quiet.join();
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+
+        // unweighted, the quiet thread's 25 samples would pull the mean up to ~500
+        assertThat(snapshot.getMean())
+                .isLessThan(10);
+        assertThat(snapshot.getMedian())
+                .isEqualTo(1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void disallowsStripeCountsWhichAreNotPowersOfTwo() {
+        new StripedUniformReservoir(100, 3);
+    }
+}
@@ -0,0 +1,42 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+public class SummarizingHistogramTest {
+    private final Reservoir reservoir = mock(Reservoir.class);
+    private final SummarizingHistogram histogram = new SummarizingHistogram(reservoir);
+
+    @Test
+    public void keepsAnExactSummaryOfTheValues() {
+        histogram.update(12);
+        histogram.update(new long[]{3, 40, 5}, 0, 3);
+
+        final IntervalSummary summary = histogram.getSummary();
+
+        assertThat(summary.getCount())
+                .isEqualTo(4);
+        assertThat(summary.getSum())
+                .isEqualTo(60);
+        assertThat(summary.getMin())
+                .isEqualTo(3);
+        assertThat(summary.getMax())
+                .isEqualTo(40);
+        verify(reservoir).update(12);
+    }
+
+    @Test
+    public void resetsTheSummaryButNotTheCount() {
+        histogram.update(12);
+
+        assertThat(histogram.getSummaryAndReset().getMax())
+                .isEqualTo(12);
+        assertThat(histogram.getSummary().getCount())
+                .isZero();
+        assertThat(histogram.getCount())
+                .isEqualTo(1);
+    }
+}
@@ -0,0 +1,31 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SummarizingTimerTest {
+    private final SummarizingTimer timer = new SummarizingTimer(new UniformReservoir(), new ManualClock());
+
+    @Test
+    public void keepsAnExactSummaryOfTheDurationsInNanoseconds() {
+        timer.update(1, TimeUnit.SECONDS);
+        timer.update(5, TimeUnit.MILLISECONDS);
+        timer.update(-1, TimeUnit.SECONDS);
+
+        final IntervalSummary summary = timer.getSummaryAndReset();
+
+        assertThat(summary.getCount())
+                .isEqualTo(2);
+        assertThat(summary.getMin())
+                .isEqualTo(5000000);
+        assertThat(summary.getMax())
+                .isEqualTo(1000000000);
+        assertThat(timer.getSummary().getCount())
+                .isZero();
+        assertThat(timer.getCount())
+                .isEqualTo(2);
+    }
+}
@@ -0,0 +1,98 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class SummaryRecorderTest {
+    private final SummaryRecorder recorder = new SummaryRecorder(4);
+
+    @Test
+    public void summarizesEveryValue() {
+        recorder.update(20);
+        recorder.update(-5);
+        recorder.update(100);
+
+        final IntervalSummary summary = recorder.summary();
+
+        assertThat(summary.getCount()).isEqualTo(3);
+        assertThat(summary.getSum()).isEqualTo(115);
+        assertThat(summary.getMin()).isEqualTo(-5);
+        assertThat(summary.getMax()).isEqualTo(100);
+        assertThat(summary.getMean()).isEqualTo(115 / 3.0);
+    }
+
+    @Test
+    public void summarizesBatches() {
+        recorder.update(50);
+        recorder.update(new long[]{7, 3, 900, 12}, 1, 2);
+
+        final IntervalSummary summary = recorder.summary();
+
+        assertThat(summary.getCount()).isEqualTo(3);
+        assertThat(summary.getSum()).isEqualTo(953);
+        assertThat(summary.getMin()).isEqualTo(3);
+        assertThat(summary.getMax()).isEqualTo(900);
+    }
+
+    @Test
+    public void startsANewIntervalOnReset() {
+        recorder.update(1);
+        recorder.update(1000);
+
+        final IntervalSummary first = recorder.summaryAndReset();
+        recorder.update(40);
+        final IntervalSummary second = recorder.summaryAndReset();
+
+        assertThat(first.getMax()).isEqualTo(1000);
+        assertThat(second.getCount()).isEqualTo(1);
+        assertThat(second.getMin()).isEqualTo(40);
+        assertThat(second.getMax()).isEqualTo(40);
+        assertThat(recorder.summary()).isSameAs(IntervalSummary.empty());
+    }
+
+    @Test
+    public void emptySummaryHasNoExtremes() {
+        final IntervalSummary summary = recorder.summary();
+
+        assertThat(summary.getCount()).isZero();
+        assertThat(summary.getMin()).isZero();
+        assertThat(summary.getMax()).isZero();
+        assertThat(summary.getMean()).isZero();
+    }
+
+    @Test
+    public void losesNoValuesRecordedWhileResetting() throws Exception {
+        final int writers = 4;
+        final int updatesPerWriter = 100000;
+        final CountDownLatch done = new CountDownLatch(writers);
+        for (int t = 0; t < writers; t++) {
+            new Thread(() -> {
+                for (int i = 1; i <= updatesPerWriter; i++) {
+                    recorder.update(i);
+                }
+                done.countDown();
+            }).start();
+        }
+
+        long count = 0;
+        long sum = 0;
+        long max = 0;
+        while (done.getCount() > 0) {
+            final IntervalSummary summary = recorder.summaryAndReset();
+            count += summary.getCount();
+            sum += summary.getSum();
+            max = Math.max(max, summary.getMax());
+        }
+        final IntervalSummary last = recorder.summaryAndReset();
+        count += last.getCount();
+        sum += last.getSum();
+        max = Math.max(max, last.getMax());
+
+        assertThat(count).isEqualTo((long) writers * updatesPerWriter);
+        assertThat(sum).isEqualTo(writers * (updatesPerWriter * (updatesPerWriter + 1L) / 2));
+        assertThat(max).isEqualTo(updatesPerWriter);
+    }
+}
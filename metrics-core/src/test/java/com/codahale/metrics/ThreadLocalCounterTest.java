@@ -0,0 +1,88 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ThreadLocalCounterTest {
+    private final ThreadLocalCounter counter = new ThreadLocalCounter();
+
+    @Test
+    public void incrementsAndDecrements() {
+        counter.inc();
+        counter.inc(12);
+        counter.dec(3);
+        counter.dec();
+
+        assertThat(counter.getCount())
+                .isEqualTo(9);
+    }
+
+    @Test
+    public void sumsTheCountsOfAllThreads() throws Exception {
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 100000; i++) {
+                    counter.inc();
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        counter.inc(5);
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(counter.getCount())
+                .isEqualTo(400005);
+        // the cells of the dead threads are folded into the total, which must not count them twice
+        assertThat(counter.getCount())
+                .isEqualTo(400005);
+    }
+
+    @Test
+    public void canBeRegisteredAsACounter() {
+        final MetricRegistry registry = new MetricRegistry();
+        final Counter registered = registry.counter("processed", ThreadLocalCounter::new);
+        registered.inc(2);
+
+        assertThat(registered)
+                .isInstanceOf(ThreadLocalCounter.class);
+        assertThat(registry.counter("processed", ThreadLocalCounter::new).getCount())
+                .isEqualTo(2);
+    }
+
+    @Test
+    public void countsTheUpdatesOfACell() {
+        final ThreadLocalCounter.Cell cell = counter.cell();
+        cell.inc();
+        cell.inc(10);
+        cell.dec();
+        counter.dec(4);
+
+        assertThat(counter.cell())
+                .isSameAs(cell);
+        assertThat(counter.getCount())
+                .isEqualTo(6);
+    }
+
+    @Test
+    public void foldsTheCellsOfDeadThreadsWhenANewCellIsCreated() throws Exception {
+        for (int t = 0; t < 4; t++) {
+            final Thread thread = new Thread(() -> counter.inc(10));
+            thread.start();
+            thread.join();
+        }
+
+        counter.inc();
+
+        assertThat(counter.cellCount())
+                .isEqualTo(1);
+        assertThat(counter.getCount())
+                .isEqualTo(41);
+    }
+}
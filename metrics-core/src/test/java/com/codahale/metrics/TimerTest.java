@@ -2,12 +2,14 @@ package com.codahale.metrics;
 
 import org.junit.Test;
 
+import java.lang.ref.WeakReference;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.offset;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyZeroInteractions;
 import static org.mockito.Mockito.when;
@@ -104,6 +106,57 @@ public class TimerTest {
         verify(reservoir).update(50000000);
     }
 
+    @Test
+    public void timesWithStartTokens() {
+        final long token = timer.start();
+
+        assertThat(timer.stop(token))
+                .isEqualTo(50000000);
+        assertThat(timer.getCount())
+                .isEqualTo(1);
+
+        verify(reservoir).update(50000000);
+    }
+
+    @Test
+    public void reusesTheContextOfTheCallingThread() throws Exception {
+        final Timer.Context context = timer.timeReusingContext();
+        context.stop();
+        final Timer.Context again = timer.timeReusingContext();
+        again.stop();
+
+        assertThat(again)
+                .isSameAs(context);
+        assertThat(timer.getCount())
+                .isEqualTo(2);
+        verify(reservoir, times(2)).update(50000000);
+
+        final Timer.Context[] other = new Timer.Context[1];
+        final Thread thread = new Thread(() -> other[0] = timer.timeReusingContext());
+        thread.start();
+        thread.join();
+
+        assertThat(other[0])
+                .isNotSameAs(context);
+    }
+
+    @Test
+    public void doesNotKeepARemovedTimerAliveThroughItsReusedContexts() throws Exception {
+        final MetricRegistry registry = new MetricRegistry();
+        registry.timer("timer").timeReusingContext().stop();
+        final WeakReference<Timer> removed = new WeakReference<>(registry.timer("timer"));
+        registry.remove("timer");
+
+        // this thread still has the timer's thread local
+        for (int i = 0; i < 100 && removed.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+
+        assertThat(removed.get())
+                .isNull();
+    }
+
     @Test
     public void returnsTheSnapshotFromTheReservoir() {
         final Snapshot snapshot = mock(Snapshot.class);
@@ -139,4 +192,25 @@ public class TimerTest {
         verify(reservoir).update(50000000);
     }
 
+    @Test
+    public void updatesWithBatchesOfDurations() {
+        timer.update(new long[]{1, -1, 2, 3}, 0, 3, TimeUnit.MILLISECONDS);
+
+        assertThat(timer.getCount())
+                .isEqualTo(2);
+
+        verify(reservoir).update(new long[]{1000000, 2000000, 0}, 0, 2);
+    }
+
+    @Test
+    public void passesBatchesOfNanosecondsThroughToTheReservoir() {
+        final long[] durations = {1, 2, 3};
+
+        timer.update(durations, 1, 2, TimeUnit.NANOSECONDS);
+
+        assertThat(timer.getCount())
+                .isEqualTo(2);
+
+        verify(reservoir).update(durations, 1, 2);
+    }
 }
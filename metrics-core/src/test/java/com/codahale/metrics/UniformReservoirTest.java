@@ -28,4 +28,26 @@ public class UniformReservoirTest {
         }
     }
 
+    @Test
+    public void aReservoirOf100OutOf1000ElementsInBatches() {
+        final UniformReservoir reservoir = new UniformReservoir(100);
+        final long[] batch = new long[10];
+        for (int i = 0; i < 1000; i += batch.length) {
+            for (int j = 0; j < batch.length; j++) {
+                batch[j] = (long) i + j;
+            }
+            reservoir.update(batch, 0, batch.length);
+        }
+
+        final Snapshot snapshot = reservoir.getSnapshot();
+
+        assertThat(snapshot.size())
+                .isEqualTo(100);
+
+        for (long i : snapshot.getValues()) {
+            assertThat(i)
+                    .isLessThan(1000)
+                    .isGreaterThanOrEqualTo(0);
+        }
+    }
 }
@@ -3,6 +3,8 @@ package com.codahale.metrics;
 import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.CountDownLatch;
@@ -195,4 +197,91 @@ public class UniformSnapshotTest {
         assertThat(singleItemSnapshot.getStdDev())
                 .isZero();
     }
+
+    @Test
+    public void mergesSnapshotsInOrder() {
+        final UniformSnapshot merged = UniformSnapshot.merge(asList(
+                new UniformSnapshot(new long[]{5, 1, 3}),
+                new UniformSnapshot(new long[]{}),
+                new UniformSnapshot(new long[]{4, 2, 2})));
+
+        assertThat(merged.getValues())
+                .containsExactly(1, 2, 2, 3, 4, 5);
+        assertThat(merged.getMedian())
+                .isEqualTo(2.5, offset(0.1));
+    }
+
+    @Test
+    public void mergesManySnapshots() {
+        final Random random = new Random(42);
+        final List<UniformSnapshot> shards = new ArrayList<>();
+        final long[] all = new long[300 * 10];
+        for (int i = 0; i < 300; i++) {
+            final long[] values = new long[10];
+            for (int j = 0; j < values.length; j++) {
+                values[j] = random.nextInt(1000);
+                all[i * 10 + j] = values[j];
+            }
+            shards.add(new UniformSnapshot(values));
+        }
+
+        assertThat(UniformSnapshot.merge(shards).getValues())
+                .containsExactly(new UniformSnapshot(all).getValues());
+    }
+
+    @Test
+    public void snapshotsOfTheSameKindCanBeMergedAsSnapshots() {
+        assertThat(Snapshot.mergeAll(asList(snapshot, new UniformSnapshot(new long[]{6}))))
+                .isInstanceOf(UniformSnapshot.class);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void snapshotsOfDifferentKindsCannotBeMerged() {
+        Snapshot.mergeAll(asList(snapshot, new BucketedSnapshot(new long[]{1}, new long[]{1})));
+    }
+
+    @Test
+    public void answersBatchesOfQuantiles() {
+        final double[] quantiles = {0.5, 0.75, 0.95, 0.98, 0.99, 0.999, 0.1};
+
+        final double[] values = snapshot.getValues(quantiles);
+
+        for (int i = 0; i < quantiles.length; i++) {
+            assertThat(values[i])
+                    .isEqualTo(snapshot.getValue(quantiles[i]));
+        }
+    }
+
+    @Test
+    public void iteratesOverTheValuesInOrder() {
+        final List<Long> values = new ArrayList<>();
+
+        snapshot.forEach(values::add);
+
+        assertThat(values)
+                .containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    public void computesTheMomentsOfLargeValuesInASinglePass() {
+        final Random random = new Random(42);
+        final long[] values = new long[10000];
+        double sum = 0;
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1000000000L + random.nextInt(1000);
+            sum += values[i];
+        }
+        final double mean = sum / values.length;
+        double squares = 0;
+        for (long value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+
+        final Snapshot large = new UniformSnapshot(values);
+
+        assertThat(large.getMean())
+                .isEqualTo(mean, offset(1e-3));
+        assertThat(large.getStdDev())
+                .isEqualTo(Math.sqrt(squares / (values.length - 1)), offset(1e-4));
+    }
 }
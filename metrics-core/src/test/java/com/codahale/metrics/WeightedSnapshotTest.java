@@ -4,10 +4,13 @@ import org.junit.Test;
 
 import java.io.ByteArrayOutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Random;
 
 import com.codahale.metrics.WeightedSnapshot.WeightedSample;
 
+import static java.util.Arrays.asList;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.offset;
 import static org.mockito.Mockito.spy;
@@ -221,4 +224,141 @@ public class WeightedSnapshotTest {
         assertThat(weightedSnapshot.getMean()).isEqualTo(0);
     }
 
+    @Test
+    public void mergesSnapshotsKeepingTheirWeights() {
+        final WeightedSnapshot merged = WeightedSnapshot.merge(asList(
+                new WeightedSnapshot(weightedArray(new long[]{1, 3}, new double[]{1, 1})),
+                new WeightedSnapshot(weightedArray(new long[]{2, 4}, new double[]{7, 1}))));
+
+        assertThat(merged.getValues())
+                .containsExactly(1, 2, 3, 4);
+        // 2 carries 7 of the total weight of 10
+        assertThat(merged.getMedian())
+                .isEqualTo(2.0, offset(0.1));
+        assertThat(merged.getMean())
+                .isEqualTo((1 + 2 * 7 + 3 + 4) / 10.0, offset(0.0001));
+    }
+
+    @Test
+    public void mergingASingleSnapshotKeepsItsStatistics() {
+        final WeightedSnapshot merged = WeightedSnapshot.merge(asList((WeightedSnapshot) snapshot));
+
+        assertThat(merged.getValues())
+                .containsExactly(snapshot.getValues());
+        assertThat(merged.getMean())
+                .isEqualTo(snapshot.getMean(), offset(0.0001));
+        assertThat(merged.get75thPercentile())
+                .isEqualTo(snapshot.get75thPercentile());
+    }
+
+    @Test
+    public void sortsLargeSamplesWithTheirWeights() {
+        final Random random = new Random(42);
+        final WeightedSnapshot.SampleBuffer buffer = new WeightedSnapshot.SampleBuffer(1);
+        final long[] expected = new long[10000];
+        for (int i = 0; i < expected.length; i++) {
+            // few distinct values, so that there are many duplicates; each weighs its own value
+            expected[i] = random.nextInt(100);
+            buffer.add(expected[i], expected[i]);
+        }
+        Arrays.sort(expected);
+
+        final WeightedSnapshot sorted = new WeightedSnapshot(buffer);
+
+        assertThat(sorted.getValues())
+                .containsExactly(expected);
+        // with every weight equal to its value, the weighted mean is sum(v^2) / sum(v)
+        double sumOfSquares = 0;
+        double sum = 0;
+        for (long value : expected) {
+            sumOfSquares += value * value;
+            sum += value;
+        }
+        assertThat(sorted.getMean())
+                .isEqualTo(sumOfSquares / sum, offset(1e-6));
+    }
+
+    @Test
+    public void reusesTheSampleBuffer() {
+        final WeightedSnapshot.SampleBuffer buffer = new WeightedSnapshot.SampleBuffer(8);
+        buffer.add(5, 1);
+        buffer.add(1, 1);
+        assertThat(new WeightedSnapshot(buffer).getValues())
+                .containsExactly(1, 5);
+
+        buffer.clear();
+        buffer.add(3, 1);
+        final WeightedSnapshot reused = new WeightedSnapshot(buffer);
+
+        assertThat(reused.size())
+                .isEqualTo(1);
+        assertThat(reused.getValues())
+                .containsExactly(3);
+        assertThat(reused.getMedian())
+                .isEqualTo(3);
+    }
+
+    @Test
+    public void answersBatchesOfQuantilesInAnyOrder() {
+        final Random random = new Random(42);
+        final WeightedSnapshot.SampleBuffer buffer = new WeightedSnapshot.SampleBuffer(1000);
+        for (int i = 0; i < 1000; i++) {
+            buffer.add(random.nextInt(100000), random.nextDouble());
+        }
+        final WeightedSnapshot large = new WeightedSnapshot(buffer);
+        final double[] quantiles = {0.0, 0.5, 0.75, 0.95, 0.98, 0.99, 0.999, 1.0, 0.25, 0.5};
+
+        final double[] values = large.getValues(quantiles);
+
+        for (int i = 0; i < quantiles.length; i++) {
+            assertThat(values[i])
+                    .isEqualTo(large.getValue(quantiles[i]));
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void disallowsBatchesWithQuantilesOutOfRange() {
+        snapshot.getValues(new double[]{0.5, 1.5});
+    }
+
+    @Test
+    public void iteratesOverTheValuesInOrder() {
+        final List<Long> values = new ArrayList<>();
+
+        snapshot.forEach(values::add);
+
+        assertThat(values)
+                .containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    public void computesTheWeightedMomentsInASinglePass() {
+        final Random random = new Random(42);
+        final long[] values = new long[1000];
+        final double[] weights = new double[values.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = 1000000000L + random.nextInt(1000);
+            weights[i] = random.nextDouble();
+        }
+        final Snapshot large = new WeightedSnapshot(weightedArray(values, weights));
+
+        // the two-pass definitions over the normalized weights
+        double sumWeight = 0;
+        for (double weight : weights) {
+            sumWeight += weight;
+        }
+        double mean = 0;
+        for (int i = 0; i < values.length; i++) {
+            mean += values[i] * weights[i] / sumWeight;
+        }
+        double variance = 0;
+        for (int i = 0; i < values.length; i++) {
+            variance += weights[i] / sumWeight * (values[i] - mean) * (values[i] - mean);
+        }
+
+        assertThat(large.getMean())
+                .isEqualTo(mean, offset(1e-3));
+        assertThat(large.getStdDev())
+                .isEqualTo(Math.sqrt(variance), offset(1e-4));
+    }
 }
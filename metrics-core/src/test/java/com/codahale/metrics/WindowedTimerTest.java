@@ -0,0 +1,46 @@
+package com.codahale.metrics;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class WindowedTimerTest {
+    private final ManualClock clock = new ManualClock();
+
+    @Test
+    public void timesEventsIntoEveryWindow() {
+        final WindowedTimer timer = new WindowedTimer(clock);
+        timer.update(10, TimeUnit.MILLISECONDS);
+        clock.addSeconds(3 * 60);
+        timer.update(20, TimeUnit.MILLISECONDS);
+
+        assertThat(timer.getCount())
+                .isEqualTo(2);
+        assertThat(timer.getOneMinuteSnapshot().size())
+                .isEqualTo(1);
+        assertThat(timer.getFiveMinuteSnapshot().size())
+                .isEqualTo(2);
+        assertThat(timer.getFifteenMinuteSnapshot().getMax())
+                .isCloseTo(TimeUnit.MILLISECONDS.toNanos(20), within(TimeUnit.MILLISECONDS.toNanos(20) / 100));
+        assertThat(timer.getSnapshot().getValues())
+                .isEqualTo(timer.getOneMinuteSnapshot().getValues());
+    }
+
+    @Test
+    public void histogramsKeepEveryWindow() {
+        final WindowedHistogram histogram = new WindowedHistogram(new MultiWindowBucketReservoir(clock));
+        histogram.update(10);
+        clock.addSeconds(10 * 60);
+        histogram.update(20);
+
+        assertThat(histogram.getCount())
+                .isEqualTo(2);
+        assertThat(histogram.getFiveMinuteSnapshot().getValues())
+                .containsExactly(20);
+        assertThat(histogram.getFifteenMinuteSnapshot().getValues())
+                .containsExactly(10, 20);
+    }
+}
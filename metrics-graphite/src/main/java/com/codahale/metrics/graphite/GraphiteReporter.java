@@ -2,16 +2,19 @@ package com.codahale.metrics.graphite;
 
 import com.codahale.metrics.Clock;
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.FixedBucketHistogram;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.Metered;
 import com.codahale.metrics.MetricAttribute;
 import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.MetricName;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.ScheduledReporter;
 import com.codahale.metrics.Snapshot;
 import com.codahale.metrics.Timer;
+import com.codahale.metrics.WindowedSampling;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -25,7 +28,10 @@ import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Function;
 
+import static com.codahale.metrics.MetricAttribute.BUCKETS;
 import static com.codahale.metrics.MetricAttribute.COUNT;
 import static com.codahale.metrics.MetricAttribute.M15_RATE;
 import static com.codahale.metrics.MetricAttribute.M1_RATE;
@@ -44,6 +50,12 @@ import static com.codahale.metrics.MetricAttribute.STDDEV;
 
 /**
  * A reporter which publishes metric values to a Graphite server.
+ * <p>
+ * Histograms and timers which implement {@link WindowedSampling} publish the last minute as their
+ * distribution, and also have the count and distribution of their longer windows published, under
+ * {@code name.m5} and {@code name.m15}. A {@link FixedBucketHistogram} also has the number of values
+ * up to each of its bucket bounds published, under {@code name.le_<bound>} and
+ * {@code name.le_inf}, unless {@link MetricAttribute#BUCKETS} is disabled.
  *
  * @see <a href="http://graphite.wikidot.com/">Graphite - Scalable Realtime Graphing</a>
  */
@@ -214,6 +226,13 @@ public class GraphiteReporter extends ScheduledReporter {
     }
 
     private static final Logger LOGGER = LoggerFactory.getLogger(GraphiteReporter.class);
+    // the path components under which the snapshots of a WindowedSampling metric's longer windows are
+    // sent; its snapshot is already the one-minute window
+    private static final String M5_WINDOW = "m5";
+    private static final String M15_WINDOW = "m15";
+    // the cumulative count of a FixedBucketHistogram's bucket is sent as name.le_<upper bound>
+    private static final String BUCKET_PREFIX = BUCKETS.getCode() + "_";
+    private static final Function<MetricName, String> TAGS = GraphiteReporter::renderTags;
 
     private final GraphiteSender graphite;
     private final Clock clock;
@@ -265,23 +284,28 @@ public class GraphiteReporter extends ScheduledReporter {
             graphite.connect();
 
             for (Map.Entry<String, Gauge> entry : gauges.entrySet()) {
-                reportGauge(entry.getKey(), entry.getValue(), timestamp);
+                final MetricName tagged = getRegistry().getTaggedName(entry.getKey());
+                reportGauge(nameOf(entry.getKey(), tagged), tagsOf(tagged), entry.getValue(), timestamp);
             }
 
             for (Map.Entry<String, Counter> entry : counters.entrySet()) {
-                reportCounter(entry.getKey(), entry.getValue(), timestamp);
+                final MetricName tagged = getRegistry().getTaggedName(entry.getKey());
+                reportCounter(nameOf(entry.getKey(), tagged), tagsOf(tagged), entry.getValue(), timestamp);
             }
 
             for (Map.Entry<String, Histogram> entry : histograms.entrySet()) {
-                reportHistogram(entry.getKey(), entry.getValue(), timestamp);
+                final MetricName tagged = getRegistry().getTaggedName(entry.getKey());
+                reportHistogram(nameOf(entry.getKey(), tagged), tagsOf(tagged), entry.getValue(), timestamp);
             }
 
             for (Map.Entry<String, Meter> entry : meters.entrySet()) {
-                reportMetered(entry.getKey(), entry.getValue(), timestamp);
+                final MetricName tagged = getRegistry().getTaggedName(entry.getKey());
+                reportMetered(nameOf(entry.getKey(), tagged), tagsOf(tagged), entry.getValue(), timestamp);
             }
 
             for (Map.Entry<String, Timer> entry : timers.entrySet()) {
-                reportTimer(entry.getKey(), entry.getValue(), timestamp);
+                final MetricName tagged = getRegistry().getTaggedName(entry.getKey());
+                reportTimer(nameOf(entry.getKey(), tagged), tagsOf(tagged), entry.getValue(), timestamp);
             }
             graphite.flush();
         } catch (IOException e) {
@@ -308,66 +332,106 @@ public class GraphiteReporter extends ScheduledReporter {
         }
     }
 
-    private void reportTimer(String name, Timer timer, long timestamp) throws IOException {
-        final Snapshot snapshot = timer.getSnapshot();
-        sendIfEnabled(MAX, name, convertDuration(snapshot.getMax()), timestamp);
-        sendIfEnabled(MEAN, name, convertDuration(snapshot.getMean()), timestamp);
-        sendIfEnabled(MIN, name, convertDuration(snapshot.getMin()), timestamp);
-        sendIfEnabled(STDDEV, name, convertDuration(snapshot.getStdDev()), timestamp);
-        sendIfEnabled(P50, name, convertDuration(snapshot.getMedian()), timestamp);
-        sendIfEnabled(P75, name, convertDuration(snapshot.get75thPercentile()), timestamp);
-        sendIfEnabled(P95, name, convertDuration(snapshot.get95thPercentile()), timestamp);
-        sendIfEnabled(P98, name, convertDuration(snapshot.get98thPercentile()), timestamp);
-        sendIfEnabled(P99, name, convertDuration(snapshot.get99thPercentile()), timestamp);
-        sendIfEnabled(P999, name, convertDuration(snapshot.get999thPercentile()), timestamp);
-        reportMetered(name, timer, timestamp);
+    private void reportTimer(String name, String tags, Timer timer, long timestamp) throws IOException {
+        final DoubleUnaryOperator durations = this::convertDuration;
+        reportSnapshot(name, tags, timer.getSnapshot(), durations, timestamp);
+        if (timer instanceof WindowedSampling) {
+            final WindowedSampling windowed = (WindowedSampling) timer;
+            reportWindow(MetricRegistry.name(name, M5_WINDOW), tags, windowed.getFiveMinuteSnapshot(), durations, timestamp);
+            reportWindow(MetricRegistry.name(name, M15_WINDOW), tags, windowed.getFifteenMinuteSnapshot(), durations, timestamp);
+        }
+        reportMetered(name, tags, timer, timestamp);
+    }
+
+    private void reportMetered(String name, String tags, Metered meter, long timestamp) throws IOException {
+        sendIfEnabled(COUNT, name, tags, meter.getCount(), timestamp);
+        sendIfEnabled(M1_RATE, name, tags, convertRate(meter.getOneMinuteRate()), timestamp);
+        sendIfEnabled(M5_RATE, name, tags, convertRate(meter.getFiveMinuteRate()), timestamp);
+        sendIfEnabled(M15_RATE, name, tags, convertRate(meter.getFifteenMinuteRate()), timestamp);
+        sendIfEnabled(MEAN_RATE, name, tags, convertRate(meter.getMeanRate()), timestamp);
+    }
+
+    private void reportHistogram(String name, String tags, Histogram histogram, long timestamp) throws IOException {
+        sendIfEnabled(COUNT, name, tags, histogram.getCount(), timestamp);
+        reportSnapshot(name, tags, histogram.getSnapshot(), null, timestamp);
+        if (histogram instanceof WindowedSampling) {
+            final WindowedSampling windowed = (WindowedSampling) histogram;
+            reportWindow(MetricRegistry.name(name, M5_WINDOW), tags, windowed.getFiveMinuteSnapshot(), null, timestamp);
+            reportWindow(MetricRegistry.name(name, M15_WINDOW), tags, windowed.getFifteenMinuteSnapshot(), null, timestamp);
+        }
+        if (histogram instanceof FixedBucketHistogram) {
+            reportBuckets(name, tags, (FixedBucketHistogram) histogram, timestamp);
+        }
+    }
+
+    private void reportBuckets(String name, String tags, FixedBucketHistogram histogram, long timestamp) throws IOException {
+        if (getDisabledMetricAttributes().contains(BUCKETS)) {
+            return;
+        }
+        final long[] bounds = histogram.getBucketBounds();
+        final long[] counts = histogram.getCumulativeBucketCounts();
+        for (int i = 0; i < bounds.length; i++) {
+            graphite.send(prefix(name, tags, BUCKET_PREFIX + bounds[i]), format(counts[i]), timestamp);
+        }
+        graphite.send(prefix(name, tags, BUCKET_PREFIX + "inf"), format(counts[bounds.length]), timestamp);
+    }
+
+    private void reportWindow(String name, String tags, Snapshot snapshot, DoubleUnaryOperator convert, long timestamp) throws IOException {
+        sendIfEnabled(COUNT, name, tags, snapshot.size(), timestamp);
+        reportSnapshot(name, tags, snapshot, convert, timestamp);
+    }
+
+    /**
+     * Reports the statistics of a snapshot, converted by {@code convert}, or as they are if it is
+     * {@code null}.
+     */
+    private void reportSnapshot(String name, String tags, Snapshot snapshot, DoubleUnaryOperator convert, long timestamp) throws IOException {
+        sendIfEnabled(MAX, name, tags, snapshot.getMax(), convert, timestamp);
+        sendIfEnabled(MEAN, name, tags, snapshot.getMean(), convert, timestamp);
+        sendIfEnabled(MIN, name, tags, snapshot.getMin(), convert, timestamp);
+        sendIfEnabled(STDDEV, name, tags, snapshot.getStdDev(), convert, timestamp);
+        sendIfEnabled(P50, name, tags, snapshot.getMedian(), convert, timestamp);
+        sendIfEnabled(P75, name, tags, snapshot.get75thPercentile(), convert, timestamp);
+        sendIfEnabled(P95, name, tags, snapshot.get95thPercentile(), convert, timestamp);
+        sendIfEnabled(P98, name, tags, snapshot.get98thPercentile(), convert, timestamp);
+        sendIfEnabled(P99, name, tags, snapshot.get99thPercentile(), convert, timestamp);
+        sendIfEnabled(P999, name, tags, snapshot.get999thPercentile(), convert, timestamp);
     }
 
-    private void reportMetered(String name, Metered meter, long timestamp) throws IOException {
-        sendIfEnabled(COUNT, name, meter.getCount(), timestamp);
-        sendIfEnabled(M1_RATE, name, convertRate(meter.getOneMinuteRate()), timestamp);
-        sendIfEnabled(M5_RATE, name, convertRate(meter.getFiveMinuteRate()), timestamp);
-        sendIfEnabled(M15_RATE, name, convertRate(meter.getFifteenMinuteRate()), timestamp);
-        sendIfEnabled(MEAN_RATE, name, convertRate(meter.getMeanRate()), timestamp);
+    private void sendIfEnabled(MetricAttribute type, String name, String tags, double value, DoubleUnaryOperator convert, long timestamp) throws IOException {
+        sendIfEnabled(type, name, tags, convert == null ? value : convert.applyAsDouble(value), timestamp);
     }
 
-    private void reportHistogram(String name, Histogram histogram, long timestamp) throws IOException {
-        final Snapshot snapshot = histogram.getSnapshot();
-        sendIfEnabled(COUNT, name, histogram.getCount(), timestamp);
-        sendIfEnabled(MAX, name, snapshot.getMax(), timestamp);
-        sendIfEnabled(MEAN, name, snapshot.getMean(), timestamp);
-        sendIfEnabled(MIN, name, snapshot.getMin(), timestamp);
-        sendIfEnabled(STDDEV, name, snapshot.getStdDev(), timestamp);
-        sendIfEnabled(P50, name, snapshot.getMedian(), timestamp);
-        sendIfEnabled(P75, name, snapshot.get75thPercentile(), timestamp);
-        sendIfEnabled(P95, name, snapshot.get95thPercentile(), timestamp);
-        sendIfEnabled(P98, name, snapshot.get98thPercentile(), timestamp);
-        sendIfEnabled(P99, name, snapshot.get99thPercentile(), timestamp);
-        sendIfEnabled(P999, name, snapshot.get999thPercentile(), timestamp);
+    private void sendIfEnabled(MetricAttribute type, String name, String tags, long value, DoubleUnaryOperator convert, long timestamp) throws IOException {
+        if (convert == null) {
+            sendIfEnabled(type, name, tags, value, timestamp);
+        } else {
+            sendIfEnabled(type, name, tags, convert.applyAsDouble(value), timestamp);
+        }
     }
 
-    private void sendIfEnabled(MetricAttribute type, String name, double value, long timestamp) throws IOException {
+    private void sendIfEnabled(MetricAttribute type, String name, String tags, double value, long timestamp) throws IOException {
         if (getDisabledMetricAttributes().contains(type)) {
             return;
         }
-        graphite.send(prefix(name, type.getCode()), format(value), timestamp);
+        graphite.send(prefix(name, tags, type.getCode()), format(value), timestamp);
     }
 
-    private void sendIfEnabled(MetricAttribute type, String name, long value, long timestamp) throws IOException {
+    private void sendIfEnabled(MetricAttribute type, String name, String tags, long value, long timestamp) throws IOException {
         if (getDisabledMetricAttributes().contains(type)) {
             return;
         }
-        graphite.send(prefix(name, type.getCode()), format(value), timestamp);
+        graphite.send(prefix(name, tags, type.getCode()), format(value), timestamp);
     }
 
-    private void reportCounter(String name, Counter counter, long timestamp) throws IOException {
-        graphite.send(prefix(name, COUNT.getCode()), format(counter.getCount()), timestamp);
+    private void reportCounter(String name, String tags, Counter counter, long timestamp) throws IOException {
+        graphite.send(prefix(name, tags, COUNT.getCode()), format(counter.getCount()), timestamp);
     }
 
-    private void reportGauge(String name, Gauge<?> gauge, long timestamp) throws IOException {
+    private void reportGauge(String name, String tags, Gauge<?> gauge, long timestamp) throws IOException {
         final String value = format(gauge.getValue());
         if (value != null) {
-            graphite.send(prefix(name), value, timestamp);
+            graphite.send(prefix(name, tags), value, timestamp);
         }
     }
 
@@ -394,8 +458,50 @@ public class GraphiteReporter extends ScheduledReporter {
         return null;
     }
 
-    private String prefix(String... components) {
-        return MetricRegistry.name(prefix, components);
+    private String prefix(String name, String tags, String... components) {
+        final StringBuilder path = new StringBuilder();
+        append(path, prefix);
+        append(path, name);
+        for (String component : components) {
+            append(path, component);
+        }
+        return path.append(tags).toString();
+    }
+
+    /**
+     * Appends a part to a dotted path, like {@link MetricRegistry#name(String, String...)} does.
+     */
+    private static void append(StringBuilder path, String part) {
+        if (part != null && !part.isEmpty()) {
+            if (path.length() > 0) {
+                path.append('.');
+            }
+            path.append(part);
+        }
+    }
+
+    /**
+     * Returns the name under which a metric is sent: its key, unless it was registered with tags.
+     */
+    private static String nameOf(String key, MetricName tagged) {
+        return tagged != null ? tagged.getName() : key;
+    }
+
+    private static String tagsOf(MetricName name) {
+        return name != null && name.isTagged() ? name.render(TAGS) : "";
+    }
+
+    /*
+     * Renders the tags in the tag syntax of Graphite 1.1, as ";key=value" for every tag. Graphite
+     * does not allow semicolons in tags, nor tildes in their values, so these are replaced.
+     */
+    private static String renderTags(MetricName name) {
+        final StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, String> tag : name.getTags().entrySet()) {
+            builder.append(';').append(tag.getKey().replace(';', '_'))
+                    .append('=').append(tag.getValue().replace(';', '_').replace('~', '_'));
+        }
+        return builder.toString();
     }
 
     private String format(long n) {
@@ -2,14 +2,18 @@ package com.codahale.metrics.graphite;
 
 import com.codahale.metrics.Clock;
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.FixedBucketHistogram;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricAttribute;
 import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.MetricName;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Snapshot;
 import com.codahale.metrics.Timer;
+import com.codahale.metrics.WindowedHistogram;
+import com.codahale.metrics.WindowedTimer;
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.InOrder;
@@ -23,10 +27,14 @@ import java.util.SortedMap;
 import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -244,6 +252,27 @@ public class GraphiteReporterTest {
         verifyNoMoreInteractions(graphite);
     }
 
+    @Test
+    public void reportsTaggedMetricsInTheGraphiteTagSyntax() throws Exception {
+        final MetricName name = MetricName.of("requests").tagged("tenant", "acme", "endpoint", "/a;b");
+        when(registry.getTaggedName(name.getKey())).thenReturn(name);
+        final Counter counter = mock(Counter.class);
+        when(counter.getCount()).thenReturn(100L);
+
+        reporter.report(map(),
+            map(name.getKey(), counter),
+            map(),
+            map(),
+            map());
+        reporter.report(map(),
+            map(name.getKey(), counter),
+            map(),
+            map(),
+            map());
+
+        verify(graphite, times(2)).send("prefix.requests.count;endpoint=/a_b;tenant=acme", "100", timestamp);
+    }
+
     @Test
     public void reportsHistograms() throws Exception {
         final Histogram histogram = mock(Histogram.class);
@@ -399,6 +428,108 @@ public class GraphiteReporterTest {
         reporter.close();
     }
 
+    @Test
+    public void reportsTheCumulativeBucketCountsOfFixedBucketHistograms() throws Exception {
+        final FixedBucketHistogram histogram = new FixedBucketHistogram(10, 50);
+        histogram.update(5);
+        histogram.update(20);
+        histogram.update(60);
+
+        reporter.report(map(),
+            map(),
+            map("histogram", histogram),
+            map(),
+            map());
+
+        final InOrder inOrder = inOrder(graphite);
+        inOrder.verify(graphite).send("prefix.histogram.count", "3", timestamp);
+        inOrder.verify(graphite).send("prefix.histogram.p999", "60.00", timestamp);
+        inOrder.verify(graphite).send("prefix.histogram.le_10", "1", timestamp);
+        inOrder.verify(graphite).send("prefix.histogram.le_50", "2", timestamp);
+        inOrder.verify(graphite).send("prefix.histogram.le_inf", "3", timestamp);
+        inOrder.verify(graphite).flush();
+    }
+
+    @Test
+    public void doesNotReportTheBucketsOfFixedBucketHistogramsIfDisabled() throws Exception {
+        final FixedBucketHistogram histogram = new FixedBucketHistogram(10, 50);
+        histogram.update(5);
+
+        final GraphiteReporter reporterWithoutBuckets = GraphiteReporter.forRegistry(registry)
+            .withClock(clock)
+            .prefixedWith("prefix")
+            .filter(MetricFilter.ALL)
+            .disabledMetricAttributes(EnumSet.of(MetricAttribute.BUCKETS))
+            .build(graphite);
+        reporterWithoutBuckets.report(map(),
+            map(),
+            map("histogram", histogram),
+            map(),
+            map());
+
+        verify(graphite).send("prefix.histogram.count", "1", timestamp);
+        verify(graphite, never()).send(startsWith("prefix.histogram.le_"), anyString(), anyLong());
+    }
+
+    @Test
+    public void reportsTheLongerWindowsOfWindowedHistograms() throws Exception {
+        final WindowedHistogram histogram = mock(WindowedHistogram.class);
+        when(histogram.getCount()).thenReturn(10L);
+        final Snapshot snapshot = snapshot(5, 100);
+        final Snapshot fiveMinuteSnapshot = snapshot(8, 200);
+        final Snapshot fifteenMinuteSnapshot = snapshot(10, 300);
+        when(histogram.getSnapshot()).thenReturn(snapshot);
+        when(histogram.getFiveMinuteSnapshot()).thenReturn(fiveMinuteSnapshot);
+        when(histogram.getFifteenMinuteSnapshot()).thenReturn(fifteenMinuteSnapshot);
+
+        reporter.report(map(),
+            map(),
+            map("histogram", histogram),
+            map(),
+            map());
+
+        final InOrder inOrder = inOrder(graphite);
+        inOrder.verify(graphite).send("prefix.histogram.count", "10", timestamp);
+        inOrder.verify(graphite).send("prefix.histogram.max", "100", timestamp);
+        inOrder.verify(graphite).send("prefix.histogram.p99", "100.00", timestamp);
+        inOrder.verify(graphite).send("prefix.histogram.m5.count", "8", timestamp);
+        inOrder.verify(graphite).send("prefix.histogram.m5.max", "200", timestamp);
+        inOrder.verify(graphite).send("prefix.histogram.m5.p99", "200.00", timestamp);
+        inOrder.verify(graphite).send("prefix.histogram.m15.count", "10", timestamp);
+        inOrder.verify(graphite).send("prefix.histogram.m15.max", "300", timestamp);
+        inOrder.verify(graphite).send("prefix.histogram.m15.p99", "300.00", timestamp);
+        inOrder.verify(graphite).flush();
+        verify(histogram, never()).getOneMinuteSnapshot();
+        verify(graphite, never()).send(startsWith("prefix.histogram.m1."), anyString(), anyLong());
+    }
+
+    @Test
+    public void reportsTheLongerWindowsOfWindowedTimersInTheDurationUnit() throws Exception {
+        final WindowedTimer timer = mock(WindowedTimer.class);
+        final Snapshot snapshot = snapshot(5, TimeUnit.MILLISECONDS.toNanos(100));
+        final Snapshot fiveMinuteSnapshot = snapshot(8, TimeUnit.MILLISECONDS.toNanos(200));
+        final Snapshot fifteenMinuteSnapshot = snapshot(10, TimeUnit.MILLISECONDS.toNanos(300));
+        when(timer.getSnapshot()).thenReturn(snapshot);
+        when(timer.getFiveMinuteSnapshot()).thenReturn(fiveMinuteSnapshot);
+        when(timer.getFifteenMinuteSnapshot()).thenReturn(fifteenMinuteSnapshot);
+
+        reporter.report(map(),
+            map(),
+            map(),
+            map(),
+            map("timer", timer));
+
+        final InOrder inOrder = inOrder(graphite);
+        inOrder.verify(graphite).send("prefix.timer.p99", "100.00", timestamp);
+        inOrder.verify(graphite).send("prefix.timer.m5.count", "8", timestamp);
+        inOrder.verify(graphite).send("prefix.timer.m5.p99", "200.00", timestamp);
+        inOrder.verify(graphite).send("prefix.timer.m15.count", "10", timestamp);
+        inOrder.verify(graphite).send("prefix.timer.m15.p99", "300.00", timestamp);
+        inOrder.verify(graphite).send("prefix.timer.count", "0", timestamp);
+        inOrder.verify(graphite).flush();
+        verify(timer, never()).getOneMinuteSnapshot();
+    }
+
     @Test
     public void closesConnectionIfGraphiteIsUnavailable() throws Exception {
         doThrow(new UnknownHostException("UNKNOWN-HOST")).when(graphite).connect();
@@ -475,6 +606,14 @@ public class GraphiteReporterTest {
         };
     }
 
+    private Snapshot snapshot(int size, long max) {
+        final Snapshot snapshot = mock(Snapshot.class);
+        when(snapshot.size()).thenReturn(size);
+        when(snapshot.getMax()).thenReturn(max);
+        when(snapshot.get99thPercentile()).thenReturn((double) max);
+        return snapshot;
+    }
+
     private <T> SortedMap<String, T> map() {
         return new TreeMap<>();
     }
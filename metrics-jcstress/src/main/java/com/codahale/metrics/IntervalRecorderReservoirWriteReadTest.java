@@ -0,0 +1,40 @@
+package com.codahale.metrics;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.IntResult2;
+
+@JCStressTest
+@Outcome(id = "0, 2", expect = Expect.ACCEPTABLE)
+@Outcome(id = "1, 1", expect = Expect.ACCEPTABLE)
+@Outcome(id = "2, 0", expect = Expect.ACCEPTABLE)
+@State
+public class IntervalRecorderReservoirWriteReadTest {
+
+    private final IntervalRecorderReservoir reservoir = new IntervalRecorderReservoir();
+
+    @Actor
+    public void actor1() {
+        reservoir.update(31L);
+    }
+
+    @Actor
+    public void actor2() {
+        reservoir.update(15L);
+    }
+
+    @Actor
+    public void actor3(IntResult2 r) {
+        r.r1 = reservoir.getSnapshot().size();
+    }
+
+    @Arbiter
+    public void arbiter(IntResult2 r) {
+        r.r2 = reservoir.getSnapshot().size();
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.codahale.metrics;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.StringResult1;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@JCStressTest
+@Outcome(
+    id = "\\[240, 241, 242, 243, 244, 245, 246, 247, 248, 249\\]",
+    expect = Expect.ACCEPTABLE,
+    desc = "Actor1 made read before Actor2 even started"
+    )
+@Outcome(
+    id = "\\[240, 241, 242, 244, 245, 246, 247, 248, 249\\]",
+    expect = Expect.ACCEPTABLE,
+    desc = "Actor1 read the old time, but Actor2 recycled the slice of 243 before Actor1 copied it"
+    )
+@Outcome(
+    id = "\\[244, 245, 246, 247, 248, 249\\]",
+    expect = Expect.ACCEPTABLE,
+    desc = "Actor1 read the new time, but Actor2 had not written 253 yet"
+    )
+@Outcome(
+    id = "\\[244, 245, 246, 247, 248, 249, 253\\]",
+    expect = Expect.ACCEPTABLE,
+    desc = "Actor2 made update before Actor1 even started"
+    )
+@State
+public class SlidingTimeWindowRingReservoirRotateReadTest {
+    private final AtomicLong ticks = new AtomicLong(0);
+    private final SlidingTimeWindowRingReservoir reservoir;
+
+    public SlidingTimeWindowRingReservoirRotateReadTest() {
+        reservoir = new SlidingTimeWindowRingReservoir(10, TimeUnit.NANOSECONDS, 10, new Clock() {
+            @Override
+            public long getTick() {
+                return ticks.get();
+            }
+        });
+
+        for (int i = 0; i < 250; i++) {
+            ticks.set(i);
+            reservoir.update(i);
+        }
+    }
+
+    @Actor
+    public void actor1(StringResult1 r) {
+        Snapshot snapshot = reservoir.getSnapshot();
+        String stringValues = Arrays.toString(snapshot.getValues());
+        r.r1 = stringValues;
+    }
+
+    @Actor
+    public void actor2() {
+        ticks.set(253);
+        reservoir.update(253);
+    }
+}
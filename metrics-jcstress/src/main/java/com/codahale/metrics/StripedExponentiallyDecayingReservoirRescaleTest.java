@@ -0,0 +1,57 @@
+package com.codahale.metrics;
+
+import org.openjdk.jcstress.annotations.Actor;
+import org.openjdk.jcstress.annotations.Arbiter;
+import org.openjdk.jcstress.annotations.Expect;
+import org.openjdk.jcstress.annotations.JCStressTest;
+import org.openjdk.jcstress.annotations.Outcome;
+import org.openjdk.jcstress.annotations.State;
+import org.openjdk.jcstress.infra.results.StringResult1;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@JCStressTest
+@Outcome(
+    id = "\\[15, 31\\] true",
+    expect = Expect.ACCEPTABLE,
+    desc = "Moving the landmark neither lost a concurrent update nor corrupted its weight"
+    )
+@State
+public class StripedExponentiallyDecayingReservoirRescaleTest {
+    private final AtomicLong ticks = new AtomicLong(0);
+    private final StripedExponentiallyDecayingReservoir reservoir;
+
+    public StripedExponentiallyDecayingReservoirRescaleTest() {
+        reservoir = new StripedExponentiallyDecayingReservoir(10, 0.015, new Clock() {
+            @Override
+            public long getTick() {
+                return ticks.get();
+            }
+
+            @Override
+            public long getTime() {
+                return TimeUnit.NANOSECONDS.toMillis(ticks.get());
+            }
+        });
+    }
+
+    @Actor
+    public void actor1() {
+        reservoir.update(31L);
+    }
+
+    @Actor
+    public void actor2() {
+        ticks.set(TimeUnit.HOURS.toNanos(2));
+        reservoir.update(15L);
+    }
+
+    @Arbiter
+    public void arbiter(StringResult1 r) {
+        Snapshot snapshot = reservoir.getSnapshot();
+        double mean = snapshot.getMean();
+        r.r1 = Arrays.toString(snapshot.getValues()) + " " + (mean >= 15 && mean <= 31);
+    }
+}
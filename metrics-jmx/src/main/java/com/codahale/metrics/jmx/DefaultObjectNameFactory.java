@@ -1,7 +1,12 @@
 package com.codahale.metrics.jmx;
 
+import com.codahale.metrics.MetricName;
+
 import javax.management.MalformedObjectNameException;
 import javax.management.ObjectName;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,4 +33,46 @@ public class DefaultObjectNameFactory implements ObjectNameFactory {
         }
     }
 
+    /**
+     * Creates the name of the MBean from the dotted name of the metric, with a key property for every
+     * tag. A tag whose key is already a property of the name, or is not a valid key, has its key
+     * prefixed or its invalid characters replaced with underscores.
+     */
+    @Override
+    public ObjectName createName(String type, String domain, MetricName name) {
+        final ObjectName base = createName(type, domain, name.getName());
+        final Set<String> keys = new HashSet<>(base.getKeyPropertyList().keySet());
+        final StringBuilder properties = new StringBuilder(base.getDomain())
+                .append(':').append(base.getKeyPropertyListString());
+        for (Map.Entry<String, String> tag : name.getTags().entrySet()) {
+            String key = tag.getKey().replace(':', '_').replace('*', '_').replace('?', '_')
+                    .replace(',', '_').replace('=', '_');
+            while (!keys.add(key)) {
+                key = "_" + key;
+            }
+            properties.append(',').append(key).append('=').append(quoteIfNeeded(tag.getValue()));
+        }
+        try {
+            return new ObjectName(properties.toString());
+        } catch (MalformedObjectNameException e) {
+            LOGGER.warn("Unable to register {} {}", type, name, e);
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static String quoteIfNeeded(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            switch (value.charAt(i)) {
+                case ',':
+                case '=':
+                case ':':
+                case '"':
+                case '*':
+                case '?':
+                    return ObjectName.quote(value);
+                default:
+            }
+        }
+        return value;
+    }
 }
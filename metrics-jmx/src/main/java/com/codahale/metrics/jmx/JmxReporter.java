@@ -1,11 +1,13 @@
 package com.codahale.metrics.jmx;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.FixedBucketHistogram;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.Metered;
 import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.MetricName;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.MetricRegistryListener;
 import com.codahale.metrics.Reporter;
@@ -27,6 +29,7 @@ import java.util.Locale;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 
 /**
  * A reporter which listens for new metrics and exposes them as namespaced MBeans.
@@ -328,6 +331,32 @@ public class JmxReporter implements Reporter, Closeable {
         }
     }
 
+    @SuppressWarnings("UnusedDeclaration")
+    public interface JmxFixedBucketHistogramMBean extends JmxHistogramMBean {
+        long[] getBucketBounds();
+
+        long[] getCumulativeBucketCounts();
+    }
+
+    private static class JmxFixedBucketHistogram extends JmxHistogram implements JmxFixedBucketHistogramMBean {
+        private final FixedBucketHistogram metric;
+
+        private JmxFixedBucketHistogram(FixedBucketHistogram metric, ObjectName objectName) {
+            super(metric, objectName);
+            this.metric = metric;
+        }
+
+        @Override
+        public long[] getBucketBounds() {
+            return metric.getBucketBounds();
+        }
+
+        @Override
+        public long[] getCumulativeBucketCounts() {
+            return metric.getCumulativeBucketCounts();
+        }
+    }
+
     @SuppressWarnings("UnusedDeclaration")
     public interface JmxMeterMBean extends MetricMBean {
         long getCount();
@@ -501,14 +530,20 @@ public class JmxReporter implements Reporter, Closeable {
         private final MetricTimeUnits timeUnits;
         private final Map<ObjectName, ObjectName> registered;
         private final ObjectNameFactory objectNameFactory;
+        private final MetricRegistry registry;
+        // the renderers of tagged names, by metric type, whose object names the tagged names keep
+        private final Map<String, Function<MetricName, ObjectName>> taggedNameRenderers;
 
-        private JmxListener(MBeanServer mBeanServer, String name, MetricFilter filter, MetricTimeUnits timeUnits, ObjectNameFactory objectNameFactory) {
+        private JmxListener(MBeanServer mBeanServer, String name, MetricFilter filter, MetricTimeUnits timeUnits,
+                            ObjectNameFactory objectNameFactory, MetricRegistry registry) {
             this.mBeanServer = mBeanServer;
             this.name = name;
             this.filter = filter;
             this.timeUnits = timeUnits;
             this.registered = new ConcurrentHashMap<>();
             this.objectNameFactory = objectNameFactory;
+            this.registry = registry;
+            this.taggedNameRenderers = new ConcurrentHashMap<>();
         }
 
         private void registerMBean(Object mBean, ObjectName objectName) throws InstanceAlreadyExistsException, JMException {
@@ -589,7 +624,11 @@ public class JmxReporter implements Reporter, Closeable {
             try {
                 if (filter.matches(name, histogram)) {
                     final ObjectName objectName = createName("histograms", name);
-                    registerMBean(new JmxHistogram(histogram, objectName), objectName);
+                    if (histogram instanceof FixedBucketHistogram) {
+                        registerMBean(new JmxFixedBucketHistogram((FixedBucketHistogram) histogram, objectName), objectName);
+                    } else {
+                        registerMBean(new JmxHistogram(histogram, objectName), objectName);
+                    }
                 }
             } catch (InstanceAlreadyExistsException e) {
                 LOGGER.debug("Unable to register histogram", e);
@@ -663,6 +702,11 @@ public class JmxReporter implements Reporter, Closeable {
         }
 
         private ObjectName createName(String type, String name) {
+            final MetricName tagged = registry.getTaggedName(name);
+            if (tagged != null) {
+                return tagged.render(taggedNameRenderers.computeIfAbsent(type,
+                        t -> metricName -> objectNameFactory.createName(t, this.name, metricName)));
+            }
             return objectNameFactory.createName(type, this.name, name);
         }
 
@@ -715,7 +759,7 @@ public class JmxReporter implements Reporter, Closeable {
                         MetricTimeUnits timeUnits,
                         ObjectNameFactory objectNameFactory) {
         this.registry = registry;
-        this.listener = new JmxListener(mBeanServer, domain, filter, timeUnits, objectNameFactory);
+        this.listener = new JmxListener(mBeanServer, domain, filter, timeUnits, objectNameFactory, registry);
     }
 
     /**
@@ -1,8 +1,23 @@
 package com.codahale.metrics.jmx;
 
+import com.codahale.metrics.MetricName;
+
 import javax.management.ObjectName;
 
 public interface ObjectNameFactory {
 
     ObjectName createName(String type, String domain, String name);
+
+    /**
+     * Creates the name of the MBean of a metric whose name has tags. By default the tags are not
+     * rendered on their own, and the name is created from the metric's key.
+     *
+     * @param type   the type of the metric
+     * @param domain the domain of the MBean
+     * @param name   the tagged name of the metric
+     * @return the name of the MBean
+     */
+    default ObjectName createName(String type, String domain, MetricName name) {
+        return createName(type, domain, name.getKey());
+    }
 }
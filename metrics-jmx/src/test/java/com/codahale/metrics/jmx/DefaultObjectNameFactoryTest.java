@@ -1,5 +1,6 @@
 package com.codahale.metrics.jmx;
 
+import com.codahale.metrics.MetricName;
 import org.junit.Test;
 
 import javax.management.ObjectName;
@@ -21,4 +22,15 @@ public class DefaultObjectNameFactoryTest {
         ObjectName on = f.createName("type", "com.domain", "something.with.dots");
         assertThat(on.getKeyProperty("name")).isEqualTo("something.with.dots");
     }
+
+    @Test
+    public void createsObjectNameWithAKeyPropertyPerTag() {
+        DefaultObjectNameFactory f = new DefaultObjectNameFactory();
+        ObjectName on = f.createName("type", "com.domain",
+                MetricName.of("requests").tagged("tenant", "acme", "endpoint", "/a:b", "name", "other"));
+        assertThat(on.getKeyProperty("name")).isEqualTo("requests");
+        assertThat(on.getKeyProperty("tenant")).isEqualTo("acme");
+        assertThat(on.getKeyProperty("endpoint")).isEqualTo(ObjectName.quote("/a:b"));
+        assertThat(on.getKeyProperty("_name")).isEqualTo("other");
+    }
 }
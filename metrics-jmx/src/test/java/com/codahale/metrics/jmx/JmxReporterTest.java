@@ -1,10 +1,12 @@
 package com.codahale.metrics.jmx;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.FixedBucketHistogram;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.MetricName;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Snapshot;
 import com.codahale.metrics.Timer;
@@ -193,6 +195,41 @@ public class JmxReporterTest {
                 .contains(entry("SnapshotSize", 1L));
     }
 
+    @Test
+    public void registersMBeansForFixedBucketHistograms() throws Exception {
+        final FixedBucketHistogram buckets = registry.fixedBucketHistogram("test.buckets", 10, 50);
+        buckets.update(5);
+        buckets.update(20);
+        buckets.update(60);
+
+        final SortedMap<String, Object> values = values(getAttributes("test.buckets",
+                "Count",
+                "BucketBounds",
+                "CumulativeBucketCounts"));
+
+        assertThat(values)
+                .contains(entry("Count", 3L));
+        assertThat((long[]) values.get("BucketBounds"))
+                .containsExactly(10, 50);
+        assertThat((long[]) values.get("CumulativeBucketCounts"))
+                .containsExactly(1, 2, 3);
+    }
+
+    @Test
+    public void registersMBeansForTaggedMetricsWithAKeyPropertyPerTag() throws Exception {
+        final MetricName tagged = MetricName.of("test.requests").tagged("tenant", "acme");
+        registry.counter(tagged).inc(3);
+
+        final ObjectName objectName = new ObjectName(name + ":name=test.requests,tenant=acme");
+        assertThat(mBeanServer.getAttribute(objectName, "Count"))
+                .isEqualTo(3L);
+
+        registry.remove(tagged);
+
+        assertThat(mBeanServer.isRegistered(objectName))
+                .isFalse();
+    }
+
     @Test
     public void registersMBeansForMeters() throws Exception {
         final AttributeList attributes = getAttributes("test.meter",
@@ -1,10 +1,12 @@
 package com.codahale.metrics.json;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.FixedBucketHistogram;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.MetricName;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Snapshot;
 import com.codahale.metrics.Timer;
@@ -17,7 +19,12 @@ import com.fasterxml.jackson.databind.ser.std.StdSerializer;
 
 import java.io.IOException;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.TreeMap;
 import java.util.concurrent.TimeUnit;
 
 public class MetricsModule extends Module {
@@ -99,6 +106,22 @@ public class MetricsModule extends Module {
             }
 
             json.writeNumberField("stddev", snapshot.getStdDev());
+
+            if (histogram instanceof FixedBucketHistogram) {
+                writeBuckets((FixedBucketHistogram) histogram, json);
+            }
+            json.writeEndObject();
+        }
+
+        // the cumulative counts, keyed by their inclusive upper bound
+        private void writeBuckets(FixedBucketHistogram histogram, JsonGenerator json) throws IOException {
+            final long[] bounds = histogram.getBucketBounds();
+            final long[] counts = histogram.getCumulativeBucketCounts();
+            json.writeObjectFieldStart("buckets");
+            for (int i = 0; i < bounds.length; i++) {
+                json.writeNumberField(Long.toString(bounds[i]), counts[i]);
+            }
+            json.writeNumberField("+Inf", counts[bounds.length]);
             json.writeEndObject();
         }
     }
@@ -205,13 +228,53 @@ public class MetricsModule extends Module {
         public void serialize(MetricRegistry registry,
                               JsonGenerator json,
                               SerializerProvider provider) throws IOException {
+            @SuppressWarnings("rawtypes")
+            final SortedMap<String, Gauge> gauges = registry.getGauges(filter);
+            final SortedMap<String, Counter> counters = registry.getCounters(filter);
+            final SortedMap<String, Histogram> histograms = registry.getHistograms(filter);
+            final SortedMap<String, Meter> meters = registry.getMeters(filter);
+            final SortedMap<String, Timer> timers = registry.getTimers(filter);
             json.writeStartObject();
             json.writeStringField("version", VERSION.toString());
-            json.writeObjectField("gauges", registry.getGauges(filter));
-            json.writeObjectField("counters", registry.getCounters(filter));
-            json.writeObjectField("histograms", registry.getHistograms(filter));
-            json.writeObjectField("meters", registry.getMeters(filter));
-            json.writeObjectField("timers", registry.getTimers(filter));
+            json.writeObjectField("gauges", gauges);
+            json.writeObjectField("counters", counters);
+            json.writeObjectField("histograms", histograms);
+            json.writeObjectField("meters", meters);
+            json.writeObjectField("timers", timers);
+            writeTaggedNames(registry, json, Arrays.asList(gauges.keySet(), counters.keySet(),
+                    histograms.keySet(), meters.keySet(), timers.keySet()));
+            json.writeEndObject();
+        }
+
+        /*
+         * Writes the dotted name and the tags of every tagged metric, by key, if there are any.
+         */
+        private void writeTaggedNames(MetricRegistry registry,
+                                      JsonGenerator json,
+                                      List<Set<String>> sections) throws IOException {
+            final TreeMap<String, MetricName> tagged = new TreeMap<>();
+            for (Set<String> keys : sections) {
+                for (String key : keys) {
+                    final MetricName name = registry.getTaggedName(key);
+                    if (name != null) {
+                        tagged.put(key, name);
+                    }
+                }
+            }
+            if (tagged.isEmpty()) {
+                return;
+            }
+            json.writeObjectFieldStart("tagged");
+            for (Map.Entry<String, MetricName> entry : tagged.entrySet()) {
+                json.writeObjectFieldStart(entry.getKey());
+                json.writeStringField("name", entry.getValue().getName());
+                json.writeObjectFieldStart("tags");
+                for (Map.Entry<String, String> tag : entry.getValue().getTags().entrySet()) {
+                    json.writeStringField(tag.getKey(), tag.getValue());
+                }
+                json.writeEndObject();
+                json.writeEndObject();
+            }
             json.writeEndObject();
         }
     }
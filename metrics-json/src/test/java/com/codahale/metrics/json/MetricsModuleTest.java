@@ -1,10 +1,12 @@
 package com.codahale.metrics.json;
 
 import com.codahale.metrics.Counter;
+import com.codahale.metrics.FixedBucketHistogram;
 import com.codahale.metrics.Gauge;
 import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricFilter;
+import com.codahale.metrics.MetricName;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Snapshot;
 import com.codahale.metrics.Timer;
@@ -101,6 +103,18 @@ public class MetricsModuleTest {
                         "\"stddev\":5.0}");
     }
 
+    @Test
+    public void serializesTheCumulativeBucketCountsOfFixedBucketHistograms() throws Exception {
+        final FixedBucketHistogram histogram = new FixedBucketHistogram(10, 50);
+        histogram.update(5);
+        histogram.update(20);
+        histogram.update(40);
+        histogram.update(60);
+
+        assertThat(mapper.writeValueAsString(histogram))
+                .endsWith("\"buckets\":{\"10\":1,\"50\":3,\"+Inf\":4}}");
+    }
+
     @Test
     public void serializesMeters() throws Exception {
         final Meter meter = mock(Meter.class);
@@ -207,4 +221,31 @@ public class MetricsModuleTest {
                         "\"meters\":{}," +
                         "\"timers\":{}}");
     }
+
+    @Test
+    public void serializesTheTagsOfTaggedMetrics() throws Exception {
+        final MetricRegistry registry = new MetricRegistry();
+        registry.counter(MetricName.of("requests").tagged("tenant", "acme", "endpoint", "/\"users\""));
+
+        assertThat(mapper.writeValueAsString(registry))
+                .isEqualTo("{" +
+                        "\"version\":\"4.0.0\"," +
+                        "\"gauges\":{}," +
+                        "\"counters\":{\"requests{endpoint=/\\\"users\\\",tenant=acme}\":{\"count\":0}}," +
+                        "\"histograms\":{}," +
+                        "\"meters\":{}," +
+                        "\"timers\":{}," +
+                        "\"tagged\":{\"requests{endpoint=/\\\"users\\\",tenant=acme}\":" +
+                        "{\"name\":\"requests\",\"tags\":{\"endpoint\":\"/\\\"users\\\"\",\"tenant\":\"acme\"}}}}");
+    }
+
+    @Test
+    public void prettyPrintsTheTagsOfTaggedMetrics() throws Exception {
+        final MetricRegistry registry = new MetricRegistry();
+        registry.counter(MetricName.of("requests").tagged("tenant", "acme"));
+
+        assertThat(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(registry))
+                .contains("\"name\" : \"requests\"")
+                .contains("\"tenant\" : \"acme\"");
+    }
 }